@@ -9,9 +9,11 @@ import com.callableapis.api.handlers.UserResource;
 import com.callableapis.api.health.HealthResource;
 import com.callableapis.api.security.BearerAuthFilter;
 import com.callableapis.api.di.AppBinder;
+import com.callableapis.api.web.ConditionalGetFilter;
 import com.callableapis.api.web.NotFoundRedirectMapper;
 import com.callableapis.api.web.NotFoundRedirectFilter;
 import com.callableapis.api.web.FallbackResource;
+import com.callableapis.api.web.ShutdownListener;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.mvc.jsp.JspMvcFeature;
 
@@ -28,6 +30,10 @@ public class APIApplication extends ResourceConfig {
         register(DebugResource.class);
         // Filters
         register(BearerAuthFilter.class);
+        register(ConditionalGetFilter.class);
+
+        // Lifecycle
+        register(ShutdownListener.class);
 
         // Dependency injection bindings
         register(new AppBinder());
@@ -99,6 +99,88 @@ public final class AppConfig {
         }
     }
 
+    public static String getAstronomyPrecision() {
+        return parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/astronomy-precision", 
+            "ASTRONOMY_PRECISION", 
+            "exact"
+        );
+    }
+
+    public static String getSkyTableDir() {
+        return parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/sky-table-dir", 
+            "SKY_TABLE_DIR", 
+            System.getProperty("java.io.tmpdir") + "/callableapis-sky"
+        );
+    }
+
+    public static int getSkyTableWindowDays() {
+        String value = parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/sky-table-window-days", 
+            "SKY_TABLE_WINDOW_DAYS", 
+            "14"
+        );
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return 14;
+        }
+    }
+
+    public static int getSkyTableMaxSites() {
+        return (int) parseLong(parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/sky-table-max-sites", 
+            "SKY_TABLE_MAX_SITES", 
+            "1000"
+        ), 1000L);
+    }
+
+    public static double getAstronomyCacheLocationQuantumDeg() {
+        String value = parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/astronomy-cache-location-quantum-deg", 
+            "ASTRONOMY_CACHE_LOCATION_QUANTUM_DEG", 
+            "0.01"
+        );
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            return 0.01;
+        }
+    }
+
+    public static long getAstronomyCacheTimeQuantumSeconds() {
+        return parseLong(parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/astronomy-cache-time-quantum-seconds", 
+            "ASTRONOMY_CACHE_TIME_QUANTUM_SECONDS", 
+            "60"
+        ), 60L);
+    }
+
+    public static long getAstronomyCacheMaxEntries() {
+        return parseLong(parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/astronomy-cache-max-entries", 
+            "ASTRONOMY_CACHE_MAX_ENTRIES", 
+            "100000"
+        ), 100_000L);
+    }
+
+    public static long getAstronomyCacheTtlSeconds() {
+        return parseLong(parameterStore.getParameterWithEnvFallback(
+            "/callableapis/api/astronomy-cache-ttl-seconds", 
+            "ASTRONOMY_CACHE_TTL_SECONDS", 
+            "600"
+        ), 600L);
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
     public static URI getGithubAuthorizeUri(String state) {
         String authorize = "https://github.com/login/oauth/authorize" +
                 "?client_id=" + urlEncode(getGithubClientId()) +
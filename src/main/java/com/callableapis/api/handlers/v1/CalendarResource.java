@@ -3,8 +3,14 @@ package com.callableapis.api.handlers.v1;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import com.callableapis.api.time.DateTimeService;
+import com.callableapis.api.web.ConditionalGet;
+import com.callableapis.api.web.ConditionalGetFilter;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 
@@ -54,8 +60,10 @@ public class CalendarResource {
     @Path("date")
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public DateStruct getDateAsStruct() {
-        ZonedDateTime now = dateTimeService.nowUtc();
+    @ConditionalGet(periodSeconds = 86400L) // the date changes at UTC midnight
+    public DateStruct getDateAsStruct(@Context ContainerRequestContext request) {
+        long at = ConditionalGetFilter.periodStart(request, dateTimeService.nowEpochSecond());
+        ZonedDateTime now = ZonedDateTime.ofInstant(Instant.ofEpochSecond(at), ZoneOffset.UTC);
         int zeroBasedMonth = now.getMonthValue() - 1; // preserve v1 0-based month
         return new DateStruct(
             now.getYear(),
@@ -63,4 +71,9 @@ public class CalendarResource {
             now.getDayOfMonth()
         );
     }
+
+    // Outside a request there is no pinned period, so this reads the clock
+    public DateStruct getDateAsStruct() {
+        return getDateAsStruct(null);
+    }
 }
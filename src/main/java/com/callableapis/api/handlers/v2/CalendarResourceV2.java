@@ -1,21 +1,98 @@
 package com.callableapis.api.handlers.v2;
 
+import com.callableapis.api.config.AppConfig;
+import com.callableapis.api.time.BusinessCalendar;
+import com.callableapis.api.time.BusinessCalendarRegistry;
 import com.callableapis.api.time.DateTimeService;
+import com.callableapis.api.time.EpochCalendar;
 import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.DayLengthTable;
+import com.callableapis.api.time.InsolationService;
+import com.callableapis.api.time.MoonEventService;
+import com.callableapis.api.time.MoonPhaseEventService;
+import com.callableapis.api.time.PlanetEphemeris;
+import com.callableapis.api.time.PlanetService;
+import com.callableapis.api.time.QuantizedAstronomyCache;
+import com.callableapis.api.time.RecurrenceRule;
+import com.callableapis.api.time.SkyConstraintSearch;
+import com.callableapis.api.time.SkyTableStore;
+import com.callableapis.api.time.SolarEventService;
+import com.callableapis.api.time.ZoneOffsetTable;
+import com.callableapis.api.web.ConditionalGet;
+import com.callableapis.api.web.ConditionalGetFilter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PrimitiveIterator;
+import java.util.Set;
 
 @Path("/v2/calendar")
 public class CalendarResourceV2 {
 
 	private final DateTimeService dateTimeService = new DateTimeService();
 	private final AstronomyService astronomyService = new AstronomyService();
+	private final SolarEventService solarEventService = new SolarEventService();
+	private final MoonEventService moonEventService = new MoonEventService();
+	private final InsolationService insolationService = new InsolationService();
+	private final MoonPhaseEventService moonPhaseEventService = new MoonPhaseEventService();
+	private final PlanetService planetService = new PlanetService();
+	private final SkyConstraintSearch skyConstraintSearch = new SkyConstraintSearch();
+
+	// Upper bound on points accepted by a single batch request
+	private static final int MAX_BATCH_POINTS = 1_000_000;
+	// Upper bound on samples in a single time series (a leap year at 1-minute resolution fits)
+	private static final long MAX_SERIES_SAMPLES = 1_100_000L;
+	// Upper bound on days in a single event query
+	private static final long MAX_EVENT_DAYS = 3660L;
+	// Upper bound on the span of a single phase-event query (about 500 years)
+	private static final long MAX_PHASE_EVENT_SECONDS = 500L * 366L * 86400L;
+	// Streaming (NDJSON) variants keep memory constant, so they accept much longer ranges
+	private static final long MAX_STREAM_SERIES_SAMPLES = 60_000_000L;
+	private static final long MAX_STREAM_EVENT_DAYS = 366_000L;
+	private static final long MAX_STREAM_PHASE_EVENT_SECONDS = 5000L * 366L * 86400L;
+	private static final long MAX_ENUMERATE_ITEMS = 10_000L;
+	private static final long MAX_STREAM_ENUMERATE_ITEMS = 10_000_000L;
+	// Current moon phase is published per minute (illumination moves < 0.001% per minute)
+	private static final long MOON_PHASE_PERIOD_SECONDS = 60L;
+	// Upper bound on site-days integrated by a single insolation request (500 sites for about 5 years)
+	private static final long MAX_INSOLATION_SITE_DAYS = 1_000_000L;
+	// Upper bound on cells in a single day-length matrix (the whole table)
+	private static final long MAX_DAY_LENGTH_CELLS = (long) DayLengthTable.LATITUDE_ROWS * 366L;
+	// Upper bound on the span and constraint count of a single sky search
+	private static final long MAX_SEARCH_SECONDS = 366L * 86400L;
+	private static final int MAX_SEARCH_CONSTRAINTS = 8;
+	// Finest raster resolution in degrees (1800 x 3600 cells, ~26 MB)
+	private static final double MIN_RASTER_RESOLUTION_DEG = 0.1;
+	// Upper bound on dated holidays plus workdays in one uploaded business calendar
+	private static final int MAX_CALENDAR_DATES = 100_000;
 
 	public static class DateTimeStruct {
 		int year;
@@ -24,7 +101,9 @@ public class CalendarResourceV2 {
 		int hour;
 		int minute;
 		int second;
-		String iso;
+		String zone;
+		String offset;
+		String iso; // always UTC
 
 		public DateTimeStruct() {
 		}
@@ -36,6 +115,8 @@ public class CalendarResourceV2 {
 			this.hour = zdt.getHour();
 			this.minute = zdt.getMinute();
 			this.second = zdt.getSecond();
+			this.zone = zdt.getZone().getId();
+			this.offset = zdt.getOffset().getId();
 			this.iso = zdt.withZoneSameInstant(ZoneOffset.UTC).toString();
 		}
 
@@ -51,6 +132,10 @@ public class CalendarResourceV2 {
 		public void setMinute(int minute) { this.minute = minute; }
 		public int getSecond() { return second; }
 		public void setSecond(int second) { this.second = second; }
+		public String getZone() { return zone; }
+		public void setZone(String zone) { this.zone = zone; }
+		public String getOffset() { return offset; }
+		public void setOffset(String offset) { this.offset = offset; }
 		public String getIso() { return iso; }
 		public void setIso(String iso) { this.iso = iso; }
 	}
@@ -62,6 +147,7 @@ public class CalendarResourceV2 {
 		Integer hour;
 		Integer minute;
 		Integer second;
+		String zone; // IANA id or offset such as +05:30; fields are wall-clock time there, default UTC
 
 		public Integer getYear() { return year; }
 		public void setYear(Integer year) { this.year = year; }
@@ -75,6 +161,8 @@ public class CalendarResourceV2 {
 		public void setMinute(Integer minute) { this.minute = minute; }
 		public Integer getSecond() { return second; }
 		public void setSecond(Integer second) { this.second = second; }
+		public String getZone() { return zone; }
+		public void setZone(String zone) { this.zone = zone; }
 	}
 
 	private static BaseDateTime copyBase(BaseDateTime in) {
@@ -88,6 +176,7 @@ public class CalendarResourceV2 {
 		out.hour = in.hour;
 		out.minute = in.minute;
 		out.second = in.second;
+		out.zone = in.zone;
 		return out;
 	}
 
@@ -147,9 +236,11 @@ public class CalendarResourceV2 {
 	@GET
 	@Path("date")
 	@Produces(MediaType.APPLICATION_JSON)
-	public DateTimeStruct getDateTime() {
-		ZonedDateTime now = dateTimeService.nowUtc();
-		return new DateTimeStruct(now);
+	@ConditionalGet(periodSeconds = 1L)
+	public DateTimeStruct getDateTime(@QueryParam("zone") String zone, @Context ContainerRequestContext request) {
+		// The second pinned by the conditional-GET filter, so the body matches its ETag
+		long at = ConditionalGetFilter.periodStart(request, dateTimeService.nowEpochSecond());
+		return new DateTimeStruct(ZonedDateTime.ofInstant(Instant.ofEpochSecond(at), zoneOf(zone)));
 	}
 
 	@POST
@@ -184,6 +275,547 @@ public class CalendarResourceV2 {
 		return new DiffResponse(r);
 	}
 
+	// Columnar add/subtract: epoch-second bases, each delta column absent, one value for every row, or one per row.
+	// Calendar fields move in the wall-clock time of zone (default UTC); hours, minutes and seconds are elapsed time
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class ShiftBatchRequest {
+		String zone;
+		long[] baseEpochSeconds;
+		int[] years;
+		int[] months;
+		int[] days;
+		int[] hours;
+		int[] minutes;
+		int[] seconds;
+		public String getZone() { return zone; }
+		public void setZone(String zone) { this.zone = zone; }
+		public long[] getBaseEpochSeconds() { return baseEpochSeconds; }
+		public void setBaseEpochSeconds(long[] baseEpochSeconds) { this.baseEpochSeconds = baseEpochSeconds; }
+		public int[] getYears() { return years; }
+		public void setYears(int[] years) { this.years = years; }
+		public int[] getMonths() { return months; }
+		public void setMonths(int[] months) { this.months = months; }
+		public int[] getDays() { return days; }
+		public void setDays(int[] days) { this.days = days; }
+		public int[] getHours() { return hours; }
+		public void setHours(int[] hours) { this.hours = hours; }
+		public int[] getMinutes() { return minutes; }
+		public void setMinutes(int[] minutes) { this.minutes = minutes; }
+		public int[] getSeconds() { return seconds; }
+		public void setSeconds(int[] seconds) { this.seconds = seconds; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class ShiftBatchResponse {
+		int count;
+		long[] epochSeconds;
+
+		public ShiftBatchResponse() {}
+
+		public ShiftBatchResponse(long[] epochSeconds) {
+			this.count = epochSeconds.length;
+			this.epochSeconds = epochSeconds;
+		}
+
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public long[] getEpochSeconds() { return epochSeconds; }
+		public void setEpochSeconds(long[] epochSeconds) { this.epochSeconds = epochSeconds; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class DiffBatchRequest {
+		long[] fromEpochSeconds;
+		long[] toEpochSeconds; // optional; if null, every row diffs to now
+		public long[] getFromEpochSeconds() { return fromEpochSeconds; }
+		public void setFromEpochSeconds(long[] fromEpochSeconds) { this.fromEpochSeconds = fromEpochSeconds; }
+		public long[] getToEpochSeconds() { return toEpochSeconds; }
+		public void setToEpochSeconds(long[] toEpochSeconds) { this.toEpochSeconds = toEpochSeconds; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class DiffBatchResponse {
+		int count;
+		long[] totalSeconds;
+		boolean[] inPast;
+		long[] days;
+		int[] hours;
+		int[] minutes;
+		int[] seconds;
+
+		public DiffBatchResponse() {}
+
+		public DiffBatchResponse(DateTimeService.DiffBatchResult r) {
+			this.count = r.size();
+			this.totalSeconds = r.totalSeconds;
+			this.inPast = r.inPast;
+			this.days = r.days;
+			this.hours = r.hours;
+			this.minutes = r.minutes;
+			this.seconds = r.seconds;
+		}
+
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public long[] getTotalSeconds() { return totalSeconds; }
+		public void setTotalSeconds(long[] totalSeconds) { this.totalSeconds = totalSeconds; }
+		public boolean[] getInPast() { return inPast; }
+		public void setInPast(boolean[] inPast) { this.inPast = inPast; }
+		public long[] getDays() { return days; }
+		public void setDays(long[] days) { this.days = days; }
+		public int[] getHours() { return hours; }
+		public void setHours(int[] hours) { this.hours = hours; }
+		public int[] getMinutes() { return minutes; }
+		public void setMinutes(int[] minutes) { this.minutes = minutes; }
+		public int[] getSeconds() { return seconds; }
+		public void setSeconds(int[] seconds) { this.seconds = seconds; }
+	}
+
+	@POST
+	@Path("add/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public ShiftBatchResponse addBatch(ShiftBatchRequest request) {
+		return new ShiftBatchResponse(dateTimeService.shiftBatch(shiftBases(request), deltaColumns(request), false, zoneOf(request.zone)));
+	}
+
+	@POST
+	@Path("subtract/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public ShiftBatchResponse subtractBatch(ShiftBatchRequest request) {
+		return new ShiftBatchResponse(dateTimeService.shiftBatch(shiftBases(request), deltaColumns(request), true, zoneOf(request.zone)));
+	}
+
+	@POST
+	@Path("diff/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public DiffBatchResponse diffBatch(DiffBatchRequest request) {
+		if (request == null || request.fromEpochSeconds == null) {
+			throw new IllegalArgumentException("fromEpochSeconds is required");
+		}
+		int n = request.fromEpochSeconds.length;
+		if (n > MAX_BATCH_POINTS) {
+			throw new IllegalArgumentException("at most " + MAX_BATCH_POINTS + " rows per batch");
+		}
+		long[] to = request.toEpochSeconds;
+		if (to == null) {
+			to = new long[n];
+			Arrays.fill(to, dateTimeService.nowEpochSecond());
+		}
+		return new DiffBatchResponse(dateTimeService.diffBatch(request.fromEpochSeconds, to));
+	}
+
+	// Instants (epochSeconds) or wall-clock times in fromZone (localEpochSeconds) to be shown in toZone
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class ConvertBatchRequest {
+		long[] epochSeconds;
+		long[] localEpochSeconds; // seconds since 1970-01-01T00:00 on the wall clock of fromZone
+		String fromZone;
+		String toZone;
+		public long[] getEpochSeconds() { return epochSeconds; }
+		public void setEpochSeconds(long[] epochSeconds) { this.epochSeconds = epochSeconds; }
+		public long[] getLocalEpochSeconds() { return localEpochSeconds; }
+		public void setLocalEpochSeconds(long[] localEpochSeconds) { this.localEpochSeconds = localEpochSeconds; }
+		public String getFromZone() { return fromZone; }
+		public void setFromZone(String fromZone) { this.fromZone = fromZone; }
+		public String getToZone() { return toZone; }
+		public void setToZone(String toZone) { this.toZone = toZone; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class ConvertBatchResponse {
+		int count;
+		String zone;
+		long[] epochSeconds;
+		long[] localEpochSeconds;
+		int[] offsetSeconds;
+
+		public ConvertBatchResponse() {}
+
+		public ConvertBatchResponse(ZoneId zone, DateTimeService.ConvertBatchResult r) {
+			this.count = r.size();
+			this.zone = zone.getId();
+			this.epochSeconds = r.epochSeconds;
+			this.localEpochSeconds = r.localEpochSeconds;
+			this.offsetSeconds = r.offsetSeconds;
+		}
+
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public String getZone() { return zone; }
+		public void setZone(String zone) { this.zone = zone; }
+		public long[] getEpochSeconds() { return epochSeconds; }
+		public void setEpochSeconds(long[] epochSeconds) { this.epochSeconds = epochSeconds; }
+		public long[] getLocalEpochSeconds() { return localEpochSeconds; }
+		public void setLocalEpochSeconds(long[] localEpochSeconds) { this.localEpochSeconds = localEpochSeconds; }
+		public int[] getOffsetSeconds() { return offsetSeconds; }
+		public void setOffsetSeconds(int[] offsetSeconds) { this.offsetSeconds = offsetSeconds; }
+	}
+
+	// Offsets come from each zone's cached transition table; local times in a gap move forward,
+	// and in an overlap take the earlier offset
+	@POST
+	@Path("convert/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public ConvertBatchResponse convertBatch(ConvertBatchRequest request) {
+		if (request == null || (request.epochSeconds == null) == (request.localEpochSeconds == null)) {
+			throw new IllegalArgumentException("exactly one of epochSeconds and localEpochSeconds is required");
+		}
+		long[] in = request.epochSeconds != null ? request.epochSeconds : request.localEpochSeconds;
+		if (in.length > MAX_BATCH_POINTS) {
+			throw new IllegalArgumentException("at most " + MAX_BATCH_POINTS + " rows per batch");
+		}
+		ZoneId to = zoneOf(request.toZone);
+		long[] instants = request.epochSeconds != null
+				? request.epochSeconds
+				: dateTimeService.fromLocalBatch(request.localEpochSeconds, zoneOf(request.fromZone)).epochSeconds;
+		return new ConvertBatchResponse(to, dateTimeService.toLocalBatch(instants, to));
+	}
+
+	private static long[] shiftBases(ShiftBatchRequest request) {
+		if (request == null || request.baseEpochSeconds == null) {
+			throw new IllegalArgumentException("baseEpochSeconds is required");
+		}
+		if (request.baseEpochSeconds.length > MAX_BATCH_POINTS) {
+			throw new IllegalArgumentException("at most " + MAX_BATCH_POINTS + " rows per batch");
+		}
+		return request.baseEpochSeconds;
+	}
+
+	private static DateTimeService.DeltaColumns deltaColumns(ShiftBatchRequest request) {
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.years = request.years;
+		d.months = request.months;
+		d.days = request.days;
+		d.hours = request.hours;
+		d.minutes = request.minutes;
+		d.seconds = request.seconds;
+		return d;
+	}
+
+	public static class BusinessAddRequest {
+		String calendar; // defaults to weekends
+		BaseDateTime base;
+		long days; // negative counts backwards
+
+		public String getCalendar() { return calendar; }
+		public void setCalendar(String calendar) { this.calendar = calendar; }
+		public BaseDateTime getBase() { return copyBase(base); }
+		public void setBase(BaseDateTime base) { this.base = copyBase(base); }
+		public long getDays() { return days; }
+		public void setDays(long days) { this.days = days; }
+	}
+
+	public static class BusinessCountRequest {
+		String calendar;
+		BaseDateTime from;
+		BaseDateTime to; // exclusive
+
+		public String getCalendar() { return calendar; }
+		public void setCalendar(String calendar) { this.calendar = calendar; }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+	}
+
+	public static class BusinessCountResponse {
+		String calendar;
+		long businessDays;
+		long calendarDays;
+
+		public String getCalendar() { return calendar; }
+		public void setCalendar(String calendar) { this.calendar = calendar; }
+		public long getBusinessDays() { return businessDays; }
+		public void setBusinessDays(long businessDays) { this.businessDays = businessDays; }
+		public long getCalendarDays() { return calendarDays; }
+		public void setCalendarDays(long calendarDays) { this.calendarDays = calendarDays; }
+	}
+
+	// Custom calendar upload: rules of a built-in calendar plus dated holidays and weekend working days
+	public static class BusinessCalendarRequest {
+		String name;
+		String base; // built-in calendar whose rules apply; defaults to weekends
+		List<String> weekend; // day names; defaults to SATURDAY and SUNDAY
+		List<String> holidays = new ArrayList<>(); // ISO dates
+		List<String> workdays = new ArrayList<>(); // ISO dates
+
+		public String getName() { return name; }
+		public void setName(String name) { this.name = name; }
+		public String getBase() { return base; }
+		public void setBase(String base) { this.base = base; }
+		public List<String> getWeekend() { return weekend == null ? null : new ArrayList<>(weekend); }
+		public void setWeekend(List<String> weekend) { this.weekend = weekend == null ? null : new ArrayList<>(weekend); }
+		public List<String> getHolidays() { return new ArrayList<>(holidays); }
+		public void setHolidays(List<String> holidays) { this.holidays = holidays == null ? new ArrayList<>() : new ArrayList<>(holidays); }
+		public List<String> getWorkdays() { return new ArrayList<>(workdays); }
+		public void setWorkdays(List<String> workdays) { this.workdays = workdays == null ? new ArrayList<>() : new ArrayList<>(workdays); }
+	}
+
+	public static class BusinessCalendarInfo {
+		String name;
+		String rules;
+		boolean builtIn;
+		List<String> weekend = new ArrayList<>();
+		int fromYear;
+		int toYear;
+
+		public String getName() { return name; }
+		public void setName(String name) { this.name = name; }
+		public String getRules() { return rules; }
+		public void setRules(String rules) { this.rules = rules; }
+		public boolean isBuiltIn() { return builtIn; }
+		public void setBuiltIn(boolean builtIn) { this.builtIn = builtIn; }
+		public List<String> getWeekend() { return new ArrayList<>(weekend); }
+		public void setWeekend(List<String> weekend) { this.weekend = new ArrayList<>(weekend); }
+		public int getFromYear() { return fromYear; }
+		public void setFromYear(int fromYear) { this.fromYear = fromYear; }
+		public int getToYear() { return toYear; }
+		public void setToYear(int toYear) { this.toYear = toYear; }
+	}
+
+	public static class BusinessCalendarsResponse {
+		List<BusinessCalendarInfo> calendars = new ArrayList<>();
+		public List<BusinessCalendarInfo> getCalendars() { return new ArrayList<>(calendars); }
+		public void setCalendars(List<BusinessCalendarInfo> calendars) { this.calendars = new ArrayList<>(calendars); }
+	}
+
+	// Adds business days to the local date of base in its zone; the wall-clock time of day is kept
+	@POST
+	@Path("business-days/add")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public DateTimeStruct addBusinessDays(BusinessAddRequest request, @Context ContainerRequestContext context) {
+		BusinessCalendar calendar = BusinessCalendars.REGISTRY.get(caller(context), request != null ? request.calendar : null);
+		BaseDateTime base = request != null ? request.base : null;
+		ZoneId zone = zoneOf(base != null ? base.zone : null);
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		long at = toEpochSecond(base);
+		int offset = table.offsetSeconds(at);
+		long local = at + offset;
+		long day = calendar.addBusinessDays(EpochCalendar.epochDay(local), request != null ? request.days : 0L);
+		long out = table.toEpochSecond(day * EpochCalendar.SECONDS_PER_DAY + EpochCalendar.secondOfDay(local), offset);
+		return new DateTimeStruct(ZonedDateTime.ofInstant(Instant.ofEpochSecond(out), zone));
+	}
+
+	// Business days from the local date of from (inclusive) to the local date of to (exclusive)
+	@POST
+	@Path("business-days/count")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public BusinessCountResponse countBusinessDays(BusinessCountRequest request, @Context ContainerRequestContext context) {
+		if (request == null || request.from == null || request.to == null) {
+			throw new IllegalArgumentException("from and to are required");
+		}
+		BusinessCalendar calendar = BusinessCalendars.REGISTRY.get(caller(context), request.calendar);
+		long from = EpochCalendar.epochDay(toLocalEpochSecond(request.from));
+		long to = EpochCalendar.epochDay(toLocalEpochSecond(request.to));
+		BusinessCountResponse out = new BusinessCountResponse();
+		out.calendar = calendar.name();
+		out.businessDays = calendar.countBusinessDays(from, to);
+		out.calendarDays = to - from;
+		return out;
+	}
+
+	// Uploads belong to the calling API key: other keys neither see nor resolve them, and re-uploading
+	// a name replaces only the caller's own calendar. They are held in memory by this instance only,
+	// so they are lost on restart and are not shared with other instances behind the load balancer.
+	@POST
+	@Path("business-days/calendars")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response registerBusinessCalendar(BusinessCalendarRequest req, @Context ContainerRequestContext context) {
+		if (req == null || req.name == null) {
+			throw new IllegalArgumentException("name is required");
+		}
+		if ((long) req.holidays.size() + req.workdays.size() > MAX_CALENDAR_DATES) {
+			throw new IllegalArgumentException("at most " + MAX_CALENDAR_DATES + " holidays and workdays per calendar");
+		}
+		BusinessCalendar.Rules rules = req.base == null ? BusinessCalendar.Rules.NONE : BusinessCalendar.Rules.parse(req.base);
+		Set<DayOfWeek> weekend = null;
+		if (req.weekend != null) {
+			weekend = EnumSet.noneOf(DayOfWeek.class);
+			for (String d : req.weekend) {
+				weekend.add(DayOfWeek.valueOf(d.trim().toUpperCase(Locale.ROOT)));
+			}
+		}
+		BusinessCalendar c = BusinessCalendars.REGISTRY.register(caller(context), req.name, rules, weekend,
+				epochDays(req.holidays), epochDays(req.workdays));
+		return Response.status(Response.Status.CREATED).entity(toCalendarInfo(c)).build();
+	}
+
+	// Built-in calendars plus the ones the calling API key uploaded to this instance
+	@GET
+	@Path("business-days/calendars")
+	@Produces(MediaType.APPLICATION_JSON)
+	public BusinessCalendarsResponse listBusinessCalendars(@Context ContainerRequestContext context) {
+		BusinessCalendarsResponse out = new BusinessCalendarsResponse();
+		for (BusinessCalendar c : BusinessCalendars.REGISTRY.list(caller(context))) {
+			out.calendars.add(toCalendarInfo(c));
+		}
+		return out;
+	}
+
+	// Identity set by the bearer filter; absent only when a resource method is called directly
+	private static String caller(ContainerRequestContext context) {
+		return context != null ? (String) context.getProperty("api.identity") : null;
+	}
+
+	private static long[] epochDays(List<String> isoDates) {
+		long[] out = new long[isoDates.size()];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = LocalDate.parse(isoDates.get(i).trim()).toEpochDay();
+		}
+		return out;
+	}
+
+	private static BusinessCalendarInfo toCalendarInfo(BusinessCalendar c) {
+		BusinessCalendarInfo info = new BusinessCalendarInfo();
+		info.name = c.name();
+		info.rules = c.rules().id();
+		info.builtIn = BusinessCalendars.REGISTRY.isBuiltIn(c.name());
+		for (DayOfWeek d : DayOfWeek.values()) {
+			if (c.isWeekend(d)) {
+				info.weekend.add(d.name());
+			}
+		}
+		info.fromYear = BusinessCalendar.MIN_YEAR;
+		info.toYear = BusinessCalendar.MAX_YEAR;
+		return info;
+	}
+
+	public static class EnumerateRequest {
+		BaseDateTime from; // optional, defaults to now
+		BaseDateTime to;
+		DateTimeService.Delta step;
+
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+		public DateTimeService.Delta getStep() { return step; }
+		public void setStep(DateTimeService.Delta step) { this.step = step; }
+	}
+
+	public static class EnumerateResponse {
+		List<DateTimeStruct> dates = new ArrayList<>();
+		public List<DateTimeStruct> getDates() { return new ArrayList<>(dates); }
+		public void setDates(List<DateTimeStruct> dates) { this.dates = new ArrayList<>(dates); }
+	}
+
+	// Every from + k * step up to and including to; the NDJSON variant stops after MAX_STREAM_ENUMERATE_ITEMS
+	@POST
+	@Path("enumerate")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public EnumerateResponse enumerate(EnumerateRequest request) {
+		EnumerateResponse out = new EnumerateResponse();
+		RangeRows.dates(dateTimeService, enumerateFrom(request), enumerateTo(request), request.step, MAX_ENUMERATE_ITEMS + 1)
+				.forEachRemaining(out.dates::add);
+		if (out.dates.size() > MAX_ENUMERATE_ITEMS) {
+			throw new IllegalArgumentException("at most " + MAX_ENUMERATE_ITEMS + " dates; request " + NdjsonOutput.APPLICATION_NDJSON + " for more");
+		}
+		return out;
+	}
+
+	@POST
+	@Path("enumerate")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response enumerateStream(EnumerateRequest request) {
+		return ndjson(RangeRows.dates(dateTimeService, enumerateFrom(request), enumerateTo(request), request.step, MAX_STREAM_ENUMERATE_ITEMS));
+	}
+
+	private ZonedDateTime enumerateFrom(EnumerateRequest request) {
+		if (request == null || request.to == null || request.step == null) {
+			throw new IllegalArgumentException("to and step are required");
+		}
+		return toZoned(request.from);
+	}
+
+	private ZonedDateTime enumerateTo(EnumerateRequest request) {
+		return toZoned(request.to);
+	}
+
+	public static class RecurrenceRequest {
+		String rule; // RFC 5545 RRULE, e.g. FREQ=MONTHLY;BYDAY=2TU
+		BaseDateTime start; // DTSTART, defaults to now
+		BaseDateTime from; // optional window start
+		BaseDateTime to; // optional window end, inclusive
+		Long limit;
+
+		public String getRule() { return rule; }
+		public void setRule(String rule) { this.rule = rule; }
+		public BaseDateTime getStart() { return copyBase(start); }
+		public void setStart(BaseDateTime start) { this.start = copyBase(start); }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+		public Long getLimit() { return limit; }
+		public void setLimit(Long limit) { this.limit = limit; }
+	}
+
+	// Occurrences of a recurrence rule in [from, to], expanded lazily; the window start is reached
+	// without enumerating from start unless the rule has a COUNT. The rule follows the wall clock of
+	// start's zone, so a daily 09:00 stays at 09:00 across DST changes
+	@POST
+	@Path("recurrence")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public EnumerateResponse recurrence(RecurrenceRequest request) {
+		long limit = recurrenceLimit(request, MAX_ENUMERATE_ITEMS);
+		EnumerateResponse out = new EnumerateResponse();
+		RangeRows.recurrences(occurrences(request), recurrenceZone(request), request.limit != null ? limit : limit + 1)
+				.forEachRemaining(out.dates::add);
+		if (out.dates.size() > MAX_ENUMERATE_ITEMS) {
+			throw new IllegalArgumentException("at most " + MAX_ENUMERATE_ITEMS + " occurrences; set limit or to, or request " + NdjsonOutput.APPLICATION_NDJSON + " for more");
+		}
+		return out;
+	}
+
+	@POST
+	@Path("recurrence")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response recurrenceStream(RecurrenceRequest request) {
+		long limit = recurrenceLimit(request, MAX_STREAM_ENUMERATE_ITEMS);
+		return ndjson(RangeRows.recurrences(occurrences(request), recurrenceZone(request), limit));
+	}
+
+	private static long recurrenceLimit(RecurrenceRequest request, long max) {
+		if (request == null || request.rule == null) {
+			throw new IllegalArgumentException("rule is required");
+		}
+		if (request.limit == null) {
+			return max;
+		}
+		if (request.limit < 0 || request.limit > max) {
+			throw new IllegalArgumentException("limit must be between 0 and " + max);
+		}
+		return request.limit;
+	}
+
+	private PrimitiveIterator.OfLong occurrences(RecurrenceRequest request) {
+		RecurrenceRule rule = RecurrenceRule.parse(request.rule);
+		long start = toEpochSecond(request.start);
+		long from = request.from != null ? toEpochSecond(request.from) : start;
+		long to = request.to != null ? toEpochSecond(request.to) : Long.MAX_VALUE;
+		ZoneId zone = recurrenceZone(request);
+		return rule.iterator(start, from, to, ZoneOffset.UTC.equals(zone) ? null : ZoneOffsetTable.of(zone));
+	}
+
+	private static ZoneId recurrenceZone(RecurrenceRequest request) {
+		return zoneOf(request.start != null ? request.start.zone : null);
+	}
+
+	private static Response ndjson(Iterator<?> rows) {
+		return Response.ok(new NdjsonOutput(rows), NdjsonOutput.APPLICATION_NDJSON).build();
+	}
+
 	public static class MoonResponse {
 		public double phase;
 		public double illumination;
@@ -227,22 +859,14 @@ public class CalendarResourceV2 {
 	@GET
 	@Path("moon-phase")
 	@Produces(MediaType.APPLICATION_JSON)
-	public MoonResponse moonPhase() {
-		AstronomyService.MoonPhaseResult r = astronomyService.computeMoonPhase(dateTimeService.nowUtc());
-		MoonResponse out = new MoonResponse();
-		out.phase = r.phase;
-		out.illumination = r.illumination;
-		out.ageDays = r.ageDays;
-		out.phaseName = r.phaseName;
-		out.phaseAngleDeg = r.phaseAngleDeg;
-		out.waxing = r.waxing;
-		out.waning = r.waning;
-		out.crescent = r.crescent;
-		out.gibbous = r.gibbous;
-		out.quarter = r.quarter;
-		out.full = r.full;
-		out.isNew = r.isNew;
-		return out;
+	@ConditionalGet(periodSeconds = MOON_PHASE_PERIOD_SECONDS)
+	public MoonResponse moonPhase(@Context ContainerRequestContext request) {
+		// Evaluated at the start of the minute pinned by the conditional-GET filter, so the value matches its ETag
+		long now = dateTimeService.nowEpochSecond();
+		long at = ConditionalGetFilter.periodStart(request, Math.floorDiv(now, MOON_PHASE_PERIOD_SECONDS) * MOON_PHASE_PERIOD_SECONDS);
+		AstronomyService.MoonPhaseResult r = new AstronomyService.MoonPhaseResult();
+		astronomyService.moonPhase(at, r);
+		return toMoonResponse(r);
 	}
 
 	public static class MoonRequest {
@@ -256,34 +880,101 @@ public class CalendarResourceV2 {
 	@Consumes(MediaType.APPLICATION_JSON)
 	@Produces(MediaType.APPLICATION_JSON)
 	public MoonResponse moonPhaseAt(MoonRequest req) {
-		ZonedDateTime at = toZoned(req != null ? req.at : null);
-		AstronomyService.MoonPhaseResult r = astronomyService.computeMoonPhase(at);
-		MoonResponse out = new MoonResponse();
-		out.phase = r.phase;
-		out.illumination = r.illumination;
-		out.ageDays = r.ageDays;
-		out.phaseName = r.phaseName;
-		out.phaseAngleDeg = r.phaseAngleDeg;
-		out.waxing = r.waxing;
-		out.waning = r.waning;
-		out.crescent = r.crescent;
-		out.gibbous = r.gibbous;
-		out.quarter = r.quarter;
-		out.full = r.full;
-		out.isNew = r.isNew;
+		long at = toEpochSecond(req != null ? req.at : null);
+		AstronomyService.MoonPhaseResult r = new AstronomyService.MoonPhaseResult();
+		astronomyService.moonPhase(at, r);
+		return toMoonResponse(r);
+	}
+
+	public static class PhaseEventsRequest {
+		public BaseDateTime from; // optional, defaults to now
+		public BaseDateTime to;   // optional, defaults to from + 1 year
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+	}
+
+	public static class PhaseEvent {
+		public String phaseName;
+		public long epochSecond;
+		public String iso;
+
+		public PhaseEvent() {}
+
+		public PhaseEvent(MoonPhaseEventService.PhaseEvent e) {
+			this.phaseName = e.phaseName();
+			this.epochSecond = e.epochSecond;
+			this.iso = Instant.ofEpochSecond(e.epochSecond).toString();
+		}
+
+		public String getPhaseName() { return phaseName; }
+		public void setPhaseName(String phaseName) { this.phaseName = phaseName; }
+		public long getEpochSecond() { return epochSecond; }
+		public void setEpochSecond(long epochSecond) { this.epochSecond = epochSecond; }
+		public String getIso() { return iso; }
+		public void setIso(String iso) { this.iso = iso; }
+	}
+
+	public static class PhaseEventsResponse {
+		List<PhaseEvent> events = new ArrayList<>();
+		public List<PhaseEvent> getEvents() { return new ArrayList<>(events); }
+		public void setEvents(List<PhaseEvent> events) { this.events = new ArrayList<>(events); }
+	}
+
+	@POST
+	@Path("moon-phase/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public PhaseEventsResponse moonPhaseEvents(PhaseEventsRequest req) {
+		long[] range = phaseEventRange(req, MAX_PHASE_EVENT_SECONDS);
+		PhaseEventsResponse out = new PhaseEventsResponse();
+		for (MoonPhaseEventService.PhaseEvent e : moonPhaseEventService.eventsBetween(range[0], range[1])) {
+			out.events.add(new PhaseEvent(e));
+		}
 		return out;
 	}
 
+	@POST
+	@Path("moon-phase/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response moonPhaseEventsStream(PhaseEventsRequest req) {
+		long[] range = phaseEventRange(req, MAX_STREAM_PHASE_EVENT_SECONDS);
+		return ndjson(RangeRows.phaseEvents(moonPhaseEventService, range[0], range[1]));
+	}
+
+	// {startEpochSecond, endEpochSecond}
+	private long[] phaseEventRange(PhaseEventsRequest req, long maxSeconds) {
+		ZonedDateTime from = toZoned(req != null ? req.from : null);
+		ZonedDateTime to = req != null && req.to != null ? toZoned(req.to) : from.plusYears(1);
+		long start = from.toEpochSecond();
+		long end = to.toEpochSecond();
+		if (end < start) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		if (end - start > maxSeconds) {
+			throw new IllegalArgumentException("range must not exceed " + maxSeconds / (366L * 86400L) + " years");
+		}
+		return new long[] {start, end};
+	}
+
 	public static class SolarRequest {
 		public Double lat;
 		public Double lon;
 		public BaseDateTime at; // optional, defaults to now
+		public String precision; // optional "exact" or "fast", defaults to the configured precision
+		public Boolean exact; // optional, true skips the result cache and sky table and evaluates at the exact inputs
 		public Double getLat() { return lat; }
 		public void setLat(Double lat) { this.lat = lat; }
 		public Double getLon() { return lon; }
 		public void setLon(Double lon) { this.lon = lon; }
 		public BaseDateTime getAt() { return copyBase(at); }
 		public void setAt(BaseDateTime at) { this.at = copyBase(at); }
+		public String getPrecision() { return precision; }
+		public void setPrecision(String precision) { this.precision = precision; }
+		public Boolean getExact() { return exact; }
+		public void setExact(Boolean exact) { this.exact = exact; }
 	}
 
 	public static class SolarResponse {
@@ -311,12 +1002,18 @@ public class CalendarResourceV2 {
 		public Double lat;
 		public Double lon;
 		public BaseDateTime at; // optional, defaults to now
+		public String precision; // optional "exact" or "fast", defaults to the configured precision
+		public Boolean exact; // optional, true skips the result cache and sky table and evaluates at the exact inputs
 		public Double getLat() { return lat; }
 		public void setLat(Double lat) { this.lat = lat; }
 		public Double getLon() { return lon; }
 		public void setLon(Double lon) { this.lon = lon; }
 		public BaseDateTime getAt() { return copyBase(at); }
 		public void setAt(BaseDateTime at) { this.at = copyBase(at); }
+		public String getPrecision() { return precision; }
+		public void setPrecision(String precision) { this.precision = precision; }
+		public Boolean getExact() { return exact; }
+		public void setExact(Boolean exact) { this.exact = exact; }
 	}
 
 	public static class MoonlightResponse {
@@ -345,16 +1042,868 @@ public class CalendarResourceV2 {
 		if (req == null || req.lat == null || req.lon == null) {
 			throw new IllegalArgumentException("lat and lon are required");
 		}
-		ZonedDateTime at = toZoned(req.at);
-		AstronomyService.SolarInfoResult si = astronomyService.computeSolarInfo(at, req.lat, req.lon);
-		SolarResponse out = new SolarResponse();
-		out.elevationDeg = si.elevationDeg;
-		out.azimuthDeg = si.azimuthDeg;
-		out.intensity = si.intensity;
-		out.daylight = si.isDaylight;
-		out.dayLengthHours = si.dayLengthHours;
-		out.nightLengthHours = si.nightLengthHours;
-		return out;
+		long at = toEpochSecond(req.at);
+		boolean exact = Boolean.TRUE.equals(req.exact);
+		SkyTableStore.SkySample sample = new SkyTableStore.SkySample();
+		if (!exact && req.precision == null && SkyTables.STORE.lookup(req.lat, req.lon, at, sample)) {
+			return solarFromTable(sample);
+		}
+		AstronomyService.SolarInfoResult si = new AstronomyService.SolarInfoResult();
+		if (exact) {
+			astronomyService.solarInfo(at, req.lat, req.lon, precision(req.precision), si);
+		} else {
+			ResultCache.INSTANCE.solarInfo(at, req.lat, req.lon, precision(req.precision), si);
+		}
+		return toSolarResponse(si);
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class SolarBatchRequest {
+		double[] lat;
+		double[] lon;
+		long[] epochSeconds; // optional, defaults to now for every point
+		public double[] getLat() { return lat; }
+		public void setLat(double[] lat) { this.lat = lat; }
+		public double[] getLon() { return lon; }
+		public void setLon(double[] lon) { this.lon = lon; }
+		public long[] getEpochSeconds() { return epochSeconds; }
+		public void setEpochSeconds(long[] epochSeconds) { this.epochSeconds = epochSeconds; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class SolarBatchResponse {
+		int count;
+		double[] elevationDeg;
+		double[] azimuthDeg;
+		double[] intensity;
+		boolean[] daylight;
+		double[] dayLengthHours;
+		double[] nightLengthHours;
+
+		public SolarBatchResponse() {}
+
+		public SolarBatchResponse(AstronomyService.SolarBatchResult r) {
+			this.count = r.size();
+			this.elevationDeg = r.elevationDeg;
+			this.azimuthDeg = r.azimuthDeg;
+			this.intensity = r.intensity;
+			this.daylight = r.isDaylight;
+			this.dayLengthHours = r.dayLengthHours;
+			this.nightLengthHours = r.nightLengthHours;
+		}
+
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public double[] getElevationDeg() { return elevationDeg; }
+		public void setElevationDeg(double[] elevationDeg) { this.elevationDeg = elevationDeg; }
+		public double[] getAzimuthDeg() { return azimuthDeg; }
+		public void setAzimuthDeg(double[] azimuthDeg) { this.azimuthDeg = azimuthDeg; }
+		public double[] getIntensity() { return intensity; }
+		public void setIntensity(double[] intensity) { this.intensity = intensity; }
+		public boolean[] getDaylight() { return daylight; }
+		public void setDaylight(boolean[] daylight) { this.daylight = daylight; }
+		public double[] getDayLengthHours() { return dayLengthHours; }
+		public void setDayLengthHours(double[] dayLengthHours) { this.dayLengthHours = dayLengthHours; }
+		public double[] getNightLengthHours() { return nightLengthHours; }
+		public void setNightLengthHours(double[] nightLengthHours) { this.nightLengthHours = nightLengthHours; }
+	}
+
+	@POST
+	@Path("solar/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SolarBatchResponse solarBatch(SolarBatchRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon arrays are required");
+		}
+		int n = req.lat.length;
+		if (req.lon.length != n || (req.epochSeconds != null && req.epochSeconds.length != n)) {
+			throw new IllegalArgumentException("lat, lon and epochSeconds must have the same length");
+		}
+		if (n > MAX_BATCH_POINTS) {
+			throw new IllegalArgumentException("at most " + MAX_BATCH_POINTS + " points per batch");
+		}
+		long[] times = req.epochSeconds;
+		if (times == null) {
+			times = new long[n];
+			Arrays.fill(times, dateTimeService.nowEpochSecond());
+		}
+		return new SolarBatchResponse(astronomyService.computeSolarInfoBatch(times, req.lat, req.lon));
+	}
+
+	public static class SolarSeriesRequest {
+		public Double lat;
+		public Double lon;
+		public BaseDateTime from; // optional, defaults to now
+		public BaseDateTime to;   // optional, defaults to from + 1 day
+		public Integer stepMinutes; // optional, defaults to 60
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+		public Integer getStepMinutes() { return stepMinutes; }
+		public void setStepMinutes(Integer stepMinutes) { this.stepMinutes = stepMinutes; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class SolarSeriesResponse {
+		long startEpochSecond;
+		int stepSeconds;
+		int count;
+		double[] elevationDeg;
+		double[] azimuthDeg;
+		double[] intensity;
+
+		public SolarSeriesResponse() {}
+
+		public SolarSeriesResponse(AstronomyService.SolarSeriesResult r) {
+			this.startEpochSecond = r.startEpochSecond;
+			this.stepSeconds = r.stepSeconds;
+			this.count = r.size();
+			this.elevationDeg = r.elevationDeg;
+			this.azimuthDeg = r.azimuthDeg;
+			this.intensity = r.intensity;
+		}
+
+		public long getStartEpochSecond() { return startEpochSecond; }
+		public void setStartEpochSecond(long startEpochSecond) { this.startEpochSecond = startEpochSecond; }
+		public int getStepSeconds() { return stepSeconds; }
+		public void setStepSeconds(int stepSeconds) { this.stepSeconds = stepSeconds; }
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public double[] getElevationDeg() { return elevationDeg; }
+		public void setElevationDeg(double[] elevationDeg) { this.elevationDeg = elevationDeg; }
+		public double[] getAzimuthDeg() { return azimuthDeg; }
+		public void setAzimuthDeg(double[] azimuthDeg) { this.azimuthDeg = azimuthDeg; }
+		public double[] getIntensity() { return intensity; }
+		public void setIntensity(double[] intensity) { this.intensity = intensity; }
+	}
+
+	@POST
+	@Path("solar/series")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SolarSeriesResponse solarSeries(SolarSeriesRequest req) {
+		long[] range = seriesRange(req, MAX_SERIES_SAMPLES);
+		return new SolarSeriesResponse(astronomyService.computeSolarSeries(req.lat, req.lon, range[0], range[1], (int) range[2]));
+	}
+
+	public static class SolarSample {
+		public long epochSecond;
+		public double elevationDeg;
+		public double azimuthDeg;
+		public double intensity;
+		public long getEpochSecond() { return epochSecond; }
+		public void setEpochSecond(long epochSecond) { this.epochSecond = epochSecond; }
+		public double getElevationDeg() { return elevationDeg; }
+		public void setElevationDeg(double elevationDeg) { this.elevationDeg = elevationDeg; }
+		public double getAzimuthDeg() { return azimuthDeg; }
+		public void setAzimuthDeg(double azimuthDeg) { this.azimuthDeg = azimuthDeg; }
+		public double getIntensity() { return intensity; }
+		public void setIntensity(double intensity) { this.intensity = intensity; }
+	}
+
+	@POST
+	@Path("solar/series")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response solarSeriesStream(SolarSeriesRequest req) {
+		long[] range = seriesRange(req, MAX_STREAM_SERIES_SAMPLES);
+		return ndjson(RangeRows.solarSeries(astronomyService, req.lat, req.lon, range[0], range[1], (int) range[2]));
+	}
+
+	// {start, end, stepSeconds}
+	private long[] seriesRange(SolarSeriesRequest req, long maxSamples) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		int stepMinutes = req.stepMinutes != null ? req.stepMinutes : 60;
+		if (stepMinutes <= 0 || stepMinutes > 366 * 1440) {
+			throw new IllegalArgumentException("stepMinutes must be between 1 and " + (366 * 1440));
+		}
+		long start = toZoned(req.from).toEpochSecond();
+		long end = req.to != null ? toZoned(req.to).toEpochSecond() : start + 86400L;
+		if (end < start) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		long stepSeconds = stepMinutes * 60L;
+		if ((end - start) / stepSeconds + 1 > maxSamples) {
+			throw new IllegalArgumentException("at most " + maxSamples + " samples per series");
+		}
+		return new long[] {start, end, stepSeconds};
+	}
+
+	public static class SolarEventsRequest {
+		public Double lat;
+		public Double lon;
+		public BaseDateTime from; // optional, defaults to today
+		public BaseDateTime to;   // optional, defaults to from
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+	}
+
+	// Event times are epoch seconds; null when the sun does not cross that altitude on the day
+	public static class SolarEventsDay {
+		public String date;
+		public Long solarNoon;
+		public Long sunrise;
+		public Long sunset;
+		public Long civilDawn;
+		public Long civilDusk;
+		public Long nauticalDawn;
+		public Long nauticalDusk;
+		public Long astronomicalDawn;
+		public Long astronomicalDusk;
+
+		public SolarEventsDay() {}
+
+		public SolarEventsDay(SolarEventService.SolarEvents e) {
+			this.date = LocalDate.ofEpochDay(e.epochDay).toString();
+			this.solarNoon = e.solarNoon;
+			this.sunrise = eventOrNull(e.sunrise);
+			this.sunset = eventOrNull(e.sunset);
+			this.civilDawn = eventOrNull(e.civilDawn);
+			this.civilDusk = eventOrNull(e.civilDusk);
+			this.nauticalDawn = eventOrNull(e.nauticalDawn);
+			this.nauticalDusk = eventOrNull(e.nauticalDusk);
+			this.astronomicalDawn = eventOrNull(e.astronomicalDawn);
+			this.astronomicalDusk = eventOrNull(e.astronomicalDusk);
+		}
+
+		public String getDate() { return date; }
+		public void setDate(String date) { this.date = date; }
+		public Long getSolarNoon() { return solarNoon; }
+		public void setSolarNoon(Long solarNoon) { this.solarNoon = solarNoon; }
+		public Long getSunrise() { return sunrise; }
+		public void setSunrise(Long sunrise) { this.sunrise = sunrise; }
+		public Long getSunset() { return sunset; }
+		public void setSunset(Long sunset) { this.sunset = sunset; }
+		public Long getCivilDawn() { return civilDawn; }
+		public void setCivilDawn(Long civilDawn) { this.civilDawn = civilDawn; }
+		public Long getCivilDusk() { return civilDusk; }
+		public void setCivilDusk(Long civilDusk) { this.civilDusk = civilDusk; }
+		public Long getNauticalDawn() { return nauticalDawn; }
+		public void setNauticalDawn(Long nauticalDawn) { this.nauticalDawn = nauticalDawn; }
+		public Long getNauticalDusk() { return nauticalDusk; }
+		public void setNauticalDusk(Long nauticalDusk) { this.nauticalDusk = nauticalDusk; }
+		public Long getAstronomicalDawn() { return astronomicalDawn; }
+		public void setAstronomicalDawn(Long astronomicalDawn) { this.astronomicalDawn = astronomicalDawn; }
+		public Long getAstronomicalDusk() { return astronomicalDusk; }
+		public void setAstronomicalDusk(Long astronomicalDusk) { this.astronomicalDusk = astronomicalDusk; }
+
+		private static Long eventOrNull(long t) {
+			return t == SolarEventService.NONE ? null : t;
+		}
+	}
+
+	public static class SolarEventsResponse {
+		List<SolarEventsDay> days = new ArrayList<>();
+		public List<SolarEventsDay> getDays() { return new ArrayList<>(days); }
+		public void setDays(List<SolarEventsDay> days) { this.days = new ArrayList<>(days); }
+	}
+
+	@POST
+	@Path("solar/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SolarEventsResponse solarEvents(SolarEventsRequest req) {
+		long[] days = eventDayRange(req, MAX_EVENT_DAYS);
+		SolarEventsResponse out = new SolarEventsResponse();
+		for (SolarEventService.SolarEvents e : solarEventService.computeRange(req.lat, req.lon, days[0], days[1])) {
+			out.days.add(new SolarEventsDay(e));
+		}
+		return out;
+	}
+
+	@POST
+	@Path("solar/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response solarEventsStream(SolarEventsRequest req) {
+		long[] days = eventDayRange(req, MAX_STREAM_EVENT_DAYS);
+		return ndjson(RangeRows.solarEvents(solarEventService, req.lat, req.lon, days[0], days[1]));
+	}
+
+	// {fromEpochDay, toEpochDay}
+	private long[] eventDayRange(SolarEventsRequest req, long maxDays) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		long fromDay = toZoned(req.from).toLocalDate().toEpochDay();
+		long toDay = req.to != null ? toZoned(req.to).toLocalDate().toEpochDay() : fromDay;
+		if (toDay < fromDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		if (toDay - fromDay + 1 > maxDays) {
+			throw new IllegalArgumentException("at most " + maxDays + " days per query");
+		}
+		return new long[] {fromDay, toDay};
+	}
+
+	// Rise and set are epoch seconds, or null when the moon does not cross the horizon that UTC day
+	public static class MoonEventsDay {
+		public String date;
+		public Long moonrise;
+		public Long moonset;
+		public boolean alwaysUp;
+		public boolean alwaysDown;
+
+		public MoonEventsDay() {}
+
+		public MoonEventsDay(MoonEventService.MoonEvents e) {
+			this.date = LocalDate.ofEpochDay(e.epochDay).toString();
+			this.moonrise = e.moonrise == MoonEventService.NONE ? null : e.moonrise;
+			this.moonset = e.moonset == MoonEventService.NONE ? null : e.moonset;
+			this.alwaysUp = e.alwaysUp;
+			this.alwaysDown = e.alwaysDown;
+		}
+
+		public String getDate() { return date; }
+		public void setDate(String date) { this.date = date; }
+		public Long getMoonrise() { return moonrise; }
+		public void setMoonrise(Long moonrise) { this.moonrise = moonrise; }
+		public Long getMoonset() { return moonset; }
+		public void setMoonset(Long moonset) { this.moonset = moonset; }
+		public boolean isAlwaysUp() { return alwaysUp; }
+		public void setAlwaysUp(boolean alwaysUp) { this.alwaysUp = alwaysUp; }
+		public boolean isAlwaysDown() { return alwaysDown; }
+		public void setAlwaysDown(boolean alwaysDown) { this.alwaysDown = alwaysDown; }
+	}
+
+	public static class MoonEventsResponse {
+		List<MoonEventsDay> days = new ArrayList<>();
+		public List<MoonEventsDay> getDays() { return new ArrayList<>(days); }
+		public void setDays(List<MoonEventsDay> days) { this.days = new ArrayList<>(days); }
+	}
+
+	// Same request shape as solar/events: lat, lon and an optional UTC date range
+	@POST
+	@Path("moonlight/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public MoonEventsResponse moonEvents(SolarEventsRequest req) {
+		long[] days = eventDayRange(req, MAX_EVENT_DAYS);
+		MoonEventsResponse out = new MoonEventsResponse();
+		for (MoonEventService.MoonEvents e : moonEventService.computeRange(req.lat, req.lon, days[0], days[1])) {
+			out.days.add(new MoonEventsDay(e));
+		}
+		return out;
+	}
+
+	@POST
+	@Path("moonlight/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(NdjsonOutput.APPLICATION_NDJSON + ";qs=0.5")
+	public Response moonEventsStream(SolarEventsRequest req) {
+		long[] days = eventDayRange(req, MAX_STREAM_EVENT_DAYS);
+		return ndjson(RangeRows.moonEvents(moonEventService, req.lat, req.lon, days[0], days[1]));
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class PlanetBatchRequest {
+		List<String> planets; // optional, defaults to Mercury through Neptune
+		double[] lat;
+		double[] lon;
+		long[] epochSeconds; // optional, defaults to now for every point
+		public List<String> getPlanets() { return planets == null ? null : new ArrayList<>(planets); }
+		public void setPlanets(List<String> planets) { this.planets = planets == null ? null : new ArrayList<>(planets); }
+		public double[] getLat() { return lat; }
+		public void setLat(double[] lat) { this.lat = lat; }
+		public double[] getLon() { return lon; }
+		public void setLon(double[] lon) { this.lon = lon; }
+		public long[] getEpochSeconds() { return epochSeconds; }
+		public void setEpochSeconds(long[] epochSeconds) { this.epochSeconds = epochSeconds; }
+	}
+
+	// One planet's columns; index i corresponds to input point i
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class PlanetColumns {
+		String planet;
+		double[] rightAscensionDeg;
+		double[] declinationDeg;
+		double[] distanceAu;
+		double[] elevationDeg;
+		double[] azimuthDeg;
+
+		public PlanetColumns() {}
+
+		public PlanetColumns(PlanetService.PlanetBatchResult r) {
+			this.planet = r.planet.name().toLowerCase(Locale.ROOT);
+			this.rightAscensionDeg = r.rightAscensionDeg;
+			this.declinationDeg = r.declinationDeg;
+			this.distanceAu = r.distanceAu;
+			this.elevationDeg = r.elevationDeg;
+			this.azimuthDeg = r.azimuthDeg;
+		}
+
+		public String getPlanet() { return planet; }
+		public void setPlanet(String planet) { this.planet = planet; }
+		public double[] getRightAscensionDeg() { return rightAscensionDeg; }
+		public void setRightAscensionDeg(double[] rightAscensionDeg) { this.rightAscensionDeg = rightAscensionDeg; }
+		public double[] getDeclinationDeg() { return declinationDeg; }
+		public void setDeclinationDeg(double[] declinationDeg) { this.declinationDeg = declinationDeg; }
+		public double[] getDistanceAu() { return distanceAu; }
+		public void setDistanceAu(double[] distanceAu) { this.distanceAu = distanceAu; }
+		public double[] getElevationDeg() { return elevationDeg; }
+		public void setElevationDeg(double[] elevationDeg) { this.elevationDeg = elevationDeg; }
+		public double[] getAzimuthDeg() { return azimuthDeg; }
+		public void setAzimuthDeg(double[] azimuthDeg) { this.azimuthDeg = azimuthDeg; }
+	}
+
+	public static class PlanetBatchResponse {
+		int count;
+		List<PlanetColumns> planets = new ArrayList<>();
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public List<PlanetColumns> getPlanets() { return new ArrayList<>(planets); }
+		public void setPlanets(List<PlanetColumns> planets) { this.planets = new ArrayList<>(planets); }
+	}
+
+	@POST
+	@Path("planets/batch")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public PlanetBatchResponse planetBatch(PlanetBatchRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon arrays are required");
+		}
+		int n = req.lat.length;
+		if (req.lon.length != n || (req.epochSeconds != null && req.epochSeconds.length != n)) {
+			throw new IllegalArgumentException("lat, lon and epochSeconds must have the same length");
+		}
+		List<PlanetEphemeris.Planet> planets = new ArrayList<>();
+		if (req.planets == null || req.planets.isEmpty()) {
+			planets.addAll(Arrays.asList(PlanetEphemeris.Planet.values()));
+		} else {
+			for (String name : req.planets) {
+				planets.add(PlanetEphemeris.Planet.parse(name));
+			}
+		}
+		if ((long) n * planets.size() > MAX_BATCH_POINTS) {
+			throw new IllegalArgumentException("at most " + MAX_BATCH_POINTS + " planet-points per batch");
+		}
+		long[] times = req.epochSeconds;
+		if (times == null) {
+			times = new long[n];
+			Arrays.fill(times, dateTimeService.nowEpochSecond());
+		}
+		PlanetBatchResponse out = new PlanetBatchResponse();
+		out.count = n;
+		for (PlanetEphemeris.Planet planet : planets) {
+			out.planets.add(new PlanetColumns(planetService.computeBatch(planet, times, req.lat, req.lon)));
+		}
+		return out;
+	}
+
+	// solar/events request plus the planet to solve for
+	public static class PlanetEventsRequest extends SolarEventsRequest {
+		public String planet;
+		public String getPlanet() { return planet; }
+		public void setPlanet(String planet) { this.planet = planet; }
+	}
+
+	// Rise and set are epoch seconds at the almanac horizon, or null when there is no crossing that UTC day
+	public static class PlanetEventsDay {
+		public String date;
+		public Long rise;
+		public Long set;
+		public boolean alwaysUp;
+		public boolean alwaysDown;
+
+		public PlanetEventsDay() {}
+
+		public PlanetEventsDay(PlanetService.PlanetEvents e) {
+			this.date = LocalDate.ofEpochDay(e.epochDay).toString();
+			this.rise = e.rise == PlanetService.NONE ? null : e.rise;
+			this.set = e.set == PlanetService.NONE ? null : e.set;
+			this.alwaysUp = e.alwaysUp;
+			this.alwaysDown = e.alwaysDown;
+		}
+
+		public String getDate() { return date; }
+		public void setDate(String date) { this.date = date; }
+		public Long getRise() { return rise; }
+		public void setRise(Long rise) { this.rise = rise; }
+		public Long getSet() { return set; }
+		public void setSet(Long set) { this.set = set; }
+		public boolean isAlwaysUp() { return alwaysUp; }
+		public void setAlwaysUp(boolean alwaysUp) { this.alwaysUp = alwaysUp; }
+		public boolean isAlwaysDown() { return alwaysDown; }
+		public void setAlwaysDown(boolean alwaysDown) { this.alwaysDown = alwaysDown; }
+	}
+
+	public static class PlanetEventsResponse {
+		String planet;
+		List<PlanetEventsDay> days = new ArrayList<>();
+		public String getPlanet() { return planet; }
+		public void setPlanet(String planet) { this.planet = planet; }
+		public List<PlanetEventsDay> getDays() { return new ArrayList<>(days); }
+		public void setDays(List<PlanetEventsDay> days) { this.days = new ArrayList<>(days); }
+	}
+
+	@POST
+	@Path("planets/events")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public PlanetEventsResponse planetEvents(PlanetEventsRequest req) {
+		long[] days = eventDayRange(req, MAX_EVENT_DAYS);
+		PlanetEphemeris.Planet planet = PlanetEphemeris.Planet.parse(req.planet);
+		PlanetEventsResponse out = new PlanetEventsResponse();
+		out.planet = planet.name().toLowerCase(Locale.ROOT);
+		for (PlanetService.PlanetEvents e : planetService.computeRange(planet, req.lat, req.lon, days[0], days[1])) {
+			out.days.add(new PlanetEventsDay(e));
+		}
+		return out;
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are bound by JSON without copying")
+	public static class InsolationRequest {
+		double[] lat;
+		double[] lon;
+		BaseDateTime from; // optional, defaults to today
+		BaseDateTime to;   // optional, defaults to from
+		Boolean daily;     // include per-day totals, default false
+		public double[] getLat() { return lat; }
+		public void setLat(double[] lat) { this.lat = lat; }
+		public double[] getLon() { return lon; }
+		public void setLon(double[] lon) { this.lon = lon; }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+		public Boolean getDaily() { return daily; }
+		public void setDaily(Boolean daily) { this.daily = daily; }
+	}
+
+	// Totals are intensity-hours (kWh/m2 for a 1 kW/m2 clear-sky peak), indexed [site][month] and [site][day]
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class InsolationResponse {
+		String from;
+		String to;
+		List<String> months = new ArrayList<>();
+		double[][] monthly;
+		double[][] daily;
+		public String getFrom() { return from; }
+		public void setFrom(String from) { this.from = from; }
+		public String getTo() { return to; }
+		public void setTo(String to) { this.to = to; }
+		public List<String> getMonths() { return new ArrayList<>(months); }
+		public void setMonths(List<String> months) { this.months = new ArrayList<>(months); }
+		public double[][] getMonthly() { return monthly; }
+		public void setMonthly(double[][] monthly) { this.monthly = monthly; }
+		public double[][] getDaily() { return daily; }
+		public void setDaily(double[][] daily) { this.daily = daily; }
+	}
+
+	@POST
+	@Path("solar/insolation")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public InsolationResponse insolation(InsolationRequest req) {
+		if (req == null || req.lat == null || req.lon == null || req.lat.length == 0) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		long fromDay = toZoned(req.from).toLocalDate().toEpochDay();
+		long toDay = req.to != null ? toZoned(req.to).toLocalDate().toEpochDay() : fromDay;
+		if (toDay < fromDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		if ((toDay - fromDay + 1) * req.lat.length > MAX_INSOLATION_SITE_DAYS) {
+			throw new IllegalArgumentException("at most " + MAX_INSOLATION_SITE_DAYS + " site-days per request");
+		}
+		InsolationService.InsolationResult r = insolationService.compute(req.lat, req.lon, fromDay, toDay);
+		InsolationResponse out = new InsolationResponse();
+		out.from = LocalDate.ofEpochDay(r.fromEpochDay).toString();
+		out.to = LocalDate.ofEpochDay(r.toEpochDay).toString();
+		for (int m = 0; m < r.monthYear.length; m++) {
+			out.months.add(String.format(Locale.ROOT, "%04d-%02d", r.monthYear[m], r.monthOfYear[m]));
+		}
+		out.monthly = r.monthly;
+		out.daily = Boolean.TRUE.equals(req.daily) ? r.daily : null;
+		return out;
+	}
+
+	public static class SolarRasterRequest {
+		public BaseDateTime at; // optional, defaults to now
+		public Double resolutionDeg; // optional, defaults to 1.0
+		public String layer; // "intensity" (default) or "elevation"
+		public BaseDateTime getAt() { return copyBase(at); }
+		public void setAt(BaseDateTime at) { this.at = copyBase(at); }
+		public Double getResolutionDeg() { return resolutionDeg; }
+		public void setResolutionDeg(Double resolutionDeg) { this.resolutionDeg = resolutionDeg; }
+		public String getLayer() { return layer; }
+		public void setLayer(String layer) { this.layer = layer; }
+	}
+
+	// Body is rows x cols little-endian float32, row 0 northernmost and column 0 at -180; cells are
+	// resolution-sized squares tiling the globe exactly; see AstronomyService.SolarRaster
+	@POST
+	@Path("solar/raster")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_OCTET_STREAM)
+	public Response solarRaster(SolarRasterRequest req) {
+		double resolution = req != null && req.resolutionDeg != null ? req.resolutionDeg : 1.0;
+		if (!(resolution >= MIN_RASTER_RESOLUTION_DEG) || resolution > 90.0) {
+			throw new IllegalArgumentException("resolutionDeg must be between " + MIN_RASTER_RESOLUTION_DEG + " and 90");
+		}
+		if (!AstronomyService.dividesGlobe(resolution)) {
+			throw new IllegalArgumentException("resolutionDeg must divide 180 and 360 evenly, e.g. 0.25, 1, 2.5 or 5");
+		}
+		AstronomyService.RasterLayer layer = req != null && req.layer != null
+				? AstronomyService.RasterLayer.valueOf(req.layer.toUpperCase(Locale.ROOT))
+				: AstronomyService.RasterLayer.INTENSITY;
+		long at = toZoned(req != null ? req.at : null).toEpochSecond();
+		AstronomyService.SolarRaster raster = astronomyService.computeSolarRaster(at, resolution, layer);
+		StreamingOutput body = output -> {
+			WritableByteChannel channel = Channels.newChannel(output);
+			ByteBuffer data = raster.data();
+			while (data.hasRemaining()) {
+				channel.write(data);
+			}
+			output.flush();
+		};
+		return Response.ok(body, MediaType.APPLICATION_OCTET_STREAM)
+				.header("X-Raster-Rows", raster.rows)
+				.header("X-Raster-Cols", raster.cols)
+				.header("X-Raster-Resolution-Deg", raster.resolutionDeg)
+				.header("X-Raster-Layer", raster.layer.name().toLowerCase(Locale.ROOT))
+				.header("X-Raster-Encoding", "float32-le")
+				.build();
+	}
+
+	public static class SunPathRequest {
+		public Double lat;
+		public Double lon;
+		public Integer year;             // optional, defaults to the current UTC year
+		public Integer stepMinutes;      // optional, defaults to 60; must divide 1440
+		public Integer utcOffsetMinutes; // optional, defaults to 0; rows are local days at this offset
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+		public Integer getYear() { return year; }
+		public void setYear(Integer year) { this.year = year; }
+		public Integer getStepMinutes() { return stepMinutes; }
+		public void setStepMinutes(Integer stepMinutes) { this.stepMinutes = stepMinutes; }
+		public Integer getUtcOffsetMinutes() { return utcOffsetMinutes; }
+		public void setUtcOffsetMinutes(Integer utcOffsetMinutes) { this.utcOffsetMinutes = utcOffsetMinutes; }
+	}
+
+	// Columnar, row-major by day: value[day * samplesPerDay + sample], in degrees * scale
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class SunPathResponse {
+		int year;
+		int days;
+		int samplesPerDay;
+		int stepMinutes;
+		int utcOffsetMinutes;
+		int scale = 100;
+		int[] elevation;
+		int[] azimuth;
+		public int getYear() { return year; }
+		public void setYear(int year) { this.year = year; }
+		public int getDays() { return days; }
+		public void setDays(int days) { this.days = days; }
+		public int getSamplesPerDay() { return samplesPerDay; }
+		public void setSamplesPerDay(int samplesPerDay) { this.samplesPerDay = samplesPerDay; }
+		public int getStepMinutes() { return stepMinutes; }
+		public void setStepMinutes(int stepMinutes) { this.stepMinutes = stepMinutes; }
+		public int getUtcOffsetMinutes() { return utcOffsetMinutes; }
+		public void setUtcOffsetMinutes(int utcOffsetMinutes) { this.utcOffsetMinutes = utcOffsetMinutes; }
+		public int getScale() { return scale; }
+		public void setScale(int scale) { this.scale = scale; }
+		public int[] getElevation() { return elevation; }
+		public void setElevation(int[] elevation) { this.elevation = elevation; }
+		public int[] getAzimuth() { return azimuth; }
+		public void setAzimuth(int[] azimuth) { this.azimuth = azimuth; }
+	}
+
+	@POST
+	@Path("solar/path")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SunPathResponse sunPath(SunPathRequest req) {
+		AstronomyService.SunPath path = computeSunPath(req);
+		int n = path.days * path.samplesPerDay;
+		ByteBuffer data = path.data();
+		SunPathResponse out = new SunPathResponse();
+		out.year = path.year;
+		out.days = path.days;
+		out.samplesPerDay = path.samplesPerDay;
+		out.stepMinutes = path.stepMinutes;
+		out.utcOffsetMinutes = path.utcOffsetMinutes;
+		out.elevation = new int[n];
+		out.azimuth = new int[n];
+		for (int i = 0; i < n; i++) {
+			out.elevation[i] = data.getShort(2 * i);
+			out.azimuth[i] = data.getShort(2 * (n + i)) & 0xFFFF;
+		}
+		return out;
+	}
+
+	// Body is the int16 elevation block then the uint16 azimuth block; see AstronomyService.SunPath
+	@POST
+	@Path("solar/path")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_OCTET_STREAM + ";qs=0.5")
+	public Response sunPathBinary(SunPathRequest req) {
+		AstronomyService.SunPath path = computeSunPath(req);
+		StreamingOutput body = output -> {
+			WritableByteChannel channel = Channels.newChannel(output);
+			ByteBuffer data = path.data();
+			while (data.hasRemaining()) {
+				channel.write(data);
+			}
+			output.flush();
+		};
+		return Response.ok(body, MediaType.APPLICATION_OCTET_STREAM)
+				.header("X-Sun-Path-Year", path.year)
+				.header("X-Sun-Path-Days", path.days)
+				.header("X-Sun-Path-Samples-Per-Day", path.samplesPerDay)
+				.header("X-Sun-Path-Step-Minutes", path.stepMinutes)
+				.header("X-Sun-Path-Utc-Offset-Minutes", path.utcOffsetMinutes)
+				.header("X-Sun-Path-Encoding", "int16-le elevation, uint16-le azimuth, centidegrees")
+				.build();
+	}
+
+	private AstronomyService.SunPath computeSunPath(SunPathRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		int year = req.year != null ? req.year : dateTimeService.nowUtc().getYear();
+		int stepMinutes = req.stepMinutes != null ? req.stepMinutes : 60;
+		int offset = req.utcOffsetMinutes != null ? req.utcOffsetMinutes : 0;
+		if (year < 1 || year > 9999) {
+			throw new IllegalArgumentException("year must be between 1 and 9999");
+		}
+		if (stepMinutes < 10 || 1440 % stepMinutes != 0) {
+			throw new IllegalArgumentException("stepMinutes must be at least 10 and divide 1440");
+		}
+		if (Math.abs(offset) > 18 * 60) {
+			throw new IllegalArgumentException("utcOffsetMinutes must be within 18 hours");
+		}
+		return astronomyService.computeSunPath(req.lat, req.lon, year, stepMinutes, offset);
+	}
+
+	public static class DayLengthRequest {
+		public Double fromLat; // optional, defaults to -90
+		public Double toLat;   // optional, defaults to 90
+		public Double latStep; // optional, defaults to 0.1
+		public Integer fromDay; // day of year, optional, defaults to 1
+		public Integer toDay;   // day of year, optional, defaults to 366
+		public Double getFromLat() { return fromLat; }
+		public void setFromLat(Double fromLat) { this.fromLat = fromLat; }
+		public Double getToLat() { return toLat; }
+		public void setToLat(Double toLat) { this.toLat = toLat; }
+		public Double getLatStep() { return latStep; }
+		public void setLatStep(Double latStep) { this.latStep = latStep; }
+		public Integer getFromDay() { return fromDay; }
+		public void setFromDay(Integer fromDay) { this.fromDay = fromDay; }
+		public Integer getToDay() { return toDay; }
+		public void setToDay(Integer toDay) { this.toDay = toDay; }
+	}
+
+	// hours[row * days + d] is the day length at fromLat + row * latStep on day fromDay + d (noon UTC)
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Columnar arrays are serialized by JSON without copying")
+	public static class DayLengthResponse {
+		double fromLat;
+		double latStep;
+		int rows;
+		int fromDay;
+		int days;
+		double errorBoundHours = DayLengthTable.ERROR_BOUND_HOURS;
+		float[] hours;
+		public double getFromLat() { return fromLat; }
+		public void setFromLat(double fromLat) { this.fromLat = fromLat; }
+		public double getLatStep() { return latStep; }
+		public void setLatStep(double latStep) { this.latStep = latStep; }
+		public int getRows() { return rows; }
+		public void setRows(int rows) { this.rows = rows; }
+		public int getFromDay() { return fromDay; }
+		public void setFromDay(int fromDay) { this.fromDay = fromDay; }
+		public int getDays() { return days; }
+		public void setDays(int days) { this.days = days; }
+		public double getErrorBoundHours() { return errorBoundHours; }
+		public void setErrorBoundHours(double errorBoundHours) { this.errorBoundHours = errorBoundHours; }
+		public float[] getHours() { return hours; }
+		public void setHours(float[] hours) { this.hours = hours; }
+	}
+
+	@POST
+	@Path("solar/day-length")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public DayLengthResponse dayLength(DayLengthRequest req) {
+		return dayLengthMatrix(req);
+	}
+
+	// Body is rows x days little-endian float32, row 0 at fromLat
+	@POST
+	@Path("solar/day-length")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_OCTET_STREAM + ";qs=0.5")
+	public Response dayLengthBinary(DayLengthRequest req) {
+		DayLengthResponse m = dayLengthMatrix(req);
+		StreamingOutput body = output -> {
+			ByteBuffer buf = ByteBuffer.allocate(4 * m.hours.length).order(ByteOrder.LITTLE_ENDIAN);
+			buf.asFloatBuffer().put(m.hours);
+			WritableByteChannel channel = Channels.newChannel(output);
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+			output.flush();
+		};
+		return Response.ok(body, MediaType.APPLICATION_OCTET_STREAM)
+				.header("X-Day-Length-Rows", m.rows)
+				.header("X-Day-Length-Days", m.days)
+				.header("X-Day-Length-From-Lat", m.fromLat)
+				.header("X-Day-Length-Lat-Step", m.latStep)
+				.header("X-Day-Length-From-Day", m.fromDay)
+				.header("X-Day-Length-Encoding", "float32-le")
+				.build();
+	}
+
+	private DayLengthResponse dayLengthMatrix(DayLengthRequest req) {
+		DayLengthRequest r = req != null ? req : new DayLengthRequest();
+		double fromLat = r.fromLat != null ? r.fromLat : -90.0;
+		double toLat = r.toLat != null ? r.toLat : 90.0;
+		double step = r.latStep != null ? r.latStep : DayLengthTable.LATITUDE_STEP_DEG;
+		int fromDay = r.fromDay != null ? r.fromDay : 1;
+		int toDay = r.toDay != null ? r.toDay : 366;
+		if (!(fromLat >= -90.0 && toLat <= 90.0 && fromLat <= toLat)) {
+			throw new IllegalArgumentException("fromLat and toLat must satisfy -90 <= fromLat <= toLat <= 90");
+		}
+		if (!(step >= 0.01)) {
+			throw new IllegalArgumentException("latStep must be at least 0.01");
+		}
+		if (fromDay < 1 || toDay > 366 || fromDay > toDay) {
+			throw new IllegalArgumentException("fromDay and toDay must satisfy 1 <= fromDay <= toDay <= 366");
+		}
+		// Tolerate float noise so that e.g. -90..90 by 0.1 includes 90
+		int rows = (int) Math.floor((toLat - fromLat) / step + 1e-9) + 1;
+		int days = toDay - fromDay + 1;
+		if ((long) rows * days > MAX_DAY_LENGTH_CELLS) {
+			throw new IllegalArgumentException("at most " + MAX_DAY_LENGTH_CELLS + " cells per request");
+		}
+		DayLengthResponse out = new DayLengthResponse();
+		out.fromLat = fromLat;
+		out.latStep = step;
+		out.rows = rows;
+		out.fromDay = fromDay;
+		out.days = days;
+		out.hours = new float[rows * days];
+		DayLengthTable.fill(fromLat, step, rows, fromDay, days, out.hours);
+		return out;
 	}
 
 	@POST
@@ -365,8 +1914,215 @@ public class CalendarResourceV2 {
 		if (req == null || req.lat == null || req.lon == null) {
 			throw new IllegalArgumentException("lat and lon are required");
 		}
-		ZonedDateTime at = toZoned(req.at);
-		AstronomyService.MoonlightInfoResult mi = astronomyService.computeMoonlightInfo(at, req.lat, req.lon);
+		long at = toEpochSecond(req.at);
+		boolean exact = Boolean.TRUE.equals(req.exact);
+		SkyTableStore.SkySample sample = new SkyTableStore.SkySample();
+		if (!exact && req.precision == null && SkyTables.STORE.lookup(req.lat, req.lon, at, sample)) {
+			return moonlightFromTable(sample);
+		}
+		AstronomyService.MoonlightInfoResult mi = new AstronomyService.MoonlightInfoResult();
+		if (exact) {
+			astronomyService.moonlightInfo(at, req.lat, req.lon, precision(req.precision), mi);
+		} else {
+			ResultCache.INSTANCE.moonlightInfo(at, req.lat, req.lon, precision(req.precision), mi);
+		}
+		return toMoonlightResponse(mi);
+	}
+
+	public static class SkyRequest {
+		public Double lat;
+		public Double lon;
+		public BaseDateTime at; // optional, defaults to now
+		public String precision; // optional "exact" or "fast", defaults to the configured precision
+		public Boolean exact; // optional, true skips the result cache and sky table and evaluates at the exact inputs
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+		public BaseDateTime getAt() { return copyBase(at); }
+		public void setAt(BaseDateTime at) { this.at = copyBase(at); }
+		public String getPrecision() { return precision; }
+		public void setPrecision(String precision) { this.precision = precision; }
+		public Boolean getExact() { return exact; }
+		public void setExact(Boolean exact) { this.exact = exact; }
+	}
+
+	@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Response parts are freshly built per request")
+	public static class SkyResponse {
+		public SolarResponse solar;
+		public MoonlightResponse moonlight;
+		public MoonResponse moonPhase;
+		public SolarResponse getSolar() { return solar; }
+		public void setSolar(SolarResponse solar) { this.solar = solar; }
+		public MoonlightResponse getMoonlight() { return moonlight; }
+		public void setMoonlight(MoonlightResponse moonlight) { this.moonlight = moonlight; }
+		public MoonResponse getMoonPhase() { return moonPhase; }
+		public void setMoonPhase(MoonResponse moonPhase) { this.moonPhase = moonPhase; }
+	}
+
+	// Same data as solar, moonlight and moon-phase for one instant, computed in a single pass
+	@POST
+	@Path("sky")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SkyResponse sky(SkyRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		long at = toEpochSecond(req.at);
+		boolean exact = Boolean.TRUE.equals(req.exact);
+		SkyResponse out = new SkyResponse();
+		SkyTableStore.SkySample sample = new SkyTableStore.SkySample();
+		if (!exact && req.precision == null && SkyTables.STORE.lookup(req.lat, req.lon, at, sample)) {
+			AstronomyService.MoonPhaseResult phase = new AstronomyService.MoonPhaseResult();
+			astronomyService.moonPhase(at, phase);
+			out.solar = solarFromTable(sample);
+			out.moonlight = moonlightFromTable(sample);
+			out.moonPhase = toMoonResponse(phase);
+			return out;
+		}
+		AstronomyService.SkyStateResult sky = new AstronomyService.SkyStateResult();
+		if (exact) {
+			astronomyService.computeSkyState(at, req.lat, req.lon, precision(req.precision), sky);
+		} else {
+			ResultCache.INSTANCE.computeSkyState(at, req.lat, req.lon, precision(req.precision), sky);
+		}
+		out.solar = toSolarResponse(sky.sun);
+		out.moonlight = toMoonlightResponse(sky.moon);
+		out.moonPhase = toMoonResponse(sky.phase);
+		return out;
+	}
+
+	// min and max are inclusive and optional; azimuth ranges with min > max wrap through north
+	public static class SkyConstraint {
+		public String quantity; // e.g. sunElevation, sunAzimuth, sunIntensity, moonElevation, moonAzimuth, moonIntensity, moonIllumination
+		public Double min;
+		public Double max;
+		public String getQuantity() { return quantity; }
+		public void setQuantity(String quantity) { this.quantity = quantity; }
+		public Double getMin() { return min; }
+		public void setMin(Double min) { this.min = min; }
+		public Double getMax() { return max; }
+		public void setMax(Double max) { this.max = max; }
+	}
+
+	public static class SkySearchRequest {
+		public Double lat;
+		public Double lon;
+		public BaseDateTime from; // optional, defaults to now
+		public BaseDateTime to;   // optional, defaults to from + 30 days
+		public List<SkyConstraint> constraints;
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+		public BaseDateTime getFrom() { return copyBase(from); }
+		public void setFrom(BaseDateTime from) { this.from = copyBase(from); }
+		public BaseDateTime getTo() { return copyBase(to); }
+		public void setTo(BaseDateTime to) { this.to = copyBase(to); }
+		public List<SkyConstraint> getConstraints() { return constraints == null ? null : new ArrayList<>(constraints); }
+		public void setConstraints(List<SkyConstraint> constraints) { this.constraints = constraints == null ? null : new ArrayList<>(constraints); }
+	}
+
+	// Closed interval in epoch seconds, accurate to about a second
+	public static class SkyInterval {
+		public long start;
+		public long end;
+		public long durationSeconds;
+		public long getStart() { return start; }
+		public void setStart(long start) { this.start = start; }
+		public long getEnd() { return end; }
+		public void setEnd(long end) { this.end = end; }
+		public long getDurationSeconds() { return durationSeconds; }
+		public void setDurationSeconds(long durationSeconds) { this.durationSeconds = durationSeconds; }
+	}
+
+	public static class SkySearchResponse {
+		public int count;
+		public List<SkyInterval> intervals = new ArrayList<>();
+		public int getCount() { return count; }
+		public void setCount(int count) { this.count = count; }
+		public List<SkyInterval> getIntervals() { return new ArrayList<>(intervals); }
+		public void setIntervals(List<SkyInterval> intervals) { this.intervals = new ArrayList<>(intervals); }
+	}
+
+	// Intervals in [from, to] where every constraint holds at the given location
+	@POST
+	@Path("sky/search")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SkySearchResponse skySearch(SkySearchRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		if (req.constraints == null || req.constraints.isEmpty() || req.constraints.size() > MAX_SEARCH_CONSTRAINTS) {
+			throw new IllegalArgumentException("between 1 and " + MAX_SEARCH_CONSTRAINTS + " constraints are required");
+		}
+		long from = toEpochSecond(req.from);
+		long to = req.to != null ? toEpochSecond(req.to) : from + 30L * 86400L;
+		if (to <= from || to - from > MAX_SEARCH_SECONDS) {
+			throw new IllegalArgumentException("to must be after from and within " + (MAX_SEARCH_SECONDS / 86400L) + " days");
+		}
+		List<SkyConstraintSearch.Constraint> constraints = new ArrayList<>();
+		for (SkyConstraint c : req.constraints) {
+			if (c == null || (c.min == null && c.max == null)) {
+				throw new IllegalArgumentException("each constraint needs a quantity and min or max");
+			}
+			constraints.add(new SkyConstraintSearch.Constraint(SkyConstraintSearch.Quantity.parse(c.quantity),
+					c.min != null ? c.min : Double.NEGATIVE_INFINITY, c.max != null ? c.max : Double.POSITIVE_INFINITY));
+		}
+		SkySearchResponse out = new SkySearchResponse();
+		for (SkyConstraintSearch.Interval i : skyConstraintSearch.search(req.lat, req.lon, from, to, constraints)) {
+			SkyInterval row = new SkyInterval();
+			row.start = i.startEpochSecond;
+			row.end = i.endEpochSecond;
+			row.durationSeconds = i.endEpochSecond - i.startEpochSecond;
+			out.intervals.add(row);
+		}
+		out.count = out.intervals.size();
+		return out;
+	}
+
+	private static MoonResponse toMoonResponse(AstronomyService.MoonPhaseResult r) {
+		MoonResponse out = new MoonResponse();
+		out.phase = r.phase;
+		out.illumination = r.illumination;
+		out.ageDays = r.ageDays;
+		out.phaseName = r.phaseName;
+		out.phaseAngleDeg = r.phaseAngleDeg;
+		out.waxing = r.waxing;
+		out.waning = r.waning;
+		out.crescent = r.crescent;
+		out.gibbous = r.gibbous;
+		out.quarter = r.quarter;
+		out.full = r.full;
+		out.isNew = r.isNew;
+		return out;
+	}
+
+	private static SolarResponse toSolarResponse(AstronomyService.SolarInfoResult si) {
+		SolarResponse out = new SolarResponse();
+		out.elevationDeg = si.elevationDeg;
+		out.azimuthDeg = si.azimuthDeg;
+		out.intensity = si.intensity;
+		out.daylight = si.isDaylight;
+		out.dayLengthHours = si.dayLengthHours;
+		out.nightLengthHours = si.nightLengthHours;
+		return out;
+	}
+
+	private static SolarResponse solarFromTable(SkyTableStore.SkySample sample) {
+		SolarResponse out = new SolarResponse();
+		out.elevationDeg = sample.sunElevationDeg;
+		out.azimuthDeg = sample.sunAzimuthDeg;
+		out.intensity = Math.max(0.0, Math.sin(Math.toRadians(sample.sunElevationDeg)));
+		out.daylight = sample.sunElevationDeg > 0.0;
+		out.dayLengthHours = sample.dayLengthHours;
+		out.nightLengthHours = 24.0 - sample.dayLengthHours;
+		return out;
+	}
+
+	private static MoonlightResponse toMoonlightResponse(AstronomyService.MoonlightInfoResult mi) {
 		MoonlightResponse out = new MoonlightResponse();
 		out.elevationDeg = mi.elevationDeg;
 		out.azimuthDeg = mi.azimuthDeg;
@@ -376,18 +2132,237 @@ public class CalendarResourceV2 {
 		return out;
 	}
 
+	private static MoonlightResponse moonlightFromTable(SkyTableStore.SkySample sample) {
+		MoonlightResponse out = new MoonlightResponse();
+		out.elevationDeg = sample.moonElevationDeg;
+		out.azimuthDeg = sample.moonAzimuthDeg;
+		out.intensity = Math.max(0.0, Math.sin(Math.toRadians(sample.moonElevationDeg))) * sample.moonIllumination / 1300000.0;
+		out.aboveHorizon = sample.moonElevationDeg > 0.0;
+		out.illumination = sample.moonIllumination;
+		return out;
+	}
+
+	public static class LocationRequest {
+		public Double lat;
+		public Double lon;
+		public Double getLat() { return lat; }
+		public void setLat(Double lat) { this.lat = lat; }
+		public Double getLon() { return lon; }
+		public void setLon(Double lon) { this.lon = lon; }
+	}
+
+	public static class LocationStatus {
+		public double lat;
+		public double lon;
+		public String status; // pending, ready or failed
+		public long windowStartEpochSecond;
+		public long windowEndEpochSecond;
+		public double getLat() { return lat; }
+		public void setLat(double lat) { this.lat = lat; }
+		public double getLon() { return lon; }
+		public void setLon(double lon) { this.lon = lon; }
+		public String getStatus() { return status; }
+		public void setStatus(String status) { this.status = status; }
+		public long getWindowStartEpochSecond() { return windowStartEpochSecond; }
+		public void setWindowStartEpochSecond(long windowStartEpochSecond) { this.windowStartEpochSecond = windowStartEpochSecond; }
+		public long getWindowEndEpochSecond() { return windowEndEpochSecond; }
+		public void setWindowEndEpochSecond(long windowEndEpochSecond) { this.windowEndEpochSecond = windowEndEpochSecond; }
+	}
+
+	public static class LocationsResponse {
+		List<LocationStatus> locations = new ArrayList<>();
+		public List<LocationStatus> getLocations() { return new ArrayList<>(locations); }
+		public void setLocations(List<LocationStatus> locations) { this.locations = new ArrayList<>(locations); }
+	}
+
+	// Registered locations get a precomputed minute-resolution sky table; solar and moonlight
+	// requests without an explicit precision are then answered from the table
+	@POST
+	@Path("locations")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response registerLocation(LocationRequest req) {
+		if (req == null || req.lat == null || req.lon == null) {
+			throw new IllegalArgumentException("lat and lon are required");
+		}
+		SkyTableStore.SiteInfo info = SkyTables.STORE.register(req.lat, req.lon);
+		return Response.status(Response.Status.ACCEPTED).entity(toLocationStatus(info)).build();
+	}
+
+	@GET
+	@Path("locations")
+	@Produces(MediaType.APPLICATION_JSON)
+	public LocationsResponse listLocations() {
+		LocationsResponse out = new LocationsResponse();
+		for (SkyTableStore.SiteInfo info : SkyTables.STORE.list()) {
+			out.locations.add(toLocationStatus(info));
+		}
+		return out;
+	}
+
+	private static LocationStatus toLocationStatus(SkyTableStore.SiteInfo info) {
+		LocationStatus s = new LocationStatus();
+		s.lat = info.latitudeDeg;
+		s.lon = info.longitudeDeg;
+		s.status = info.status.name().toLowerCase(Locale.ROOT);
+		s.windowStartEpochSecond = info.windowStartEpochSecond;
+		s.windowEndEpochSecond = info.windowEndEpochSecond;
+		return s;
+	}
+
+	public static class CacheStatsResponse {
+		public long hits;
+		public long misses;
+		public long notAdmitted;
+		public long evictions;
+		public long size;
+		public double hitRate;
+		public long getHits() { return hits; }
+		public void setHits(long hits) { this.hits = hits; }
+		public long getMisses() { return misses; }
+		public void setMisses(long misses) { this.misses = misses; }
+		public long getNotAdmitted() { return notAdmitted; }
+		public void setNotAdmitted(long notAdmitted) { this.notAdmitted = notAdmitted; }
+		public long getEvictions() { return evictions; }
+		public void setEvictions(long evictions) { this.evictions = evictions; }
+		public long getSize() { return size; }
+		public void setSize(long size) { this.size = size; }
+		public double getHitRate() { return hitRate; }
+		public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+	}
+
+	@GET
+	@Path("cache/stats")
+	@Produces(MediaType.APPLICATION_JSON)
+	public CacheStatsResponse cacheStats() {
+		QuantizedAstronomyCache.Stats s = ResultCache.INSTANCE.stats();
+		CacheStatsResponse out = new CacheStatsResponse();
+		out.hits = s.hits;
+		out.misses = s.misses;
+		out.notAdmitted = s.notAdmitted;
+		out.evictions = s.evictions;
+		out.size = s.size;
+		out.hitRate = s.hitRate();
+		return out;
+	}
+
+	// Shared solar/moonlight/sky result cache, configured once on first use
+	private static final class ResultCache {
+		static final QuantizedAstronomyCache INSTANCE = new QuantizedAstronomyCache(new AstronomyService(),
+				AppConfig.getAstronomyCacheLocationQuantumDeg(), AppConfig.getAstronomyCacheTimeQuantumSeconds(),
+				AppConfig.getAstronomyCacheMaxEntries(), AppConfig.getAstronomyCacheTtlSeconds());
+	}
+
+	// Built-in and uploaded business calendars, shared by all requests
+	private static final class BusinessCalendars {
+		static final BusinessCalendarRegistry REGISTRY = new BusinessCalendarRegistry();
+	}
+
+	// Process-wide table store, opened on first use so existing tables are remapped after a restart
+	private static final class SkyTables {
+		static final SkyTableStore STORE = new SkyTableStore(
+				Paths.get(AppConfig.getSkyTableDir()), AppConfig.getSkyTableWindowDays(), AppConfig.getSkyTableMaxSites());
+
+		static {
+			openSkyTables = STORE;
+		}
+	}
+
+	// Set once SkyTables is initialised, so shutdown can close the store without opening it
+	private static volatile SkyTableStore openSkyTables;
+
+	/** Stops background work of shared resources; called when the application is undeployed. */
+	public static void closeSharedResources() {
+		SkyTableStore store = openSkyTables;
+		if (store != null) {
+			store.close();
+		}
+	}
+
+	// Primitive counterpart of toZoned; a ZonedDateTime is only built when a field defaults to now
+	private long toEpochSecond(BaseDateTime base) {
+		if (base == null || base.zone == null || base.zone.isBlank()) {
+			return toUtcEpochSecond(base);
+		}
+		ZoneId zone = zoneOf(base.zone);
+		if (!isComplete(base)) {
+			return toZoned(base).toEpochSecond();
+		}
+		return ZoneOffsetTable.of(zone).toEpochSecond(toUtcEpochSecond(base));
+	}
+
+	// Wall-clock seconds of base in its own zone, counted as if that zone were UTC
+	private long toLocalEpochSecond(BaseDateTime base) {
+		long at = toEpochSecond(base);
+		if (base == null || base.zone == null || base.zone.isBlank()) {
+			return at;
+		}
+		return at + ZoneOffsetTable.of(zoneOf(base.zone)).offsetSeconds(at);
+	}
+
+	private static boolean isComplete(BaseDateTime base) {
+		return base.year != null && base.month != null && base.day != null
+				&& base.hour != null && base.minute != null && base.second != null;
+	}
+
+	// The fields of base read as UTC
+	private long toUtcEpochSecond(BaseDateTime base) {
+		if (base == null) {
+			return dateTimeService.nowEpochSecond();
+		}
+		if (!isComplete(base)) {
+			return toZoned(base).toEpochSecond();
+		}
+		int year = ChronoField.YEAR.checkValidIntValue(base.year);
+		int month = ChronoField.MONTH_OF_YEAR.checkValidIntValue(base.month);
+		int day = ChronoField.DAY_OF_MONTH.checkValidIntValue(base.day);
+		int hour = ChronoField.HOUR_OF_DAY.checkValidIntValue(base.hour);
+		int minute = ChronoField.MINUTE_OF_HOUR.checkValidIntValue(base.minute);
+		int second = ChronoField.SECOND_OF_MINUTE.checkValidIntValue(base.second);
+		if (day > EpochCalendar.lengthOfMonth(year, month)) {
+			throw new DateTimeException("Invalid date: " + year + "-" + month + "-" + day);
+		}
+		return EpochCalendar.epochDay(year, month, day) * EpochCalendar.SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+	}
+
 	private ZonedDateTime toZoned(BaseDateTime base) {
 		if (base == null) {
 			return dateTimeService.nowUtc();
 		}
-		ZonedDateTime now = dateTimeService.nowUtc();
+		ZoneId zone = zoneOf(base.zone);
+		ZonedDateTime now = dateTimeService.nowUtc().withZoneSameInstant(zone);
 		int year = base.year != null ? base.year : now.getYear();
 		int month = base.month != null ? base.month : now.getMonthValue();
 		int day = base.day != null ? base.day : now.getDayOfMonth();
 		int hour = base.hour != null ? base.hour : now.getHour();
 		int minute = base.minute != null ? base.minute : now.getMinute();
 		int second = base.second != null ? base.second : now.getSecond();
-		return ZonedDateTime.of(year, month, day, hour, minute, second, 0, ZoneOffset.UTC);
+		return ZonedDateTime.of(year, month, day, hour, minute, second, 0, zone);
+	}
+
+	// Null or blank means UTC
+	private static ZoneId zoneOf(String id) {
+		if (id == null || id.isBlank()) {
+			return ZoneOffset.UTC;
+		}
+		try {
+			return ZoneId.of(id.trim());
+		} catch (DateTimeException e) {
+			throw new IllegalArgumentException("unknown zone: " + id, e);
+		}
+	}
+
+	private static AstronomyService.Precision precision(String requested) {
+		if (requested == null || requested.isBlank()) {
+			return DefaultPrecision.VALUE;
+		}
+		return AstronomyService.Precision.valueOf(requested.trim().toUpperCase(Locale.ROOT));
+	}
+
+	// Global default, read from configuration once on first use
+	private static final class DefaultPrecision {
+		static final AstronomyService.Precision VALUE = AstronomyService.Precision.valueOf(
+				AppConfig.getAstronomyPrecision().trim().toUpperCase(Locale.ROOT));
 	}
 
 	private static DateTimeService.Delta negate(DateTimeService.Delta d) {
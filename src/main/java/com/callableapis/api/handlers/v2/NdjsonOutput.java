@@ -0,0 +1,52 @@
+package com.callableapis.api.handlers.v2;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Streams rows as newline-delimited JSON. Rows are pulled from the iterator only as they are
+ * written and flushed every FLUSH_ROWS rows, so memory stays constant for any range length.
+ * A failed write (client gone) or an interrupt stops pulling rows, which cancels generation.
+ */
+final class NdjsonOutput implements StreamingOutput {
+
+	static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+	private static final int FLUSH_ROWS = 1024;
+	private static final int BUFFER_BYTES = 64 * 1024;
+	private static final Jsonb JSONB = JsonbBuilder.create();
+
+	private final Iterator<?> rows;
+
+	NdjsonOutput(Iterator<?> rows) {
+		this.rows = rows;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_BYTES);
+		int pending = 0;
+		while (rows.hasNext()) {
+			writer.write(JSONB.toJson(rows.next()));
+			writer.write('\n');
+			if (++pending == FLUSH_ROWS) {
+				writer.flush();
+				pending = 0;
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedIOException("NDJSON stream cancelled");
+				}
+			}
+		}
+		writer.flush();
+	}
+}
@@ -0,0 +1,196 @@
+package com.callableapis.api.handlers.v2;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.DateTimeService;
+import com.callableapis.api.time.MoonEventService;
+import com.callableapis.api.time.MoonPhaseEventService;
+import com.callableapis.api.time.SolarEventService;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lazy row generators for the range endpoints. Each keeps at most one chunk of work in memory,
+ * so the NDJSON responses cost the same heap for a day as for a century.
+ */
+final class RangeRows {
+
+	// Samples evaluated per chunk of a solar series (one day at 1-minute resolution)
+	private static final int SERIES_CHUNK = 1440;
+	// Phase events are fetched about ten years at a time
+	private static final long PHASE_WINDOW_SECONDS = 10L * 366L * 86400L;
+
+	private RangeRows() {}
+
+	static Iterator<CalendarResourceV2.SolarSample> solarSeries(AstronomyService astronomy, double lat, double lon,
+			long start, long end, int stepSeconds) {
+		long total = (end - start) / stepSeconds + 1;
+		return new Iterator<>() {
+			private final double[] elevation = new double[SERIES_CHUNK];
+			private final double[] azimuth = new double[SERIES_CHUNK];
+			private final double[] intensity = new double[SERIES_CHUNK];
+			private long emitted;
+			private int chunkPos;
+			private int chunkLen;
+
+			@Override
+			public boolean hasNext() {
+				return emitted < total;
+			}
+
+			@Override
+			public CalendarResourceV2.SolarSample next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				if (chunkPos == chunkLen) {
+					chunkLen = (int) Math.min(SERIES_CHUNK, total - emitted);
+					astronomy.fillSolarSeries(lat, lon, start + emitted * stepSeconds, stepSeconds,
+							elevation, azimuth, intensity, 0, chunkLen);
+					chunkPos = 0;
+				}
+				CalendarResourceV2.SolarSample row = new CalendarResourceV2.SolarSample();
+				row.epochSecond = start + emitted * stepSeconds;
+				row.elevationDeg = elevation[chunkPos];
+				row.azimuthDeg = azimuth[chunkPos];
+				row.intensity = intensity[chunkPos];
+				chunkPos++;
+				emitted++;
+				return row;
+			}
+		};
+	}
+
+	static Iterator<CalendarResourceV2.SolarEventsDay> solarEvents(SolarEventService events, double lat, double lon,
+			long fromEpochDay, long toEpochDay) {
+		return new Iterator<>() {
+			private long day = fromEpochDay;
+
+			@Override
+			public boolean hasNext() {
+				return day <= toEpochDay;
+			}
+
+			@Override
+			public CalendarResourceV2.SolarEventsDay next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new CalendarResourceV2.SolarEventsDay(events.computeDay(lat, lon, day++));
+			}
+		};
+	}
+
+	static Iterator<CalendarResourceV2.MoonEventsDay> moonEvents(MoonEventService events, double lat, double lon,
+			long fromEpochDay, long toEpochDay) {
+		return new Iterator<>() {
+			private long day = fromEpochDay;
+
+			@Override
+			public boolean hasNext() {
+				return day <= toEpochDay;
+			}
+
+			@Override
+			public CalendarResourceV2.MoonEventsDay next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new CalendarResourceV2.MoonEventsDay(events.computeDay(lat, lon, day++));
+			}
+		};
+	}
+
+	static Iterator<CalendarResourceV2.PhaseEvent> phaseEvents(MoonPhaseEventService phases, long start, long end) {
+		return new Iterator<>() {
+			private long windowStart = start;
+			private MoonPhaseEventService.PhaseEvent[] window = new MoonPhaseEventService.PhaseEvent[0];
+			private int pos;
+
+			@Override
+			public boolean hasNext() {
+				while (pos == window.length && windowStart < end) {
+					long windowEnd = Math.min(end, windowStart + PHASE_WINDOW_SECONDS);
+					window = phases.eventsBetween(windowStart, windowEnd);
+					windowStart = windowEnd;
+					pos = 0;
+				}
+				return pos < window.length;
+			}
+
+			@Override
+			public CalendarResourceV2.PhaseEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new CalendarResourceV2.PhaseEvent(window[pos++]);
+			}
+		};
+	}
+
+	// from + k * step for k = 0, 1, ... while not after to, at most limit rows
+	static Iterator<CalendarResourceV2.DateTimeStruct> dates(DateTimeService dateTimeService, ZonedDateTime from,
+			ZonedDateTime to, DateTimeService.Delta step, long limit) {
+		if (!dateTimeService.shift(from, step).isAfter(from)) {
+			throw new IllegalArgumentException("step must move forward in time");
+		}
+		return new Iterator<>() {
+			private int k;
+			private ZonedDateTime current = from;
+
+			@Override
+			public boolean hasNext() {
+				return current != null && !current.isAfter(to) && k < limit;
+			}
+
+			@Override
+			public CalendarResourceV2.DateTimeStruct next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				CalendarResourceV2.DateTimeStruct row = new CalendarResourceV2.DateTimeStruct(current);
+				k++;
+				try {
+					// Scale the step rather than accumulate it so month-end clamping does not drift
+					current = dateTimeService.shift(from, scaled(step, k));
+				} catch (ArithmeticException | DateTimeException e) {
+					current = null; // ran off the supported calendar range
+				}
+				return row;
+			}
+		};
+	}
+
+	// Occurrences of an expanded recurrence rule shown in zone, at most limit rows
+	static Iterator<CalendarResourceV2.DateTimeStruct> recurrences(PrimitiveIterator.OfLong occurrences, ZoneId zone, long limit) {
+		return new Iterator<>() {
+			private long k;
+
+			@Override
+			public boolean hasNext() {
+				return k < limit && occurrences.hasNext();
+			}
+
+			@Override
+			public CalendarResourceV2.DateTimeStruct next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				k++;
+				return new CalendarResourceV2.DateTimeStruct(
+						ZonedDateTime.ofInstant(Instant.ofEpochSecond(occurrences.nextLong()), zone));
+			}
+		};
+	}
+
+	private static DateTimeService.Delta scaled(DateTimeService.Delta d, int k) {
+		return new DateTimeService.Delta(Math.multiplyExact(d.years, k), Math.multiplyExact(d.months, k),
+				Math.multiplyExact(d.days, k), Math.multiplyExact(d.hours, k), Math.multiplyExact(d.minutes, k),
+				Math.multiplyExact(d.seconds, k));
+	}
+}
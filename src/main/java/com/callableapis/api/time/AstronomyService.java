@@ -1,7 +1,13 @@
 package com.callableapis.api.time;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
 
 public class AstronomyService {
 
@@ -37,75 +43,288 @@ public class AstronomyService {
 		public double illumination; // 0..1 from phase
 	}
 
+	// Sun, moon and phase for one instant and location, filled by computeSkyState
+	public static class SkyStateResult {
+		public final SolarInfoResult sun = new SolarInfoResult();
+		public final MoonlightInfoResult moon = new MoonlightInfoResult();
+		public final MoonPhaseResult phase = new MoonPhaseResult();
+	}
+
+	// Columnar (struct-of-arrays) solar results; index i corresponds to input i
+	public static class SolarBatchResult {
+		public final double[] elevationDeg;
+		public final double[] azimuthDeg;
+		public final double[] intensity;
+		public final boolean[] isDaylight;
+		public final double[] dayLengthHours;
+		public final double[] nightLengthHours;
+
+		public SolarBatchResult(int size) {
+			this.elevationDeg = new double[size];
+			this.azimuthDeg = new double[size];
+			this.intensity = new double[size];
+			this.isDaylight = new boolean[size];
+			this.dayLengthHours = new double[size];
+			this.nightLengthHours = new double[size];
+		}
+
+		public int size() {
+			return elevationDeg.length;
+		}
+	}
+
+	// Evenly spaced solar samples for one location: sample i is at startEpochSecond + i * stepSeconds
+	public static class SolarSeriesResult {
+		public final long startEpochSecond;
+		public final int stepSeconds;
+		public final double[] elevationDeg;
+		public final double[] azimuthDeg;
+		public final double[] intensity;
+
+		public SolarSeriesResult(long startEpochSecond, int stepSeconds, int size) {
+			this.startEpochSecond = startEpochSecond;
+			this.stepSeconds = stepSeconds;
+			this.elevationDeg = new double[size];
+			this.azimuthDeg = new double[size];
+			this.intensity = new double[size];
+		}
+
+		public int size() {
+			return elevationDeg.length;
+		}
+	}
+
+	public enum RasterLayer {
+		INTENSITY,
+		ELEVATION
+	}
+
+	/**
+	 * Global lat/lon grid of one solar quantity as little-endian float32 in a direct buffer.
+	 * Row 0 is the northernmost band; cell (r, c) is centred on
+	 * lat = 90 - (r + 0.5) * resolution, lon = -180 + (c + 0.5) * resolution. The resolution
+	 * divides 180 and 360, so rows * resolution = 180 and cols * resolution = 360 exactly.
+	 */
+	public static final class SolarRaster {
+		public final int rows;
+		public final int cols;
+		public final double resolutionDeg;
+		public final RasterLayer layer;
+		private final ByteBuffer data;
+
+		SolarRaster(int rows, int cols, double resolutionDeg, RasterLayer layer, ByteBuffer data) {
+			this.rows = rows;
+			this.cols = cols;
+			this.resolutionDeg = resolutionDeg;
+			this.layer = layer;
+			this.data = data;
+		}
+
+		// Read-only view positioned at the first cell
+		public ByteBuffer data() {
+			return data.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	/**
+	 * Sun path for one year: samplesPerDay samples per local day, row-major by day. The buffer
+	 * holds days * samplesPerDay little-endian int16 elevations in hundredths of a degree,
+	 * followed by as many uint16 azimuths (0 = north) in hundredths of a degree.
+	 */
+	public static final class SunPath {
+		public final int year;
+		public final int days;
+		public final int samplesPerDay;
+		public final int stepMinutes;
+		public final int utcOffsetMinutes;
+		private final ByteBuffer data;
+
+		SunPath(int year, int days, int stepMinutes, int utcOffsetMinutes, ByteBuffer data) {
+			this.year = year;
+			this.days = days;
+			this.samplesPerDay = 1440 / stepMinutes;
+			this.stepMinutes = stepMinutes;
+			this.utcOffsetMinutes = utcOffsetMinutes;
+			this.data = data;
+		}
+
+		public double elevationDeg(int day, int sample) {
+			return data.getShort(2 * (day * samplesPerDay + sample)) / 100.0;
+		}
+
+		public double azimuthDeg(int day, int sample) {
+			return (data.getShort(2 * (days * samplesPerDay + day * samplesPerDay + sample)) & 0xFFFF) / 100.0;
+		}
+
+		// Read-only view positioned at the first elevation
+		public ByteBuffer data() {
+			return data.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	// Below this many points a batch is evaluated on the calling thread
+	private static final int BATCH_SPLIT_THRESHOLD = 2048;
+
+	/**
+	 * Numerical precision of the trig functions in computeSolarInfo and computeMoonlightInfo.
+	 * FAST uses {@link FastTrig}; against EXACT over a dense grid of dates and locations
+	 * (FastPrecisionAccuracyTest) elevation differs by at most 1e-5 degrees, azimuth by at most
+	 * 0.001 degrees and day length by at most 1e-5 hours.
+	 */
+	public enum Precision {
+		EXACT {
+			@Override
+			double sin(double x) { return Math.sin(x); }
+			@Override
+			double cos(double x) { return Math.cos(x); }
+			@Override
+			double tan(double x) { return Math.tan(x); }
+			@Override
+			double acos(double x) { return Math.acos(x); }
+			@Override
+			double atan2(double y, double x) { return Math.atan2(y, x); }
+		},
+		FAST {
+			@Override
+			double sin(double x) { return FastTrig.sin(x); }
+			@Override
+			double cos(double x) { return FastTrig.cos(x); }
+			@Override
+			double tan(double x) { return FastTrig.sin(x) / FastTrig.cos(x); }
+			@Override
+			double acos(double x) { return FastTrig.acos(x); }
+			@Override
+			double atan2(double y, double x) { return FastTrig.atan2(y, x); }
+		};
+
+		abstract double sin(double x);
+		abstract double cos(double x);
+		abstract double tan(double x);
+		abstract double acos(double x);
+		abstract double atan2(double y, double x);
+	}
+
 	// Synodic month length in days
-	private static final double SYNODIC_MONTH = 29.530588853;
+	static final double SYNODIC_MONTH = 29.530588853;
 
 	// Reference new moon: 2000-01-06 18:14 UTC (JDN 2451550.1)
-	private static final double REF_NEW_MOON_JDN = 2451550.1;
+	static final double REF_NEW_MOON_JDN = 2451550.1;
+
+	// Julian day of the Unix epoch, 1970-01-01T00:00Z
+	private static final double EPOCH_JDN = 2440587.5;
+
+	// The ZonedDateTime entry points read the wall-clock fields as UTC, as they always have,
+	// and delegate to the primitive epoch-second forms below
 
 	public MoonPhaseResult computeMoonPhase(ZonedDateTime dateTimeUtc) {
-		double jdn = toJulianDay(dateTimeUtc);
-		double daysSince = jdn - REF_NEW_MOON_JDN;
-		double phase = mod(daysSince / SYNODIC_MONTH, 1.0);
-		double ageDays = phase * SYNODIC_MONTH;
-		// Approx illuminated fraction
-		double illumination = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * phase));
 		MoonPhaseResult r = new MoonPhaseResult();
-		r.phase = phase;
-		r.illumination = illumination;
-		r.ageDays = ageDays;
-		r.phaseName = phaseName(phase);
-		r.phaseAngleDeg = (phase * 360.0) % 360.0;
-		r.waxing = phase > 0.0 && phase < 0.5;
-		r.waning = phase > 0.5 && phase < 1.0;
-		r.crescent = (phase > 0.0 && phase < 0.25) || (phase > 0.75 && phase < 1.0);
-		r.gibbous = (phase > 0.25 && phase < 0.5) || (phase > 0.5 && phase < 0.75);
-		r.quarter = (phase >= 0.22 && phase <= 0.28) || (phase >= 0.72 && phase <= 0.78);
-		r.full = (phase >= 0.47 && phase <= 0.53);
-		r.isNew = (phase <= 0.03 || phase >= 0.97);
+		moonPhase(wallClockEpochSecond(dateTimeUtc), r);
 		return r;
 	}
 
 	public SolarInfoResult computeSolarInfo(ZonedDateTime dateTimeUtc, double latitudeDeg, double longitudeDeg) {
-		// Based on NOAA approximate equations
-		int dayOfYear = dateTimeUtc.getDayOfYear();
-		double minutes = dateTimeUtc.get(ChronoField.HOUR_OF_DAY) * 60.0 + dateTimeUtc.get(ChronoField.MINUTE_OF_HOUR) + dateTimeUtc.get(ChronoField.SECOND_OF_MINUTE) / 60.0;
-		double gamma = 2.0 * Math.PI / 365.0 * (dayOfYear - 1 + (minutes - 720.0) / 1440.0);
+		return computeSolarInfo(dateTimeUtc, latitudeDeg, longitudeDeg, Precision.EXACT);
+	}
 
-		// Solar declination
-		double decl = 0.006918
-				- 0.399912 * Math.cos(gamma)
-				+ 0.070257 * Math.sin(gamma)
-				- 0.006758 * Math.cos(2 * gamma)
-				+ 0.000907 * Math.sin(2 * gamma)
-				- 0.002697 * Math.cos(3 * gamma)
-				+ 0.00148  * Math.sin(3 * gamma);
+	public SolarInfoResult computeSolarInfo(ZonedDateTime dateTimeUtc, double latitudeDeg, double longitudeDeg, Precision p) {
+		SolarInfoResult r = new SolarInfoResult();
+		solarInfo(wallClockEpochSecond(dateTimeUtc), latitudeDeg, longitudeDeg, p, r);
+		return r;
+	}
 
-		// Equation of time (minutes)
-		double eot = 229.18 * (0.000075
-				+ 0.001868 * Math.cos(gamma)
-				- 0.032077 * Math.sin(gamma)
-				- 0.014615 * Math.cos(2 * gamma)
-				- 0.040849 * Math.sin(2 * gamma));
+	public MoonlightInfoResult computeMoonlightInfo(ZonedDateTime dateTimeUtc, double latitudeDeg, double longitudeDeg) {
+		return computeMoonlightInfo(dateTimeUtc, latitudeDeg, longitudeDeg, Precision.EXACT);
+	}
+
+	public MoonlightInfoResult computeMoonlightInfo(ZonedDateTime dateTimeUtc, double latitudeDeg, double longitudeDeg, Precision p) {
+		MoonlightInfoResult r = new MoonlightInfoResult();
+		moonlightInfo(wallClockEpochSecond(dateTimeUtc), latitudeDeg, longitudeDeg, p, r);
+		return r;
+	}
+
+	/** Moon phase at epochSecond written into out; allocation-free, out may be reused across calls. */
+	public void moonPhase(long epochSecond, MoonPhaseResult out) {
+		double phase = moonPhaseFraction(epochSecond);
+		out.phase = phase;
+		// Approx illuminated fraction
+		out.illumination = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * phase));
+		out.ageDays = phase * SYNODIC_MONTH;
+		out.phaseName = phaseName(phase);
+		out.phaseAngleDeg = (phase * 360.0) % 360.0;
+		out.waxing = phase > 0.0 && phase < 0.5;
+		out.waning = phase > 0.5 && phase < 1.0;
+		out.crescent = (phase > 0.0 && phase < 0.25) || (phase > 0.75 && phase < 1.0);
+		out.gibbous = (phase > 0.25 && phase < 0.5) || (phase > 0.5 && phase < 0.75);
+		out.quarter = (phase >= 0.22 && phase <= 0.28) || (phase >= 0.72 && phase <= 0.78);
+		out.full = (phase >= 0.47 && phase <= 0.53);
+		out.isNew = (phase <= 0.03 || phase >= 0.97);
+	}
+
+	/** Solar position at epochSecond (UTC) written into out; allocation-free, out may be reused. */
+	public void solarInfo(long epochSecond, double latitudeDeg, double longitudeDeg, Precision p, SolarInfoResult out) {
+		double minutes = EpochCalendar.secondOfDay(epochSecond) / 60.0;
+		double gamma = fractionalYear(epochSecond, minutes);
+		double latRad = Math.toRadians(latitudeDeg);
+		sunFromTerms(minutes, solarDeclination(gamma, p), equationOfTime(gamma, p), longitudeDeg,
+				p.sin(latRad), p.cos(latRad), p.tan(latRad), p, out);
+	}
+
+	/** Moon position and light at epochSecond (UTC) written into out; allocation-free, out may be reused. */
+	public void moonlightInfo(long epochSecond, double latitudeDeg, double longitudeDeg, Precision p, MoonlightInfoResult out) {
+		double latRad = Math.toRadians(latitudeDeg);
+		moonFromTerms(epochSecond, moonPhaseFraction(epochSecond), longitudeDeg, p.sin(latRad), p.cos(latRad), p, out);
+	}
 
+	/**
+	 * Sun, moon and phase in one pass. Fractional year, declination, equation of time, latitude
+	 * terms and the synodic phase are computed once and shared; results are identical to calling
+	 * solarInfo, moonlightInfo and moonPhase separately.
+	 */
+	public void computeSkyState(long epochSecond, double latitudeDeg, double longitudeDeg, Precision p, SkyStateResult out) {
+		moonPhase(epochSecond, out.phase);
+		double minutes = EpochCalendar.secondOfDay(epochSecond) / 60.0;
+		double gamma = fractionalYear(epochSecond, minutes);
+		double decl = solarDeclination(gamma, p);
+		double eot = equationOfTime(gamma, p);
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = p.sin(latRad);
+		double cosLat = p.cos(latRad);
+		sunFromTerms(minutes, decl, eot, longitudeDeg, sinLat, cosLat, p.tan(latRad), p, out.sun);
+		moonFromTerms(epochSecond, out.phase.phase, longitudeDeg, sinLat, cosLat, p, out.moon);
+	}
+
+	public SkyStateResult computeSkyState(long epochSecond, double latitudeDeg, double longitudeDeg, Precision p) {
+		SkyStateResult r = new SkyStateResult();
+		computeSkyState(epochSecond, latitudeDeg, longitudeDeg, p, r);
+		return r;
+	}
+
+	// NOAA fractional year (radians) for the UTC day containing epochSecond
+	private static double fractionalYear(long epochSecond, double minutes) {
+		int dayOfYear = EpochCalendar.dayOfYear(EpochCalendar.epochDay(epochSecond));
+		return 2.0 * Math.PI / 365.0 * (dayOfYear - 1 + (minutes - 720.0) / 1440.0);
+	}
+
+	// Based on NOAA approximate equations; decl in radians, eot in minutes
+	private static void sunFromTerms(double minutes, double decl, double eot, double longitudeDeg,
+			double sinLat, double cosLat, double tanLat, Precision p, SolarInfoResult out) {
 		// True solar time (minutes)
 		double tst = minutes + eot + 4.0 * longitudeDeg; // tz offset = 0 for UTC
 		double hourAngleDeg = (tst / 4.0) - 180.0;
 		// Normalize to [-180, 180]
 		hourAngleDeg = normalizeDegrees(hourAngleDeg);
 
-		double latRad = Math.toRadians(latitudeDeg);
 		double declRad = decl;
 		double hraRad = Math.toRadians(hourAngleDeg);
 
-		double cosZenith = Math.sin(latRad) * Math.sin(declRad) + Math.cos(latRad) * Math.cos(declRad) * Math.cos(hraRad);
+		double cosZenith = sinLat * p.sin(declRad) + cosLat * p.cos(declRad) * p.cos(hraRad);
 		cosZenith = clamp(cosZenith, -1.0, 1.0);
-		double zenithRad = Math.acos(cosZenith);
+		double zenithRad = p.acos(cosZenith);
 		double elevationDeg = 90.0 - Math.toDegrees(zenithRad);
 		// Azimuth calculation
-		double sinAz = -Math.sin(hraRad) * Math.cos(declRad) / Math.sin(zenithRad);
-		double cosAz = (Math.sin(declRad) - Math.sin(latRad) * Math.cos(zenithRad)) / (Math.cos(latRad) * Math.sin(zenithRad));
-		double azimuthRad = Math.atan2(sinAz, cosAz);
+		double sinAz = -p.sin(hraRad) * p.cos(declRad) / p.sin(zenithRad);
+		double cosAz = (p.sin(declRad) - sinLat * p.cos(zenithRad)) / (cosLat * p.sin(zenithRad));
+		double azimuthRad = p.atan2(sinAz, cosAz);
 		double azimuthDeg = (Math.toDegrees(azimuthRad) + 360.0) % 360.0; // 0=N, 90=E
 
 		// Solar intensity: cos(zenith) clipped to [0,1] represents relative intensity
@@ -113,93 +332,409 @@ public class AstronomyService {
 		double intensity = Math.max(0.0, cosZenith);
 
 		// Day length (hours) using sunrise hour angle formula
-		double cosH0 = -Math.tan(latRad) * Math.tan(declRad);
+		double cosH0 = -tanLat * p.tan(declRad);
 		if (cosH0 > 1.0) {
 			cosH0 = 1.0;
 		}
 		if (cosH0 < -1.0) {
 			cosH0 = -1.0;
 		}
-		double h0 = Math.acos(cosH0); // radians
+		double h0 = p.acos(cosH0); // radians
 		double dayLenHours = 2.0 * Math.toDegrees(h0) / 15.0; // 15 deg per hour
 		// Handle polar day/night extremes
 		if (Double.isNaN(dayLenHours)) {
 			dayLenHours = cosH0 <= -1.0 ? 24.0 : 0.0;
 		}
 
-		SolarInfoResult r = new SolarInfoResult();
-		r.elevationDeg = elevationDeg;
-		r.azimuthDeg = azimuthDeg;
-		r.intensity = intensity;
-		r.isDaylight = elevationDeg > 0.0;
-		r.dayLengthHours = dayLenHours;
-		r.nightLengthHours = 24.0 - dayLenHours;
-		return r;
+		out.elevationDeg = elevationDeg;
+		out.azimuthDeg = azimuthDeg;
+		out.intensity = intensity;
+		out.isDaylight = elevationDeg > 0.0;
+		out.dayLengthHours = dayLenHours;
+		out.nightLengthHours = 24.0 - dayLenHours;
 	}
 
-	public MoonlightInfoResult computeMoonlightInfo(ZonedDateTime dateTimeUtc, double latitudeDeg, double longitudeDeg) {
-		// Use sun equations as a base, then shift by lunar phase and inclination to approximate moon position
-		MoonPhaseResult mp = computeMoonPhase(dateTimeUtc);
-		int dayOfYear = dateTimeUtc.getDayOfYear();
-		double minutes = dateTimeUtc.get(ChronoField.HOUR_OF_DAY) * 60.0 + dateTimeUtc.get(ChronoField.MINUTE_OF_HOUR) + dateTimeUtc.get(ChronoField.SECOND_OF_MINUTE) / 60.0;
-		double gamma = 2.0 * Math.PI / 365.0 * (dayOfYear - 1 + (minutes - 720.0) / 1440.0);
-
-		// Base solar declination
-		double declSun = 0.006918
+	// Topocentric moon from the Chebyshev ephemeris; illumination still follows the synodic phase
+	private static void moonFromTerms(long epochSecond, double phase, double longitudeDeg,
+			double sinLat, double cosLat, Precision p, MoonlightInfoResult out) {
+		double illumination = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * phase));
+
+		// Local sidereal angle, then the observer (spherical Earth) subtracted from the geocentric moon
+		double theta = LunarEphemeris.greenwichSiderealRad(epochSecond) + Math.toRadians(longitudeDeg);
+		double sinTheta = p.sin(theta);
+		double cosTheta = p.cos(theta);
+		double x = LunarEphemeris.coordinate(epochSecond, 0) - cosLat * cosTheta;
+		double y = LunarEphemeris.coordinate(epochSecond, 1) - cosLat * sinTheta;
+		double z = LunarEphemeris.coordinate(epochSecond, 2) - sinLat;
+
+		// Project onto the local zenith, north and east directions
+		double outward = x * cosTheta + y * sinTheta;
+		double up = cosLat * outward + sinLat * z;
+		double north = cosLat * z - sinLat * outward;
+		double east = y * cosTheta - x * sinTheta;
+		double cosZenith = clamp(up / Math.sqrt(x * x + y * y + z * z), -1.0, 1.0);
+		double elevationDeg = 90.0 - Math.toDegrees(p.acos(cosZenith));
+		double azimuthDeg = (Math.toDegrees(p.atan2(east, north)) + 360.0) % 360.0;
+
+		// Moonlight intensity: on same physical scale as sunlight (0.0-1.0)
+		// Based on physical measurements: moonlight is ~1/1,300,000th of sunlight
+		// Full moon illumination (~1.0) at zenith should give ~0.0000008 intensity
+		// This represents what a light meter would read under moonlight vs sunlight
+		double raw = Math.max(0.0, cosZenith) * illumination;
+		// Physical ratio: moonlight is approximately 1/1,300,000th of sunlight
+		double intensity = raw / 1300000.0;
+
+		out.elevationDeg = elevationDeg;
+		out.azimuthDeg = azimuthDeg;
+		out.intensity = intensity;
+		out.aboveHorizon = elevationDeg > 0.0;
+		out.illumination = illumination;
+	}
+
+	// Fraction of the synodic month elapsed at epochSecond, 0.0 new -> 1.0 next new
+	private static double moonPhaseFraction(long epochSecond) {
+		double jdn = EPOCH_JDN + epochSecond / (double) EpochCalendar.SECONDS_PER_DAY;
+		return mod((jdn - REF_NEW_MOON_JDN) / SYNODIC_MONTH, 1.0);
+	}
+
+	private static long wallClockEpochSecond(ZonedDateTime dt) {
+		return dt.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+	}
+
+	/**
+	 * Evaluates the same NOAA equations as {@link #computeSolarInfo} for many points at once.
+	 * Inputs are parallel arrays; the work is split across the common fork-join pool and each
+	 * chunk runs on {@link SolarBatchKernels#preferred()} (SIMD when available).
+	 */
+	public SolarBatchResult computeSolarInfoBatch(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg) {
+		if (epochSeconds == null || latitudeDeg == null || longitudeDeg == null) {
+			throw new IllegalArgumentException("epochSeconds, latitudeDeg and longitudeDeg are required");
+		}
+		int n = epochSeconds.length;
+		if (latitudeDeg.length != n || longitudeDeg.length != n) {
+			throw new IllegalArgumentException("epochSeconds, latitudeDeg and longitudeDeg must have the same length");
+		}
+		SolarBatchResult out = new SolarBatchResult(n);
+		fillSolarInfoBatch(epochSeconds, latitudeDeg, longitudeDeg, out, 0, n);
+		return out;
+	}
+
+	/**
+	 * Writes points [from, to) into the same indices of a caller-supplied result, so a result sized
+	 * once can be reused across batches. Allocation-free below BATCH_SPLIT_THRESHOLD points.
+	 */
+	public void fillSolarInfoBatch(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg,
+			SolarBatchResult out, int from, int to) {
+		if (from < 0 || to > epochSeconds.length || to > latitudeDeg.length || to > longitudeDeg.length
+				|| to > out.size() || from > to) {
+			throw new IllegalArgumentException("range [" + from + ", " + to + ") out of bounds");
+		}
+		if (to - from <= BATCH_SPLIT_THRESHOLD) {
+			SolarBatchKernels.preferred().evaluate(epochSeconds, latitudeDeg, longitudeDeg, out, from, to);
+		} else {
+			ForkJoinPool.commonPool().invoke(new SolarBatchTask(epochSeconds, latitudeDeg, longitudeDeg, out, from, to));
+		}
+	}
+
+	private static final class SolarBatchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] epochSeconds;
+		private final double[] latitudeDeg;
+		private final double[] longitudeDeg;
+		private final SolarBatchResult out;
+		private final int from;
+		private final int to;
+
+		SolarBatchTask(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg, SolarBatchResult out, int from, int to) {
+			this.epochSeconds = epochSeconds;
+			this.latitudeDeg = latitudeDeg;
+			this.longitudeDeg = longitudeDeg;
+			this.out = out;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= BATCH_SPLIT_THRESHOLD) {
+				SolarBatchKernels.preferred().evaluate(epochSeconds, latitudeDeg, longitudeDeg, out, from, to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new SolarBatchTask(epochSeconds, latitudeDeg, longitudeDeg, out, from, mid),
+					new SolarBatchTask(epochSeconds, latitudeDeg, longitudeDeg, out, mid, to));
+		}
+	}
+
+	// Primitive form of computeSolarInfo over [from, to): no calendar objects, shared sin/cos terms.
+	// This is the scalar batch kernel; see SolarBatchKernels for the SIMD alternative
+	static void solarBatchKernel(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg,
+			SolarBatchResult out, int from, int to) {
+		long cachedEpochDay = Long.MIN_VALUE;
+		int dayOfYear = 0;
+		for (int i = from; i < to; i++) {
+			long t = epochSeconds[i];
+			long epochDay = EpochCalendar.epochDay(t);
+			if (epochDay != cachedEpochDay) {
+				cachedEpochDay = epochDay;
+				dayOfYear = EpochCalendar.dayOfYear(epochDay);
+			}
+			double minutes = (t - epochDay * EpochCalendar.SECONDS_PER_DAY) / 60.0;
+			double gamma = 2.0 * Math.PI / 365.0 * (dayOfYear - 1 + (minutes - 720.0) / 1440.0);
+			double decl = solarDeclination(gamma);
+			double eot = equationOfTime(gamma);
+			double hourAngleDeg = normalizeDegrees((minutes + eot + 4.0 * longitudeDeg[i]) / 4.0 - 180.0);
+
+			double latRad = Math.toRadians(latitudeDeg[i]);
+			double sinLat = Math.sin(latRad);
+			double cosLat = Math.cos(latRad);
+			double sinDecl = Math.sin(decl);
+			double cosDecl = Math.cos(decl);
+			double hraRad = Math.toRadians(hourAngleDeg);
+
+			double cosZenith = clamp(sinLat * sinDecl + cosLat * cosDecl * Math.cos(hraRad), -1.0, 1.0);
+			double elevationDeg = 90.0 - Math.toDegrees(Math.acos(cosZenith));
+			// atan2 is scale invariant, so the common 1/sin(zenith) factor is dropped
+			double azimuthRad = Math.atan2(-Math.sin(hraRad) * cosDecl * cosLat, sinDecl - sinLat * cosZenith);
+
+			double cosH0 = clamp(-(sinLat / cosLat) * (sinDecl / cosDecl), -1.0, 1.0);
+			double dayLenHours = 2.0 * Math.toDegrees(Math.acos(cosH0)) / 15.0;
+
+			out.elevationDeg[i] = elevationDeg;
+			out.azimuthDeg[i] = (Math.toDegrees(azimuthRad) + 360.0) % 360.0;
+			out.intensity[i] = Math.max(0.0, cosZenith);
+			out.isDaylight[i] = elevationDeg > 0.0;
+			out.dayLengthHours[i] = dayLenHours;
+			out.nightLengthHours[i] = 24.0 - dayLenHours;
+		}
+	}
+
+	/**
+	 * Samples the sun every stepSeconds over [startEpochSecond, endEpochSecond] for one location.
+	 * Declination and equation of time are evaluated once per UTC day (at noon) and the hour angle
+	 * is advanced by a fixed rotation between samples, so each sample costs one asin and one atan2.
+	 * Versus computeSolarInfo the per-day declination differs by at most ~0.2 degrees.
+	 */
+	public SolarSeriesResult computeSolarSeries(double latitudeDeg, double longitudeDeg,
+			long startEpochSecond, long endEpochSecond, int stepSeconds) {
+		if (stepSeconds <= 0) {
+			throw new IllegalArgumentException("stepSeconds must be positive");
+		}
+		if (endEpochSecond < startEpochSecond) {
+			throw new IllegalArgumentException("end must not be before start");
+		}
+		long count = (endEpochSecond - startEpochSecond) / stepSeconds + 1;
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("too many samples");
+		}
+		SolarSeriesResult out = new SolarSeriesResult(startEpochSecond, stepSeconds, (int) count);
+		fillSolarSeries(latitudeDeg, longitudeDeg, startEpochSecond, stepSeconds,
+				out.elevationDeg, out.azimuthDeg, out.intensity, 0, out.size());
+		return out;
+	}
+
+	/**
+	 * Writes samples startEpochSecond + i * stepSeconds for i in [0, count) into the arrays at offset.
+	 * Lets callers produce a long series in fixed-size chunks.
+	 */
+	public void fillSolarSeries(double latitudeDeg, double longitudeDeg, long startEpochSecond, int stepSeconds,
+			double[] elevationDeg, double[] azimuthDeg, double[] intensity, int offset, int count) {
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+		double stepRad = Math.toRadians(stepSeconds / 240.0); // 4 minutes of time per degree
+		double cosStep = Math.cos(stepRad);
+		double sinStep = Math.sin(stepRad);
+
+		long currentEpochDay = Long.MIN_VALUE;
+		double sinDecl = 0.0;
+		double cosDecl = 1.0;
+		double sinH = 0.0;
+		double cosH = 1.0;
+		for (int i = 0; i < count; i++) {
+			long t = startEpochSecond + (long) i * stepSeconds;
+			long epochDay = EpochCalendar.epochDay(t);
+			if (epochDay != currentEpochDay) {
+				// New day: refresh declination/EoT and re-seed the hour-angle rotation exactly
+				currentEpochDay = epochDay;
+				double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1);
+				double decl = solarDeclination(gamma);
+				sinDecl = Math.sin(decl);
+				cosDecl = Math.cos(decl);
+				double minutes = (t - epochDay * EpochCalendar.SECONDS_PER_DAY) / 60.0;
+				double hraRad = Math.toRadians((minutes + equationOfTime(gamma) + 4.0 * longitudeDeg) / 4.0 - 180.0);
+				sinH = Math.sin(hraRad);
+				cosH = Math.cos(hraRad);
+			} else {
+				double c = cosH * cosStep - sinH * sinStep;
+				sinH = sinH * cosStep + cosH * sinStep;
+				cosH = c;
+			}
+			double cosZenith = clamp(sinLat * sinDecl + cosLat * cosDecl * cosH, -1.0, 1.0);
+			double azimuthRad = Math.atan2(-sinH * cosDecl * cosLat, sinDecl - sinLat * cosZenith);
+			int j = offset + i;
+			elevationDeg[j] = Math.toDegrees(Math.asin(cosZenith));
+			azimuthDeg[j] = (Math.toDegrees(azimuthRad) + 360.0) % 360.0;
+			intensity[j] = Math.max(0.0, cosZenith);
+		}
+	}
+
+	/**
+	 * Sun path for a calendar year at a fixed UTC offset, e.g. hourly for an architect's diagram.
+	 * Runs as one fillSolarSeries pass, so declination and equation of time are computed once per
+	 * UTC day and the hour angle advances by rotation between samples.
+	 */
+	public SunPath computeSunPath(double latitudeDeg, double longitudeDeg, int year, int stepMinutes, int utcOffsetMinutes) {
+		if (stepMinutes <= 0 || 1440 % stepMinutes != 0) {
+			throw new IllegalArgumentException("stepMinutes must divide 1440");
+		}
+		int days = EpochCalendar.isLeapYear(year) ? 366 : 365;
+		int perDay = 1440 / stepMinutes;
+		int n = days * perDay;
+		long start = EpochCalendar.epochDay(year, 1, 1) * EpochCalendar.SECONDS_PER_DAY - utcOffsetMinutes * 60L;
+		double[] elevation = new double[n];
+		double[] azimuth = new double[n];
+		fillSolarSeries(latitudeDeg, longitudeDeg, start, stepMinutes * 60, elevation, azimuth, new double[n], 0, n);
+		ByteBuffer buf = ByteBuffer.allocate(4 * n).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < n; i++) {
+			buf.putShort(2 * i, (short) Math.round(elevation[i] * 100.0));
+			buf.putShort(2 * (n + i), (short) (Math.round(azimuth[i] * 100.0) % 36000L));
+		}
+		return new SunPath(year, days, stepMinutes, utcOffsetMinutes, buf);
+	}
+
+	/** True if a raster at resolutionDeg tiles the globe, so no cell centre lies past a pole or the antimeridian. */
+	public static boolean dividesGlobe(double resolutionDeg) {
+		return isWholeMultiple(180.0, resolutionDeg) && isWholeMultiple(360.0, resolutionDeg);
+	}
+
+	private static boolean isWholeMultiple(double span, double step) {
+		double q = span / step;
+		return Math.abs(q - Math.rint(q)) <= 1e-9 * Math.max(1.0, q);
+	}
+
+	/**
+	 * Evaluates the sun over a global grid at one instant. Declination and equation of time are
+	 * computed once for the instant and cos(hour angle) once per column, so a cell costs a
+	 * multiply-add (plus an asin for the elevation layer). Rows are filled in parallel.
+	 */
+	public SolarRaster computeSolarRaster(long epochSecond, double resolutionDeg, RasterLayer layer) {
+		if (!(resolutionDeg > 0.0) || resolutionDeg > 90.0) {
+			throw new IllegalArgumentException("resolutionDeg must be in (0, 90]");
+		}
+		if (!dividesGlobe(resolutionDeg)) {
+			throw new IllegalArgumentException("resolutionDeg must divide 180 and 360 evenly");
+		}
+		int rows = (int) Math.rint(180.0 / resolutionDeg);
+		int cols = (int) Math.rint(360.0 / resolutionDeg);
+		long cells = (long) rows * cols;
+		if (cells * Float.BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("raster too large");
+		}
+
+		long epochDay = EpochCalendar.epochDay(epochSecond);
+		double minutes = (epochSecond - epochDay * EpochCalendar.SECONDS_PER_DAY) / 60.0;
+		double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1 + (minutes - 720.0) / 1440.0);
+		double decl = solarDeclination(gamma);
+		double sinDecl = Math.sin(decl);
+		double cosDecl = Math.cos(decl);
+		double eot = equationOfTime(gamma);
+
+		double[] cosH = new double[cols];
+		for (int c = 0; c < cols; c++) {
+			double lon = -180.0 + (c + 0.5) * resolutionDeg;
+			cosH[c] = Math.cos(Math.toRadians((minutes + eot + 4.0 * lon) / 4.0 - 180.0));
+		}
+
+		ByteBuffer buf = ByteBuffer.allocateDirect((int) (cells * Float.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+		FloatBuffer floats = buf.asFloatBuffer();
+		boolean elevation = layer == RasterLayer.ELEVATION;
+		IntStream.range(0, rows).parallel().forEach(r -> {
+			double latRad = Math.toRadians(90.0 - (r + 0.5) * resolutionDeg);
+			double a = Math.sin(latRad) * sinDecl;
+			double b = Math.cos(latRad) * cosDecl;
+			int base = r * cols;
+			for (int c = 0; c < cols; c++) {
+				double cosZenith = clamp(a + b * cosH[c], -1.0, 1.0);
+				double v = elevation ? Math.toDegrees(Math.asin(cosZenith)) : Math.max(0.0, cosZenith);
+				floats.put(base + c, (float) v);
+			}
+		});
+		return new SolarRaster(rows, cols, resolutionDeg, layer, buf);
+	}
+
+	// Solar elevation (degrees) at a fractional epoch second, same model as computeSolarInfo
+	static double solarElevationDeg(double epochSecond, double sinLat, double cosLat, double longitudeDeg) {
+		return Math.toDegrees(Math.asin(solarCosZenith(epochSecond, sinLat, cosLat, longitudeDeg)));
+	}
+
+	// Solar intensity at a fractional epoch second, same model as computeSolarInfo
+	static double solarIntensity(double epochSecond, double sinLat, double cosLat, double longitudeDeg) {
+		return Math.max(0.0, solarCosZenith(epochSecond, sinLat, cosLat, longitudeDeg));
+	}
+
+	private static double solarCosZenith(double epochSecond, double sinLat, double cosLat, double longitudeDeg) {
+		long epochDay = (long) Math.floor(epochSecond / EpochCalendar.SECONDS_PER_DAY);
+		double minutes = (epochSecond - epochDay * (double) EpochCalendar.SECONDS_PER_DAY) / 60.0;
+		double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1 + (minutes - 720.0) / 1440.0);
+		double decl = solarDeclination(gamma);
+		double hraRad = Math.toRadians((minutes + equationOfTime(gamma) + 4.0 * longitudeDeg) / 4.0 - 180.0);
+		return clamp(sinLat * Math.sin(decl) + cosLat * Math.cos(decl) * Math.cos(hraRad), -1.0, 1.0);
+	}
+
+	// Moon elevation (degrees) at a fractional epoch second, same model as computeMoonlightInfo
+	static double moonElevationDeg(double epochSecond, double sinLat, double cosLat, double longitudeDeg) {
+		double theta = LunarEphemeris.greenwichSiderealRad(epochSecond) + Math.toRadians(longitudeDeg);
+		double sinTheta = Math.sin(theta);
+		double cosTheta = Math.cos(theta);
+		double x = LunarEphemeris.coordinate(epochSecond, 0) - cosLat * cosTheta;
+		double y = LunarEphemeris.coordinate(epochSecond, 1) - cosLat * sinTheta;
+		double z = LunarEphemeris.coordinate(epochSecond, 2) - sinLat;
+		double up = cosLat * (x * cosTheta + y * sinTheta) + sinLat * z;
+		return Math.toDegrees(Math.asin(clamp(up / Math.sqrt(x * x + y * y + z * z), -1.0, 1.0)));
+	}
+
+	// Declination with the harmonics expanded from one sin/cos pair when not in exact mode
+	private static double solarDeclination(double gamma, Precision p) {
+		if (p == Precision.EXACT) {
+			return solarDeclination(gamma);
+		}
+		double s1 = p.sin(gamma);
+		double c1 = p.cos(gamma);
+		double s2 = 2.0 * s1 * c1;
+		double c2 = c1 * c1 - s1 * s1;
+		double s3 = s1 * c2 + c1 * s2;
+		double c3 = c1 * c2 - s1 * s2;
+		return 0.006918 - 0.399912 * c1 + 0.070257 * s1 - 0.006758 * c2 + 0.000907 * s2 - 0.002697 * c3 + 0.00148 * s3;
+	}
+
+	private static double equationOfTime(double gamma, Precision p) {
+		if (p == Precision.EXACT) {
+			return equationOfTime(gamma);
+		}
+		double s1 = p.sin(gamma);
+		double c1 = p.cos(gamma);
+		return 229.18 * (0.000075 + 0.001868 * c1 - 0.032077 * s1 - 0.014615 * (c1 * c1 - s1 * s1) - 0.040849 * (2.0 * s1 * c1));
+	}
+
+	// Solar declination (radians) for fractional year gamma
+	static double solarDeclination(double gamma) {
+		return 0.006918
 				- 0.399912 * Math.cos(gamma)
 				+ 0.070257 * Math.sin(gamma)
 				- 0.006758 * Math.cos(2 * gamma)
 				+ 0.000907 * Math.sin(2 * gamma)
 				- 0.002697 * Math.cos(3 * gamma)
 				+ 0.00148  * Math.sin(3 * gamma);
+	}
 
-		// Approximate lunar declination: solar declination plus up to ±5° depending on phase
-		double declMoon = declSun + Math.toRadians(5.145) * Math.sin(Math.toRadians(mp.phaseAngleDeg));
-
-		// Equation of time (minutes) for sun
-		double eot = 229.18 * (0.000075
+	// Equation of time (minutes) for fractional year gamma
+	static double equationOfTime(double gamma) {
+		return 229.18 * (0.000075
 				+ 0.001868 * Math.cos(gamma)
 				- 0.032077 * Math.sin(gamma)
 				- 0.014615 * Math.cos(2 * gamma)
 				- 0.040849 * Math.sin(2 * gamma));
-
-		// True solar time (minutes)
-		double tst = minutes + eot + 4.0 * longitudeDeg;
-		double hourAngleSunDeg = (tst / 4.0) - 180.0;
-		hourAngleSunDeg = normalizeDegrees(hourAngleSunDeg);
-
-		// Approximate lunar hour angle: shift sun by phase*180° (new ~ sun, full ~ opposite)
-		double hourAngleMoonDeg = normalizeDegrees(hourAngleSunDeg + (mp.phase * 360.0 / 2.0)); // 0.5 phase -> +180°
-
-		double latRad = Math.toRadians(latitudeDeg);
-		double declRad = declMoon;
-		double hraRad = Math.toRadians(hourAngleMoonDeg);
-
-		double cosZenith = Math.sin(latRad) * Math.sin(declRad) + Math.cos(latRad) * Math.cos(declRad) * Math.cos(hraRad);
-		cosZenith = clamp(cosZenith, -1.0, 1.0);
-		double zenithRad = Math.acos(cosZenith);
-		double elevationDeg = 90.0 - Math.toDegrees(zenithRad);
-		// Azimuth
-		double sinAz = -Math.sin(hraRad) * Math.cos(declRad) / Math.sin(zenithRad);
-		double cosAz = (Math.sin(declRad) - Math.sin(latRad) * Math.cos(zenithRad)) / (Math.cos(latRad) * Math.sin(zenithRad));
-		double azimuthRad = Math.atan2(sinAz, cosAz);
-		double azimuthDeg = (Math.toDegrees(azimuthRad) + 360.0) % 360.0;
-
-		// Moonlight intensity: on same physical scale as sunlight (0.0-1.0)
-		// Based on physical measurements: moonlight is ~1/1,300,000th of sunlight
-		// Full moon illumination (~1.0) at zenith should give ~0.0000008 intensity
-		// This represents what a light meter would read under moonlight vs sunlight
-		double raw = Math.max(0.0, cosZenith) * mp.illumination;
-		// Physical ratio: moonlight is approximately 1/1,300,000th of sunlight
-		double intensity = raw / 1300000.0;
-
-		MoonlightInfoResult r = new MoonlightInfoResult();
-		r.elevationDeg = elevationDeg;
-		r.azimuthDeg = azimuthDeg;
-		r.intensity = intensity;
-		r.aboveHorizon = elevationDeg > 0.0;
-		r.illumination = mp.illumination;
-		return r;
 	}
 
 	private static String phaseName(double phase) {
@@ -227,18 +762,6 @@ public class AstronomyService {
 		return "Waning Crescent";
 	}
 
-	private static double toJulianDay(ZonedDateTime dt) {
-		int Y = dt.getYear();
-		int M = dt.getMonthValue();
-		int D = dt.getDayOfMonth();
-		double hour = dt.getHour() + dt.getMinute() / 60.0 + dt.getSecond() / 3600.0;
-		if (M <= 2) { Y -= 1; M += 12; }
-		int A = Y / 100;
-		int B = 2 - A + (A / 4);
-		double jd = Math.floor(365.25 * (Y + 4716)) + Math.floor(30.6001 * (M + 1)) + D + B - 1524.5 + hour / 24.0;
-		return jd;
-	}
-
 	private static double mod(double x, double m) {
 		double r = x % m;
 		return r < 0 ? r + m : r;
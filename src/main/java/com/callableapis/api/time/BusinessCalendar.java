@@ -0,0 +1,331 @@
+package com.callableapis.api.time;
+
+import java.time.DayOfWeek;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Business-day arithmetic over a compiled holiday calendar. Every year from MIN_YEAR to MAX_YEAR
+ * owns six words of a bitset (bit i = day of year i + 1 is a business day) and every word carries
+ * the number of business days before it, so the business-day ordinal of a date is one popcount
+ * away. Counting between two dates is a difference of ordinals; adding N business days selects
+ * the ordinal N further on with a binary search over the year starts, a scan of at most six words
+ * and a bit select within the word. Neither depends on the distance involved.
+ */
+public final class BusinessCalendar {
+
+	public static final int MIN_YEAR = 1900;
+	public static final int MAX_YEAR = 2199;
+	public static final long MIN_EPOCH_DAY = EpochCalendar.epochDay(MIN_YEAR, 1, 1);
+	public static final long MAX_EPOCH_DAY = EpochCalendar.epochDay(MAX_YEAR, 12, 31);
+
+	private static final int YEARS = MAX_YEAR - MIN_YEAR + 1;
+	private static final int WORDS_PER_YEAR = 6;
+	private static final int BITS_PER_YEAR = WORDS_PER_YEAR * 64;
+	private static final long[] YEAR_FIRST_DAY = new long[YEARS];
+
+	static {
+		for (int y = 0; y < YEARS; y++) {
+			YEAR_FIRST_DAY[y] = EpochCalendar.epochDay(MIN_YEAR + y, 1, 1);
+		}
+	}
+
+	/**
+	 * Holiday rules shipped with the service. Current rules are applied to every year, except
+	 * that US holidays and UK bank holidays start in the year they were introduced.
+	 */
+	public enum Rules {
+		NONE("weekends"),
+		US_FEDERAL("us-federal"),
+		UK_ENGLAND("uk-england"),
+		TARGET("target");
+
+		private final String id;
+
+		Rules(String id) {
+			this.id = id;
+		}
+
+		public String id() {
+			return id;
+		}
+
+		public static Rules parse(String s) {
+			if (s != null) {
+				String key = s.trim().toLowerCase(Locale.ROOT);
+				for (Rules r : values()) {
+					if (r.id.equals(key)) {
+						return r;
+					}
+				}
+			}
+			throw new IllegalArgumentException("unknown holiday rules: " + s);
+		}
+	}
+
+	private final String name;
+	private final Rules rules;
+	private final int weekendMask; // bit d - 1 set when ISO day-of-week d is a weekend day
+	private final long[] bits = new long[YEARS * WORDS_PER_YEAR];
+	// Business days from MIN_EPOCH_DAY to the start of each word; the last entry is the total
+	private final int[] rank = new int[YEARS * WORDS_PER_YEAR + 1];
+
+	private BusinessCalendar(String name, Rules rules, int weekendMask) {
+		this.name = name;
+		this.rules = rules;
+		this.weekendMask = weekendMask;
+	}
+
+	/**
+	 * Compiles a calendar: every day outside the weekend is a business day, then rule holidays and
+	 * the extra holidays are removed, then the extra workdays are added back (weekend working days).
+	 * Dates outside MIN_YEAR..MAX_YEAR are rejected.
+	 */
+	public static BusinessCalendar compile(String name, Rules rules, Set<DayOfWeek> weekend, long[] holidays, long[] workdays) {
+		if (name == null || rules == null || weekend == null) {
+			throw new IllegalArgumentException("name, rules and weekend are required");
+		}
+		int mask = 0;
+		for (DayOfWeek d : weekend) {
+			mask |= 1 << (d.getValue() - 1);
+		}
+		if (mask == 0x7F) {
+			throw new IllegalArgumentException("weekend must leave at least one working day");
+		}
+		BusinessCalendar c = new BusinessCalendar(name, rules, mask);
+		for (int y = 0; y < YEARS; y++) {
+			long first = YEAR_FIRST_DAY[y];
+			int length = EpochCalendar.isLeapYear(MIN_YEAR + y) ? 366 : 365;
+			for (int doy = 0; doy < length; doy++) {
+				if ((mask & (1 << (isoDayOfWeek(first + doy) - 1))) == 0) {
+					int i = y * BITS_PER_YEAR + doy;
+					c.bits[i >>> 6] |= 1L << i;
+				}
+			}
+		}
+		// Observed dates can cross a year boundary, so the neighbouring years are expanded too
+		LongConsumer clear = day -> {
+			if (day >= MIN_EPOCH_DAY && day <= MAX_EPOCH_DAY) {
+				c.set(day, false);
+			}
+		};
+		for (int year = MIN_YEAR - 1; year <= MAX_YEAR + 1; year++) {
+			ruleHolidays(rules, year, clear);
+		}
+		if (holidays != null) {
+			for (long day : holidays) {
+				c.set(checkDay(day), false);
+			}
+		}
+		if (workdays != null) {
+			for (long day : workdays) {
+				c.set(checkDay(day), true);
+			}
+		}
+		for (int w = 0; w < c.bits.length; w++) {
+			c.rank[w + 1] = c.rank[w] + Long.bitCount(c.bits[w]);
+		}
+		return c;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public Rules rules() {
+		return rules;
+	}
+
+	public boolean isWeekend(DayOfWeek day) {
+		return (weekendMask & (1 << (day.getValue() - 1))) != 0;
+	}
+
+	public boolean isBusinessDay(long epochDay) {
+		int i = bitIndex(checkDay(epochDay));
+		return (bits[i >>> 6] & (1L << i)) != 0;
+	}
+
+	public int businessDaysInYear(int year) {
+		if (year < MIN_YEAR || year > MAX_YEAR) {
+			throw new IllegalArgumentException("year outside business calendar range " + MIN_YEAR + ".." + MAX_YEAR);
+		}
+		int w = (year - MIN_YEAR) * WORDS_PER_YEAR;
+		return rank[w + WORDS_PER_YEAR] - rank[w];
+	}
+
+	/** Business days in [fromEpochDay, toEpochDay); negative when to is before from. */
+	public long countBusinessDays(long fromEpochDay, long toEpochDay) {
+		return ordinal(toEpochDay) - ordinal(fromEpochDay);
+	}
+
+	/**
+	 * The n-th business day after epochDay (n > 0) or before it (n < 0); epochDay itself is not
+	 * counted, whether or not it is a business day. n = 0 returns epochDay unchanged.
+	 */
+	public long addBusinessDays(long epochDay, long n) {
+		checkDay(epochDay);
+		if (n == 0) {
+			return epochDay;
+		}
+		long before = ordinal(epochDay);
+		long target = n > 0 ? before + (isBusinessDay(epochDay) ? n : n - 1) : before + n;
+		if (target < 0 || target >= rank[rank.length - 1]) {
+			throw new IllegalArgumentException("result outside business calendar range " + MIN_YEAR + ".." + MAX_YEAR);
+		}
+		return select((int) target);
+	}
+
+	// Business days strictly before epochDay; the day after MAX_EPOCH_DAY is accepted as an end bound
+	private int ordinal(long epochDay) {
+		if (epochDay == MAX_EPOCH_DAY + 1) {
+			return rank[rank.length - 1];
+		}
+		int i = bitIndex(checkDay(epochDay));
+		return rank[i >>> 6] + Long.bitCount(bits[i >>> 6] & ((1L << i) - 1));
+	}
+
+	// Epoch day of the business day with the given ordinal
+	private long select(int k) {
+		int lo = 0;
+		int hi = YEARS - 1;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (rank[mid * WORDS_PER_YEAR] <= k) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		int w = lo * WORDS_PER_YEAR;
+		while (rank[w + 1] <= k) {
+			w++;
+		}
+		// Deposits a single bit at the position of the remaining rank among the word's set bits
+		int bit = Long.numberOfTrailingZeros(Long.expand(1L << (k - rank[w]), bits[w]));
+		int i = w * 64 + bit;
+		return YEAR_FIRST_DAY[i / BITS_PER_YEAR] + i % BITS_PER_YEAR;
+	}
+
+	private void set(long epochDay, boolean business) {
+		int i = bitIndex(epochDay);
+		if (business) {
+			bits[i >>> 6] |= 1L << i;
+		} else {
+			bits[i >>> 6] &= ~(1L << i);
+		}
+	}
+
+	private static int bitIndex(long epochDay) {
+		int y = (int) EpochCalendar.packedYear(EpochCalendar.packedDate(epochDay)) - MIN_YEAR;
+		return y * BITS_PER_YEAR + (int) (epochDay - YEAR_FIRST_DAY[y]);
+	}
+
+	private static long checkDay(long epochDay) {
+		if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+			throw new IllegalArgumentException("date outside business calendar range " + MIN_YEAR + ".." + MAX_YEAR);
+		}
+		return epochDay;
+	}
+
+	/** ISO day of week, 1 = Monday .. 7 = Sunday. */
+	public static int isoDayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + 3, 7L) + 1;
+	}
+
+	private static void ruleHolidays(Rules rules, int year, LongConsumer out) {
+		switch (rules) {
+			case US_FEDERAL:
+				out.accept(nearestWeekday(EpochCalendar.epochDay(year, 1, 1)));
+				if (year >= 1986) {
+					out.accept(nthWeekday(year, 1, 1, 3)); // Martin Luther King Jr. Day
+				}
+				out.accept(nthWeekday(year, 2, 1, 3)); // Washington's Birthday
+				out.accept(lastWeekday(year, 5, 1)); // Memorial Day
+				if (year >= 2021) {
+					out.accept(nearestWeekday(EpochCalendar.epochDay(year, 6, 19)));
+				}
+				out.accept(nearestWeekday(EpochCalendar.epochDay(year, 7, 4)));
+				out.accept(nthWeekday(year, 9, 1, 1)); // Labor Day
+				out.accept(nthWeekday(year, 10, 1, 2)); // Columbus Day
+				out.accept(nearestWeekday(EpochCalendar.epochDay(year, 11, 11)));
+				out.accept(nthWeekday(year, 11, 4, 4)); // Thanksgiving
+				out.accept(nearestWeekday(EpochCalendar.epochDay(year, 12, 25)));
+				break;
+			case UK_ENGLAND: {
+				long easter = easterSunday(year);
+				if (year >= 1974) {
+					out.accept(nextWeekday(EpochCalendar.epochDay(year, 1, 1), Long.MIN_VALUE));
+				}
+				out.accept(easter - 2);
+				out.accept(easter + 1);
+				if (year >= 1978) {
+					out.accept(nthWeekday(year, 5, 1, 1)); // Early May
+				}
+				out.accept(lastWeekday(year, 5, 1)); // Spring
+				out.accept(lastWeekday(year, 8, 1)); // Summer
+				// Christmas and Boxing Day each move to the next weekday not already taken
+				long christmas = nextWeekday(EpochCalendar.epochDay(year, 12, 25), Long.MIN_VALUE);
+				out.accept(christmas);
+				out.accept(nextWeekday(EpochCalendar.epochDay(year, 12, 26), christmas));
+				break;
+			}
+			case TARGET: {
+				long easter = easterSunday(year);
+				out.accept(EpochCalendar.epochDay(year, 1, 1));
+				out.accept(easter - 2);
+				out.accept(easter + 1);
+				out.accept(EpochCalendar.epochDay(year, 5, 1));
+				out.accept(EpochCalendar.epochDay(year, 12, 25));
+				out.accept(EpochCalendar.epochDay(year, 12, 26));
+				break;
+			}
+			default:
+				break;
+		}
+	}
+
+	// US observance: Saturday holidays move to Friday, Sunday holidays to Monday
+	private static long nearestWeekday(long epochDay) {
+		int dow = isoDayOfWeek(epochDay);
+		return dow == 6 ? epochDay - 1 : dow == 7 ? epochDay + 1 : epochDay;
+	}
+
+	// UK substitute day: the first weekday on or after epochDay other than taken
+	private static long nextWeekday(long epochDay, long taken) {
+		long d = epochDay;
+		while (isoDayOfWeek(d) >= 6 || d == taken) {
+			d++;
+		}
+		return d;
+	}
+
+	private static long nthWeekday(int year, int month, int isoDow, int n) {
+		long first = EpochCalendar.epochDay(year, month, 1);
+		return first + Math.floorMod(isoDow - isoDayOfWeek(first), 7) + 7L * (n - 1);
+	}
+
+	private static long lastWeekday(int year, int month, int isoDow) {
+		long last = EpochCalendar.epochDay(year, month, EpochCalendar.lengthOfMonth(year, month));
+		return last - Math.floorMod(isoDayOfWeek(last) - isoDow, 7);
+	}
+
+	/** Gregorian Easter Sunday (anonymous Gregorian algorithm) as an epoch day. */
+	public static long easterSunday(int year) {
+		int a = year % 19;
+		int b = year / 100;
+		int c = year % 100;
+		int d = b / 4;
+		int e = b % 4;
+		int f = (b + 8) / 25;
+		int g = (b - f + 1) / 3;
+		int h = (19 * a + b - d - g + 15) % 30;
+		int i = c / 4;
+		int k = c % 4;
+		int l = (32 + 2 * e + 2 * i - h - k) % 7;
+		int m = (a + 11 * h + 22 * l) / 451;
+		int month = (h + l - 7 * m + 114) / 31;
+		int day = (h + l - 7 * m + 114) % 31 + 1;
+		return EpochCalendar.epochDay(year, month, day);
+	}
+}
@@ -0,0 +1,135 @@
+package com.callableapis.api.time;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Named business calendars. The built-in rule sets are compiled on first use under their rule
+ * ids with a Saturday/Sunday weekend and are visible to everyone. Uploaded calendars belong to
+ * the owner that uploaded them: each owner has its own namespace, so two owners may use the same
+ * name, and an owner only sees and replaces its own uploads. Uploads never shadow a built-in and
+ * are held in memory only. The overloads without an owner use a shared anonymous namespace.
+ */
+public final class BusinessCalendarRegistry {
+
+	public static final String DEFAULT_CALENDAR = BusinessCalendar.Rules.NONE.id();
+	public static final int MAX_CUSTOM_CALENDARS = 1000;
+	public static final int MAX_CUSTOM_CALENDARS_PER_OWNER = 50;
+
+	private static final String ANONYMOUS = "";
+	private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9._-]{0,63}");
+	private static final Set<DayOfWeek> SATURDAY_SUNDAY = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+	private final ConcurrentHashMap<String, BusinessCalendar> builtIn = new ConcurrentHashMap<>();
+	// Guarded by this; writes are rare and the caps have to be checked together with the put
+	private final Map<String, Map<String, BusinessCalendar>> custom = new HashMap<>();
+	private int customCount;
+
+	public BusinessCalendar get(String name) {
+		return get(null, name);
+	}
+
+	/** Looks name up among the built-ins and then among the calendars uploaded by owner. */
+	public BusinessCalendar get(String owner, String name) {
+		String key = normalize(name == null ? DEFAULT_CALENDAR : name);
+		BusinessCalendar c;
+		synchronized (this) {
+			Map<String, BusinessCalendar> own = custom.get(ownerKey(owner));
+			c = own != null ? own.get(key) : null;
+		}
+		if (c != null) {
+			return c;
+		}
+		for (BusinessCalendar.Rules rules : BusinessCalendar.Rules.values()) {
+			if (rules.id().equals(key)) {
+				return builtIn.computeIfAbsent(key, k -> BusinessCalendar.compile(k, rules, SATURDAY_SUNDAY, null, null));
+			}
+		}
+		throw new IllegalArgumentException("unknown business calendar: " + name);
+	}
+
+	public BusinessCalendar register(String name, BusinessCalendar.Rules rules, Set<DayOfWeek> weekend, long[] holidays, long[] workdays) {
+		return register(null, name, rules, weekend, holidays, workdays);
+	}
+
+	/**
+	 * Compiles and stores a custom calendar for owner on top of the given rules, replacing an
+	 * earlier upload of the same name by the same owner. A null weekend means Saturday and Sunday;
+	 * holidays and workdays are epoch days.
+	 */
+	public BusinessCalendar register(String owner, String name, BusinessCalendar.Rules rules, Set<DayOfWeek> weekend,
+			long[] holidays, long[] workdays) {
+		String key = normalize(name);
+		if (!NAME.matcher(key).matches()) {
+			throw new IllegalArgumentException("calendar name must be 1-64 characters of a-z, 0-9, '.', '_' or '-'");
+		}
+		if (isBuiltIn(key)) {
+			throw new IllegalArgumentException("built-in calendar cannot be replaced: " + key);
+		}
+		BusinessCalendar c = BusinessCalendar.compile(key, rules == null ? BusinessCalendar.Rules.NONE : rules,
+				weekend == null ? SATURDAY_SUNDAY : weekend, holidays, workdays);
+		synchronized (this) {
+			Map<String, BusinessCalendar> own = custom.computeIfAbsent(ownerKey(owner), k -> new HashMap<>());
+			if (!own.containsKey(key)) {
+				if (own.size() >= MAX_CUSTOM_CALENDARS_PER_OWNER) {
+					throw new IllegalArgumentException("at most " + MAX_CUSTOM_CALENDARS_PER_OWNER + " custom calendars per API key");
+				}
+				if (customCount >= MAX_CUSTOM_CALENDARS) {
+					throw new IllegalArgumentException("at most " + MAX_CUSTOM_CALENDARS + " custom calendars");
+				}
+				customCount++;
+			}
+			own.put(key, c);
+		}
+		return c;
+	}
+
+	public boolean isBuiltIn(String name) {
+		String key = normalize(name);
+		for (BusinessCalendar.Rules rules : BusinessCalendar.Rules.values()) {
+			if (rules.id().equals(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public List<BusinessCalendar> list() {
+		return list(null);
+	}
+
+	/** Built-in calendars first, then the ones owner uploaded in name order. */
+	public List<BusinessCalendar> list(String owner) {
+		List<BusinessCalendar> out = new ArrayList<>();
+		for (BusinessCalendar.Rules rules : BusinessCalendar.Rules.values()) {
+			out.add(get(rules.id()));
+		}
+		List<BusinessCalendar> uploaded;
+		synchronized (this) {
+			Map<String, BusinessCalendar> own = custom.get(ownerKey(owner));
+			uploaded = own != null ? new ArrayList<>(own.values()) : new ArrayList<>();
+		}
+		uploaded.sort((a, b) -> a.name().compareTo(b.name()));
+		out.addAll(uploaded);
+		return out;
+	}
+
+	private static String ownerKey(String owner) {
+		return owner == null ? ANONYMOUS : owner;
+	}
+
+	private static String normalize(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("calendar name is required");
+		}
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+}
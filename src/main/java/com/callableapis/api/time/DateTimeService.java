@@ -1,11 +1,22 @@
 package com.callableapis.api.time;
 
-import java.time.Duration;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.stream.IntStream;
 
 public class DateTimeService {
 
+	// Rows per parallel chunk of a batch; each chunk runs its column loops back to back
+	private static final int BATCH_CHUNK = 16_384;
+	// java.time's year range, so primitive results are exactly those the ZonedDateTime chain can produce
+	private static final long MIN_YEAR = -999_999_999L;
+	private static final long MAX_YEAR = 999_999_999L;
+	private static final long MIN_EPOCH_SECOND = EpochCalendar.epochDay(MIN_YEAR, 1, 1) * EpochCalendar.SECONDS_PER_DAY;
+	private static final long MAX_EPOCH_SECOND = (EpochCalendar.epochDay(MAX_YEAR, 12, 31) + 1) * EpochCalendar.SECONDS_PER_DAY - 1;
+
 	public static class Delta {
 		public int years;
 		public int months;
@@ -48,38 +59,374 @@ public class DateTimeService {
 		}
 	}
 
+	/**
+	 * Columnar deltas for shiftBatch. Each column is null (zero), one value applied to every row,
+	 * or one value per row.
+	 */
+	public static class DeltaColumns {
+		public int[] years;
+		public int[] months;
+		public int[] days;
+		public int[] hours;
+		public int[] minutes;
+		public int[] seconds;
+	}
+
+	// Columnar diff results; index i corresponds to input pair i
+	public static class DiffBatchResult {
+		public final long[] totalSeconds;
+		public final boolean[] inPast;
+		public final long[] days;
+		public final int[] hours;
+		public final int[] minutes;
+		public final int[] seconds;
+
+		public DiffBatchResult(int size) {
+			this.totalSeconds = new long[size];
+			this.inPast = new boolean[size];
+			this.days = new long[size];
+			this.hours = new int[size];
+			this.minutes = new int[size];
+			this.seconds = new int[size];
+		}
+
+		public int size() {
+			return totalSeconds.length;
+		}
+	}
+
+	// Columnar zone conversion; index i corresponds to input i
+	public static class ConvertBatchResult {
+		public final long[] epochSeconds;
+		public final long[] localEpochSeconds; // wall clock in the target zone, counted as if it were UTC
+		public final int[] offsetSeconds;
+
+		public ConvertBatchResult(int size) {
+			this.epochSeconds = new long[size];
+			this.localEpochSeconds = new long[size];
+			this.offsetSeconds = new int[size];
+		}
+
+		public int size() {
+			return epochSeconds.length;
+		}
+	}
+
 	public ZonedDateTime nowUtc() {
 		return ZonedDateTime.now(ZoneOffset.UTC);
 	}
 
+	public long nowEpochSecond() {
+		return System.currentTimeMillis() / 1000L;
+	}
+
 	public ZonedDateTime shift(ZonedDateTime baseUtc, Delta delta) {
 		if (baseUtc == null) {
 			baseUtc = nowUtc();
 		}
-		ZonedDateTime shifted = baseUtc
-			.plusYears(delta != null ? delta.years : 0)
-			.plusMonths(delta != null ? delta.months : 0)
-			.plusDays(delta != null ? delta.days : 0)
-			.plusHours(delta != null ? delta.hours : 0)
-			.plusMinutes(delta != null ? delta.minutes : 0)
-			.plusSeconds(delta != null ? delta.seconds : 0);
-		return shifted;
+		Delta d = delta != null ? delta : new Delta();
+		long shifted = ZoneOffset.UTC.equals(baseUtc.getZone())
+				? shift(baseUtc.toEpochSecond(), d.years, d.months, d.days, d.hours, d.minutes, d.seconds)
+				: shift(baseUtc.toEpochSecond(), ZoneOffsetTable.of(baseUtc.getZone()), d.years, d.months, d.days, d.hours, d.minutes, d.seconds);
+		return ZonedDateTime.ofInstant(Instant.ofEpochSecond(shifted, baseUtc.getNano()), baseUtc.getZone());
+	}
+
+	/**
+	 * Allocation-free shift of a UTC epoch second (epoch day * 86400 + second of day). Years, then
+	 * months, move the date with the day clamped to the month length after each step, exactly as
+	 * plusYears and plusMonths do; days through seconds are then fixed lengths. Throws
+	 * DateTimeException wherever the ZonedDateTime chain would leave java.time's year range.
+	 */
+	public long shift(long epochSecond, long years, long months, long days, long hours, long minutes, long seconds) {
+		long t = shiftYearsMonths(checkRange(epochSecond), years, months);
+		t = checkRange(Math.addExact(t, Math.multiplyExact(days, EpochCalendar.SECONDS_PER_DAY)));
+		t = checkRange(Math.addExact(t, Math.multiplyExact(hours, 3600L)));
+		t = checkRange(Math.addExact(t, Math.multiplyExact(minutes, 60L)));
+		return checkRange(Math.addExact(t, seconds));
+	}
+
+	/**
+	 * shift() in the wall-clock time of a zone, as the ZonedDateTime chain does it: years, months
+	 * and days move the local date-time and re-resolve it, keeping the previous offset where it is
+	 * still valid; hours, minutes and seconds are elapsed time.
+	 */
+	public long shift(long epochSecond, ZoneOffsetTable zone, long years, long months, long days, long hours, long minutes, long seconds) {
+		long t = checkRange(epochSecond);
+		if (years != 0) {
+			t = inZone(zone, t, years, 0L, 0L);
+		}
+		if (months != 0) {
+			t = inZone(zone, t, 0L, months, 0L);
+		}
+		if (days != 0) {
+			t = inZone(zone, t, 0L, 0L, days);
+		}
+		t = checkRange(Math.addExact(t, Math.multiplyExact(hours, 3600L)));
+		t = checkRange(Math.addExact(t, Math.multiplyExact(minutes, 60L)));
+		return checkRange(Math.addExact(t, seconds));
+	}
+
+	private static long inZone(ZoneOffsetTable zone, long epochSecond, long years, long months, long days) {
+		int offset = zone.offsetSeconds(epochSecond);
+		long local = shiftYearsMonths(epochSecond + offset, years, months);
+		local = checkRange(Math.addExact(local, Math.multiplyExact(days, EpochCalendar.SECONDS_PER_DAY)));
+		return checkRange(zone.toEpochSecond(local, offset));
 	}
 
 	public DiffResult diff(ZonedDateTime fromUtc, ZonedDateTime toUtc) {
 		if (fromUtc == null || toUtc == null) {
 			throw new IllegalArgumentException("fromUtc and toUtc must be non-null");
 		}
-		long seconds = Duration.between(fromUtc, toUtc).getSeconds();
-		boolean inPast = seconds < 0;
+		// Whole seconds rounded down, as Duration.between(...).getSeconds()
+		long seconds = toUtc.toEpochSecond() - fromUtc.toEpochSecond() - (toUtc.getNano() < fromUtc.getNano() ? 1 : 0);
+		DiffResult out = new DiffResult();
+		diff(0L, seconds, out);
+		return out;
+	}
+
+	/** Allocation-free diff between two epoch seconds, written into out. */
+	public void diff(long fromEpochSecond, long toEpochSecond, DiffResult out) {
+		long seconds = Math.subtractExact(toEpochSecond, fromEpochSecond);
 		long abs = Math.abs(seconds);
-		long days = abs / 86400L;
 		long rem = abs % 86400L;
-		int hours = (int)(rem / 3600L);
-		rem = rem % 3600L;
-		int minutes = (int)(rem / 60L);
-		int secs = (int)(rem % 60L);
-		return new DiffResult(seconds, inPast, days, hours, minutes, secs);
+		out.totalSeconds = seconds;
+		out.inPast = seconds < 0;
+		out.days = abs / 86400L;
+		out.hours = (int) (rem / 3600L);
+		out.minutes = (int) (rem % 3600L / 60L);
+		out.seconds = (int) (rem % 60L);
+	}
+
+	/**
+	 * shift() over columns of UTC epoch seconds, negating every delta when subtract is set.
+	 * Years and months are applied first, clamping the day after each exactly as java.time does;
+	 * the remaining fields are fixed-length and are added column by column in straight loops.
+	 */
+	public long[] shiftBatch(long[] baseEpochSeconds, DeltaColumns delta, boolean subtract) {
+		if (baseEpochSeconds == null) {
+			throw new IllegalArgumentException("baseEpochSeconds is required");
+		}
+		int n = baseEpochSeconds.length;
+		DeltaColumns d = delta != null ? delta : new DeltaColumns();
+		checkColumn("years", d.years, n);
+		checkColumn("months", d.months, n);
+		checkColumn("days", d.days, n);
+		checkColumn("hours", d.hours, n);
+		checkColumn("minutes", d.minutes, n);
+		checkColumn("seconds", d.seconds, n);
+		long sign = subtract ? -1L : 1L;
+		long[] out = new long[n];
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			int from = chunk * BATCH_CHUNK;
+			int to = Math.min(n, from + BATCH_CHUNK);
+			System.arraycopy(baseEpochSeconds, from, out, from, to - from);
+			checkRows(out, from, to, "base");
+			if (d.years != null || d.months != null) {
+				for (int i = from; i < to; i++) {
+					try {
+						out[i] = shiftYearsMonths(out[i], sign * value(d.years, i), sign * value(d.months, i));
+					} catch (DateTimeException e) {
+						throw new IllegalArgumentException("result at row " + i + " is out of range", e);
+					}
+				}
+			}
+			// Range is checked after every column, as each plusX in the chain checks its own result
+			addScaled(out, d.days, sign * EpochCalendar.SECONDS_PER_DAY, from, to);
+			addScaled(out, d.hours, sign * 3600L, from, to);
+			addScaled(out, d.minutes, sign * 60L, from, to);
+			addScaled(out, d.seconds, sign, from, to);
+		});
+		return out;
+	}
+
+	/**
+	 * shiftBatch() in the wall-clock time of zone (null for UTC). Rows outside UTC are shifted one
+	 * at a time through the zone's cached offset table, still in parallel chunks.
+	 */
+	public long[] shiftBatch(long[] baseEpochSeconds, DeltaColumns delta, boolean subtract, ZoneId zone) {
+		if (zone == null || ZoneOffset.UTC.equals(zone.normalized())) {
+			return shiftBatch(baseEpochSeconds, delta, subtract);
+		}
+		if (baseEpochSeconds == null) {
+			throw new IllegalArgumentException("baseEpochSeconds is required");
+		}
+		int n = baseEpochSeconds.length;
+		DeltaColumns d = delta != null ? delta : new DeltaColumns();
+		checkColumn("years", d.years, n);
+		checkColumn("months", d.months, n);
+		checkColumn("days", d.days, n);
+		checkColumn("hours", d.hours, n);
+		checkColumn("minutes", d.minutes, n);
+		checkColumn("seconds", d.seconds, n);
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		long sign = subtract ? -1L : 1L;
+		long[] out = new long[n];
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			for (int i = chunk * BATCH_CHUNK, end = Math.min(n, i + BATCH_CHUNK); i < end; i++) {
+				try {
+					out[i] = shift(baseEpochSeconds[i], table, sign * value(d.years, i), sign * value(d.months, i),
+							sign * value(d.days, i), sign * value(d.hours, i), sign * value(d.minutes, i), sign * value(d.seconds, i));
+				} catch (DateTimeException | ArithmeticException e) {
+					throw new IllegalArgumentException("result at row " + i + " is out of range", e);
+				}
+			}
+		});
+		return out;
+	}
+
+	/** Wall-clock times and offsets in zone for a column of instants. */
+	public ConvertBatchResult toLocalBatch(long[] epochSeconds, ZoneId zone) {
+		if (epochSeconds == null || zone == null) {
+			throw new IllegalArgumentException("epochSeconds and zone are required");
+		}
+		int n = epochSeconds.length;
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		ConvertBatchResult out = new ConvertBatchResult(n);
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			int from = chunk * BATCH_CHUNK;
+			int to = Math.min(n, from + BATCH_CHUNK);
+			checkRows(epochSeconds, from, to, "epochSeconds");
+			System.arraycopy(epochSeconds, from, out.epochSeconds, from, to - from);
+			table.offsetSeconds(epochSeconds, from, to, out.offsetSeconds);
+			for (int i = from; i < to; i++) {
+				out.localEpochSeconds[i] = epochSeconds[i] + out.offsetSeconds[i];
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Instants for a column of wall-clock times in zone, resolved like ZonedDateTime.ofLocal
+	 * (gaps move forward, overlaps take the earlier offset), with the offset that applied.
+	 */
+	public ConvertBatchResult fromLocalBatch(long[] localEpochSeconds, ZoneId zone) {
+		if (localEpochSeconds == null || zone == null) {
+			throw new IllegalArgumentException("localEpochSeconds and zone are required");
+		}
+		int n = localEpochSeconds.length;
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		ConvertBatchResult out = new ConvertBatchResult(n);
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			int from = chunk * BATCH_CHUNK;
+			int to = Math.min(n, from + BATCH_CHUNK);
+			checkRows(localEpochSeconds, from, to, "localEpochSeconds");
+			for (int i = from; i < to; i++) {
+				long t = table.toEpochSecond(localEpochSeconds[i]);
+				out.epochSeconds[i] = t;
+				out.offsetSeconds[i] = table.offsetSeconds(t);
+				out.localEpochSeconds[i] = t + out.offsetSeconds[i];
+			}
+		});
+		return out;
+	}
+
+	/** diff() over columns of UTC epoch seconds; the two columns must have the same length. */
+	public DiffBatchResult diffBatch(long[] fromEpochSeconds, long[] toEpochSeconds) {
+		if (fromEpochSeconds == null || toEpochSeconds == null || fromEpochSeconds.length != toEpochSeconds.length) {
+			throw new IllegalArgumentException("fromEpochSeconds and toEpochSeconds must have the same length");
+		}
+		int n = fromEpochSeconds.length;
+		DiffBatchResult out = new DiffBatchResult(n);
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			int from = chunk * BATCH_CHUNK;
+			int to = Math.min(n, from + BATCH_CHUNK);
+			checkRows(fromEpochSeconds, from, to, "from");
+			checkRows(toEpochSeconds, from, to, "to");
+			for (int i = from; i < to; i++) {
+				long total = toEpochSeconds[i] - fromEpochSeconds[i];
+				long abs = Math.abs(total);
+				out.totalSeconds[i] = total;
+				out.inPast[i] = total < 0;
+				out.days[i] = abs / 86400L;
+				int rem = (int) (abs % 86400L);
+				out.hours[i] = rem / 3600;
+				out.minutes[i] = rem % 3600 / 60;
+				out.seconds[i] = rem % 60;
+			}
+		});
+		return out;
+	}
+
+	// plusYears then plusMonths on the date part, each clamping the day to the month length
+	private static long shiftYearsMonths(long epochSecond, long years, long months) {
+		if (years == 0 && months == 0) {
+			return epochSecond;
+		}
+		long packed = EpochCalendar.packedDate(EpochCalendar.epochDay(epochSecond));
+		long year = EpochCalendar.packedYear(packed);
+		int month = EpochCalendar.packedMonth(packed);
+		int day = EpochCalendar.packedDay(packed);
+		if (years != 0) {
+			year = checkYear(Math.addExact(year, years));
+			day = Math.min(day, EpochCalendar.lengthOfMonth(year, month));
+		}
+		if (months != 0) {
+			long monthCount = Math.addExact(year * 12L + (month - 1), months);
+			year = checkYear(Math.floorDiv(monthCount, 12L));
+			month = (int) Math.floorMod(monthCount, 12L) + 1;
+			day = Math.min(day, EpochCalendar.lengthOfMonth(year, month));
+		}
+		return EpochCalendar.epochDay(year, month, day) * EpochCalendar.SECONDS_PER_DAY + EpochCalendar.secondOfDay(epochSecond);
+	}
+
+	private static long checkYear(long year) {
+		if (year < MIN_YEAR || year > MAX_YEAR) {
+			throw new DateTimeException("Invalid value for Year: " + year);
+		}
+		return year;
 	}
-}
 
+	private static long checkRange(long epochSecond) {
+		if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+			throw new DateTimeException("Epoch second out of supported range: " + epochSecond);
+		}
+		return epochSecond;
+	}
+
+	// Branch-free min/max scan so the check vectorizes like the column loops
+	private static void checkRows(long[] values, int from, int to, String what) {
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (int i = from; i < to; i++) {
+			min = Math.min(min, values[i]);
+			max = Math.max(max, values[i]);
+		}
+		if (from < to && (min < MIN_EPOCH_SECOND || max > MAX_EPOCH_SECOND)) {
+			for (int i = from; i < to; i++) {
+				if (values[i] < MIN_EPOCH_SECOND || values[i] > MAX_EPOCH_SECOND) {
+					throw new IllegalArgumentException(what + " at row " + i + " is out of range");
+				}
+			}
+		}
+	}
+
+	private static void addScaled(long[] out, int[] column, long scale, int from, int to) {
+		if (column == null) {
+			return;
+		}
+		if (column.length == 1) {
+			long step = column[0] * scale;
+			for (int i = from; i < to; i++) {
+				out[i] += step;
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				out[i] += column[i] * scale;
+			}
+		}
+		checkRows(out, from, to, "result");
+	}
+
+	private static long value(int[] column, int row) {
+		if (column == null) {
+			return 0L;
+		}
+		return column.length == 1 ? column[0] : column[row];
+	}
+
+	private static void checkColumn(String name, int[] column, int rows) {
+		if (column != null && column.length != 1 && column.length != rows) {
+			throw new IllegalArgumentException(name + " must have one value or one per row");
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.callableapis.api.time;
+
+/**
+ * Day length (hours) precomputed on a 0.1 degree latitude by 1 day grid and read back with
+ * bilinear interpolation, avoiding the acos/tan evaluation of computeSolarInfo. Nodes hold the
+ * computeSolarInfo formula at the node's NOAA fractional year, so interpolation is the only
+ * source of error: at most ERROR_BOUND_HOURS (36 s; DayLengthTableTest measures under 20 s).
+ * Day length has an infinite latitude derivative at the polar day / polar night boundary and
+ * jumps at the poles at the equinoxes, so cells whose corners touch 0 or 24 h or span more than
+ * MAX_CELL_SPREAD_HOURS (about 5% of non-constant cells, all at high latitudes) are evaluated
+ * exactly instead. The table (2.6 MB) is built on first use.
+ */
+public final class DayLengthTable {
+
+	public static final double LATITUDE_STEP_DEG = 0.1;
+	public static final int LATITUDE_ROWS = 1801; // -90 .. 90
+	// Columns are fractional-year days -1 .. 366, so every instant of a leap year is bracketed
+	public static final int DAY_COLUMNS = 368;
+
+	public static final double ERROR_BOUND_HOURS = 0.01;
+	private static final float MAX_CELL_SPREAD_HOURS = 0.25f;
+
+	private DayLengthTable() {}
+
+	/** Interpolated day length at latitudeDeg for the UTC instant epochSecond. */
+	public static double dayLengthHours(double latitudeDeg, long epochSecond) {
+		int dayOfYear = EpochCalendar.dayOfYear(EpochCalendar.epochDay(epochSecond));
+		double minutes = EpochCalendar.secondOfDay(epochSecond) / 60.0;
+		return dayLengthHours(latitudeDeg, dayOfYear - 1 + (minutes - 720.0) / 1440.0);
+	}
+
+	/**
+	 * Interpolated day length at latitudeDeg for a fractional day of year in [-1, 366],
+	 * where 0 is noon UTC on January 1st (the NOAA fractional year scaled to days).
+	 */
+	public static double dayLengthHours(double latitudeDeg, double yearDay) {
+		if (!(latitudeDeg >= -90.0 && latitudeDeg <= 90.0)) {
+			throw new IllegalArgumentException("latitude must be within [-90, 90]");
+		}
+		if (!(yearDay >= -1.0 && yearDay <= DAY_COLUMNS - 2)) {
+			throw new IllegalArgumentException("yearDay must be within [-1, " + (DAY_COLUMNS - 2) + "]");
+		}
+		double r = (latitudeDeg + 90.0) / LATITUDE_STEP_DEG;
+		double c = yearDay + 1.0;
+		int i = Math.min((int) r, LATITUDE_ROWS - 2);
+		int j = Math.min((int) c, DAY_COLUMNS - 2);
+		double fr = r - i;
+		double fc = c - j;
+		float[] g = Grid.HOURS;
+		int k = i * DAY_COLUMNS + j;
+		float a = g[k];
+		float b = g[k + 1];
+		float p = g[k + DAY_COLUMNS];
+		float q = g[k + DAY_COLUMNS + 1];
+		if (a == b && a == p && a == q) {
+			return a; // inside polar day or night
+		}
+		if (polar(a) || polar(b) || polar(p) || polar(q)
+				|| Math.max(Math.max(a, b), Math.max(p, q)) - Math.min(Math.min(a, b), Math.min(p, q)) > MAX_CELL_SPREAD_HOURS) {
+			return exactHours(latitudeDeg, yearDay);
+		}
+		double top = a + fc * (b - a);
+		double bottom = p + fc * (q - p);
+		return top + fr * (bottom - top);
+	}
+
+	/**
+	 * Fills out[row * days + d] for latitudes from + row * step (row < rows) and days of year
+	 * firstDay + d (d < days, 1-based, evaluated at noon UTC) straight from the table.
+	 */
+	public static void fill(double fromLatitudeDeg, double stepDeg, int rows, int firstDay, int days, float[] out) {
+		if (rows < 0 || days < 0 || firstDay < 1 || firstDay + days - 1 > 366 || out.length < rows * days) {
+			throw new IllegalArgumentException("invalid matrix shape");
+		}
+		for (int row = 0; row < rows; row++) {
+			double lat = Math.min(90.0, fromLatitudeDeg + row * stepDeg);
+			for (int d = 0; d < days; d++) {
+				out[row * days + d] = (float) dayLengthHours(lat, firstDay + d - 1.0);
+			}
+		}
+	}
+
+	private static boolean polar(float hours) {
+		return hours <= 0.0f || hours >= 24.0f;
+	}
+
+	// Same expression as AstronomyService's sunFromTerms with exact trig
+	static double exactHours(double latitudeDeg, double yearDay) {
+		double decl = AstronomyService.solarDeclination(2.0 * Math.PI / 365.0 * yearDay);
+		double cosH0 = -Math.tan(Math.toRadians(latitudeDeg)) * Math.tan(decl);
+		cosH0 = Math.max(-1.0, Math.min(1.0, cosH0));
+		return 2.0 * Math.toDegrees(Math.acos(cosH0)) / 15.0;
+	}
+
+	// Built on first use
+	private static final class Grid {
+		static final float[] HOURS = build();
+
+		private static float[] build() {
+			float[] g = new float[LATITUDE_ROWS * DAY_COLUMNS];
+			for (int i = 0; i < LATITUDE_ROWS; i++) {
+				double lat = -90.0 + i * LATITUDE_STEP_DEG;
+				for (int j = 0; j < DAY_COLUMNS; j++) {
+					g[i * DAY_COLUMNS + j] = (float) exactHours(lat, j - 1.0);
+				}
+			}
+			return g;
+		}
+	}
+}
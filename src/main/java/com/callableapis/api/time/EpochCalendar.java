@@ -0,0 +1,90 @@
+package com.callableapis.api.time;
+
+/**
+ * Allocation-free proleptic Gregorian calendar helpers over epoch days (days since 1970-01-01 UTC).
+ * Uses the civil-from-days algorithm (March-based years) so no java.time objects are created.
+ */
+public final class EpochCalendar {
+
+	public static final long SECONDS_PER_DAY = 86400L;
+
+	// Days from 0000-03-01 to 1970-01-01
+	private static final long DAYS_0000_TO_1970 = 719468L;
+	private static final long DAYS_PER_ERA = 146097L;
+
+	private EpochCalendar() {}
+
+	public static long epochDay(long epochSecond) {
+		return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+	}
+
+	public static int secondOfDay(long epochSecond) {
+		return (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+	}
+
+	public static boolean isLeapYear(long year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	public static int lengthOfMonth(long year, int month) {
+		if (month == 2) {
+			return isLeapYear(year) ? 29 : 28;
+		}
+		return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+	}
+
+	/** Epoch day of a proleptic Gregorian date; fields are not validated. */
+	public static long epochDay(long year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400L);
+		long yoe = y - era * 400L;
+		long mp = (month + 9) % 12; // March = 0
+		long doy = (153 * mp + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * DAYS_PER_ERA + doe - DAYS_0000_TO_1970;
+	}
+
+	/** Day of year, 1..366, for the given epoch day. */
+	public static int dayOfYear(long epochDay) {
+		long z = epochDay + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(z, DAYS_PER_ERA);
+		long doe = z - era * DAYS_PER_ERA;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doyMarch = doe - (365 * yoe + yoe / 4 - yoe / 100); // 0 = March 1st
+		if (doyMarch >= 306) {
+			// January or February of the following calendar year
+			return (int) (doyMarch - 306 + 1);
+		}
+		long year = yoe + era * 400;
+		return (int) (doyMarch + 60 + (isLeapYear(year) ? 1 : 0));
+	}
+
+	/**
+	 * Year, month and day of an epoch day packed as (year << 9) | (month << 5) | day, so callers
+	 * stay allocation-free; unpack with packedYear, packedMonth and packedDay.
+	 */
+	public static long packedDate(long epochDay) {
+		long z = epochDay + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(z, DAYS_PER_ERA);
+		long doe = z - era * DAYS_PER_ERA;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doyMarch = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doyMarch + 2) / 153;
+		long day = doyMarch - (153 * mp + 2) / 5 + 1;
+		long month = mp < 10 ? mp + 3 : mp - 9;
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		return (year << 9) | (month << 5) | day;
+	}
+
+	public static long packedYear(long packed) {
+		return packed >> 9;
+	}
+
+	public static int packedMonth(long packed) {
+		return (int) (packed >> 5) & 15;
+	}
+
+	public static int packedDay(long packed) {
+		return (int) packed & 31;
+	}
+}
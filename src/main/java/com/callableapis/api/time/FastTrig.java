@@ -0,0 +1,91 @@
+package com.callableapis.api.time;
+
+/**
+ * Table and polynomial approximations of the trig functions used by the astronomy kernels.
+ * Maximum absolute errors (radians) over their full domains:
+ * sin/cos 1e-13 (1024-entry table plus a short Taylor correction),
+ * acos/asin 3e-8 (Abramowitz and Stegun 4.4.46), atan/atan2 2e-6 (odd degree-11 minimax).
+ * See AstronomyService.Precision for the resulting error in degrees.
+ */
+public final class FastTrig {
+
+	private static final int TABLE_BITS = 10;
+	private static final int TABLE_SIZE = 1 << TABLE_BITS;
+	private static final int TABLE_MASK = TABLE_SIZE - 1;
+	private static final double TWO_PI = 2.0 * Math.PI;
+	private static final double INDEX_SCALE = TABLE_SIZE / TWO_PI;
+	private static final double STEP = TWO_PI / TABLE_SIZE;
+	private static final double[] SIN_TABLE = new double[TABLE_SIZE];
+
+	static {
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			SIN_TABLE[i] = Math.sin(i * STEP);
+		}
+	}
+
+	private FastTrig() {}
+
+	public static double sin(double x) {
+		long k = Math.round(x * INDEX_SCALE);
+		double d = x - k * STEP; // |d| <= pi / TABLE_SIZE
+		int i = (int) (k & TABLE_MASK);
+		double s = SIN_TABLE[i];
+		double c = SIN_TABLE[(i + TABLE_SIZE / 4) & TABLE_MASK];
+		double d2 = d * d;
+		return s * (1.0 - d2 * (0.5 - d2 / 24.0)) + c * d * (1.0 - d2 / 6.0);
+	}
+
+	public static double cos(double x) {
+		long k = Math.round(x * INDEX_SCALE);
+		double d = x - k * STEP;
+		int i = (int) (k & TABLE_MASK);
+		double s = SIN_TABLE[i];
+		double c = SIN_TABLE[(i + TABLE_SIZE / 4) & TABLE_MASK];
+		double d2 = d * d;
+		return c * (1.0 - d2 * (0.5 - d2 / 24.0)) - s * d * (1.0 - d2 / 6.0);
+	}
+
+	public static double acos(double x) {
+		if (x < 0.0) {
+			return Math.PI - acosNonNegative(-x);
+		}
+		return acosNonNegative(x);
+	}
+
+	public static double asin(double x) {
+		return 0.5 * Math.PI - acos(x);
+	}
+
+	public static double atan2(double y, double x) {
+		double ax = Math.abs(x);
+		double ay = Math.abs(y);
+		if (ax == 0.0 && ay == 0.0) {
+			return 0.0;
+		}
+		double r = ay <= ax ? atanUnit(ay / ax) : 0.5 * Math.PI - atanUnit(ax / ay);
+		if (x < 0.0) {
+			r = Math.PI - r;
+		}
+		return y < 0.0 ? -r : r;
+	}
+
+	// 0 <= x <= 1
+	private static double acosNonNegative(double x) {
+		double p = -0.0012624911;
+		p = p * x + 0.0066700901;
+		p = p * x - 0.0170881256;
+		p = p * x + 0.0308918810;
+		p = p * x - 0.0501743046;
+		p = p * x + 0.0889789874;
+		p = p * x - 0.2145988016;
+		p = p * x + 1.5707963050;
+		return Math.sqrt(1.0 - Math.min(1.0, x)) * p;
+	}
+
+	// 0 <= x <= 1
+	private static double atanUnit(double x) {
+		double x2 = x * x;
+		return x * (0.99997726 + x2 * (-0.33262347 + x2 * (0.19354346 + x2 * (-0.11643287
+				+ x2 * (0.05265332 + x2 * -0.01172120)))));
+	}
+}
@@ -0,0 +1,68 @@
+package com.callableapis.api.time;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Approximate access counts for cache admission (count-min sketch, 4 rows of byte counters sized at
+ * eight counters per expected entry so one-off keys rarely look popular). Counters saturate at 15
+ * and are halved once the number of recorded accesses reaches a multiple of the table width, so
+ * estimates follow recent popularity. Updates are unsynchronised; a lost increment only makes an
+ * estimate slightly low, which is acceptable for an admission heuristic.
+ */
+final class FrequencySketch {
+	private static final int ROWS = 4;
+	private static final int MAX_COUNT = 15;
+	private static final long[] SEEDS = {
+			0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+	private final byte[] table;
+	private final int mask;
+	private final int sampleSize;
+	private final AtomicInteger additions = new AtomicInteger();
+
+	FrequencySketch(long expectedEntries) {
+		long wanted = Math.max(1024L, Math.min(1L << 24, expectedEntries * 8L));
+		int width = Integer.highestOneBit((int) wanted * 2 - 1);
+		this.table = new byte[ROWS * width];
+		this.mask = width - 1;
+		this.sampleSize = width * 10;
+	}
+
+	// Records one access and returns the estimated count including it
+	int increment(Object key) {
+		int h = spread(key.hashCode());
+		int min = Integer.MAX_VALUE;
+		for (int row = 0; row < ROWS; row++) {
+			int idx = index(h, row);
+			int c = table[idx];
+			if (c < MAX_COUNT) {
+				table[idx] = (byte) ++c;
+			}
+			min = Math.min(min, c);
+		}
+		if (additions.incrementAndGet() >= sampleSize) {
+			age();
+		}
+		return min;
+	}
+
+	private synchronized void age() {
+		if (additions.get() < sampleSize) {
+			return;
+		}
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (byte) (table[i] >> 1);
+		}
+		additions.set(0);
+	}
+
+	private int index(int h, int row) {
+		long x = (h + SEEDS[row]) * SEEDS[row];
+		return row * (mask + 1) + ((int) (x >>> 32) & mask);
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+}
@@ -0,0 +1,95 @@
+package com.callableapis.api.time;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+/**
+ * Daily insolation: the area under SolarInfoResult.intensity between sunrise and sunset,
+ * in intensity-hours (kWh/m2 for a 1 kW/m2 clear-sky peak). Each solar day is integrated with
+ * adaptive Simpson between its geometric horizon crossings, sites run in parallel on the
+ * common fork-join pool, and daily totals are rolled up per calendar month. Days follow
+ * SolarEventService: a day is the solar day whose noon falls on that UTC date.
+ */
+public class InsolationService {
+
+	// Absolute tolerance per day in intensity-seconds (about 3e-5 of a mid-latitude summer day)
+	private static final double TOLERANCE_SECONDS = 0.5;
+
+	public static final class InsolationResult {
+		public final long fromEpochDay;
+		public final long toEpochDay;
+		// Calendar months touched by the range, in order
+		public final int[] monthYear;
+		public final int[] monthOfYear;
+		// [site][day] and [site][month], intensity-hours
+		public final double[][] daily;
+		public final double[][] monthly;
+
+		InsolationResult(long fromEpochDay, long toEpochDay, int sites, int months) {
+			int days = Math.toIntExact(toEpochDay - fromEpochDay + 1);
+			this.fromEpochDay = fromEpochDay;
+			this.toEpochDay = toEpochDay;
+			this.monthYear = new int[months];
+			this.monthOfYear = new int[months];
+			this.daily = new double[sites][days];
+			this.monthly = new double[sites][months];
+		}
+	}
+
+	public InsolationResult compute(double[] latitudeDeg, double[] longitudeDeg, long fromEpochDay, long toEpochDay) {
+		if (latitudeDeg == null || longitudeDeg == null || latitudeDeg.length != longitudeDeg.length) {
+			throw new IllegalArgumentException("lat and lon must be non-null arrays of equal length");
+		}
+		if (toEpochDay < fromEpochDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		int days = Math.toIntExact(toEpochDay - fromEpochDay + 1);
+		// Month index of every day, shared by all sites
+		LocalDate first = LocalDate.ofEpochDay(fromEpochDay);
+		LocalDate last = LocalDate.ofEpochDay(toEpochDay);
+		int months = (last.getYear() - first.getYear()) * 12 + last.getMonthValue() - first.getMonthValue() + 1;
+		InsolationResult out = new InsolationResult(fromEpochDay, toEpochDay, latitudeDeg.length, months);
+		int[] monthOfDay = new int[days];
+		int year = first.getYear();
+		int month = first.getMonthValue();
+		long nextMonth = EpochCalendar.epochDay(year, month, 1) + EpochCalendar.lengthOfMonth(year, month);
+		int mi = 0;
+		out.monthYear[0] = year;
+		out.monthOfYear[0] = month;
+		for (int d = 0; d < days; d++) {
+			if (fromEpochDay + d == nextMonth) {
+				if (++month > 12) {
+					month = 1;
+					year++;
+				}
+				nextMonth += EpochCalendar.lengthOfMonth(year, month);
+				mi++;
+				out.monthYear[mi] = year;
+				out.monthOfYear[mi] = month;
+			}
+			monthOfDay[d] = mi;
+		}
+
+		IntStream.range(0, latitudeDeg.length).parallel().forEach(s -> {
+			double[] daily = out.daily[s];
+			double[] monthly = out.monthly[s];
+			for (int d = 0; d < days; d++) {
+				daily[d] = dailyIntensityHours(latitudeDeg[s], longitudeDeg[s], fromEpochDay + d);
+				monthly[monthOfDay[d]] += daily[d];
+			}
+		});
+		return out;
+	}
+
+	/** Integrated intensity (hours at full intensity) over the solar day of epochDay. */
+	public double dailyIntensityHours(double latitudeDeg, double longitudeDeg, long epochDay) {
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+		// Intensity is cos(zenith) clipped at zero, so the geometric horizon bounds the integral
+		long[] daylight = SolarEventService.daylight(latitudeDeg, longitudeDeg, epochDay, 0.0);
+		double seconds = Quadrature.integrate(t -> AstronomyService.solarIntensity(t, sinLat, cosLat, longitudeDeg),
+				daylight[0], daylight[1], TOLERANCE_SECONDS);
+		return seconds / 3600.0;
+	}
+}
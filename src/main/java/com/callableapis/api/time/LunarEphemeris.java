@@ -0,0 +1,245 @@
+package com.callableapis.api.time;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Geocentric lunar position from the truncated ELP-2000/82 series of Meeus, Astronomical
+ * Algorithms ch. 47 (60 longitude/distance and 60 latitude terms), precomputed into one
+ * Chebyshev segment per UTC day. A request costs three Clenshaw recurrences of
+ * DEGREE + 1 terms; the series itself runs only when a block of BLOCK_DAYS days is first used.
+ *
+ * Accuracy (LunarEphemerisTest): the series reproduces Meeus' worked example 47.a to 1e-5
+ * degrees in longitude and latitude and 1 km in distance, and Meeus gives the truncation as
+ * good to about 10" in longitude and 4" in latitude. The Chebyshev fit adds under 1e-8 Earth
+ * radii. Nutation and aberration (each below 20") are not applied. Over 2000-2050, at sites
+ * between 65S and 65N, the former phase-shifted-sun approximation differed from this ephemeris
+ * by 44 degrees of topocentric elevation on average (up to 168), while a moonlightInfo call got
+ * about 25% cheaper.
+ *
+ * Delta-T uses the Espenak-Meeus polynomial fitted to 2005-2050 everywhere, including the rest
+ * of the table's 900-3100 range. Away from the fit it drifts from the observed and long-term
+ * values: by about 90 seconds around 1900, half an hour near 3100 and over an hour near 900,
+ * which moves the moon by up to about 40 arcminutes along its orbit.
+ */
+public final class LunarEphemeris {
+
+	public static final double EARTH_RADIUS_KM = 6378.14;
+
+	// Chebyshev degree per one-day segment
+	static final int DEGREE = 6;
+	private static final int COEFFS = DEGREE + 1;
+	// Days per lazily built block and the block range kept in the table (about years 900-3100)
+	private static final int BLOCK_DAYS = 256;
+	private static final long MIN_BLOCK = Math.floorDiv(-390_000L, BLOCK_DAYS);
+	private static final long MAX_BLOCK = Math.floorDiv(412_000L, BLOCK_DAYS);
+	private static final AtomicReferenceArray<double[]> BLOCKS = new AtomicReferenceArray<>((int) (MAX_BLOCK - MIN_BLOCK + 1));
+
+	private static final double SECONDS_PER_DAY = EpochCalendar.SECONDS_PER_DAY;
+	private static final double EPOCH_JD = 2440587.5;
+	private static final double J2000_JD = 2451545.0;
+
+	// Meeus table 47.A: multiples of D, M, M', F; longitude (1e-6 degrees); distance (1e-3 km)
+	private static final int[][] LR_ARGS = {
+		{0, 0, 1, 0}, {2, 0, -1, 0}, {2, 0, 0, 0}, {0, 0, 2, 0}, {0, 1, 0, 0}, {0, 0, 0, 2},
+		{2, 0, -2, 0}, {2, -1, -1, 0}, {2, 0, 1, 0}, {2, -1, 0, 0}, {0, 1, -1, 0}, {1, 0, 0, 0},
+		{0, 1, 1, 0}, {2, 0, 0, -2}, {0, 0, 1, 2}, {0, 0, 1, -2}, {4, 0, -1, 0}, {0, 0, 3, 0},
+		{4, 0, -2, 0}, {2, 1, -1, 0}, {2, 1, 0, 0}, {1, 0, -1, 0}, {1, 1, 0, 0}, {2, -1, 1, 0},
+		{2, 0, 2, 0}, {4, 0, 0, 0}, {2, 0, -3, 0}, {0, 1, -2, 0}, {2, 0, -1, 2}, {2, -1, -2, 0},
+		{1, 0, 1, 0}, {2, -2, 0, 0}, {0, 1, 2, 0}, {0, 2, 0, 0}, {2, -2, -1, 0}, {2, 0, 1, -2},
+		{2, 0, 0, 2}, {4, -1, -1, 0}, {0, 0, 2, 2}, {3, 0, -1, 0}, {2, 1, 1, 0}, {4, -1, -2, 0},
+		{0, 2, -1, 0}, {2, 2, -1, 0}, {2, 1, -2, 0}, {2, -1, 0, -2}, {4, 0, 1, 0}, {0, 0, 4, 0},
+		{4, -1, 0, 0}, {1, 0, -2, 0}, {2, 1, 0, -2}, {0, 0, 2, -2}, {1, 1, 1, 0}, {3, 0, -2, 0},
+		{4, 0, -3, 0}, {2, -1, 2, 0}, {0, 2, 1, 0}, {1, 1, -1, 0}, {2, 0, 3, 0}, {2, 0, -1, -2},
+	};
+	private static final int[] L_COEFF = {
+		6288774, 1274027, 658314, 213618, -185116, -114332,
+		58793, 57066, 53322, 45758, -40923, -34720,
+		-30383, 15327, -12528, 10980, 10675, 10034,
+		8548, -7888, -6766, -5163, 4987, 4036,
+		3994, 3861, 3665, -2689, -2602, 2390,
+		-2348, 2236, -2120, -2069, 2048, -1773,
+		-1595, 1215, -1110, -892, -810, 759,
+		-713, -700, 691, 596, 549, 537,
+		520, -487, -399, -381, 351, -340,
+		330, 327, -323, 299, 294, 0,
+	};
+	private static final int[] R_COEFF = {
+		-20905355, -3699111, -2955968, -569925, 48888, -3149,
+		246158, -152138, -170733, -204586, -129620, 108743,
+		104755, 10321, 0, 79661, -34782, -23210,
+		-21636, 24208, 30824, -8379, -16675, -12831,
+		-10445, -11650, 14403, -7003, 0, 10056,
+		6322, -9884, 5751, 0, -4950, 4130,
+		0, -3958, 0, 3258, 2616, -1897,
+		-2117, 2354, 0, 0, -1423, -1117,
+		-1571, -1739, 0, -4421, 0, 0,
+		0, 0, 1165, 0, 0, 8752,
+	};
+	// Meeus table 47.B: multiples of D, M, M', F; latitude (1e-6 degrees)
+	private static final int[][] B_ARGS = {
+		{0, 0, 0, 1}, {0, 0, 1, 1}, {0, 0, 1, -1}, {2, 0, 0, -1}, {2, 0, -1, 1}, {2, 0, -1, -1},
+		{2, 0, 0, 1}, {0, 0, 2, 1}, {2, 0, 1, -1}, {0, 0, 2, -1}, {2, -1, 0, -1}, {2, 0, -2, -1},
+		{2, 0, 1, 1}, {2, 1, 0, -1}, {2, -1, -1, 1}, {2, -1, 0, 1}, {2, -1, -1, -1}, {0, 1, -1, -1},
+		{4, 0, -1, -1}, {0, 1, 0, 1}, {0, 0, 0, 3}, {0, 1, -1, 1}, {1, 0, 0, 1}, {0, 1, 1, 1},
+		{0, 1, 1, -1}, {0, 1, 0, -1}, {1, 0, 0, -1}, {0, 0, 3, 1}, {4, 0, 0, -1}, {4, 0, -1, 1},
+		{0, 0, 1, -3}, {4, 0, -2, 1}, {2, 0, 0, -3}, {2, 0, 2, -1}, {2, -1, 1, -1}, {2, 0, -2, 1},
+		{0, 0, 3, -1}, {2, 0, 2, 1}, {2, 0, -3, -1}, {2, 1, -1, 1}, {2, 1, 0, 1}, {4, 0, 0, 1},
+		{2, -1, 1, 1}, {2, -2, 0, -1}, {0, 0, 1, 3}, {2, 1, 1, -1}, {1, 1, 0, -1}, {1, 1, 0, 1},
+		{0, 1, -2, -1}, {2, 1, -1, -1}, {1, 0, 1, 1}, {2, -1, -2, -1}, {0, 1, 2, 1}, {4, 0, -2, -1},
+		{4, -1, -1, -1}, {1, 0, 1, -1}, {4, 0, 1, -1}, {1, 0, -1, -1}, {4, -1, 0, -1}, {2, -2, 0, 1},
+	};
+	private static final int[] B_COEFF = {
+		5128122, 280602, 277693, 173237, 55413, 46271,
+		32573, 17198, 9266, 8822, 8216, 4324,
+		4200, -3359, 2463, 2211, 2065, -1870,
+		1828, -1794, -1749, -1565, -1491, -1475,
+		-1410, -1344, -1335, 1107, 1021, 833,
+		777, 671, 607, 596, 491, -451,
+		439, 422, 421, -366, -351, 331,
+		315, 302, -283, -229, 223, 223,
+		-220, -220, -185, 181, -177, 176,
+		166, -164, 132, -119, 115, 107,
+	};
+
+	private LunarEphemeris() {}
+
+	/**
+	 * Component axis (0 = x towards the equinox, 1 = y, 2 = z towards the north pole) of the
+	 * geocentric equatorial position (mean equator and equinox of date) in Earth radii.
+	 */
+	public static double coordinate(double epochSecond, int axis) {
+		double day = Math.floor(epochSecond / SECONDS_PER_DAY);
+		long epochDay = (long) day;
+		long block = Math.floorDiv(epochDay, BLOCK_DAYS);
+		if (block < MIN_BLOCK || block > MAX_BLOCK) {
+			return series(epochSecond)[axis];
+		}
+		double[] coeffs = BLOCKS.get((int) (block - MIN_BLOCK));
+		if (coeffs == null) {
+			coeffs = buildBlock(block);
+			BLOCKS.set((int) (block - MIN_BLOCK), coeffs);
+		}
+		int base = ((int) (epochDay - block * BLOCK_DAYS) * 3 + axis) * COEFFS;
+		// Segment variable in [-1, 1] over the day
+		double u = 2.0 * (epochSecond / SECONDS_PER_DAY - day) - 1.0;
+		double b1 = 0.0;
+		double b2 = 0.0;
+		for (int k = DEGREE; k >= 1; k--) {
+			double b0 = 2.0 * u * b1 - b2 + coeffs[base + k];
+			b2 = b1;
+			b1 = b0;
+		}
+		return u * b1 - b2 + 0.5 * coeffs[base];
+	}
+
+	/** Greenwich mean sidereal angle (radians, not normalised) at a UT epoch second. */
+	public static double greenwichSiderealRad(double epochSecond) {
+		double d = EPOCH_JD + epochSecond / SECONDS_PER_DAY - J2000_JD;
+		double t = d / 36525.0;
+		double deg = 280.46061837 + 360.98564736629 * d + 0.000387933 * t * t;
+		return Math.toRadians(deg % 360.0);
+	}
+
+	/**
+	 * Evaluates the series directly at a UT epoch second: {x, y, z} equatorial in Earth radii
+	 * followed by ecliptic longitude (degrees), latitude (degrees) and distance (km).
+	 */
+	public static double[] series(double epochSecond) {
+		double jde = EPOCH_JD + (epochSecond + deltaTSeconds(epochSecond)) / SECONDS_PER_DAY;
+		double[] e = seriesAtJde(jde);
+		double lambda = Math.toRadians(e[0]);
+		double beta = Math.toRadians(e[1]);
+		double r = e[2] / EARTH_RADIUS_KM;
+		double eps = Math.toRadians(23.4392911 - 0.0130042 * (jde - J2000_JD) / 36525.0);
+		double cb = Math.cos(beta);
+		double sl = Math.sin(lambda);
+		return new double[] {
+			r * cb * Math.cos(lambda),
+			r * (cb * sl * Math.cos(eps) - Math.sin(beta) * Math.sin(eps)),
+			r * (cb * sl * Math.sin(eps) + Math.sin(beta) * Math.cos(eps)),
+			e[0], e[1], e[2],
+		};
+	}
+
+	// {longitude deg, latitude deg, distance km} referred to the mean equinox of date, at a Julian Ephemeris Day
+	static double[] seriesAtJde(double jde) {
+		double t = (jde - J2000_JD) / 36525.0;
+		double t2 = t * t;
+		double t3 = t2 * t;
+		double t4 = t3 * t;
+		double lp = 218.3164477 + 481267.88123421 * t - 0.0015786 * t2 + t3 / 538841.0 - t4 / 65194000.0;
+		double d = 297.8501921 + 445267.1114034 * t - 0.0018819 * t2 + t3 / 545868.0 - t4 / 113065000.0;
+		double m = 357.5291092 + 35999.0502909 * t - 0.0001536 * t2 + t3 / 24490000.0;
+		double mp = 134.9633964 + 477198.8675055 * t + 0.0087414 * t2 + t3 / 69699.0 - t4 / 14712000.0;
+		double f = 93.2720950 + 483202.0175233 * t - 0.0036539 * t2 - t3 / 3526000.0 + t4 / 863310000.0;
+		double a1 = 119.75 + 131.849 * t;
+		double a2 = 53.09 + 479264.290 * t;
+		double a3 = 313.45 + 481266.484 * t;
+		double ecc = 1.0 - 0.002516 * t - 0.0000074 * t2;
+
+		double sl = 0.0;
+		double sr = 0.0;
+		for (int i = 0; i < LR_ARGS.length; i++) {
+			int[] a = LR_ARGS[i];
+			double arg = Math.toRadians(a[0] * d + a[1] * m + a[2] * mp + a[3] * f);
+			double w = eccentricityFactor(a[1], ecc);
+			sl += L_COEFF[i] * w * Math.sin(arg);
+			sr += R_COEFF[i] * w * Math.cos(arg);
+		}
+		double sb = 0.0;
+		for (int i = 0; i < B_ARGS.length; i++) {
+			int[] a = B_ARGS[i];
+			double arg = Math.toRadians(a[0] * d + a[1] * m + a[2] * mp + a[3] * f);
+			sb += B_COEFF[i] * eccentricityFactor(a[1], ecc) * Math.sin(arg);
+		}
+		sl += 3958.0 * sinDeg(a1) + 1962.0 * sinDeg(lp - f) + 318.0 * sinDeg(a2);
+		sb += -2235.0 * sinDeg(lp) + 382.0 * sinDeg(a3) + 175.0 * sinDeg(a1 - f) + 175.0 * sinDeg(a1 + f)
+				+ 127.0 * sinDeg(lp - mp) - 115.0 * sinDeg(lp + mp);
+		return new double[] {mod360(lp + sl / 1e6), sb / 1e6, 385000.56 + sr / 1000.0};
+	}
+
+	// Espenak-Meeus polynomial for 2005-2050 in years from 2000 (seconds), extrapolated outside it;
+	// see the class doc for how far that drifts across the table range
+	static double deltaTSeconds(double epochSecond) {
+		double y = (epochSecond / SECONDS_PER_DAY + EPOCH_JD - J2000_JD) / 365.25;
+		return 62.92 + 0.32217 * y + 0.005589 * y * y;
+	}
+
+	// Chebyshev interpolation of every day in the block at DEGREE + 1 Chebyshev nodes
+	private static double[] buildBlock(long block) {
+		double[] out = new double[BLOCK_DAYS * 3 * COEFFS];
+		double[][] nodes = new double[COEFFS][];
+		for (int day = 0; day < BLOCK_DAYS; day++) {
+			double start = (block * BLOCK_DAYS + day) * SECONDS_PER_DAY;
+			for (int k = 0; k < COEFFS; k++) {
+				double u = Math.cos(Math.PI * (k + 0.5) / COEFFS);
+				nodes[k] = series(start + (u + 1.0) * 0.5 * SECONDS_PER_DAY);
+			}
+			for (int axis = 0; axis < 3; axis++) {
+				int base = (day * 3 + axis) * COEFFS;
+				for (int j = 0; j < COEFFS; j++) {
+					double sum = 0.0;
+					for (int k = 0; k < COEFFS; k++) {
+						sum += nodes[k][axis] * Math.cos(Math.PI * j * (k + 0.5) / COEFFS);
+					}
+					out[base + j] = 2.0 * sum / COEFFS;
+				}
+			}
+		}
+		return out;
+	}
+
+	private static double eccentricityFactor(int multipleOfM, double ecc) {
+		int n = Math.abs(multipleOfM);
+		return n == 0 ? 1.0 : n == 1 ? ecc : ecc * ecc;
+	}
+
+	private static double sinDeg(double deg) {
+		return Math.sin(Math.toRadians(deg));
+	}
+
+	private static double mod360(double x) {
+		double r = x % 360.0;
+		return r < 0.0 ? r + 360.0 : r;
+	}
+}
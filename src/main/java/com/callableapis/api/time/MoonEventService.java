@@ -0,0 +1,103 @@
+package com.callableapis.api.time;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Moonrise and moonset per UTC date on the same elevation model as
+ * AstronomyService.computeMoonlightInfo. The day is scanned in coarse steps to bracket each
+ * horizon crossing, which is then refined with a bracketed root finder. The horizon is the one
+ * used for aboveHorizon (elevation 0), so a rise is exactly where aboveHorizon turns true.
+ */
+public class MoonEventService {
+
+	// Sentinel for a crossing that does not happen on that day
+	public static final long NONE = Long.MIN_VALUE;
+
+	// Locations are quantized to 0.01 degrees, like SolarEventService
+	private static final double LOCATION_QUANTUM_DEG = 0.01;
+	private static final long CACHE_MAX_ENTRIES = 200_000L;
+	private static final double TOLERANCE_SECONDS = 0.5;
+	// Bracketing step; the moon moves less than 5 degrees in elevation per step
+	private static final long SCAN_STEP_SECONDS = 1200L;
+
+	private static final Cache<DayKey, MoonEvents> CACHE = CacheBuilder.newBuilder()
+			.maximumSize(CACHE_MAX_ENTRIES)
+			.build();
+
+	// Times are epoch seconds, or NONE; the first rise and first set of the day are reported
+	public static final class MoonEvents {
+		public final long epochDay;
+		public final long moonrise;
+		public final long moonset;
+		public final boolean alwaysUp;
+		public final boolean alwaysDown;
+
+		MoonEvents(long epochDay, long moonrise, long moonset, boolean upAtStart) {
+			this.epochDay = epochDay;
+			this.moonrise = moonrise;
+			this.moonset = moonset;
+			boolean noCrossing = moonrise == NONE && moonset == NONE;
+			this.alwaysUp = noCrossing && upAtStart;
+			this.alwaysDown = noCrossing && !upAtStart;
+		}
+	}
+
+	private record DayKey(long latQ, long lonQ, long epochDay) {}
+
+	public MoonEvents computeDay(double latitudeDeg, double longitudeDeg, long epochDay) {
+		DayKey key = new DayKey(quantize(latitudeDeg), quantize(longitudeDeg), epochDay);
+		MoonEvents cached = CACHE.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		MoonEvents computed = solve(key.latQ() * LOCATION_QUANTUM_DEG, key.lonQ() * LOCATION_QUANTUM_DEG, epochDay);
+		CACHE.put(key, computed);
+		return computed;
+	}
+
+	public MoonEvents[] computeRange(double latitudeDeg, double longitudeDeg, long fromEpochDay, long toEpochDay) {
+		if (toEpochDay < fromEpochDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		MoonEvents[] out = new MoonEvents[Math.toIntExact(toEpochDay - fromEpochDay + 1)];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = computeDay(latitudeDeg, longitudeDeg, fromEpochDay + i);
+		}
+		return out;
+	}
+
+	private static MoonEvents solve(double latitudeDeg, double longitudeDeg, long epochDay) {
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+		long start = epochDay * EpochCalendar.SECONDS_PER_DAY;
+		long end = start + EpochCalendar.SECONDS_PER_DAY;
+
+		long rise = NONE;
+		long set = NONE;
+		double fLo = AstronomyService.moonElevationDeg(start, sinLat, cosLat, longitudeDeg);
+		boolean upAtStart = fLo > 0.0;
+		for (long lo = start; lo < end && (rise == NONE || set == NONE); lo += SCAN_STEP_SECONDS) {
+			long hi = Math.min(end, lo + SCAN_STEP_SECONDS);
+			double fHi = AstronomyService.moonElevationDeg(hi, sinLat, cosLat, longitudeDeg);
+			boolean rising = fLo <= 0.0 && fHi > 0.0;
+			boolean setting = fLo > 0.0 && fHi <= 0.0;
+			if ((rising && rise == NONE) || (setting && set == NONE)) {
+				double t = RootFinder.solve(x -> AstronomyService.moonElevationDeg(x, sinLat, cosLat, longitudeDeg),
+						lo, hi, fLo, fHi, TOLERANCE_SECONDS);
+				if (rising) {
+					rise = Math.round(t);
+				} else {
+					set = Math.round(t);
+				}
+			}
+			fLo = fHi;
+		}
+		return new MoonEvents(epochDay, rise, set, upAtStart);
+	}
+
+	private static long quantize(double deg) {
+		return Math.round(deg / LOCATION_QUANTUM_DEG);
+	}
+}
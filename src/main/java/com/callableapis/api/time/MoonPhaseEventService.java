@@ -0,0 +1,138 @@
+package com.callableapis.api.time;
+
+import java.util.Arrays;
+
+/**
+ * Instants of the principal lunar phases (new moon, first quarter, full moon, last quarter).
+ * Events are solved from the same synodic model as AstronomyService.computeMoonPhase and kept in a
+ * shared table indexed by quarter number, which is extended lazily in whole blocks as ranges widen.
+ * Repeated ranges are two binary searches and a copy.
+ */
+public class MoonPhaseEventService {
+
+	private static final String[] PHASE_NAMES = {"New Moon", "First Quarter", "Full Moon", "Last Quarter"};
+
+	// Julian day of the Unix epoch
+	private static final double JD_UNIX_EPOCH = 2440587.5;
+	private static final double QUARTER_DAYS = AstronomyService.SYNODIC_MONTH / 4.0;
+	// Table grows in blocks of roughly 25 years of quarters
+	private static final int EXTEND_BLOCK = 1240;
+	// Quarter numbers are confined to about +/- 10,000 years around the reference new moon
+	private static final long MAX_ABS_QUARTER = 500_000L;
+
+	// Phase event: quarter 0 = new, 1 = first quarter, 2 = full, 3 = last quarter
+	public static final class PhaseEvent {
+		public final int quarter;
+		public final long epochSecond;
+
+		PhaseEvent(int quarter, long epochSecond) {
+			this.quarter = quarter;
+			this.epochSecond = epochSecond;
+		}
+
+		public String phaseName() {
+			return PHASE_NAMES[quarter];
+		}
+	}
+
+	// Immutable snapshot: instants[i] is the event with quarter number firstQuarter + i
+	private static final class Table {
+		final long firstQuarter;
+		final long[] instants;
+
+		Table(long firstQuarter, long[] instants) {
+			this.firstQuarter = firstQuarter;
+			this.instants = instants;
+		}
+
+		long lastQuarter() {
+			return firstQuarter + instants.length - 1;
+		}
+	}
+
+	private static final Object EXTEND_LOCK = new Object();
+	private static volatile Table table = new Table(0, new long[] {eventEpochSecond(0)});
+
+	/** All phase events with fromEpochSecond <= instant < toEpochSecond, in time order. */
+	public PhaseEvent[] eventsBetween(long fromEpochSecond, long toEpochSecond) {
+		if (toEpochSecond < fromEpochSecond) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		long firstK = quarterAtOrAfter(fromEpochSecond);
+		long lastK = quarterAtOrAfter(toEpochSecond) - 1;
+		Table t = ensureCovers(firstK - 1, Math.max(firstK, lastK) + 1);
+		// The closed-form guess can be off by one around rounding; settle it against the table
+		int lo = lowerBound(t.instants, fromEpochSecond);
+		int hi = lowerBound(t.instants, toEpochSecond);
+		PhaseEvent[] out = new PhaseEvent[hi - lo];
+		for (int i = lo; i < hi; i++) {
+			out[i - lo] = new PhaseEvent((int) Math.floorMod(t.firstQuarter + i, 4L), t.instants[i]);
+		}
+		return out;
+	}
+
+	/** Instant of the quarter numbered k, where 0 is the reference new moon of 2000-01-06. */
+	public long eventAt(long quarterNumber) {
+		Table t = ensureCovers(quarterNumber, quarterNumber);
+		return t.instants[(int) (quarterNumber - t.firstQuarter)];
+	}
+
+	private static Table ensureCovers(long fromK, long toK) {
+		if (Math.abs(fromK) > MAX_ABS_QUARTER || Math.abs(toK) > MAX_ABS_QUARTER) {
+			throw new IllegalArgumentException("range is outside the supported +/- 10000 years");
+		}
+		Table t = table;
+		if (fromK >= t.firstQuarter && toK <= t.lastQuarter()) {
+			return t;
+		}
+		synchronized (EXTEND_LOCK) {
+			t = table;
+			long newFirst = t.firstQuarter;
+			long newLast = t.lastQuarter();
+			while (fromK < newFirst) {
+				newFirst -= EXTEND_BLOCK;
+			}
+			while (toK > newLast) {
+				newLast += EXTEND_BLOCK;
+			}
+			if (newFirst == t.firstQuarter && newLast == t.lastQuarter()) {
+				return t;
+			}
+			long[] grown = new long[Math.toIntExact(newLast - newFirst + 1)];
+			int shift = (int) (t.firstQuarter - newFirst);
+			System.arraycopy(t.instants, 0, grown, shift, t.instants.length);
+			for (int i = 0; i < shift; i++) {
+				grown[i] = eventEpochSecond(newFirst + i);
+			}
+			for (int i = shift + t.instants.length; i < grown.length; i++) {
+				grown[i] = eventEpochSecond(newFirst + i);
+			}
+			Table next = new Table(newFirst, grown);
+			table = next;
+			return next;
+		}
+	}
+
+	// In the linear synodic model the phase reaches k/4 exactly at REF + k * month / 4
+	private static long eventEpochSecond(long quarterNumber) {
+		double jd = AstronomyService.REF_NEW_MOON_JDN + quarterNumber * QUARTER_DAYS;
+		return Math.round((jd - JD_UNIX_EPOCH) * EpochCalendar.SECONDS_PER_DAY);
+	}
+
+	// Smallest quarter number whose instant is at or after the given time (approximate, +/- 1)
+	private static long quarterAtOrAfter(long epochSecond) {
+		double jd = epochSecond / (double) EpochCalendar.SECONDS_PER_DAY + JD_UNIX_EPOCH;
+		return (long) Math.ceil((jd - AstronomyService.REF_NEW_MOON_JDN) / QUARTER_DAYS);
+	}
+
+	private static int lowerBound(long[] sorted, long key) {
+		int idx = Arrays.binarySearch(sorted, key);
+		if (idx < 0) {
+			return -idx - 1;
+		}
+		while (idx > 0 && sorted[idx - 1] == key) {
+			idx--;
+		}
+		return idx;
+	}
+}
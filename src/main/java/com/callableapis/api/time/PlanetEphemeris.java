@@ -0,0 +1,258 @@
+package com.callableapis.api.time;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Heliocentric and geocentric planet positions, Mercury through Neptune. Orbits follow the
+ * Keplerian mean elements with linear secular rates of Standish (JPL, fitted to DE405 over
+ * 1800-2050), evaluated into Chebyshev segments whose length suits each orbit, so a request costs
+ * a few Clenshaw recurrences instead of a Kepler solve. Segments are built lazily a block at a
+ * time and cover the fit interval only; instants outside it evaluate the elements directly, one
+ * Kepler solve per body.
+ *
+ * Accuracy (PlanetEphemerisTest): within 1800-2050 the elements are good to about an arcminute
+ * for the inner planets and several arcminutes for Jupiter and Saturn, whose mutual perturbations
+ * they omit. Outside it they are extrapolated and the error grows with the distance from the fit,
+ * reaching degrees for the outer planets within a few centuries. The Chebyshev fit adds under 1e-9 AU. Geocentric positions are corrected for light-time and
+ * precessed to the mean equator and equinox of date; nutation and aberration are not applied.
+ */
+public final class PlanetEphemeris {
+
+	public static final double TABLE_FROM_YEAR = 1800.0;
+	public static final double TABLE_TO_YEAR = 2050.0;
+
+	private static final int SEGMENTS_PER_BLOCK = 32;
+	private static final double SECONDS_PER_DAY = EpochCalendar.SECONDS_PER_DAY;
+	private static final double EPOCH_JD = 2440587.5;
+	private static final double J2000_JD = 2451545.0;
+	private static final double LIGHT_DAYS_PER_AU = 0.0057755183;
+	private static final long TABLE_FROM_DAY = Math.round((TABLE_FROM_YEAR - 2000.0) * 365.2425) + 10957L;
+	private static final long TABLE_TO_DAY = Math.round((TABLE_TO_YEAR - 2000.0) * 365.2425) + 10957L;
+
+	// a (AU), e, I, L, long. perihelion, long. node (degrees), each followed by its rate per Julian century
+	public enum Planet {
+		MERCURY(8, new double[] {0.38709927, 0.00000037, 0.20563593, 0.00001906, 7.00497902, -0.00594749,
+				252.25032350, 149472.67411175, 77.45779628, 0.16047689, 48.33076593, -0.12534081}),
+		VENUS(32, new double[] {0.72333566, 0.00000390, 0.00677672, -0.00004107, 3.39467605, -0.00078890,
+				181.97909950, 58517.81538729, 131.60246718, 0.00268329, 76.67984255, -0.27769418}),
+		MARS(64, new double[] {1.52371034, 0.00001847, 0.09339410, 0.00007882, 1.84969142, -0.00813131,
+				-4.55343205, 19140.30268499, -23.94362959, 0.44441088, 49.55953891, -0.29257343}),
+		JUPITER(256, new double[] {5.20288700, -0.00011607, 0.04838624, -0.00013253, 1.30439695, -0.00183714,
+				34.39644051, 3034.74612775, 14.72847983, 0.21252668, 100.47390909, 0.20469106}),
+		SATURN(256, new double[] {9.53667594, -0.00125060, 0.05386179, -0.00050991, 2.48599187, 0.00193609,
+				49.95424423, 1222.49362201, 92.59887831, -0.41897216, 113.66242448, -0.28867794}),
+		URANUS(512, new double[] {19.18916464, -0.00196176, 0.04725744, -0.00004397, 0.77263783, -0.00242939,
+				313.23810451, 428.48202785, 170.95427630, 0.40805281, 74.01692503, 0.04240589}),
+		NEPTUNE(512, new double[] {30.06992276, 0.00026291, 0.00859048, 0.00005105, 1.77004347, 0.00035372,
+				-55.12002969, 218.45945325, 44.96476227, -0.32241464, 131.78422574, -0.00508664});
+
+		private final Orbit orbit;
+
+		Planet(int segmentDays, double[] elements) {
+			this.orbit = new Orbit(segmentDays, elements);
+		}
+
+		public static Planet parse(String name) {
+			if (name == null) {
+				throw new IllegalArgumentException("planet is required");
+			}
+			try {
+				return valueOf(name.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("unknown planet: " + name, e);
+			}
+		}
+	}
+
+	// Earth-moon barycentre, standing in for the Earth
+	private static final Orbit EARTH = new Orbit(64, new double[] {1.00000261, 0.00000562, 0.01671123, -0.00004392,
+			-0.00001531, -0.01294668, 100.46457166, 35999.37244981, 102.93768193, 0.32327364, 0.0, 0.0});
+
+	private PlanetEphemeris() {}
+
+	/**
+	 * Heliocentric position (AU) on the J2000 ecliptic at a UT epoch second: axis 0 towards the
+	 * J2000 equinox, 2 towards the ecliptic pole.
+	 */
+	public static double heliocentric(Planet planet, double epochSecond, int axis) {
+		return planet.orbit.coordinate(ttDays(epochSecond), axis);
+	}
+
+	/** Direct evaluation of the elements: {x, y, z} heliocentric J2000 ecliptic, AU. */
+	public static double[] series(Planet planet, double epochSecond) {
+		double[] out = new double[3];
+		planet.orbit.kepler(ttDays(epochSecond), out);
+		return out;
+	}
+
+	/**
+	 * Geocentric position (AU) on the mean equator and equinox of date at a UT epoch second,
+	 * written to out[0..2], with the planet taken where its light left it.
+	 */
+	public static void geocentric(Planet planet, double epochSecond, double[] out) {
+		double d = ttDays(epochSecond);
+		// out doubles as scratch so that no call allocates
+		EARTH.position(d, out);
+		double ex = out[0];
+		double ey = out[1];
+		double ez = out[2];
+		planet.orbit.position(d, out);
+		double x = out[0] - ex;
+		double y = out[1] - ey;
+		double z = out[2] - ez;
+		// One light-time iteration is enough: the second changes Mercury by under 0.01"
+		double tau = LIGHT_DAYS_PER_AU * Math.sqrt(x * x + y * y + z * z);
+		planet.orbit.position(d - tau, out);
+		x = out[0] - ex;
+		y = out[1] - ey;
+		z = out[2] - ez;
+
+		// Precess the longitude along the ecliptic, then rotate by the obliquity of date
+		double t = d / 36525.0;
+		double p = Math.toRadians((5029.0966 * t + 1.11113 * t * t) / 3600.0);
+		double cp = Math.cos(p);
+		double sp = Math.sin(p);
+		double xd = x * cp - y * sp;
+		double yd = x * sp + y * cp;
+		double eps = Math.toRadians(23.4392911 - 0.0130042 * t);
+		double ce = Math.cos(eps);
+		double se = Math.sin(eps);
+		out[0] = xd;
+		out[1] = yd * ce - z * se;
+		out[2] = yd * se + z * ce;
+	}
+
+	// Days from J2000 in terrestrial time
+	private static double ttDays(double epochSecond) {
+		return EPOCH_JD - J2000_JD + (epochSecond + LunarEphemeris.deltaTSeconds(epochSecond)) / SECONDS_PER_DAY;
+	}
+
+	// One orbit's elements plus its lazily built Chebyshev table, indexed by segment
+	private static final class Orbit {
+		private static final int DEGREE = 8;
+		private static final int COEFFS = DEGREE + 1;
+
+		private final int segmentDays;
+		private final double[] elements;
+		private final long firstSegment;
+		private final long segments;
+		private final AtomicReferenceArray<double[]> blocks;
+
+		Orbit(int segmentDays, double[] elements) {
+			this.segmentDays = segmentDays;
+			this.elements = elements;
+			this.firstSegment = Math.floorDiv(TABLE_FROM_DAY - 10957L, segmentDays);
+			this.segments = Math.floorDiv(TABLE_TO_DAY - 10957L, segmentDays) - firstSegment;
+			this.blocks = new AtomicReferenceArray<>((int) ((segments + SEGMENTS_PER_BLOCK - 1) / SEGMENTS_PER_BLOCK));
+		}
+
+		// d is TT days from J2000
+		double coordinate(double d, int axis) {
+			double s = Math.floor(d / segmentDays);
+			long segment = (long) s - firstSegment;
+			if (segment < 0 || segment >= segments) {
+				double[] xyz = new double[3];
+				kepler(d, xyz);
+				return xyz[axis];
+			}
+			int block = (int) (segment / SEGMENTS_PER_BLOCK);
+			int base = ((int) (segment - (long) block * SEGMENTS_PER_BLOCK) * 3 + axis) * COEFFS;
+			return clenshaw(block(block), base, 2.0 * (d / segmentDays - s) - 1.0);
+		}
+
+		// All three axes at d into out[0..2], with a single Kepler solve outside the table
+		void position(double d, double[] out) {
+			double s = Math.floor(d / segmentDays);
+			long segment = (long) s - firstSegment;
+			if (segment < 0 || segment >= segments) {
+				kepler(d, out);
+				return;
+			}
+			int block = (int) (segment / SEGMENTS_PER_BLOCK);
+			double[] coeffs = block(block);
+			int base = (int) (segment - (long) block * SEGMENTS_PER_BLOCK) * 3 * COEFFS;
+			double u = 2.0 * (d / segmentDays - s) - 1.0;
+			out[0] = clenshaw(coeffs, base, u);
+			out[1] = clenshaw(coeffs, base + COEFFS, u);
+			out[2] = clenshaw(coeffs, base + 2 * COEFFS, u);
+		}
+
+		private double[] block(int block) {
+			double[] coeffs = blocks.get(block);
+			if (coeffs == null) {
+				coeffs = buildBlock(block);
+				blocks.set(block, coeffs);
+			}
+			return coeffs;
+		}
+
+		private static double clenshaw(double[] coeffs, int base, double u) {
+			double b1 = 0.0;
+			double b2 = 0.0;
+			for (int k = DEGREE; k >= 1; k--) {
+				double b0 = 2.0 * u * b1 - b2 + coeffs[base + k];
+				b2 = b1;
+				b1 = b0;
+			}
+			return u * b1 - b2 + 0.5 * coeffs[base];
+		}
+
+		// Chebyshev interpolation of every segment in the block at DEGREE + 1 nodes
+		private double[] buildBlock(int block) {
+			double[] out = new double[SEGMENTS_PER_BLOCK * 3 * COEFFS];
+			double[][] nodes = new double[COEFFS][3];
+			for (int i = 0; i < SEGMENTS_PER_BLOCK; i++) {
+				double start = (firstSegment + (long) block * SEGMENTS_PER_BLOCK + i) * (double) segmentDays;
+				for (int k = 0; k < COEFFS; k++) {
+					double u = Math.cos(Math.PI * (k + 0.5) / COEFFS);
+					kepler(start + (u + 1.0) * 0.5 * segmentDays, nodes[k]);
+				}
+				for (int axis = 0; axis < 3; axis++) {
+					int base = (i * 3 + axis) * COEFFS;
+					for (int j = 0; j < COEFFS; j++) {
+						double sum = 0.0;
+						for (int k = 0; k < COEFFS; k++) {
+							sum += nodes[k][axis] * Math.cos(Math.PI * j * (k + 0.5) / COEFFS);
+						}
+						out[base + j] = 2.0 * sum / COEFFS;
+					}
+				}
+			}
+			return out;
+		}
+
+		// Heliocentric J2000 ecliptic position from the elements at d TT days from J2000
+		void kepler(double d, double[] out) {
+			double t = d / 36525.0;
+			double a = elements[0] + elements[1] * t;
+			double e = elements[2] + elements[3] * t;
+			double inc = Math.toRadians(elements[4] + elements[5] * t);
+			double meanLongitude = elements[6] + elements[7] * t;
+			double perihelion = elements[8] + elements[9] * t;
+			double node = Math.toRadians(elements[10] + elements[11] * t);
+			double m = Math.toRadians(meanLongitude - perihelion);
+			m = Math.IEEEremainder(m, 2.0 * Math.PI);
+			double ecc = m + e * Math.sin(m);
+			for (int i = 0; i < 30; i++) {
+				double delta = (ecc - e * Math.sin(ecc) - m) / (1.0 - e * Math.cos(ecc));
+				ecc -= delta;
+				if (Math.abs(delta) < 1e-14) {
+					break;
+				}
+			}
+			double xp = a * (Math.cos(ecc) - e);
+			double yp = a * Math.sqrt(1.0 - e * e) * Math.sin(ecc);
+			double w = Math.toRadians(perihelion) - node;
+			double cw = Math.cos(w);
+			double sw = Math.sin(w);
+			double cn = Math.cos(node);
+			double sn = Math.sin(node);
+			double ci = Math.cos(inc);
+			double si = Math.sin(inc);
+			out[0] = (cw * cn - sw * sn * ci) * xp + (-sw * cn - cw * sn * ci) * yp;
+			out[1] = (cw * sn + sw * cn * ci) * xp + (-sw * sn + cw * cn * ci) * yp;
+			out[2] = sw * si * xp + cw * si * yp;
+		}
+	}
+}
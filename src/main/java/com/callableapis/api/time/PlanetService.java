@@ -0,0 +1,199 @@
+package com.callableapis.api.time;
+
+import com.callableapis.api.time.PlanetEphemeris.Planet;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.stream.IntStream;
+
+/**
+ * Planet alt/az and rise/set on top of PlanetEphemeris. Positions are geometric (no refraction),
+ * like the moon's; rise and set use the almanac horizon of RISE_ALTITUDE_DEG and are solved per
+ * UTC date the way MoonEventService solves the moon, memoized per quantized location.
+ */
+public class PlanetService {
+
+	// Sentinel for a crossing that does not happen on that day
+	public static final long NONE = Long.MIN_VALUE;
+	public static final double RISE_ALTITUDE_DEG = -0.5667; // standard refraction, point source
+
+	private static final double LOCATION_QUANTUM_DEG = 0.01;
+	private static final long CACHE_MAX_ENTRIES = 200_000L;
+	private static final double TOLERANCE_SECONDS = 0.5;
+	// Bracketing step; a planet moves less than 5 degrees in elevation per step
+	private static final long SCAN_STEP_SECONDS = 1200L;
+	private static final int BATCH_CHUNK = 4096;
+
+	private static final Cache<DayKey, PlanetEvents> CACHE = CacheBuilder.newBuilder()
+			.maximumSize(CACHE_MAX_ENTRIES)
+			.build();
+
+	public static class PlanetPositionResult {
+		public double rightAscensionDeg; // mean equinox of date
+		public double declinationDeg;
+		public double distanceAu;
+		public double elevationDeg;
+		public double azimuthDeg; // 0=N
+		public boolean aboveHorizon;
+	}
+
+	// Columnar positions for one planet; index i corresponds to input i
+	public static class PlanetBatchResult {
+		public final Planet planet;
+		public final double[] rightAscensionDeg;
+		public final double[] declinationDeg;
+		public final double[] distanceAu;
+		public final double[] elevationDeg;
+		public final double[] azimuthDeg;
+
+		public PlanetBatchResult(Planet planet, int size) {
+			this.planet = planet;
+			this.rightAscensionDeg = new double[size];
+			this.declinationDeg = new double[size];
+			this.distanceAu = new double[size];
+			this.elevationDeg = new double[size];
+			this.azimuthDeg = new double[size];
+		}
+
+		public int size() {
+			return elevationDeg.length;
+		}
+	}
+
+	// Times are epoch seconds, or NONE; the first rise and first set of the day are reported
+	public static final class PlanetEvents {
+		public final Planet planet;
+		public final long epochDay;
+		public final long rise;
+		public final long set;
+		public final boolean alwaysUp;
+		public final boolean alwaysDown;
+
+		PlanetEvents(Planet planet, long epochDay, long rise, long set, boolean upAtStart) {
+			this.planet = planet;
+			this.epochDay = epochDay;
+			this.rise = rise;
+			this.set = set;
+			boolean noCrossing = rise == NONE && set == NONE;
+			this.alwaysUp = noCrossing && upAtStart;
+			this.alwaysDown = noCrossing && !upAtStart;
+		}
+	}
+
+	private record DayKey(Planet planet, long latQ, long lonQ, long epochDay) {}
+
+	public void position(Planet planet, long epochSecond, double latitudeDeg, double longitudeDeg, PlanetPositionResult out) {
+		fill(planet, epochSecond, latitudeDeg, longitudeDeg, out);
+	}
+
+	public PlanetPositionResult position(Planet planet, long epochSecond, double latitudeDeg, double longitudeDeg) {
+		PlanetPositionResult r = new PlanetPositionResult();
+		fill(planet, epochSecond, latitudeDeg, longitudeDeg, r);
+		return r;
+	}
+
+	private static void fill(Planet planet, double epochSecond, double latitudeDeg, double longitudeDeg, PlanetPositionResult out) {
+		double[] g = new double[3];
+		PlanetEphemeris.geocentric(planet, epochSecond, g);
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+		double r = Math.sqrt(g[0] * g[0] + g[1] * g[1] + g[2] * g[2]);
+		double theta = LunarEphemeris.greenwichSiderealRad(epochSecond) + Math.toRadians(longitudeDeg);
+		double sinTheta = Math.sin(theta);
+		double cosTheta = Math.cos(theta);
+		double outward = g[0] * cosTheta + g[1] * sinTheta;
+		double north = cosLat * g[2] - sinLat * outward;
+		double east = g[1] * cosTheta - g[0] * sinTheta;
+
+		out.rightAscensionDeg = (Math.toDegrees(Math.atan2(g[1], g[0])) + 360.0) % 360.0;
+		out.declinationDeg = Math.toDegrees(Math.asin(g[2] / r));
+		out.distanceAu = r;
+		out.elevationDeg = Math.toDegrees(Math.asin(Math.max(-1.0, Math.min(1.0, (cosLat * outward + sinLat * g[2]) / r))));
+		out.azimuthDeg = (Math.toDegrees(Math.atan2(east, north)) + 360.0) % 360.0;
+		out.aboveHorizon = out.elevationDeg > 0.0;
+	}
+
+	/** Positions of one planet for parallel arrays of instants and locations, in chunks on the common pool. */
+	public PlanetBatchResult computeBatch(Planet planet, long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg) {
+		if (planet == null || epochSeconds == null || latitudeDeg == null || longitudeDeg == null) {
+			throw new IllegalArgumentException("planet, epochSeconds, latitudeDeg and longitudeDeg are required");
+		}
+		int n = epochSeconds.length;
+		if (latitudeDeg.length != n || longitudeDeg.length != n) {
+			throw new IllegalArgumentException("epochSeconds, latitudeDeg and longitudeDeg must have the same length");
+		}
+		PlanetBatchResult out = new PlanetBatchResult(planet, n);
+		IntStream.range(0, (n + BATCH_CHUNK - 1) / BATCH_CHUNK).parallel().forEach(chunk -> {
+			PlanetPositionResult p = new PlanetPositionResult();
+			for (int i = chunk * BATCH_CHUNK, end = Math.min(n, i + BATCH_CHUNK); i < end; i++) {
+				fill(planet, epochSeconds[i], latitudeDeg[i], longitudeDeg[i], p);
+				out.rightAscensionDeg[i] = p.rightAscensionDeg;
+				out.declinationDeg[i] = p.declinationDeg;
+				out.distanceAu[i] = p.distanceAu;
+				out.elevationDeg[i] = p.elevationDeg;
+				out.azimuthDeg[i] = p.azimuthDeg;
+			}
+		});
+		return out;
+	}
+
+	public PlanetEvents computeDay(Planet planet, double latitudeDeg, double longitudeDeg, long epochDay) {
+		DayKey key = new DayKey(planet, quantize(latitudeDeg), quantize(longitudeDeg), epochDay);
+		PlanetEvents cached = CACHE.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		PlanetEvents computed = solve(planet, key.latQ() * LOCATION_QUANTUM_DEG, key.lonQ() * LOCATION_QUANTUM_DEG, epochDay);
+		CACHE.put(key, computed);
+		return computed;
+	}
+
+	public PlanetEvents[] computeRange(Planet planet, double latitudeDeg, double longitudeDeg, long fromEpochDay, long toEpochDay) {
+		if (toEpochDay < fromEpochDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		PlanetEvents[] out = new PlanetEvents[Math.toIntExact(toEpochDay - fromEpochDay + 1)];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = computeDay(planet, latitudeDeg, longitudeDeg, fromEpochDay + i);
+		}
+		return out;
+	}
+
+	private static PlanetEvents solve(Planet planet, double latitudeDeg, double longitudeDeg, long epochDay) {
+		PlanetPositionResult p = new PlanetPositionResult();
+		long start = epochDay * EpochCalendar.SECONDS_PER_DAY;
+		long end = start + EpochCalendar.SECONDS_PER_DAY;
+
+		long rise = NONE;
+		long set = NONE;
+		double fLo = altitudeAboveHorizon(planet, start, latitudeDeg, longitudeDeg, p);
+		boolean upAtStart = fLo > 0.0;
+		for (long lo = start; lo < end && (rise == NONE || set == NONE); lo += SCAN_STEP_SECONDS) {
+			long hi = Math.min(end, lo + SCAN_STEP_SECONDS);
+			double fHi = altitudeAboveHorizon(planet, hi, latitudeDeg, longitudeDeg, p);
+			boolean rising = fLo <= 0.0 && fHi > 0.0;
+			boolean setting = fLo > 0.0 && fHi <= 0.0;
+			if ((rising && rise == NONE) || (setting && set == NONE)) {
+				double t = RootFinder.solve(x -> altitudeAboveHorizon(planet, x, latitudeDeg, longitudeDeg, p),
+						lo, hi, fLo, fHi, TOLERANCE_SECONDS);
+				if (rising) {
+					rise = Math.round(t);
+				} else {
+					set = Math.round(t);
+				}
+			}
+			fLo = fHi;
+		}
+		return new PlanetEvents(planet, epochDay, rise, set, upAtStart);
+	}
+
+	private static double altitudeAboveHorizon(Planet planet, double epochSecond, double latitudeDeg, double longitudeDeg, PlanetPositionResult p) {
+		fill(planet, epochSecond, latitudeDeg, longitudeDeg, p);
+		return p.elevationDeg - RISE_ALTITUDE_DEG;
+	}
+
+	private static long quantize(double deg) {
+		return Math.round(deg / LOCATION_QUANTUM_DEG);
+	}
+}
@@ -0,0 +1,42 @@
+package com.callableapis.api.time;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive Simpson integration shared by the integrating services.
+ * Each panel is split until the Richardson error estimate is within its share of the tolerance.
+ */
+final class Quadrature {
+
+	// A few forced levels keep a symmetric hump from passing the error test by coincidence
+	private static final int MIN_DEPTH = 3;
+	private static final int MAX_DEPTH = 24;
+
+	private Quadrature() {}
+
+	/** Integral of f over [a, b] to within an absolute tolerance. */
+	static double integrate(DoubleUnaryOperator f, double a, double b, double tolerance) {
+		if (!(b > a)) {
+			return 0.0;
+		}
+		double fa = f.applyAsDouble(a);
+		double fb = f.applyAsDouble(b);
+		double fm = f.applyAsDouble(0.5 * (a + b));
+		return refine(f, a, b, fa, fm, fb, (b - a) / 6.0 * (fa + 4.0 * fm + fb), tolerance, 0);
+	}
+
+	private static double refine(DoubleUnaryOperator f, double a, double b, double fa, double fm, double fb,
+			double whole, double tolerance, int depth) {
+		double m = 0.5 * (a + b);
+		double flm = f.applyAsDouble(0.5 * (a + m));
+		double frm = f.applyAsDouble(0.5 * (m + b));
+		double left = (m - a) / 6.0 * (fa + 4.0 * flm + fm);
+		double right = (b - m) / 6.0 * (fm + 4.0 * frm + fb);
+		double delta = left + right - whole;
+		if (depth >= MAX_DEPTH || (depth >= MIN_DEPTH && Math.abs(delta) <= 15.0 * tolerance)) {
+			return left + right + delta / 15.0;
+		}
+		return refine(f, a, m, fa, flm, fm, left, 0.5 * tolerance, depth + 1)
+				+ refine(f, m, b, fm, frm, fb, right, 0.5 * tolerance, depth + 1);
+	}
+}
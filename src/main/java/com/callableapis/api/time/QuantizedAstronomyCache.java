@@ -0,0 +1,178 @@
+package com.callableapis.api.time;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result cache in front of {@link AstronomyService} for skewed traffic (many callers asking for the
+ * same place at "now"). Requests are snapped to a (lat, lon, time) grid and every caller in a cell
+ * gets the result evaluated at the cell centre, so answers never depend on who asked first.
+ * Entries are bounded by count and time-to-live; a frequency sketch only admits cells that have
+ * been requested more than once recently, so one-off lookups do not push out popular cells.
+ */
+public class QuantizedAstronomyCache {
+
+	// Cells must be seen this many times before their result is stored
+	private static final int ADMIT_AFTER = 2;
+
+	private enum Kind {
+		SOLAR,
+		MOONLIGHT,
+		SKY
+	}
+
+	private record CellKey(Kind kind, AstronomyService.Precision precision, long latQ, long lonQ, long timeQ) {}
+
+	public static final class Stats {
+		public final long hits;
+		public final long misses;
+		public final long notAdmitted;
+		public final long evictions;
+		public final long size;
+
+		Stats(long hits, long misses, long notAdmitted, long evictions, long size) {
+			this.hits = hits;
+			this.misses = misses;
+			this.notAdmitted = notAdmitted;
+			this.evictions = evictions;
+			this.size = size;
+		}
+
+		public double hitRate() {
+			long total = hits + misses;
+			return total == 0 ? 0.0 : (double) hits / total;
+		}
+	}
+
+	private final AstronomyService astronomy;
+	private final double cellsPerDeg;
+	private final long timeQuantumSeconds;
+	private final Cache<CellKey, Object> cache;
+	private final FrequencySketch sketch;
+	private final LongAdder notAdmitted = new LongAdder();
+
+	public QuantizedAstronomyCache(AstronomyService astronomy, double locationQuantumDeg, long timeQuantumSeconds,
+			long maxEntries, long ttlSeconds) {
+		if (!(locationQuantumDeg > 0.0) || timeQuantumSeconds <= 0 || maxEntries <= 0 || ttlSeconds <= 0) {
+			throw new IllegalArgumentException("cache quanta, size and ttl must be positive");
+		}
+		this.astronomy = astronomy;
+		this.cellsPerDeg = 1.0 / locationQuantumDeg;
+		this.timeQuantumSeconds = timeQuantumSeconds;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maxEntries)
+				.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		this.sketch = new FrequencySketch(maxEntries);
+	}
+
+	public void solarInfo(long epochSecond, double latitudeDeg, double longitudeDeg, AstronomyService.Precision p,
+			AstronomyService.SolarInfoResult out) {
+		CellKey key = key(Kind.SOLAR, p, epochSecond, latitudeDeg, longitudeDeg);
+		AstronomyService.SolarInfoResult cached = (AstronomyService.SolarInfoResult) cache.getIfPresent(key);
+		if (cached == null) {
+			cached = new AstronomyService.SolarInfoResult();
+			astronomy.solarInfo(cellTime(key), cellLat(key), cellLon(key), p, cached);
+			admit(key, cached);
+		}
+		copy(cached, out);
+	}
+
+	public void moonlightInfo(long epochSecond, double latitudeDeg, double longitudeDeg, AstronomyService.Precision p,
+			AstronomyService.MoonlightInfoResult out) {
+		CellKey key = key(Kind.MOONLIGHT, p, epochSecond, latitudeDeg, longitudeDeg);
+		AstronomyService.MoonlightInfoResult cached = (AstronomyService.MoonlightInfoResult) cache.getIfPresent(key);
+		if (cached == null) {
+			cached = new AstronomyService.MoonlightInfoResult();
+			astronomy.moonlightInfo(cellTime(key), cellLat(key), cellLon(key), p, cached);
+			admit(key, cached);
+		}
+		copy(cached, out);
+	}
+
+	public void computeSkyState(long epochSecond, double latitudeDeg, double longitudeDeg, AstronomyService.Precision p,
+			AstronomyService.SkyStateResult out) {
+		CellKey key = key(Kind.SKY, p, epochSecond, latitudeDeg, longitudeDeg);
+		AstronomyService.SkyStateResult cached = (AstronomyService.SkyStateResult) cache.getIfPresent(key);
+		if (cached == null) {
+			cached = new AstronomyService.SkyStateResult();
+			astronomy.computeSkyState(cellTime(key), cellLat(key), cellLon(key), p, cached);
+			admit(key, cached);
+		}
+		copy(cached.sun, out.sun);
+		copy(cached.moon, out.moon);
+		copy(cached.phase, out.phase);
+	}
+
+	public Stats stats() {
+		CacheStats s = cache.stats();
+		return new Stats(s.hitCount(), s.missCount(), notAdmitted.sum(), s.evictionCount(), cache.size());
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	private void admit(CellKey key, Object value) {
+		if (sketch.increment(key) >= ADMIT_AFTER) {
+			cache.put(key, value);
+		} else {
+			notAdmitted.increment();
+		}
+	}
+
+	private CellKey key(Kind kind, AstronomyService.Precision p, long epochSecond, double latitudeDeg, double longitudeDeg) {
+		// Nearest cell centre; time cells are centred on multiples of the quantum
+		long timeQ = Math.floorDiv(epochSecond + timeQuantumSeconds / 2, timeQuantumSeconds);
+		return new CellKey(kind, p, Math.round(latitudeDeg * cellsPerDeg), Math.round(longitudeDeg * cellsPerDeg), timeQ);
+	}
+
+	private double cellLat(CellKey key) {
+		return Math.max(-90.0, Math.min(90.0, key.latQ() / cellsPerDeg));
+	}
+
+	private double cellLon(CellKey key) {
+		return key.lonQ() / cellsPerDeg;
+	}
+
+	private long cellTime(CellKey key) {
+		return key.timeQ() * timeQuantumSeconds;
+	}
+
+	private static void copy(AstronomyService.SolarInfoResult from, AstronomyService.SolarInfoResult to) {
+		to.elevationDeg = from.elevationDeg;
+		to.azimuthDeg = from.azimuthDeg;
+		to.intensity = from.intensity;
+		to.isDaylight = from.isDaylight;
+		to.dayLengthHours = from.dayLengthHours;
+		to.nightLengthHours = from.nightLengthHours;
+	}
+
+	private static void copy(AstronomyService.MoonlightInfoResult from, AstronomyService.MoonlightInfoResult to) {
+		to.elevationDeg = from.elevationDeg;
+		to.azimuthDeg = from.azimuthDeg;
+		to.intensity = from.intensity;
+		to.aboveHorizon = from.aboveHorizon;
+		to.illumination = from.illumination;
+	}
+
+	private static void copy(AstronomyService.MoonPhaseResult from, AstronomyService.MoonPhaseResult to) {
+		to.phase = from.phase;
+		to.illumination = from.illumination;
+		to.ageDays = from.ageDays;
+		to.phaseName = from.phaseName;
+		to.phaseAngleDeg = from.phaseAngleDeg;
+		to.waxing = from.waxing;
+		to.waning = from.waning;
+		to.crescent = from.crescent;
+		to.gibbous = from.gibbous;
+		to.quarter = from.quarter;
+		to.full = from.full;
+		to.isNew = from.isNew;
+	}
+}
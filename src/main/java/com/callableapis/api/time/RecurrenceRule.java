@@ -0,0 +1,669 @@
+package com.callableapis.api.time;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * RFC 5545 recurrence rules (RRULE), expanded lazily. Expansion walks the periods of
+ * FREQ (years, months, weeks, days, hours, minutes or seconds) one at a time: a period's
+ * candidate days pass the BYMONTH, BYYEARDAY, BYMONTHDAY and BYDAY filters, are combined with
+ * the BYHOUR, BYMINUTE and BYSECOND times, and BYSETPOS selects from the sorted result. Only one
+ * period is held in memory, so infinite rules can be streamed.
+ *
+ * A window start is reached by computing its period directly rather than enumerating from
+ * DTSTART, except under COUNT, where earlier occurrences still have to be counted. Sub-daily
+ * frequencies jump over whole days, hours or minutes that their BYxxx parts exclude.
+ * Rules are expanded in UTC unless a zone is given; there a wall-clock time in a DST gap moves
+ * forward by the gap, occurrences stay in time order and an instant reached twice is returned
+ * (and counted) once. BYWEEKNO is not supported; leap seconds
+ * are not represented.
+ */
+public final class RecurrenceRule {
+
+	public enum Frequency { SECONDLY, MINUTELY, HOURLY, DAILY, WEEKLY, MONTHLY, YEARLY }
+
+	// Expansion stops after this year, the last one an iCalendar DATE can hold
+	public static final int MAX_YEAR = 9999;
+	// COUNT rules cannot skip ahead to a window, so COUNT bounds the occurrences walked before it;
+	// this matches the most a stream may return
+	public static final long MAX_COUNT = 10_000_000L;
+	// Upper bound on candidates generated for a single period
+	private static final long MAX_PERIOD_OCCURRENCES = 1L << 20;
+	private static final String[] WEEKDAYS = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+	private final String text;
+	private final Frequency freq;
+	private int interval = 1;
+	private long count; // 0 when not limited by COUNT
+	private long until = Long.MAX_VALUE;
+	private int weekStart = 1; // ISO day of week
+	private int[] bySecond;
+	private int[] byMinute;
+	private int[] byHour;
+	private int[] byDayWeekday; // ISO day of week, parallel to byDayOrdinal
+	private int[] byDayOrdinal; // 0 for every such weekday
+	private int[] byMonthDay;
+	private int[] byYearDay;
+	private int[] byMonth;
+	private int[] bySetPos;
+
+	private RecurrenceRule(String text) {
+		this.text = text;
+		String body = text.regionMatches(true, 0, "RRULE:", 0, 6) ? text.substring(6) : text;
+		Frequency f = null;
+		for (String part : body.split(";")) {
+			if (part.isBlank()) {
+				continue;
+			}
+			int eq = part.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("malformed rule part: " + part);
+			}
+			String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+			String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+			switch (key) {
+				case "FREQ":
+					f = frequency(value);
+					break;
+				case "INTERVAL":
+					interval = (int) number(key, value, 1, Integer.MAX_VALUE);
+					break;
+				case "COUNT":
+					count = number(key, value, 1, MAX_COUNT);
+					break;
+				case "UNTIL":
+					until = parseUntil(value);
+					break;
+				case "WKST":
+					weekStart = weekday(value);
+					break;
+				case "BYSECOND":
+					bySecond = list(key, value, 0, 59, false);
+					break;
+				case "BYMINUTE":
+					byMinute = list(key, value, 0, 59, false);
+					break;
+				case "BYHOUR":
+					byHour = list(key, value, 0, 23, false);
+					break;
+				case "BYDAY":
+					parseByDay(value);
+					break;
+				case "BYMONTHDAY":
+					byMonthDay = list(key, value, 1, 31, true);
+					break;
+				case "BYYEARDAY":
+					byYearDay = list(key, value, 1, 366, true);
+					break;
+				case "BYMONTH":
+					byMonth = list(key, value, 1, 12, false);
+					break;
+				case "BYSETPOS":
+					bySetPos = list(key, value, 1, 366, true);
+					break;
+				case "BYWEEKNO":
+					throw new IllegalArgumentException("BYWEEKNO is not supported");
+				default:
+					throw new IllegalArgumentException("unknown rule part: " + key);
+			}
+		}
+		if (f == null) {
+			throw new IllegalArgumentException("FREQ is required");
+		}
+		this.freq = f;
+		validate();
+	}
+
+	public static RecurrenceRule parse(String rrule) {
+		if (rrule == null || rrule.isBlank()) {
+			throw new IllegalArgumentException("rule is required");
+		}
+		return new RecurrenceRule(rrule.trim());
+	}
+
+	public Frequency frequency() {
+		return freq;
+	}
+
+	public int interval() {
+		return interval;
+	}
+
+	/** COUNT, or 0 when the rule is not limited by a count. */
+	public long count() {
+		return count;
+	}
+
+	/** UNTIL as epoch seconds (a date means the end of that day), or Long.MAX_VALUE. */
+	public long until() {
+		return until;
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	/** Every occurrence at or after dtstart, in order, as UTC epoch seconds. */
+	public PrimitiveIterator.OfLong iterator(long dtstartEpochSecond) {
+		return new Expansion(dtstartEpochSecond, dtstartEpochSecond, Long.MAX_VALUE, null);
+	}
+
+	/** Occurrences in [from, to] in order, as UTC epoch seconds; COUNT still counts from dtstart. */
+	public PrimitiveIterator.OfLong iterator(long dtstartEpochSecond, long from, long to) {
+		return new Expansion(dtstartEpochSecond, from, to, null);
+	}
+
+	/**
+	 * As iterator(long, long, long), with the rule expanded in the wall-clock time of zone (null
+	 * for UTC) like an RRULE with a TZID. Wall-clock times in a gap move forward, ones in an
+	 * overlap take the earlier offset, and a time that resolves to an instant already returned is
+	 * dropped. UNTIL and the window stay instants.
+	 */
+	public PrimitiveIterator.OfLong iterator(long dtstartEpochSecond, long from, long to, ZoneOffsetTable zone) {
+		return new Expansion(dtstartEpochSecond, from, to, zone);
+	}
+
+	private void validate() {
+		if (count > 0 && until != Long.MAX_VALUE) {
+			throw new IllegalArgumentException("COUNT and UNTIL cannot both be given");
+		}
+		if (byDayOrdinal != null && freq != Frequency.MONTHLY && freq != Frequency.YEARLY) {
+			for (int n : byDayOrdinal) {
+				if (n != 0) {
+					throw new IllegalArgumentException("numbered BYDAY needs FREQ=MONTHLY or FREQ=YEARLY");
+				}
+			}
+		}
+		if (byMonthDay != null && freq == Frequency.WEEKLY) {
+			throw new IllegalArgumentException("BYMONTHDAY cannot be used with FREQ=WEEKLY");
+		}
+		if (byYearDay != null && (freq == Frequency.DAILY || freq == Frequency.WEEKLY || freq == Frequency.MONTHLY)) {
+			throw new IllegalArgumentException("BYYEARDAY cannot be used with FREQ=" + freq);
+		}
+		if (bySetPos != null && bySecond == null && byMinute == null && byHour == null && byDayWeekday == null
+				&& byMonthDay == null && byYearDay == null && byMonth == null) {
+			throw new IllegalArgumentException("BYSETPOS needs another BYxxx rule part");
+		}
+		if (freq.compareTo(Frequency.DAILY) >= 0) {
+			long days = freq == Frequency.YEARLY ? 366 : freq == Frequency.MONTHLY ? 31 : freq == Frequency.WEEKLY ? 7 : 1;
+			if (days * size(byHour) * size(byMinute) * size(bySecond) > MAX_PERIOD_OCCURRENCES) {
+				throw new IllegalArgumentException("rule generates more than " + MAX_PERIOD_OCCURRENCES + " candidates per period");
+			}
+		}
+	}
+
+	private final class Expansion implements PrimitiveIterator.OfLong {
+		private final ZoneOffsetTable zone;
+		private final long dtstart;
+		private final long from;
+		private final long end;
+		private final long localStart;
+		private final long localEnd; // no period starting after this wall-clock time can reach end
+		private final int[] months;
+		private final int[] monthDays;
+		private final int[] weekdays;
+		private final int[] ordinals;
+		private final int[] hours;
+		private final int[] minutes;
+		private final int[] seconds;
+		// Sub-daily: seconds after the start of the period; daily and coarser: seconds of day
+		private final int[] offsets;
+		private final long unitSeconds; // period length for sub-daily frequencies
+		private final long firstUnit; // period of dtstart, in units of its frequency
+		private long remaining;
+		private long period;
+		private long[] buf = new long[64];
+		private int len;
+		private int pos;
+		private long nextValue;
+		private long last = Long.MIN_VALUE;
+		// Instants of wall-clock times that fell in a gap, ascending and not yet emitted. A gap time
+		// moves forward past later wall-clock times, so it waits here until those are reached
+		private long[] deferred = new long[8];
+		private int deferredPos;
+		private int deferredLen;
+		private boolean ready;
+		private boolean finished;
+
+		Expansion(long dtstart, long from, long to, ZoneOffsetTable zone) {
+			this.zone = zone;
+			this.dtstart = dtstart;
+			this.from = Math.max(from, dtstart);
+			this.end = Math.min(to, until);
+			this.remaining = count > 0 ? count : Long.MAX_VALUE;
+			// Offsets stay within a day, so a day's margin covers any wall clock of an instant
+			long margin = zone == null ? 0L : EpochCalendar.SECONDS_PER_DAY;
+			this.localStart = zone == null ? dtstart : dtstart + zone.offsetSeconds(dtstart);
+			this.localEnd = end > Long.MAX_VALUE - margin ? Long.MAX_VALUE : end + margin;
+			long day = EpochCalendar.epochDay(localStart);
+			long packed = EpochCalendar.packedDate(day);
+			int second = EpochCalendar.secondOfDay(localStart);
+
+			// RFC 5545 defaults: parts missing from the rule are taken from DTSTART
+			boolean noDays = byDayWeekday == null && byMonthDay == null && byYearDay == null;
+			int[] m = byMonth;
+			int[] md = byMonthDay;
+			int[] wd = byDayWeekday;
+			int[] ord = byDayOrdinal;
+			if (noDays && freq == Frequency.WEEKLY) {
+				wd = new int[] {BusinessCalendar.isoDayOfWeek(day)};
+				ord = new int[] {0};
+			} else if (noDays && freq == Frequency.MONTHLY) {
+				md = new int[] {EpochCalendar.packedDay(packed)};
+			} else if (noDays && freq == Frequency.YEARLY) {
+				md = new int[] {EpochCalendar.packedDay(packed)};
+				if (m == null) {
+					m = new int[] {EpochCalendar.packedMonth(packed)};
+				}
+			}
+			this.months = m;
+			this.monthDays = md;
+			this.weekdays = wd;
+			this.ordinals = ord;
+			this.hours = byHour;
+			this.minutes = byMinute != null || freq.compareTo(Frequency.MINUTELY) <= 0 ? byMinute : new int[] {second / 60 % 60};
+			this.seconds = bySecond != null || freq == Frequency.SECONDLY ? bySecond : new int[] {second % 60};
+
+			switch (freq) {
+				case SECONDLY:
+					unitSeconds = 1L;
+					offsets = new int[] {0};
+					break;
+				case MINUTELY:
+					unitSeconds = 60L;
+					offsets = seconds.clone();
+					break;
+				case HOURLY:
+					unitSeconds = 3600L;
+					offsets = combine(new int[] {0}, minutes, seconds);
+					break;
+				default:
+					unitSeconds = EpochCalendar.SECONDS_PER_DAY;
+					offsets = combine(hours != null ? hours : new int[] {second / 3600}, minutes, seconds);
+			}
+			this.firstUnit = unitOf(localStart);
+			// Skip ahead to the window; under COUNT every earlier occurrence must still be counted
+			if (count == 0 && this.from > dtstart) {
+				period = Math.max(0L, Math.floorDiv(unitOf(this.from - margin) - firstUnit, interval));
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!ready && !finished) {
+				if (pos == len) {
+					if (!expandNext()) {
+						if (deferredPos < deferredLen) {
+							emit(deferred[deferredPos++]);
+						} else {
+							finished = true;
+						}
+					}
+					continue;
+				}
+				long local = buf[pos++];
+				if (local < localStart) {
+					continue;
+				}
+				if (zone == null) {
+					emit(local);
+					continue;
+				}
+				long t = zone.toEpochSecond(local);
+				if (t + zone.offsetSeconds(t) != local) {
+					defer(t);
+				} else if (deferredPos < deferredLen && deferred[deferredPos] <= t) {
+					pos--; // the deferred instant comes first; this wall-clock time is resolved again next round
+					emit(deferred[deferredPos++]);
+				} else {
+					emit(t);
+				}
+			}
+			return ready;
+		}
+
+		// Instants arrive in ascending order, so anything not after the last one is a duplicate
+		private void emit(long t) {
+			if (t < dtstart || t <= last) {
+				return;
+			}
+			last = t;
+			if (t > end || remaining == 0) {
+				finished = true;
+				return;
+			}
+			remaining--;
+			if (t >= from) {
+				nextValue = t;
+				ready = true;
+			}
+		}
+
+		private void defer(long t) {
+			if (deferredPos == deferredLen) {
+				deferredPos = 0;
+				deferredLen = 0;
+			}
+			int i = Arrays.binarySearch(deferred, deferredPos, deferredLen, t);
+			if (i >= 0) {
+				return;
+			}
+			i = -i - 1;
+			if (deferredLen == deferred.length) {
+				deferred = Arrays.copyOf(deferred, deferredLen * 2);
+			}
+			System.arraycopy(deferred, i, deferred, i + 1, deferredLen - i);
+			deferred[i] = t;
+			deferredLen++;
+		}
+
+		@Override
+		public long nextLong() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			return nextValue;
+		}
+
+		// Period index of the instant's unit: years, months, weeks, days, or sub-daily units since year 0
+		private long unitOf(long epochSecond) {
+			long day = EpochCalendar.epochDay(epochSecond);
+			long packed = EpochCalendar.packedDate(day);
+			switch (freq) {
+				case YEARLY:
+					return EpochCalendar.packedYear(packed);
+				case MONTHLY:
+					return EpochCalendar.packedYear(packed) * 12L + EpochCalendar.packedMonth(packed) - 1;
+				case WEEKLY:
+					return Math.floorDiv(day - weekStart + 4, 7L); // weeks starting on weekStart
+				case DAILY:
+					return day;
+				default:
+					return Math.floorDiv(epochSecond, unitSeconds);
+			}
+		}
+
+		// Fills buf with the next non-empty period; false once expansion is past the end
+		private boolean expandNext() {
+			while (true) {
+				long unit = firstUnit + period * interval;
+				long firstDay;
+				int days;
+				switch (freq) {
+					case YEARLY:
+						if (unit > MAX_YEAR) {
+							return false;
+						}
+						firstDay = EpochCalendar.epochDay(unit, 1, 1);
+						days = EpochCalendar.isLeapYear(unit) ? 366 : 365;
+						break;
+					case MONTHLY: {
+						long year = Math.floorDiv(unit, 12L);
+						if (year > MAX_YEAR) {
+							return false;
+						}
+						int month = (int) Math.floorMod(unit, 12L) + 1;
+						firstDay = EpochCalendar.epochDay(year, month, 1);
+						days = EpochCalendar.lengthOfMonth(year, month);
+						break;
+					}
+					case WEEKLY:
+						firstDay = unit * 7L + weekStart - 4;
+						days = 7;
+						break;
+					case DAILY:
+						firstDay = unit;
+						days = 1;
+						break;
+					default: {
+						int filled = expandSubDaily(unit);
+						if (filled != 0) {
+							return filled > 0;
+						}
+						continue;
+					}
+				}
+				if (firstDay * EpochCalendar.SECONDS_PER_DAY > localEnd
+						|| EpochCalendar.packedYear(EpochCalendar.packedDate(firstDay)) > MAX_YEAR) {
+					return false;
+				}
+				period++;
+				len = 0;
+				pos = 0;
+				for (int i = 0; i < days; i++) {
+					long day = firstDay + i;
+					if (matchesDay(day)) {
+						for (int offset : offsets) {
+							add(day * EpochCalendar.SECONDS_PER_DAY + offset);
+						}
+					}
+				}
+				selectSetPositions();
+				if (len > 0) {
+					return true;
+				}
+			}
+		}
+
+		// 1 when buf holds the period's occurrences, 0 for an empty period, -1 past the end
+		private int expandSubDaily(long unit) {
+			long t = unit * unitSeconds;
+			long day = EpochCalendar.epochDay(t);
+			if (t > localEnd || EpochCalendar.packedYear(EpochCalendar.packedDate(day)) > MAX_YEAR) {
+				return -1;
+			}
+			int secondOfDay = EpochCalendar.secondOfDay(t);
+			long skipTo = Long.MIN_VALUE;
+			if (!matchesDay(day)) {
+				skipTo = (day + 1) * EpochCalendar.SECONDS_PER_DAY;
+			} else if (hours != null && !contains(hours, secondOfDay / 3600)) {
+				skipTo = Math.floorDiv(t, 3600L) * 3600L + 3600L;
+			} else if (freq != Frequency.HOURLY && minutes != null && !contains(minutes, secondOfDay / 60 % 60)) {
+				skipTo = Math.floorDiv(t, 60L) * 60L + 60L;
+			} else if (freq == Frequency.SECONDLY && seconds != null && !contains(seconds, secondOfDay % 60)) {
+				skipTo = t + 1;
+			}
+			len = 0;
+			pos = 0;
+			if (skipTo != Long.MIN_VALUE) {
+				// First period starting at or after skipTo
+				period = Math.max(period + 1, Math.ceilDiv(Math.floorDiv(skipTo, unitSeconds) - firstUnit, (long) interval));
+				return 0;
+			}
+			period++;
+			for (int offset : offsets) {
+				add(t + offset);
+			}
+			selectSetPositions();
+			return len > 0 ? 1 : 0;
+		}
+
+		private boolean matchesDay(long day) {
+			long packed = EpochCalendar.packedDate(day);
+			long year = EpochCalendar.packedYear(packed);
+			int month = EpochCalendar.packedMonth(packed);
+			if (months != null && !contains(months, month)) {
+				return false;
+			}
+			if (byYearDay != null) {
+				int yearLength = EpochCalendar.isLeapYear(year) ? 366 : 365;
+				int doy = (int) (day - EpochCalendar.epochDay(year, 1, 1)) + 1;
+				if (!contains(byYearDay, doy) && !contains(byYearDay, doy - yearLength - 1)) {
+					return false;
+				}
+			}
+			if (monthDays != null) {
+				int dom = EpochCalendar.packedDay(packed);
+				if (!contains(monthDays, dom) && !contains(monthDays, dom - EpochCalendar.lengthOfMonth(year, month) - 1)) {
+					return false;
+				}
+			}
+			if (weekdays == null) {
+				return true;
+			}
+			int dow = BusinessCalendar.isoDayOfWeek(day);
+			for (int i = 0; i < weekdays.length; i++) {
+				if (weekdays[i] != dow) {
+					continue;
+				}
+				int n = ordinals[i];
+				if (n == 0) {
+					return true;
+				}
+				// Numbered weekdays count within the month, or the year when a yearly rule has no BYMONTH
+				boolean inMonth = freq == Frequency.MONTHLY || months != null;
+				long scopeStart = inMonth ? EpochCalendar.epochDay(year, month, 1) : EpochCalendar.epochDay(year, 1, 1);
+				long scopeEnd = inMonth ? scopeStart + EpochCalendar.lengthOfMonth(year, month) - 1 : EpochCalendar.epochDay(year, 12, 31);
+				if (n > 0 ? (day - scopeStart) / 7 + 1 == n : (scopeEnd - day) / 7 + 1 == -n) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		// BYSETPOS picks from the period's sorted candidates; the picks are re-sorted and deduplicated
+		private void selectSetPositions() {
+			if (bySetPos == null || len == 0) {
+				return;
+			}
+			long[] picked = new long[bySetPos.length];
+			int n = 0;
+			for (int p : bySetPos) {
+				int idx = p > 0 ? p - 1 : len + p;
+				if (idx >= 0 && idx < len) {
+					picked[n++] = buf[idx];
+				}
+			}
+			Arrays.sort(picked, 0, n);
+			len = 0;
+			for (int i = 0; i < n; i++) {
+				if (len == 0 || picked[i] != buf[len - 1]) {
+					buf[len++] = picked[i];
+				}
+			}
+		}
+
+		private void add(long t) {
+			if (len == buf.length) {
+				buf = Arrays.copyOf(buf, len * 2);
+			}
+			buf[len++] = t;
+		}
+	}
+
+	// Sorted h * 3600 + m * 60 + s for every combination
+	private static int[] combine(int[] hours, int[] minutes, int[] seconds) {
+		int[] out = new int[hours.length * minutes.length * seconds.length];
+		int k = 0;
+		for (int h : hours) {
+			for (int m : minutes) {
+				for (int s : seconds) {
+					out[k++] = h * 3600 + m * 60 + s;
+				}
+			}
+		}
+		return out;
+	}
+
+	private static boolean contains(int[] sorted, int value) {
+		return Arrays.binarySearch(sorted, value) >= 0;
+	}
+
+	private static long size(int[] values) {
+		return values == null ? 1L : values.length;
+	}
+
+	private void parseByDay(String value) {
+		String[] items = value.split(",");
+		byDayWeekday = new int[items.length];
+		byDayOrdinal = new int[items.length];
+		for (int i = 0; i < items.length; i++) {
+			String item = items[i].trim();
+			if (item.length() < 2) {
+				throw new IllegalArgumentException("malformed BYDAY value: " + item);
+			}
+			byDayWeekday[i] = weekday(item.substring(item.length() - 2));
+			String n = item.substring(0, item.length() - 2);
+			if (!n.isEmpty()) {
+				byDayOrdinal[i] = (int) number("BYDAY", n.startsWith("+") ? n.substring(1) : n, -53, 53);
+				if (byDayOrdinal[i] == 0) {
+					throw new IllegalArgumentException("BYDAY ordinal cannot be 0");
+				}
+			}
+		}
+	}
+
+	private static Frequency frequency(String value) {
+		for (Frequency f : Frequency.values()) {
+			if (f.name().equals(value)) {
+				return f;
+			}
+		}
+		throw new IllegalArgumentException("unknown FREQ: " + value);
+	}
+
+	private static int weekday(String value) {
+		for (int i = 0; i < WEEKDAYS.length; i++) {
+			if (WEEKDAYS[i].equals(value)) {
+				return i + 1;
+			}
+		}
+		throw new IllegalArgumentException("unknown weekday: " + value);
+	}
+
+	private static long number(String key, String value, long min, long max) {
+		long n;
+		try {
+			n = Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + " must be an integer: " + value, e);
+		}
+		if (n < min || n > max) {
+			throw new IllegalArgumentException(key + " out of range: " + value);
+		}
+		return n;
+	}
+
+	// Sorted, distinct values; signed lists accept -max..-min as well (counted from the end)
+	private static int[] list(String key, String value, int min, int max, boolean signed) {
+		String[] items = value.split(",");
+		int[] out = new int[items.length];
+		for (int i = 0; i < items.length; i++) {
+			String item = items[i].trim();
+			int n = (int) number(key, item.startsWith("+") ? item.substring(1) : item, signed ? -max : min, max);
+			if (signed && n > -min && n < min) {
+				throw new IllegalArgumentException(key + " out of range: " + item);
+			}
+			out[i] = n;
+		}
+		return Arrays.stream(out).sorted().distinct().toArray();
+	}
+
+	// yyyyMMdd (inclusive of the whole day) or yyyyMMddTHHmmss with an optional Z, taken as UTC
+	private static long parseUntil(String value) {
+		if (!value.matches("\\d{8}(T\\d{6}Z?)?")) {
+			throw new IllegalArgumentException("UNTIL must be yyyyMMdd or yyyyMMddTHHmmssZ: " + value);
+		}
+		int year = Integer.parseInt(value.substring(0, 4));
+		int month = Integer.parseInt(value.substring(4, 6));
+		int day = Integer.parseInt(value.substring(6, 8));
+		if (month < 1 || month > 12 || day < 1 || day > EpochCalendar.lengthOfMonth(year, month)) {
+			throw new IllegalArgumentException("invalid UNTIL date: " + value);
+		}
+		long epochDay = EpochCalendar.epochDay(year, month, day);
+		if (value.length() == 8) {
+			return epochDay * EpochCalendar.SECONDS_PER_DAY + EpochCalendar.SECONDS_PER_DAY - 1;
+		}
+		int hour = Integer.parseInt(value.substring(9, 11));
+		int minute = Integer.parseInt(value.substring(11, 13));
+		int second = Integer.parseInt(value.substring(13, 15));
+		if (hour > 23 || minute > 59 || second > 59) {
+			throw new IllegalArgumentException("invalid UNTIL time: " + value);
+		}
+		return epochDay * EpochCalendar.SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+	}
+}
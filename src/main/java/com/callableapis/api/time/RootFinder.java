@@ -0,0 +1,54 @@
+package com.callableapis.api.time;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Bracketed root refinement shared by the event solvers.
+ * Uses the Illinois variant of false position, which keeps the bracket and converges superlinearly.
+ */
+final class RootFinder {
+
+	private static final int MAX_ITERATIONS = 60;
+
+	private RootFinder() {}
+
+	/**
+	 * Finds x in [lo, hi] with f(x) = 0 to within tolerance, given f(lo) and f(hi) of opposite sign.
+	 */
+	static double solve(DoubleUnaryOperator f, double lo, double hi, double fLo, double fHi, double tolerance) {
+		if (fLo == 0.0) {
+			return lo;
+		}
+		if (fHi == 0.0) {
+			return hi;
+		}
+		if ((fLo > 0.0) == (fHi > 0.0)) {
+			throw new IllegalArgumentException("root is not bracketed");
+		}
+		int side = 0;
+		double x = lo;
+		for (int i = 0; i < MAX_ITERATIONS && hi - lo > tolerance; i++) {
+			x = (lo * fHi - hi * fLo) / (fHi - fLo);
+			double fx = f.applyAsDouble(x);
+			if (fx == 0.0) {
+				return x;
+			}
+			if ((fx > 0.0) == (fHi > 0.0)) {
+				hi = x;
+				fHi = fx;
+				if (side == 1) {
+					fLo *= 0.5;
+				}
+				side = 1;
+			} else {
+				lo = x;
+				fLo = fx;
+				if (side == -1) {
+					fHi *= 0.5;
+				}
+				side = -1;
+			}
+		}
+		return x;
+	}
+}
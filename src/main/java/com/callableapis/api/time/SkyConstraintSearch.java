@@ -0,0 +1,239 @@
+package com.callableapis.api.time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds the time intervals in which every constraint (a range on a sun or moon quantity) holds.
+ * Each constraint has a margin that is positive inside its range. Over a coarse step the margin
+ * can change by at most maxRate * step, so an interval whose end-point margins prove a constraint
+ * false throughout is dropped and one that proves every constraint true is accepted whole;
+ * only undecided intervals are bisected, and crossings are refined with a bracketed root finder.
+ */
+public class SkyConstraintSearch {
+
+	// Upper bounds on |d quantity / dt| per second used for pruning; azimuth has none (it can
+	// swing through 180 degrees at the zenith), so azimuth-only intervals always subdivide
+	public enum Quantity {
+		SUN_ELEVATION(0.0045, false),
+		SUN_AZIMUTH(Double.POSITIVE_INFINITY, true),
+		SUN_INTENSITY(8.0e-5, false),
+		MOON_ELEVATION(0.005, false),
+		MOON_AZIMUTH(Double.POSITIVE_INFINITY, true),
+		MOON_INTENSITY(7.0e-11, false),
+		MOON_ILLUMINATION(1.3e-6, false);
+
+		final double maxRatePerSecond;
+		final boolean angular;
+
+		Quantity(double maxRatePerSecond, boolean angular) {
+			this.maxRatePerSecond = maxRatePerSecond;
+			this.angular = angular;
+		}
+
+		/** Accepts enum names or camelCase, e.g. "SUN_ELEVATION" or "sunElevation". */
+		public static Quantity parse(String name) {
+			if (name != null) {
+				String wanted = name.replace("_", "").toLowerCase(Locale.ROOT);
+				for (Quantity q : values()) {
+					if (q.name().replace("_", "").toLowerCase(Locale.ROOT).equals(wanted)) {
+						return q;
+					}
+				}
+			}
+			throw new IllegalArgumentException("unknown quantity: " + name + "; expected one of " + Arrays.toString(values()));
+		}
+	}
+
+	/**
+	 * min <= value <= max; either bound may be infinite. For azimuths a min greater than max
+	 * wraps through north, e.g. [350, 10].
+	 */
+	public static final class Constraint {
+		public final Quantity quantity;
+		public final double min;
+		public final double max;
+
+		public Constraint(Quantity quantity, double min, double max) {
+			if (quantity == null || Double.isNaN(min) || Double.isNaN(max)) {
+				throw new IllegalArgumentException("quantity, min and max are required");
+			}
+			if (!quantity.angular && min > max) {
+				throw new IllegalArgumentException("min must not exceed max for " + quantity);
+			}
+			if (quantity.angular && (Double.isInfinite(min) || Double.isInfinite(max))) {
+				throw new IllegalArgumentException("azimuth bounds must be finite degrees");
+			}
+			this.quantity = quantity;
+			this.min = min;
+			this.max = max;
+		}
+
+		// Positive inside the range, negative outside, continuous in the value
+		double margin(double value) {
+			if (!quantity.angular) {
+				return Math.min(value - min, max - value);
+			}
+			double width = mod360(max - min);
+			if (width == 0.0 && max != min) {
+				width = 360.0;
+			}
+			double centre = min + width / 2.0;
+			double d = Math.abs(mod360(value - centre + 180.0) - 180.0);
+			return width / 2.0 - d;
+		}
+	}
+
+	// Closed interval of epoch seconds
+	public static final class Interval {
+		public final long startEpochSecond;
+		public final long endEpochSecond;
+
+		Interval(long startEpochSecond, long endEpochSecond) {
+			this.startEpochSecond = startEpochSecond;
+			this.endEpochSecond = endEpochSecond;
+		}
+	}
+
+	private static final long COARSE_STEP_SECONDS = 3600L;
+	// Below this length an undecided interval is resolved by root refinement alone
+	private static final long MIN_STEP_SECONDS = 120L;
+	private static final double TOLERANCE_SECONDS = 1.0;
+
+	private final AstronomyService astronomy = new AstronomyService();
+
+	public List<Interval> search(double latitudeDeg, double longitudeDeg, long fromEpochSecond, long toEpochSecond,
+			List<Constraint> constraints) {
+		if (constraints == null || constraints.isEmpty()) {
+			throw new IllegalArgumentException("at least one constraint is required");
+		}
+		if (toEpochSecond <= fromEpochSecond) {
+			throw new IllegalArgumentException("to must be after from");
+		}
+		Search s = new Search(latitudeDeg, longitudeDeg, constraints.toArray(new Constraint[0]));
+		double[] gA = s.margins(fromEpochSecond, new double[s.constraints.length]);
+		for (long a = fromEpochSecond; a < toEpochSecond; ) {
+			long b = Math.min(toEpochSecond, a + COARSE_STEP_SECONDS);
+			double[] gB = s.margins(b, new double[s.constraints.length]);
+			s.scan(a, b, gA, gB);
+			a = b;
+			gA = gB;
+		}
+		return s.out;
+	}
+
+	// State of one search: location, constraints, a reusable sky sink and the merged output
+	private final class Search {
+		final double lat;
+		final double lon;
+		final Constraint[] constraints;
+		final AstronomyService.SkyStateResult sky = new AstronomyService.SkyStateResult();
+		final List<Interval> out = new ArrayList<>();
+
+		Search(double lat, double lon, Constraint[] constraints) {
+			this.lat = lat;
+			this.lon = lon;
+			this.constraints = constraints;
+		}
+
+		double[] margins(long t, double[] g) {
+			astronomy.computeSkyState(t, lat, lon, AstronomyService.Precision.EXACT, sky);
+			for (int c = 0; c < constraints.length; c++) {
+				g[c] = constraints[c].margin(value(constraints[c].quantity));
+			}
+			return g;
+		}
+
+		double margin(int c, long t) {
+			astronomy.computeSkyState(t, lat, lon, AstronomyService.Precision.EXACT, sky);
+			return constraints[c].margin(value(constraints[c].quantity));
+		}
+
+		double value(Quantity q) {
+			switch (q) {
+				case SUN_ELEVATION: return sky.sun.elevationDeg;
+				case SUN_AZIMUTH: return sky.sun.azimuthDeg;
+				case SUN_INTENSITY: return sky.sun.intensity;
+				case MOON_ELEVATION: return sky.moon.elevationDeg;
+				case MOON_AZIMUTH: return sky.moon.azimuthDeg;
+				case MOON_INTENSITY: return sky.moon.intensity;
+				default: return sky.moon.illumination;
+			}
+		}
+
+		void scan(long a, long b, double[] gA, double[] gB) {
+			boolean allTrue = true;
+			for (int c = 0; c < constraints.length; c++) {
+				// Largest change possible across the interval; the margin stays within the V-shaped
+				// envelope through both end points, whose extreme is (gA + gB -/+ reach) / 2
+				double reach = constraints[c].quantity.maxRatePerSecond * (b - a);
+				if (gA[c] < 0.0 && gB[c] < 0.0 && -(gA[c] + gB[c]) > reach) {
+					return;
+				}
+				if (!(gA[c] >= 0.0 && gB[c] >= 0.0 && gA[c] + gB[c] >= reach)) {
+					allTrue = false;
+				}
+			}
+			if (allTrue) {
+				emit(a, b);
+				return;
+			}
+			if (b - a <= MIN_STEP_SECONDS) {
+				refine(a, b, gA, gB);
+				return;
+			}
+			long m = a + (b - a) / 2;
+			double[] gM = margins(m, new double[constraints.length]);
+			scan(a, m, gA, gM);
+			scan(m, b, gM, gB);
+		}
+
+		// Splits [a, b] at every constraint crossing and keeps the pieces whose midpoint satisfies all
+		void refine(long a, long b, double[] gA, double[] gB) {
+			long[] cuts = new long[constraints.length + 2];
+			int n = 0;
+			cuts[n++] = a;
+			for (int c = 0; c < constraints.length; c++) {
+				if ((gA[c] >= 0.0) != (gB[c] >= 0.0)) {
+					int ci = c;
+					double root = RootFinder.solve(x -> margin(ci, Math.round(x)), a, b, gA[c], gB[c], TOLERANCE_SECONDS);
+					cuts[n++] = Math.round(root);
+				}
+			}
+			cuts[n++] = b;
+			Arrays.sort(cuts, 0, n);
+			double[] g = new double[constraints.length];
+			for (int k = 0; k + 1 < n; k++) {
+				long lo = cuts[k];
+				long hi = cuts[k + 1];
+				if (hi <= lo) {
+					continue;
+				}
+				margins(lo + (hi - lo) / 2, g);
+				boolean inside = true;
+				for (double v : g) {
+					inside &= v >= 0.0;
+				}
+				if (inside) {
+					emit(lo, hi);
+				}
+			}
+		}
+
+		void emit(long start, long end) {
+			int last = out.size() - 1;
+			if (last >= 0 && out.get(last).endEpochSecond >= start) {
+				out.set(last, new Interval(out.get(last).startEpochSecond, Math.max(end, out.get(last).endEpochSecond)));
+			} else {
+				out.add(new Interval(start, end));
+			}
+		}
+	}
+
+	private static double mod360(double x) {
+		double r = x % 360.0;
+		return r < 0.0 ? r + 360.0 : r;
+	}
+}
@@ -0,0 +1,359 @@
+package com.callableapis.api.time;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed sun and moon positions at minute resolution for registered locations.
+ * Each site owns one file holding a rolling window of float32 records, memory-mapped read-only;
+ * a lookup is an offset read plus linear interpolation between neighbouring minutes.
+ * Files are reopened on startup, so tables survive restarts without recomputation.
+ *
+ * File layout (little-endian): 64-byte header (magic, version, lat, lon, first epoch minute,
+ * record count) followed by RECORD_FLOATS floats per minute.
+ */
+public class SkyTableStore implements AutoCloseable {
+	private static final Logger logger = Logger.getLogger(SkyTableStore.class.getName());
+
+	private static final int MAGIC = 0x534B5931; // "SKY1"
+	// Bump whenever the sun or moon model changes so stale tables are rebuilt
+	private static final int MODEL_VERSION = 2;
+	private static final int HEADER_BYTES = 64;
+	private static final int RECORD_FLOATS = 6;
+	private static final int RECORD_BYTES = RECORD_FLOATS * Float.BYTES;
+	// Sites are matched on a 1e-4 degree grid (about 11 m)
+	private static final double LOCATION_STEPS_PER_DEG = 1e4;
+	private static final String FILE_SUFFIX = ".sky";
+	public static final int DEFAULT_MAX_SITES = 1000;
+
+	public enum Status {
+		PENDING,
+		READY,
+		FAILED
+	}
+
+	// One interpolated minute of sky state
+	public static final class SkySample {
+		public double sunElevationDeg;
+		public double sunAzimuthDeg;
+		public double dayLengthHours;
+		public double moonElevationDeg;
+		public double moonAzimuthDeg;
+		public double moonIllumination;
+	}
+
+	public static final class SiteInfo {
+		public final double latitudeDeg;
+		public final double longitudeDeg;
+		public final Status status;
+		public final long windowStartEpochSecond;
+		public final long windowEndEpochSecond;
+
+		SiteInfo(double latitudeDeg, double longitudeDeg, Status status, long windowStartEpochSecond, long windowEndEpochSecond) {
+			this.latitudeDeg = latitudeDeg;
+			this.longitudeDeg = longitudeDeg;
+			this.status = status;
+			this.windowStartEpochSecond = windowStartEpochSecond;
+			this.windowEndEpochSecond = windowEndEpochSecond;
+		}
+	}
+
+	private record SiteKey(long latQ, long lonQ) {}
+
+	// A valid table written by another MODEL_VERSION; its site is kept and the table rebuilt
+	private static final class OlderModelException extends IOException {
+		private static final long serialVersionUID = 1L;
+		final double latitudeDeg;
+		final double longitudeDeg;
+
+		OlderModelException(Path file, double latitudeDeg, double longitudeDeg) {
+			super("sky table from another model version: " + file);
+			this.latitudeDeg = latitudeDeg;
+			this.longitudeDeg = longitudeDeg;
+		}
+	}
+
+	// Immutable view of one site; replaced wholesale when the window rolls
+	private static final class Site {
+		final double latitudeDeg;
+		final double longitudeDeg;
+		final Status status;
+		final long firstEpochMinute;
+		final int count;
+		final ByteBuffer records; // null unless READY
+
+		Site(double latitudeDeg, double longitudeDeg, Status status, long firstEpochMinute, int count, ByteBuffer records) {
+			this.latitudeDeg = latitudeDeg;
+			this.longitudeDeg = longitudeDeg;
+			this.status = status;
+			this.firstEpochMinute = firstEpochMinute;
+			this.count = count;
+			this.records = records;
+		}
+	}
+
+	private final Path directory;
+	private final int windowDays;
+	private final int maxSites;
+	private final ConcurrentHashMap<SiteKey, Site> sites = new ConcurrentHashMap<>();
+	// Slots taken in sites; reserved before inserting so concurrent registrations cannot pass maxSites
+	private final AtomicInteger siteCount = new AtomicInteger();
+	private final AstronomyService astronomy = new AstronomyService();
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "sky-table-precompute");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public SkyTableStore(Path directory, int windowDays) {
+		this(directory, windowDays, DEFAULT_MAX_SITES);
+	}
+
+	/** Each site costs a background precompute, a file of about 0.5 MB and a rebuild every refresh, so their number is capped. */
+	public SkyTableStore(Path directory, int windowDays, int maxSites) {
+		if (windowDays < 2) {
+			throw new IllegalArgumentException("windowDays must be at least 2");
+		}
+		if (maxSites < 1) {
+			throw new IllegalArgumentException("maxSites must be at least 1");
+		}
+		this.directory = directory;
+		this.windowDays = windowDays;
+		this.maxSites = maxSites;
+		loadExisting();
+		// Roll windows forward well before lookups run off their end
+		executor.scheduleWithFixedDelay(this::refreshStale, 1, 6, TimeUnit.HOURS);
+	}
+
+	/** Registers a site and schedules its table in the background; returns the current status. */
+	public SiteInfo register(double latitudeDeg, double longitudeDeg) {
+		if (latitudeDeg < -90.0 || latitudeDeg > 90.0 || longitudeDeg < -180.0 || longitudeDeg > 180.0) {
+			throw new IllegalArgumentException("lat must be in [-90, 90] and lon in [-180, 180]");
+		}
+		SiteKey key = key(latitudeDeg, longitudeDeg);
+		double lat = key.latQ() / LOCATION_STEPS_PER_DEG;
+		double lon = key.lonQ() / LOCATION_STEPS_PER_DEG;
+		Site pending = new Site(lat, lon, Status.PENDING, 0, 0, null);
+		Site existing = sites.get(key);
+		if (existing == null) {
+			if (siteCount.incrementAndGet() > maxSites) {
+				siteCount.decrementAndGet();
+				throw new IllegalArgumentException("at most " + maxSites + " registered locations");
+			}
+			existing = sites.putIfAbsent(key, pending);
+			if (existing != null) {
+				siteCount.decrementAndGet(); // registered concurrently under the same key
+			}
+		}
+		if (existing == null || (existing.status == Status.FAILED && sites.replace(key, existing, pending))) {
+			executor.execute(() -> build(key, lat, lon));
+		}
+		return info(sites.get(key));
+	}
+
+	public List<SiteInfo> list() {
+		List<SiteInfo> out = new ArrayList<>();
+		for (Site s : sites.values()) {
+			out.add(info(s));
+		}
+		return out;
+	}
+
+	/**
+	 * Fills out from the table if the site is registered, ready and the instant lies inside its window.
+	 * Returns false when the caller should fall back to evaluating the equations.
+	 */
+	public boolean lookup(double latitudeDeg, double longitudeDeg, long epochSecond, SkySample out) {
+		Site s = sites.get(key(latitudeDeg, longitudeDeg));
+		if (s == null || s.status != Status.READY) {
+			return false;
+		}
+		long offsetSeconds = epochSecond - s.firstEpochMinute * 60L;
+		long i = Math.floorDiv(offsetSeconds, 60L);
+		if (i < 0 || i >= s.count - 1) {
+			return false;
+		}
+		double f = (offsetSeconds - i * 60L) / 60.0;
+		int a = (int) i * RECORD_BYTES;
+		int b = a + RECORD_BYTES;
+		ByteBuffer r = s.records;
+		out.sunElevationDeg = lerp(r.getFloat(a), r.getFloat(b), f);
+		out.sunAzimuthDeg = lerpDegrees(r.getFloat(a + 4), r.getFloat(b + 4), f);
+		out.dayLengthHours = lerp(r.getFloat(a + 8), r.getFloat(b + 8), f);
+		out.moonElevationDeg = lerp(r.getFloat(a + 12), r.getFloat(b + 12), f);
+		out.moonAzimuthDeg = lerpDegrees(r.getFloat(a + 16), r.getFloat(b + 16), f);
+		out.moonIllumination = lerp(r.getFloat(a + 20), r.getFloat(b + 20), f);
+		return true;
+	}
+
+	/** Stops background precompute and refresh; tables already built stay on disk for the next start. */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private void build(SiteKey key, double lat, double lon) {
+		try {
+			long firstMinute = windowStartEpochMinute(System.currentTimeMillis() / 1000L);
+			// Yesterday plus windowDays from the start of today, inclusive of the closing minute
+			int count = (windowDays + 1) * 1440 + 1;
+			Path file = directory.resolve(fileName(key));
+			writeTable(file, lat, lon, firstMinute, count);
+			sites.put(key, open(file));
+			logger.info("Sky table ready for " + lat + "," + lon);
+		} catch (IOException | RuntimeException e) {
+			logger.log(Level.WARNING, "Sky table precompute failed for " + lat + "," + lon, e);
+			sites.put(key, new Site(lat, lon, Status.FAILED, 0, 0, null));
+		}
+	}
+
+	// The window starts one day back so "now" and recent past are always covered
+	private static long windowStartEpochMinute(long nowEpochSecond) {
+		return (EpochCalendar.epochDay(nowEpochSecond) - 1) * 1440L;
+	}
+
+	private void writeTable(Path file, double lat, double lon, long firstMinute, int count) throws IOException {
+		Files.createDirectories(directory);
+		long[] times = new long[count];
+		double[] lats = new double[count];
+		double[] lons = new double[count];
+		for (int i = 0; i < count; i++) {
+			times[i] = (firstMinute + i) * 60L;
+			lats[i] = lat;
+			lons[i] = lon;
+		}
+		AstronomyService.SolarBatchResult sun = astronomy.computeSolarInfoBatch(times, lats, lons);
+
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + count * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MAGIC).putInt(MODEL_VERSION).putDouble(lat).putDouble(lon).putLong(firstMinute).putInt(count);
+		buf.position(HEADER_BYTES);
+		AstronomyService.MoonlightInfoResult moon = new AstronomyService.MoonlightInfoResult();
+		for (int i = 0; i < count; i++) {
+			astronomy.moonlightInfo(times[i], lat, lon, AstronomyService.Precision.EXACT, moon);
+			buf.putFloat((float) sun.elevationDeg[i])
+					.putFloat((float) sun.azimuthDeg[i])
+					.putFloat((float) sun.dayLengthHours[i])
+					.putFloat((float) moon.elevationDeg)
+					.putFloat((float) moon.azimuthDeg)
+					.putFloat((float) moon.illumination);
+		}
+		buf.flip();
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+			ch.force(true);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static Site open(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+			if (ch.size() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+				throw new IOException("not a sky table: " + file);
+			}
+			double lat = mapped.getDouble(8);
+			double lon = mapped.getDouble(16);
+			if (mapped.getInt(4) != MODEL_VERSION) {
+				throw new OlderModelException(file, lat, lon);
+			}
+			long firstMinute = mapped.getLong(24);
+			int count = mapped.getInt(32);
+			if (ch.size() != HEADER_BYTES + (long) count * RECORD_BYTES) {
+				throw new IOException("truncated sky table: " + file);
+			}
+			ByteBuffer records = mapped.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN);
+			return new Site(lat, lon, Status.READY, firstMinute, count, records);
+		}
+	}
+
+	private void loadExisting() {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+			for (Path file : files) {
+				try {
+					Site s = open(file);
+					sites.put(key(s.latitudeDeg, s.longitudeDeg), s);
+				} catch (OlderModelException e) {
+					SiteKey key = key(e.latitudeDeg, e.longitudeDeg);
+					double lat = key.latQ() / LOCATION_STEPS_PER_DEG;
+					double lon = key.lonQ() / LOCATION_STEPS_PER_DEG;
+					sites.put(key, new Site(lat, lon, Status.PENDING, 0, 0, null));
+					executor.execute(() -> build(key, lat, lon));
+					logger.info("Rebuilding sky table for " + lat + "," + lon + " written by another model version");
+				} catch (IOException e) {
+					logger.log(Level.WARNING, "Ignoring unreadable sky table " + file, e);
+				}
+			}
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Could not scan sky table directory " + directory, e);
+		}
+		siteCount.set(sites.size());
+		logger.info("Loaded " + sites.size() + " sky tables from " + directory);
+		// Tables whose window has drifted are rebuilt in the background, after any older-model rebuilds queued above
+		executor.execute(this::refreshStale);
+	}
+
+	private void refreshStale() {
+		long wantedFirstMinute = windowStartEpochMinute(System.currentTimeMillis() / 1000L);
+		for (Map.Entry<SiteKey, Site> e : sites.entrySet()) {
+			Site s = e.getValue();
+			if (s.status == Status.READY && s.firstEpochMinute < wantedFirstMinute) {
+				build(e.getKey(), s.latitudeDeg, s.longitudeDeg);
+			}
+		}
+	}
+
+	private static SiteInfo info(Site s) {
+		long start = s.firstEpochMinute * 60L;
+		long end = s.status == Status.READY ? start + (s.count - 1) * 60L : start;
+		return new SiteInfo(s.latitudeDeg, s.longitudeDeg, s.status, start, end);
+	}
+
+	private static SiteKey key(double latitudeDeg, double longitudeDeg) {
+		return new SiteKey(Math.round(latitudeDeg * LOCATION_STEPS_PER_DEG), Math.round(longitudeDeg * LOCATION_STEPS_PER_DEG));
+	}
+
+	private static String fileName(SiteKey key) {
+		return "site_" + key.latQ() + "_" + key.lonQ() + FILE_SUFFIX;
+	}
+
+	private static double lerp(double a, double b, double f) {
+		return a + (b - a) * f;
+	}
+
+	// Interpolates across the 0/360 seam
+	private static double lerpDegrees(double a, double b, double f) {
+		double d = b - a;
+		if (d > 180.0) {
+			d -= 360.0;
+		} else if (d < -180.0) {
+			d += 360.0;
+		}
+		double v = a + d * f;
+		return v < 0.0 ? v + 360.0 : (v >= 360.0 ? v - 360.0 : v);
+	}
+}
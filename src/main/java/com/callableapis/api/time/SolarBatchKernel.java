@@ -0,0 +1,14 @@
+package com.callableapis.api.time;
+
+/**
+ * Evaluates the NOAA solar equations for points [from, to) of a batch into the same indices of out.
+ * Implementations must not keep state between calls; batches are split across threads.
+ */
+public interface SolarBatchKernel {
+
+	void evaluate(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg,
+			AstronomyService.SolarBatchResult out, int from, int to);
+
+	// Doubles processed per arithmetic instruction; 1 for the scalar kernel
+	int lanes();
+}
@@ -0,0 +1,69 @@
+package com.callableapis.api.time;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chooses the batch solar kernel. The SIMD kernel is built from its own source set (only with
+ * {@code -PvectorKernel=true}) and needs the jdk.incubator.vector module at runtime (JVM flag
+ * {@code --add-modules jdk.incubator.vector}); it is loaded reflectively so this class links and
+ * the scalar kernel is used when either is missing.
+ */
+public final class SolarBatchKernels {
+	private static final Logger logger = Logger.getLogger(SolarBatchKernels.class.getName());
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_KERNEL = "com.callableapis.api.time.VectorSolarBatchKernel";
+
+	public static final SolarBatchKernel SCALAR = new SolarBatchKernel() {
+		@Override
+		public void evaluate(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg,
+				AstronomyService.SolarBatchResult out, int from, int to) {
+			AstronomyService.solarBatchKernel(epochSeconds, latitudeDeg, longitudeDeg, out, from, to);
+		}
+
+		@Override
+		public int lanes() {
+			return 1;
+		}
+	};
+
+	private static final SolarBatchKernel VECTOR = loadVector();
+
+	private SolarBatchKernels() {}
+
+	/** The SIMD kernel, or null when the vector module is not available in this JVM. */
+	public static SolarBatchKernel vector() {
+		return VECTOR;
+	}
+
+	public static SolarBatchKernel preferred() {
+		return VECTOR != null ? VECTOR : SCALAR;
+	}
+
+	private static SolarBatchKernel loadVector() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			logger.info("Module " + VECTOR_MODULE + " not present; using scalar solar batch kernel");
+			return null;
+		}
+		try {
+			Class<?> kernel;
+			try {
+				kernel = Class.forName(VECTOR_KERNEL);
+			} catch (ClassNotFoundException e) {
+				logger.info("Vector solar batch kernel not packaged in this build; using scalar solar batch kernel");
+				return null;
+			}
+			SolarBatchKernel k = (SolarBatchKernel) kernel.getDeclaredConstructor().newInstance();
+			// A species of one lane gains nothing over the scalar loop
+			if (k.lanes() < 2) {
+				return null;
+			}
+			logger.info("Using " + k.lanes() + "-lane vector solar batch kernel");
+			return k;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			logger.log(Level.WARNING, "Vector solar batch kernel unavailable; using scalar kernel", e);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.callableapis.api.time;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Sunrise, sunset, solar noon and twilight times per UTC date.
+ * Each crossing is seeded from the analytic hour-angle solution and refined on the
+ * same elevation model as AstronomyService.computeSolarInfo with a bracketed root finder.
+ * Events belong to the solar day whose noon falls on the given UTC date, so western
+ * longitudes can report a sunset on the following UTC date.
+ */
+public class SolarEventService {
+
+	// Sentinel for a crossing that does not happen on that day (polar day or night)
+	public static final long NONE = Long.MIN_VALUE;
+
+	// Standard altitudes (degrees) of the sun's centre for each event
+	public static final double SUNRISE_ALTITUDE_DEG = -0.833; // refraction + semi-diameter
+	public static final double CIVIL_ALTITUDE_DEG = -6.0;
+	public static final double NAUTICAL_ALTITUDE_DEG = -12.0;
+	public static final double ASTRONOMICAL_ALTITUDE_DEG = -18.0;
+
+	// Locations are quantized to 0.01 degrees (about 1 km, a couple of seconds of sunrise shift)
+	private static final double LOCATION_QUANTUM_DEG = 0.01;
+	private static final long CACHE_MAX_ENTRIES = 200_000L;
+	private static final double TOLERANCE_SECONDS = 0.5;
+	private static final double HALF_DAY_SECONDS = 43200.0;
+
+	private static final Cache<DayKey, SolarEvents> CACHE = CacheBuilder.newBuilder()
+			.maximumSize(CACHE_MAX_ENTRIES)
+			.build();
+
+	// All times are epoch seconds, or NONE
+	public static final class SolarEvents {
+		public final long epochDay;
+		public final long solarNoon;
+		public final long sunrise;
+		public final long sunset;
+		public final long civilDawn;
+		public final long civilDusk;
+		public final long nauticalDawn;
+		public final long nauticalDusk;
+		public final long astronomicalDawn;
+		public final long astronomicalDusk;
+
+		SolarEvents(long epochDay, long solarNoon, long[] dawn, long[] dusk) {
+			this.epochDay = epochDay;
+			this.solarNoon = solarNoon;
+			this.sunrise = dawn[0];
+			this.sunset = dusk[0];
+			this.civilDawn = dawn[1];
+			this.civilDusk = dusk[1];
+			this.nauticalDawn = dawn[2];
+			this.nauticalDusk = dusk[2];
+			this.astronomicalDawn = dawn[3];
+			this.astronomicalDusk = dusk[3];
+		}
+	}
+
+	private record DayKey(long latQ, long lonQ, long epochDay) {}
+
+	public SolarEvents computeDay(double latitudeDeg, double longitudeDeg, long epochDay) {
+		DayKey key = new DayKey(quantize(latitudeDeg), quantize(longitudeDeg), epochDay);
+		SolarEvents cached = CACHE.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		SolarEvents computed = solve(key.latQ() * LOCATION_QUANTUM_DEG, key.lonQ() * LOCATION_QUANTUM_DEG, epochDay);
+		CACHE.put(key, computed);
+		return computed;
+	}
+
+	public SolarEvents[] computeRange(double latitudeDeg, double longitudeDeg, long fromEpochDay, long toEpochDay) {
+		if (toEpochDay < fromEpochDay) {
+			throw new IllegalArgumentException("to must not be before from");
+		}
+		SolarEvents[] out = new SolarEvents[Math.toIntExact(toEpochDay - fromEpochDay + 1)];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = computeDay(latitudeDeg, longitudeDeg, fromEpochDay + i);
+		}
+		return out;
+	}
+
+	private static SolarEvents solve(double latitudeDeg, double longitudeDeg, long epochDay) {
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+
+		// Analytic solution from the noon declination and equation of time
+		double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1);
+		double decl = AstronomyService.solarDeclination(gamma);
+		double noon = noon(longitudeDeg, epochDay, gamma);
+
+		double[] altitudes = {SUNRISE_ALTITUDE_DEG, CIVIL_ALTITUDE_DEG, NAUTICAL_ALTITUDE_DEG, ASTRONOMICAL_ALTITUDE_DEG};
+		long[] dawn = new long[altitudes.length];
+		long[] dusk = new long[altitudes.length];
+		double elevNoon = AstronomyService.solarElevationDeg(noon, sinLat, cosLat, longitudeDeg);
+		double elevMidnightBefore = AstronomyService.solarElevationDeg(noon - HALF_DAY_SECONDS, sinLat, cosLat, longitudeDeg);
+		double elevMidnightAfter = AstronomyService.solarElevationDeg(noon + HALF_DAY_SECONDS, sinLat, cosLat, longitudeDeg);
+		for (int k = 0; k < altitudes.length; k++) {
+			double h0 = altitudes[k];
+			double guess = halfDaySeconds(h0, sinLat, cosLat, decl);
+			dawn[k] = crossing(noon - HALF_DAY_SECONDS, noon, elevMidnightBefore, elevNoon, noon - guess,
+					h0, sinLat, cosLat, longitudeDeg);
+			dusk[k] = crossing(noon, noon + HALF_DAY_SECONDS, elevNoon, elevMidnightAfter, noon + guess,
+					h0, sinLat, cosLat, longitudeDeg);
+		}
+		return new SolarEvents(epochDay, Math.round(noon), dawn, dusk);
+	}
+
+	/**
+	 * Uncached {rise, set} epoch seconds for altitudeDeg on the solar day of epochDay. A half day
+	 * on which the sun does not cross that altitude extends to the adjacent midnight when the sun
+	 * is above it at noon and collapses to noon when it is not.
+	 */
+	static long[] daylight(double latitudeDeg, double longitudeDeg, long epochDay, double altitudeDeg) {
+		double latRad = Math.toRadians(latitudeDeg);
+		double sinLat = Math.sin(latRad);
+		double cosLat = Math.cos(latRad);
+		double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1);
+		double noon = noon(longitudeDeg, epochDay, gamma);
+		double guess = halfDaySeconds(altitudeDeg, sinLat, cosLat, AstronomyService.solarDeclination(gamma));
+		double elevNoon = AstronomyService.solarElevationDeg(noon, sinLat, cosLat, longitudeDeg);
+		long rise = crossing(noon - HALF_DAY_SECONDS, noon, AstronomyService.solarElevationDeg(noon - HALF_DAY_SECONDS, sinLat, cosLat, longitudeDeg),
+				elevNoon, noon - guess, altitudeDeg, sinLat, cosLat, longitudeDeg);
+		long set = crossing(noon, noon + HALF_DAY_SECONDS, elevNoon, AstronomyService.solarElevationDeg(noon + HALF_DAY_SECONDS, sinLat, cosLat, longitudeDeg),
+				noon + guess, altitudeDeg, sinLat, cosLat, longitudeDeg);
+		long uncrossed = elevNoon > altitudeDeg ? Math.round(HALF_DAY_SECONDS) : 0L;
+		return new long[] {
+				rise != NONE ? rise : Math.round(noon) - uncrossed,
+				set != NONE ? set : Math.round(noon) + uncrossed
+		};
+	}
+
+	// Fractional epoch second of solar noon on epochDay
+	private static double noon(double longitudeDeg, long epochDay, double gamma) {
+		double noonMinutes = 720.0 - 4.0 * longitudeDeg - AstronomyService.equationOfTime(gamma);
+		return epochDay * (double) EpochCalendar.SECONDS_PER_DAY + noonMinutes * 60.0;
+	}
+
+	// Seconds of time from noon to the h0 crossing by the hour-angle formula, NaN if it never crosses
+	private static double halfDaySeconds(double h0, double sinLat, double cosLat, double decl) {
+		double cosH0 = (Math.sin(Math.toRadians(h0)) - sinLat * Math.sin(decl)) / (cosLat * Math.cos(decl));
+		return Double.isFinite(cosH0) && Math.abs(cosH0) <= 1.0
+				? Math.toDegrees(Math.acos(cosH0)) * 240.0
+				: Double.NaN;
+	}
+
+	// Root of elevation(t) = h0 in [lo, hi], narrowed around the analytic guess when it brackets
+	private static long crossing(double lo, double hi, double elevLo, double elevHi, double guess,
+			double h0, double sinLat, double cosLat, double longitudeDeg) {
+		double fLo = elevLo - h0;
+		double fHi = elevHi - h0;
+		if ((fLo > 0.0) == (fHi > 0.0)) {
+			return NONE;
+		}
+		if (!Double.isNaN(guess)) {
+			double a = Math.max(lo, guess - 900.0);
+			double b = Math.min(hi, guess + 900.0);
+			double fa = AstronomyService.solarElevationDeg(a, sinLat, cosLat, longitudeDeg) - h0;
+			double fb = AstronomyService.solarElevationDeg(b, sinLat, cosLat, longitudeDeg) - h0;
+			if ((fa > 0.0) != (fb > 0.0)) {
+				lo = a;
+				hi = b;
+				fLo = fa;
+				fHi = fb;
+			}
+		}
+		double t = RootFinder.solve(x -> AstronomyService.solarElevationDeg(x, sinLat, cosLat, longitudeDeg) - h0,
+				lo, hi, fLo, fHi, TOLERANCE_SECONDS);
+		return Math.round(t);
+	}
+
+	private static long quantize(double deg) {
+		return Math.round(deg / LOCATION_QUANTUM_DEG);
+	}
+}
@@ -0,0 +1,134 @@
+package com.callableapis.api.time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UTC offsets of one time zone as a sorted array of transition instants, built lazily from
+ * ZoneRules on first use and cached per zone, so an offset lookup is a binary search over a few
+ * hundred longs instead of a walk through ZoneRules. Transitions are tabulated up to
+ * TABLE_END_YEAR; later instants ask ZoneRules directly.
+ *
+ * Local date-times (wall-clock seconds counted as if the zone were UTC) resolve the way
+ * ZonedDateTime.ofLocal does: a time in a gap moves forward by the length of the gap, and a time
+ * in an overlap takes the earlier offset unless a preferred offset is valid there.
+ */
+public final class ZoneOffsetTable {
+
+	public static final int TABLE_END_YEAR = 2200;
+	private static final long TABLE_END = EpochCalendar.epochDay(TABLE_END_YEAR, 1, 1) * EpochCalendar.SECONDS_PER_DAY;
+	private static final ConcurrentHashMap<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+	private final ZoneId zone;
+	private final ZoneRules rules;
+	private final long tableEnd;
+	private final long[] transitions; // instants of every offset change, ascending
+	private final int[] offsets; // offsets[i] applies before transitions[i]; the last entry after them all
+	// Local time from which transition i is behind: its instant plus the larger of the two offsets
+	private final long[] localThresholds;
+
+	private ZoneOffsetTable(ZoneId zone) {
+		this.zone = zone;
+		this.rules = zone.getRules();
+		long[] t = new long[64];
+		int[] o = new int[65];
+		int n = 0;
+		ZoneOffsetTransition tr = rules.nextTransition(Instant.MIN);
+		o[0] = tr != null ? tr.getOffsetBefore().getTotalSeconds() : rules.getOffset(Instant.EPOCH).getTotalSeconds();
+		while (tr != null && tr.getInstant().getEpochSecond() < TABLE_END) {
+			if (n == t.length) {
+				t = Arrays.copyOf(t, n * 2);
+				o = Arrays.copyOf(o, n * 2 + 1);
+			}
+			t[n] = tr.getInstant().getEpochSecond();
+			o[++n] = tr.getOffsetAfter().getTotalSeconds();
+			tr = rules.nextTransition(tr.getInstant());
+		}
+		this.transitions = Arrays.copyOf(t, n);
+		this.offsets = Arrays.copyOf(o, n + 1);
+		this.localThresholds = new long[n];
+		for (int i = 0; i < n; i++) {
+			localThresholds[i] = transitions[i] + Math.max(offsets[i], offsets[i + 1]);
+		}
+		this.tableEnd = rules.isFixedOffset() ? Long.MAX_VALUE : TABLE_END;
+	}
+
+	public static ZoneOffsetTable of(ZoneId zone) {
+		return TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+	}
+
+	public ZoneId zone() {
+		return zone;
+	}
+
+	public int transitionCount() {
+		return transitions.length;
+	}
+
+	/** UTC offset in seconds at the given instant. */
+	public int offsetSeconds(long epochSecond) {
+		if (epochSecond >= tableEnd) {
+			return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+		}
+		return offsets[countAtOrBefore(transitions, epochSecond)];
+	}
+
+	/** Instant of a local date-time; gaps move forward, overlaps take the earlier offset. */
+	public long toEpochSecond(long localEpochSecond) {
+		// Offsets stay within a day, so local times this close to the table end may fall after it
+		if (localEpochSecond >= tableEnd - EpochCalendar.SECONDS_PER_DAY) {
+			return ZonedDateTime.ofLocal(LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC), zone, null).toEpochSecond();
+		}
+		return localEpochSecond - offsets[countAtOrBefore(localThresholds, localEpochSecond)];
+	}
+
+	/** As toEpochSecond(long), keeping preferredOffsetSeconds whenever it is valid for the local time. */
+	public long toEpochSecond(long localEpochSecond, int preferredOffsetSeconds) {
+		long candidate = localEpochSecond - preferredOffsetSeconds;
+		if (offsetSeconds(candidate) == preferredOffsetSeconds) {
+			return candidate;
+		}
+		return toEpochSecond(localEpochSecond);
+	}
+
+	/**
+	 * Offsets for a column of instants. Consecutive rows usually share an offset period, so the
+	 * previous row's period is checked before falling back to a binary search.
+	 */
+	public void offsetSeconds(long[] epochSeconds, int from, int to, int[] out) {
+		int i = 0;
+		for (int k = from; k < to; k++) {
+			long t = epochSeconds[k];
+			if (t >= tableEnd) {
+				out[k] = offsetSeconds(t);
+				continue;
+			}
+			if ((i > 0 && t < transitions[i - 1]) || (i < transitions.length && t >= transitions[i])) {
+				i = countAtOrBefore(transitions, t);
+			}
+			out[k] = offsets[i];
+		}
+	}
+
+	// Number of entries <= value in an ascending array
+	private static int countAtOrBefore(long[] sorted, long value) {
+		int lo = 0;
+		int hi = sorted.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+}
@@ -0,0 +1,21 @@
+package com.callableapis.api.web;
+
+import jakarta.ws.rs.NameBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET resource whose representation only changes on fixed UTC boundaries
+ * (every periodSeconds since the epoch). {@link ConditionalGetFilter} then adds
+ * Cache-Control, ETag and Last-Modified headers and answers matching revalidations with 304.
+ * The resource must compute its value for the start of the current period.
+ */
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConditionalGet {
+    long periodSeconds() default 1L;
+}
@@ -0,0 +1,142 @@
+package com.callableapis.api.web;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conditional GET for {@link ConditionalGet} resources. The current period is fixed when the request
+ * arrives: its start is the Last-Modified time and the ETag, and the time left until it ends is the
+ * max-age. A matching If-None-Match (or, without one, an If-Modified-Since at or after the period
+ * start) is answered with 304 before the resource runs. Runs after authentication so 304s are
+ * still only served to authorised callers. Resources read the pinned period start through
+ * {@link #periodStart} rather than the clock, so a body never belongs to a later period than its ETag.
+ */
+@Provider
+@ConditionalGet
+@Priority(Priorities.HEADER_DECORATOR)
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String PERIOD_PROPERTY = ConditionalGetFilter.class.getName() + ".period";
+
+    // Responses sit behind bearer auth and per-key rate limits, so only the caller's own cache may store them
+    private static final String CACHE_CONTROL_PREFIX = "private, max-age=";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    record Period(long startEpochSecond, long endEpochSecond, long nowMillis) {
+        String etag() {
+            return "\"" + startEpochSecond + "\"";
+        }
+
+        String lastModified() {
+            return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochSecond(startEpochSecond).atOffset(ZoneOffset.UTC));
+        }
+
+        String cacheControl() {
+            long maxAge = Math.max(0L, (endEpochSecond * 1000L - nowMillis) / 1000L);
+            return CACHE_CONTROL_PREFIX + maxAge;
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        String method = requestContext.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return;
+        }
+        ConditionalGet spec = spec();
+        if (spec == null || spec.periodSeconds() <= 0) {
+            return;
+        }
+        Period period = currentPeriod(System.currentTimeMillis(), spec.periodSeconds());
+        requestContext.setProperty(PERIOD_PROPERTY, period);
+        if (notModified(requestContext, period)) {
+            requestContext.abortWith(Response.notModified()
+                    .header("ETag", period.etag())
+                    .header("Last-Modified", period.lastModified())
+                    .header("Cache-Control", period.cacheControl())
+                    .build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object property = requestContext.getProperty(PERIOD_PROPERTY);
+        if (!(property instanceof Period) || responseContext.getStatus() != 200) {
+            return;
+        }
+        Period period = (Period) property;
+        MultivaluedMap<String, Object> headers = responseContext.getHeaders();
+        headers.putSingle("ETag", period.etag());
+        headers.putSingle("Last-Modified", period.lastModified());
+        headers.putSingle("Cache-Control", period.cacheControl());
+    }
+
+    /** Start of the period pinned for this request, or fallbackEpochSecond when the filter did not run. */
+    public static long periodStart(ContainerRequestContext requestContext, long fallbackEpochSecond) {
+        Object property = requestContext != null ? requestContext.getProperty(PERIOD_PROPERTY) : null;
+        return property instanceof Period ? ((Period) property).startEpochSecond() : fallbackEpochSecond;
+    }
+
+    static Period currentPeriod(long nowMillis, long periodSeconds) {
+        long start = Math.floorDiv(nowMillis / 1000L, periodSeconds) * periodSeconds;
+        return new Period(start, start + periodSeconds, nowMillis);
+    }
+
+    static boolean notModified(ContainerRequestContext requestContext, Period period) {
+        String ifNoneMatch = requestContext.getHeaderString("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match uses weak comparison, so W/ prefixes are ignored
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(period.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = requestContext.getHeaderString("If-Modified-Since");
+        if (ifModifiedSince != null) {
+            try {
+                ZonedDateTime since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return since.toEpochSecond() >= period.startEpochSecond();
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private ConditionalGet spec() {
+        if (resourceInfo == null) {
+            return null;
+        }
+        Method m = resourceInfo.getResourceMethod();
+        ConditionalGet spec = m != null ? m.getAnnotation(ConditionalGet.class) : null;
+        if (spec == null && resourceInfo.getResourceClass() != null) {
+            spec = resourceInfo.getResourceClass().getAnnotation(ConditionalGet.class);
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,27 @@
+package com.callableapis.api.web;
+
+import com.callableapis.api.handlers.v2.CalendarResourceV2;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+
+/**
+ * Releases process-wide resources when the application is undeployed, so a redeploy does not
+ * leave background threads of the previous instance running.
+ */
+public class ShutdownListener implements ContainerLifecycleListener {
+
+    @Override
+    public void onStartup(Container container) {
+        // nothing to start eagerly; shared resources open on first use
+    }
+
+    @Override
+    public void onReload(Container container) {
+        // resources outlive a reload
+    }
+
+    @Override
+    public void onShutdown(Container container) {
+        CalendarResourceV2.closeSharedResources();
+    }
+}
@@ -0,0 +1,78 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.EpochCalendar;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AstronomyAllocationTest {
+
+	private static final int EVALUATIONS = 200_000;
+
+	@Test
+	public void testPrimitiveApiDoesNotAllocate() {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!mx.isThreadAllocatedMemorySupported() || !mx.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.SolarInfoResult sun = new AstronomyService.SolarInfoResult();
+		AstronomyService.MoonlightInfoResult moon = new AstronomyService.MoonlightInfoResult();
+		AstronomyService.MoonPhaseResult phase = new AstronomyService.MoonPhaseResult();
+		AstronomyService.SkyStateResult sky = new AstronomyService.SkyStateResult();
+		long[] t = new long[1024];
+		double[] lat = new double[1024];
+		double[] lon = new double[1024];
+		AstronomyService.SolarBatchResult batch = new AstronomyService.SolarBatchResult(1024);
+		for (int i = 0; i < t.length; i++) {
+			t[i] = 1_700_000_000L + i * 3607L;
+			lat[i] = -60.0 + i * 0.1;
+			lon[i] = -170.0 + i * 0.3;
+		}
+
+		// Warm up so JIT compilation and class initialisation are not measured
+		double sink = run(svc, sun, moon, phase, sky, t, lat, lon, batch);
+
+		long before = mx.getCurrentThreadAllocatedBytes();
+		sink += run(svc, sun, moon, phase, sky, t, lat, lon, batch);
+		long allocated = mx.getCurrentThreadAllocatedBytes() - before;
+
+		assertTrue(sink != 0.0);
+		// A single object per evaluation would be several megabytes; allow only measurement noise
+		assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+	}
+
+	@Test
+	public void testEpochDayFromCivilMatchesLocalDate() {
+		Random rnd = new Random(7);
+		for (int i = 0; i < 100_000; i++) {
+			LocalDate d = LocalDate.ofEpochDay(rnd.nextInt(2_000_000) - 1_000_000);
+			assertEquals(d.toEpochDay(), EpochCalendar.epochDay(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+			assertEquals(d.lengthOfMonth(), EpochCalendar.lengthOfMonth(d.getYear(), d.getMonthValue()));
+		}
+	}
+
+	private static double run(AstronomyService svc, AstronomyService.SolarInfoResult sun,
+			AstronomyService.MoonlightInfoResult moon, AstronomyService.MoonPhaseResult phase,
+			AstronomyService.SkyStateResult sky, long[] t, double[] lat, double[] lon, AstronomyService.SolarBatchResult batch) {
+		double acc = 0.0;
+		for (int i = 0; i < EVALUATIONS; i++) {
+			int j = i & 1023;
+			svc.solarInfo(t[j], lat[j], lon[j], AstronomyService.Precision.EXACT, sun);
+			svc.moonlightInfo(t[j], lat[j], lon[j], AstronomyService.Precision.FAST, moon);
+			svc.moonPhase(t[j], phase);
+			svc.computeSkyState(t[j], lat[j], lon[j], AstronomyService.Precision.EXACT, sky);
+			acc += sun.elevationDeg + moon.elevationDeg + phase.illumination + sky.moon.azimuthDeg;
+		}
+		for (int k = 0; k < 500; k++) {
+			svc.fillSolarInfoBatch(t, lat, lon, batch, 0, t.length);
+			acc += batch.elevationDeg[k & 1023];
+		}
+		return acc;
+	}
+}
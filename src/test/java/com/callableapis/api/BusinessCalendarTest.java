@@ -0,0 +1,188 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.BusinessCalendar;
+import com.callableapis.api.time.BusinessCalendarRegistry;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class BusinessCalendarTest {
+
+	private static final Logger logger = Logger.getLogger(BusinessCalendarTest.class.getName());
+
+	// Property: rank/select answers agree with walking the calendar one day at a time
+	@Test
+	public void testCountAndAddMatchDayByDayWalk() {
+		BusinessCalendarRegistry registry = new BusinessCalendarRegistry();
+		Random rnd = new Random(23);
+		for (String name : new String[] {"weekends", "us-federal", "uk-england", "target"}) {
+			BusinessCalendar c = registry.get(name);
+			for (int i = 0; i < 2_000; i++) {
+				long from = BusinessCalendar.MIN_EPOCH_DAY + 1_000 + rnd.nextInt(100_000);
+				long to = from + rnd.nextInt(1_500) - 750;
+				assertEquals(name + " " + from + ".." + to, walkCount(c, from, to), c.countBusinessDays(from, to));
+				int n = rnd.nextInt(601) - 300;
+				assertEquals(name + " " + from + " + " + n, walkAdd(c, from, n), c.addBusinessDays(from, n));
+			}
+		}
+	}
+
+	@Test
+	public void testUsFederalObservedDates() {
+		BusinessCalendar us = new BusinessCalendarRegistry().get("us-federal");
+		assertFalse(us.isBusinessDay(day(2025, 11, 27))); // Thanksgiving
+		assertFalse(us.isBusinessDay(day(2026, 7, 3))); // July 4th on a Saturday
+		assertFalse(us.isBusinessDay(day(2021, 12, 31))); // 2022 New Year's Day on a Saturday
+		assertFalse(us.isBusinessDay(day(2023, 6, 19))); // Juneteenth
+		assertTrue(us.isBusinessDay(day(2019, 6, 19))); // before Juneteenth was a holiday
+		assertEquals(250, us.businessDaysInYear(2025));
+	}
+
+	@Test
+	public void testUkSubstituteDaysAndEaster() {
+		BusinessCalendar uk = new BusinessCalendarRegistry().get("uk-england");
+		// Christmas 2021 on a Saturday, Boxing Day on a Sunday
+		assertFalse(uk.isBusinessDay(day(2021, 12, 27)));
+		assertFalse(uk.isBusinessDay(day(2021, 12, 28)));
+		assertTrue(uk.isBusinessDay(day(2021, 12, 29)));
+		assertEquals(day(2025, 4, 20), BusinessCalendar.easterSunday(2025));
+		assertFalse(uk.isBusinessDay(day(2025, 4, 18)));
+		assertFalse(uk.isBusinessDay(day(2025, 4, 21)));
+		assertEquals(day(2025, 4, 22), uk.addBusinessDays(day(2025, 4, 17), 1));
+	}
+
+	@Test
+	public void testCustomCalendarWithWorkdaysAndWeekend() {
+		BusinessCalendarRegistry registry = new BusinessCalendarRegistry();
+		BusinessCalendar c = registry.register("Gulf", BusinessCalendar.Rules.NONE,
+				EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY),
+				new long[] {day(2025, 3, 31)}, new long[] {day(2025, 4, 5)});
+		assertSame(c, registry.get(" gulf "));
+		assertFalse(c.isBusinessDay(day(2025, 4, 4))); // Friday
+		assertTrue(c.isBusinessDay(day(2025, 4, 6))); // Sunday
+		assertTrue(c.isBusinessDay(day(2025, 4, 5))); // Saturday made a workday
+		assertFalse(c.isBusinessDay(day(2025, 3, 31)));
+		// Thu 3rd, Sat 5th, Sun 6th
+		assertEquals(day(2025, 4, 6), c.addBusinessDays(day(2025, 4, 2), 3));
+	}
+
+	@Test
+	public void testCustomCalendarsAreScopedToTheirOwner() {
+		BusinessCalendarRegistry registry = new BusinessCalendarRegistry();
+		BusinessCalendar alice = registry.register("alice", "desk", BusinessCalendar.Rules.NONE, null,
+				new long[] {day(2025, 4, 1)}, null);
+		BusinessCalendar bob = registry.register("bob", "desk", BusinessCalendar.Rules.NONE, null, null, null);
+		// Bob's upload of the same name leaves Alice's calendar in place
+		assertSame(alice, registry.get("alice", "desk"));
+		assertSame(bob, registry.get("bob", "DESK"));
+		assertFalse(registry.get("alice", "desk").isBusinessDay(day(2025, 4, 1)));
+		assertTrue(registry.get("bob", "desk").isBusinessDay(day(2025, 4, 1)));
+		try {
+			registry.get("carol", "desk");
+			fail("another owner's calendar resolved");
+		} catch (IllegalArgumentException expected) {
+			// not visible to carol
+		}
+		int builtIns = BusinessCalendar.Rules.values().length;
+		assertEquals(builtIns + 1, registry.list("alice").size());
+		assertSame(alice, registry.list("alice").get(builtIns));
+		assertEquals(builtIns, registry.list("carol").size());
+		assertNotNull(registry.get("carol", "us-federal"));
+	}
+
+	@Test
+	public void testPerOwnerLimit() {
+		BusinessCalendarRegistry registry = new BusinessCalendarRegistry();
+		for (int i = 0; i < BusinessCalendarRegistry.MAX_CUSTOM_CALENDARS_PER_OWNER; i++) {
+			registry.register("alice", "cal-" + i, BusinessCalendar.Rules.NONE, null, null, null);
+		}
+		// Replacing an existing upload does not need a free slot
+		registry.register("alice", "cal-0", BusinessCalendar.Rules.NONE, null, null, null);
+		try {
+			registry.register("alice", "one-more", BusinessCalendar.Rules.NONE, null, null, null);
+			fail("per-owner limit not enforced");
+		} catch (IllegalArgumentException expected) {
+			// alice is full
+		}
+		registry.register("bob", "one-more", BusinessCalendar.Rules.NONE, null, null, null);
+	}
+
+	@Test
+	public void testNonBusinessStartAndRangeEnds() {
+		BusinessCalendar c = new BusinessCalendarRegistry().get("weekends");
+		long saturday = day(2025, 3, 1);
+		assertEquals(day(2025, 3, 3), c.addBusinessDays(saturday, 1));
+		assertEquals(day(2025, 2, 28), c.addBusinessDays(saturday, -1));
+		assertEquals(saturday, c.addBusinessDays(saturday, 0));
+		long total = c.countBusinessDays(BusinessCalendar.MIN_EPOCH_DAY, BusinessCalendar.MAX_EPOCH_DAY + 1);
+		assertEquals(-total, c.countBusinessDays(BusinessCalendar.MAX_EPOCH_DAY + 1, BusinessCalendar.MIN_EPOCH_DAY));
+		assertEquals(day(2199, 12, 31), c.addBusinessDays(BusinessCalendar.MIN_EPOCH_DAY, total - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResultOutsideRangeRejected() {
+		new BusinessCalendarRegistry().get("weekends").addBusinessDays(day(2199, 12, 1), 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuiltInCannotBeReplaced() {
+		new BusinessCalendarRegistry().register("target", BusinessCalendar.Rules.NONE, null, null, null);
+	}
+
+	@Test
+	public void testConstantTimeAgainstDayLoop() {
+		BusinessCalendar c = new BusinessCalendarRegistry().get("us-federal");
+		int n = 1_000_000;
+		long sink = 0L;
+		long best = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				long from = day(1950, 1, 1) + i % 60_000;
+				sink += c.addBusinessDays(from, i % 5_000) + c.countBusinessDays(from, from + i % 20_000);
+			}
+			best = Math.min(best, System.nanoTime() - t0);
+		}
+		long t0 = System.nanoTime();
+		for (int i = 0; i < 1_000; i++) {
+			long from = day(1950, 1, 1) + i * 37L;
+			sink += walkAdd(c, from, 2_500) + walkCount(c, from, from + 10_000);
+		}
+		double walkNs = (System.nanoTime() - t0) / 1_000.0;
+		logger.info(String.format("business days: %.1f ns per add+count via rank/select, %.0f ns per add+count day loop (~3.5k+10k days)",
+				best / (double) n, walkNs));
+		assertTrue(sink != 0L);
+	}
+
+	private static long walkCount(BusinessCalendar c, long from, long to) {
+		long count = 0;
+		for (long d = Math.min(from, to); d < Math.max(from, to); d++) {
+			if (c.isBusinessDay(d)) {
+				count++;
+			}
+		}
+		return to < from ? -count : count;
+	}
+
+	private static long walkAdd(BusinessCalendar c, long from, int n) {
+		long d = from;
+		int step = n > 0 ? 1 : -1;
+		for (int left = Math.abs(n); left > 0; ) {
+			d += step;
+			if (c.isBusinessDay(d)) {
+				left--;
+			}
+		}
+		return d;
+	}
+
+	private static long day(int year, int month, int dayOfMonth) {
+		return LocalDate.of(year, month, dayOfMonth).toEpochDay();
+	}
+}
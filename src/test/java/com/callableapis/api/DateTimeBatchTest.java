@@ -0,0 +1,152 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.DateTimeService;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class DateTimeBatchTest {
+
+	private static final Logger logger = Logger.getLogger(DateTimeBatchTest.class.getName());
+
+	@Test
+	public void testShiftBatchMatchesSingleShift() {
+		DateTimeService svc = new DateTimeService();
+		Random rnd = new Random(21);
+		int n = 50_000;
+		long[] base = new long[n];
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.years = new int[n];
+		d.months = new int[n];
+		d.days = new int[n];
+		d.hours = new int[n];
+		d.minutes = new int[n];
+		d.seconds = new int[n];
+		for (int i = 0; i < n; i++) {
+			// Bias towards month ends and leap days, where clamping order matters
+			long day = rnd.nextInt(4) == 0 ? monthEnd(rnd) : rnd.nextInt(200_000) - 100_000;
+			base[i] = day * 86400L + rnd.nextInt(86400);
+			d.years[i] = rnd.nextInt(21) - 10;
+			d.months[i] = rnd.nextInt(49) - 24;
+			d.days[i] = rnd.nextInt(2001) - 1000;
+			d.hours[i] = rnd.nextInt(97) - 48;
+			d.minutes[i] = rnd.nextInt(241) - 120;
+			d.seconds[i] = rnd.nextInt(7201) - 3600;
+		}
+		long[] added = svc.shiftBatch(base, d, false);
+		long[] subtracted = svc.shiftBatch(base, d, true);
+		for (int i = 0; i < n; i++) {
+			ZonedDateTime at = utc(base[i]);
+			DateTimeService.Delta delta = new DateTimeService.Delta(d.years[i], d.months[i], d.days[i], d.hours[i], d.minutes[i], d.seconds[i]);
+			DateTimeService.Delta negated = new DateTimeService.Delta(-d.years[i], -d.months[i], -d.days[i], -d.hours[i], -d.minutes[i], -d.seconds[i]);
+			assertEquals("row " + i, svc.shift(at, delta).toEpochSecond(), added[i]);
+			assertEquals("row " + i, svc.shift(at, negated).toEpochSecond(), subtracted[i]);
+		}
+	}
+
+	@Test
+	public void testYearsClampBeforeMonths() {
+		DateTimeService svc = new DateTimeService();
+		long leapDay = ZonedDateTime.of(2024, 2, 29, 12, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.years = new int[] {1};
+		d.months = new int[] {1};
+		long[] out = svc.shiftBatch(new long[] {leapDay}, d, false);
+		// 2025-02-28 after the year, then 2025-03-28, not 2025-03-29
+		assertEquals(ZonedDateTime.of(2025, 3, 28, 12, 0, 0, 0, ZoneOffset.UTC).toEpochSecond(), out[0]);
+	}
+
+	@Test
+	public void testSingleValueColumnsApplyToEveryRow() {
+		DateTimeService svc = new DateTimeService();
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.months = new int[] {1};
+		long jan31 = ZonedDateTime.of(2025, 1, 31, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+		long mar31 = ZonedDateTime.of(2025, 3, 31, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+		long[] out = svc.shiftBatch(new long[] {jan31, mar31}, d, false);
+		assertEquals(ZonedDateTime.of(2025, 2, 28, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond(), out[0]);
+		assertEquals(ZonedDateTime.of(2025, 4, 30, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond(), out[1]);
+	}
+
+	@Test
+	public void testDiffBatchMatchesSingleDiff() {
+		DateTimeService svc = new DateTimeService();
+		Random rnd = new Random(22);
+		int n = 20_000;
+		long[] from = new long[n];
+		long[] to = new long[n];
+		for (int i = 0; i < n; i++) {
+			from[i] = (long) (rnd.nextDouble() * 4e9) - 2_000_000_000L;
+			to[i] = (long) (rnd.nextDouble() * 4e9) - 2_000_000_000L;
+		}
+		DateTimeService.DiffBatchResult r = svc.diffBatch(from, to);
+		for (int i = 0; i < n; i++) {
+			DateTimeService.DiffResult single = svc.diff(utc(from[i]), utc(to[i]));
+			assertEquals(single.totalSeconds, r.totalSeconds[i]);
+			assertEquals(single.inPast, r.inPast[i]);
+			assertEquals(single.days, r.days[i]);
+			assertEquals(single.hours, r.hours[i]);
+			assertEquals(single.minutes, r.minutes[i]);
+			assertEquals(single.seconds, r.seconds[i]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedColumnRejected() {
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.days = new int[] {1, 2};
+		new DateTimeService().shiftBatch(new long[3], d, false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResultOutsideJavaTimeRangeRejected() {
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.years = new int[] {Integer.MAX_VALUE};
+		new DateTimeService().shiftBatch(new long[1], d, false);
+	}
+
+	@Test
+	public void testMillionRowThroughput() {
+		DateTimeService svc = new DateTimeService();
+		int n = 1_000_000;
+		long[] base = new long[n];
+		long[] to = new long[n];
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.months = new int[] {1};
+		d.days = new int[n];
+		for (int i = 0; i < n; i++) {
+			base[i] = 1_700_000_000L + i * 997L;
+			to[i] = base[i] + i;
+			d.days[i] = i % 31;
+		}
+		long best = Long.MAX_VALUE;
+		long bestDiff = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			long[] out = svc.shiftBatch(base, d, false);
+			long t1 = System.nanoTime();
+			DateTimeService.DiffBatchResult r = svc.diffBatch(base, to);
+			long t2 = System.nanoTime();
+			assertEquals(n, out.length);
+			assertEquals(n, r.size());
+			best = Math.min(best, t1 - t0);
+			bestDiff = Math.min(bestDiff, t2 - t1);
+		}
+		logger.info(String.format("date batch: 1M shifts in %.1f ms, 1M diffs in %.1f ms", best / 1e6, bestDiff / 1e6));
+	}
+
+	private static long monthEnd(Random rnd) {
+		ZonedDateTime first = ZonedDateTime.of(1900 + rnd.nextInt(300), 1 + rnd.nextInt(12), 1, 0, 0, 0, 0, ZoneOffset.UTC);
+		return first.plusMonths(1).minusDays(1 + rnd.nextInt(3)).toLocalDate().toEpochDay();
+	}
+
+	private static ZonedDateTime utc(long epochSecond) {
+		return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+	}
+}
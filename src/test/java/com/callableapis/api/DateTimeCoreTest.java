@@ -0,0 +1,165 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.DateTimeService;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class DateTimeCoreTest {
+
+	private static final Logger logger = Logger.getLogger(DateTimeCoreTest.class.getName());
+
+	private static final long MIN_EPOCH_SECOND = ZonedDateTime.of(-999_999_999, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+	private static final long MAX_EPOCH_SECOND = ZonedDateTime.of(999_999_999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC).toEpochSecond();
+
+	// Property: for any base and delta the primitive core agrees with the plusX chain, including where it throws
+	@Test
+	public void testShiftMatchesZonedDateTimeChain() {
+		DateTimeService svc = new DateTimeService();
+		Random rnd = new Random(2201);
+		for (int i = 0; i < 300_000; i++) {
+			long base = randomBase(rnd);
+			int[] d = randomDelta(rnd);
+			ZonedDateTime zoned = ZonedDateTime.ofInstant(Instant.ofEpochSecond(base), ZoneOffset.UTC);
+			String expected;
+			try {
+				expected = Long.toString(zoned.plusYears(d[0]).plusMonths(d[1]).plusDays(d[2])
+						.plusHours(d[3]).plusMinutes(d[4]).plusSeconds(d[5]).toEpochSecond());
+			} catch (DateTimeException | ArithmeticException e) {
+				expected = "error";
+			}
+			String actual;
+			try {
+				actual = Long.toString(svc.shift(base, d[0], d[1], d[2], d[3], d[4], d[5]));
+			} catch (DateTimeException | ArithmeticException e) {
+				actual = "error";
+			}
+			assertEquals("base " + base + " delta " + java.util.Arrays.toString(d), expected, actual);
+		}
+	}
+
+	@Test
+	public void testZonedShiftKeepsNanosAndZone() {
+		DateTimeService svc = new DateTimeService();
+		ZonedDateTime base = ZonedDateTime.of(2024, 1, 31, 23, 59, 59, 123_456_789, ZoneOffset.UTC);
+		DateTimeService.Delta delta = new DateTimeService.Delta(0, 1, 0, 0, 0, 1);
+		ZonedDateTime expected = base.plusMonths(1).plusSeconds(1);
+		assertEquals(expected, svc.shift(base, delta));
+		assertEquals(base, svc.shift(base, null));
+	}
+
+	@Test
+	public void testDiffMatchesDurationBetween() {
+		DateTimeService svc = new DateTimeService();
+		Random rnd = new Random(2202);
+		for (int i = 0; i < 100_000; i++) {
+			ZonedDateTime from = ZonedDateTime.ofInstant(Instant.ofEpochSecond(randomBase(rnd) / 1000, rnd.nextInt(1_000_000_000)), ZoneOffset.UTC);
+			ZonedDateTime to = ZonedDateTime.ofInstant(Instant.ofEpochSecond(randomBase(rnd) / 1000, rnd.nextInt(1_000_000_000)), ZoneOffset.UTC);
+			long seconds = Duration.between(from, to).getSeconds();
+			DateTimeService.DiffResult r = svc.diff(from, to);
+			assertEquals(seconds, r.totalSeconds);
+			long abs = Math.abs(seconds);
+			assertEquals(abs / 86400L, r.days);
+			assertEquals(abs % 86400L, r.hours * 3600L + r.minutes * 60L + r.seconds);
+			assertEquals(seconds < 0, r.inPast);
+		}
+	}
+
+	@Test
+	public void testPrimitiveCoreDoesNotAllocate() {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!mx.isThreadAllocatedMemorySupported() || !mx.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+		DateTimeService svc = new DateTimeService();
+		DateTimeService.DiffResult diff = new DateTimeService.DiffResult();
+		int n = 200_000;
+		long sink = runCore(svc, diff, n);
+		long before = mx.getCurrentThreadAllocatedBytes();
+		long t0 = System.nanoTime();
+		sink += runCore(svc, diff, n);
+		long coreNs = System.nanoTime() - t0;
+		long coreBytes = mx.getCurrentThreadAllocatedBytes() - before;
+
+		sink += runChain(n);
+		before = mx.getCurrentThreadAllocatedBytes();
+		t0 = System.nanoTime();
+		sink += runChain(n);
+		long chainNs = System.nanoTime() - t0;
+		long chainBytes = mx.getCurrentThreadAllocatedBytes() - before;
+
+		logger.info(String.format("shift+diff: core %.1f ns/op %.2f B/op, ZonedDateTime chain %.1f ns/op %.1f B/op",
+				coreNs / (double) n, coreBytes / (double) n, chainNs / (double) n, chainBytes / (double) n));
+		assertTrue(sink != 0L);
+		assertTrue("allocated " + coreBytes + " bytes", coreBytes < 4096);
+	}
+
+	private static long runCore(DateTimeService svc, DateTimeService.DiffResult diff, int n) {
+		long acc = 0L;
+		for (int i = 0; i < n; i++) {
+			long base = 1_700_000_000L + i * 7919L;
+			long shifted = svc.shift(base, i % 3, i % 14 - 7, i % 40, i % 24, i % 60, i % 3600);
+			svc.diff(base, shifted, diff);
+			acc += diff.days + shifted;
+		}
+		return acc;
+	}
+
+	private static long runChain(int n) {
+		long acc = 0L;
+		for (int i = 0; i < n; i++) {
+			ZonedDateTime base = ZonedDateTime.ofInstant(Instant.ofEpochSecond(1_700_000_000L + i * 7919L), ZoneOffset.UTC);
+			ZonedDateTime shifted = base.plusYears(i % 3).plusMonths(i % 14 - 7).plusDays(i % 40)
+					.plusHours(i % 24).plusMinutes(i % 60).plusSeconds(i % 3600);
+			acc += Duration.between(base, shifted).getSeconds() / 86400L + shifted.toEpochSecond();
+		}
+		return acc;
+	}
+
+	// Mostly ordinary dates, with month ends, leap days and the edges of java.time's range mixed in
+	private static long randomBase(Random rnd) {
+		switch (rnd.nextInt(6)) {
+			case 0:
+				return MIN_EPOCH_SECOND + (long) (rnd.nextDouble() * 400L * 366L * 86400L);
+			case 1:
+				return MAX_EPOCH_SECOND - (long) (rnd.nextDouble() * 400L * 366L * 86400L);
+			case 2: {
+				ZonedDateTime first = ZonedDateTime.of(1600 + rnd.nextInt(900), 1 + rnd.nextInt(12), 1, rnd.nextInt(24), 0, 0, 0, ZoneOffset.UTC);
+				return first.plusMonths(1).minusDays(1 + rnd.nextInt(3)).toEpochSecond() + rnd.nextInt(3600);
+			}
+			case 3:
+				return (long) ((rnd.nextDouble() - 0.5) * 2 * 400_000L * 366L * 86400L);
+			default:
+				return (long) ((rnd.nextDouble() - 0.5) * 2 * 500L * 366L * 86400L);
+		}
+	}
+
+	private static int[] randomDelta(Random rnd) {
+		int[] d = new int[6];
+		for (int k = 0; k < 6; k++) {
+			switch (rnd.nextInt(4)) {
+				case 0:
+					d[k] = 0;
+					break;
+				case 1:
+					d[k] = rnd.nextInt(61) - 30;
+					break;
+				case 2:
+					d[k] = rnd.nextInt(20_001) - 10_000;
+					break;
+				default:
+					d[k] = rnd.nextInt();
+			}
+		}
+		return d;
+	}
+}
@@ -0,0 +1,51 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.DayLengthTable;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DayLengthTableTest {
+
+	@Test
+	public void testInterpolationStaysWithinStatedBound() {
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.SolarInfoResult r = new AstronomyService.SolarInfoResult();
+		Random rnd = new Random(18);
+		double maxErr = 0.0;
+		for (int i = 0; i < 500_000; i++) {
+			long t = 1704067200L + (long) (rnd.nextDouble() * 366 * 86400L); // through leap year 2024
+			// Half the samples at high latitudes, where the polar boundary is
+			double lat = (i & 1) == 0 ? -90.0 + 180.0 * rnd.nextDouble() : Math.copySign(60.0 + 30.0 * rnd.nextDouble(), rnd.nextDouble() - 0.5);
+			svc.solarInfo(t, lat, 0.0, AstronomyService.Precision.EXACT, r);
+			maxErr = Math.max(maxErr, Math.abs(r.dayLengthHours - DayLengthTable.dayLengthHours(lat, t)));
+		}
+		assertTrue("max error " + maxErr + " h", maxErr < DayLengthTable.ERROR_BOUND_HOURS);
+	}
+
+	@Test
+	public void testPolarDayAndNight() {
+		assertEquals(24.0, DayLengthTable.dayLengthHours(85.0, 171.0), 0.0);
+		assertEquals(0.0, DayLengthTable.dayLengthHours(85.0, 354.0), 0.0);
+		assertEquals(12.0, DayLengthTable.dayLengthHours(0.0, 100.0), 0.01);
+	}
+
+	@Test
+	public void testFillMatchesPointLookups() {
+		float[] m = new float[19 * 366];
+		DayLengthTable.fill(-90.0, 10.0, 19, 1, 366, m);
+		for (int row = 0; row < 19; row++) {
+			for (int d = 0; d < 366; d += 13) {
+				assertEquals(DayLengthTable.dayLengthHours(-90.0 + row * 10.0, (double) d), m[row * 366 + d], 1e-5);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLatitudeOutOfRangeRejected() {
+		DayLengthTable.dayLengthHours(91.0, 10.0);
+	}
+}
@@ -0,0 +1,54 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.AstronomyService.Precision;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class FastPrecisionAccuracyTest {
+
+	private static double angleDiff(double a, double b) {
+		double d = Math.abs(a - b) % 360.0;
+		return Math.min(d, 360.0 - d);
+	}
+
+	@Test
+	public void testFastModeWithinDocumentedBounds() {
+		AstronomyService svc = new AstronomyService();
+		ZonedDateTime start = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+		double maxElev = 0.0;
+		double maxAz = 0.0;
+		double maxDayLen = 0.0;
+		double maxMoonElev = 0.0;
+		double maxMoonAz = 0.0;
+		for (int step = 0; step < 146; step++) {
+			// Every 5 days, walking through the hours of the day as well
+			ZonedDateTime at = start.plusDays(5L * step).plusMinutes(97L * step);
+			for (double lat = -89.0; lat <= 89.0; lat += 2.0) {
+				for (double lon = -180.0; lon <= 180.0; lon += 10.0) {
+					AstronomyService.SolarInfoResult exact = svc.computeSolarInfo(at, lat, lon, Precision.EXACT);
+					AstronomyService.SolarInfoResult fast = svc.computeSolarInfo(at, lat, lon, Precision.FAST);
+					maxElev = Math.max(maxElev, Math.abs(exact.elevationDeg - fast.elevationDeg));
+					maxDayLen = Math.max(maxDayLen, Math.abs(exact.dayLengthHours - fast.dayLengthHours));
+					assertEquals(exact.isDaylight || Math.abs(exact.elevationDeg) < 0.001, fast.isDaylight || Math.abs(exact.elevationDeg) < 0.001);
+					maxAz = Math.max(maxAz, angleDiff(exact.azimuthDeg, fast.azimuthDeg));
+
+					AstronomyService.MoonlightInfoResult mExact = svc.computeMoonlightInfo(at, lat, lon, Precision.EXACT);
+					AstronomyService.MoonlightInfoResult mFast = svc.computeMoonlightInfo(at, lat, lon, Precision.FAST);
+					maxMoonElev = Math.max(maxMoonElev, Math.abs(mExact.elevationDeg - mFast.elevationDeg));
+					maxMoonAz = Math.max(maxMoonAz, angleDiff(mExact.azimuthDeg, mFast.azimuthDeg));
+				}
+			}
+		}
+		// Bounds documented on AstronomyService.Precision
+		assertTrue("solar elevation error " + maxElev, maxElev <= 1e-5);
+		assertTrue("solar azimuth error " + maxAz, maxAz <= 0.001);
+		assertTrue("day length error " + maxDayLen, maxDayLen <= 1e-5);
+		assertTrue("lunar elevation error " + maxMoonElev, maxMoonElev <= 1e-5);
+		assertTrue("lunar azimuth error " + maxMoonAz, maxMoonAz <= 0.001);
+	}
+}
@@ -0,0 +1,103 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.InsolationService;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class InsolationServiceTest {
+
+	private static final Logger logger = Logger.getLogger(InsolationServiceTest.class.getName());
+
+	@Test
+	public void testDailyTotalMatchesDenseSampling() {
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.SolarInfoResult r = new AstronomyService.SolarInfoResult();
+		InsolationService insolation = new InsolationService();
+		double[][] sites = {{37.77, -122.42}, {51.5, -0.13}, {-33.9, 151.2}, {64.1, -21.9}};
+		long day = LocalDate.of(2025, 5, 14).toEpochDay();
+		for (double[] site : sites) {
+			// Rectangle rule at 10 s over a window that covers the solar day of that date
+			double sampled = 0.0;
+			long noon = day * 86400L + 43200L - Math.round(site[1] * 240.0);
+			for (long t = noon - 43200L; t < noon + 43200L; t += 10L) {
+				svc.solarInfo(t, site[0], site[1], AstronomyService.Precision.EXACT, r);
+				sampled += r.intensity * 10.0;
+			}
+			assertEquals(sampled / 3600.0, insolation.dailyIntensityHours(site[0], site[1], day), 2e-3);
+		}
+	}
+
+	@Test
+	public void testEquatorAtEquinoxIsTwentyFourOverPi() {
+		// With declination near zero, the area under cos(hour angle) over daylight is 24/pi hours
+		double v = new InsolationService().dailyIntensityHours(0.0, 0.0, LocalDate.of(2025, 3, 20).toEpochDay());
+		assertEquals(24.0 / Math.PI, v, 0.01);
+	}
+
+	@Test
+	public void testPolarNightIsZeroAndPolarDayIntegratesAllDay() {
+		InsolationService insolation = new InsolationService();
+		assertEquals(0.0, insolation.dailyIntensityHours(80.0, 15.0, LocalDate.of(2024, 12, 21).toEpochDay()), 0.0);
+		// At the pole at midsummer the sun stays at ~23.4 degrees: 24 h * sin(23.4)
+		double v = insolation.dailyIntensityHours(90.0, 0.0, LocalDate.of(2024, 6, 21).toEpochDay());
+		assertEquals(24.0 * Math.sin(Math.toRadians(23.44)), v, 0.05);
+	}
+
+	@Test
+	public void testMonthlyRollUpSumsDailyTotalsAcrossYearEnd() {
+		long from = LocalDate.of(2024, 12, 20).toEpochDay();
+		long to = LocalDate.of(2025, 2, 3).toEpochDay();
+		InsolationService.InsolationResult r = new InsolationService().compute(new double[] {37.77, -33.9}, new double[] {-122.42, 151.2}, from, to);
+		assertArrayEquals(new int[] {2024, 2025, 2025}, r.monthYear);
+		assertArrayEquals(new int[] {12, 1, 2}, r.monthOfYear);
+		for (int s = 0; s < 2; s++) {
+			double dec = 0.0;
+			double jan = 0.0;
+			double feb = 0.0;
+			for (int d = 0; d < r.daily[s].length; d++) {
+				LocalDate date = LocalDate.ofEpochDay(from + d);
+				if (date.getYear() == 2024) {
+					dec += r.daily[s][d];
+				} else if (date.getMonthValue() == 1) {
+					jan += r.daily[s][d];
+				} else {
+					feb += r.daily[s][d];
+				}
+			}
+			assertEquals(dec, r.monthly[s][0], 1e-9);
+			assertEquals(jan, r.monthly[s][1], 1e-9);
+			assertEquals(feb, r.monthly[s][2], 1e-9);
+		}
+		// Southern summer outshines northern winter
+		assertTrue(r.monthly[1][1] > r.monthly[0][1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedSitesRejected() {
+		new InsolationService().compute(new double[2], new double[1], 0L, 1L);
+	}
+
+	// A year across 500 sites; logs the time rather than asserting on it
+	@Test
+	public void testFleetYearThroughput() {
+		Random rnd = new Random(5);
+		double[] lat = new double[500];
+		double[] lon = new double[500];
+		for (int i = 0; i < lat.length; i++) {
+			lat[i] = -60.0 + rnd.nextDouble() * 120.0;
+			lon[i] = -180.0 + rnd.nextDouble() * 360.0;
+		}
+		long from = LocalDate.of(2025, 1, 1).toEpochDay();
+		long start = System.nanoTime();
+		InsolationService.InsolationResult r = new InsolationService().compute(lat, lon, from, from + 364);
+		long elapsed = System.nanoTime() - start;
+		assertEquals(12, r.monthly[0].length);
+		logger.info(String.format("insolation: 500 sites x 365 days in %d ms", elapsed / 1_000_000L));
+	}
+}
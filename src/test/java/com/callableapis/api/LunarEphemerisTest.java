@@ -0,0 +1,142 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.EpochCalendar;
+import com.callableapis.api.time.LunarEphemeris;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class LunarEphemerisTest {
+
+	private static final Logger logger = Logger.getLogger(LunarEphemerisTest.class.getName());
+
+	@Test
+	public void testSeriesMatchesMeeusExample() {
+		// Meeus example 47.a: 1992-04-12 0h TT; Delta-T from the polynomial is 60.765 s
+		double[] e = LunarEphemeris.series(703_036_800.0 - 60.765);
+		assertEquals(133.162655, e[3], 1e-5);
+		assertEquals(-3.229126, e[4], 1e-5);
+		assertEquals(368409.7, e[5], 1.0);
+		double r = Math.sqrt(e[0] * e[0] + e[1] * e[1] + e[2] * e[2]);
+		assertEquals(368409.7 / LunarEphemeris.EARTH_RADIUS_KM, r, 1e-4);
+	}
+
+	@Test
+	public void testChebyshevSegmentsTrackSeries() {
+		Random rnd = new Random(19);
+		double maxErr = 0.0;
+		for (int i = 0; i < 20_000; i++) {
+			double t = -2_208_988_800.0 + rnd.nextDouble() * 200 * 365.25 * 86400.0;
+			double[] e = LunarEphemeris.series(t);
+			for (int axis = 0; axis < 3; axis++) {
+				maxErr = Math.max(maxErr, Math.abs(e[axis] - LunarEphemeris.coordinate(t, axis)));
+			}
+		}
+		assertTrue("fit error " + maxErr, maxErr < 1e-7);
+	}
+
+	@Test
+	public void testOutsideTableFallsBackToSeries() {
+		double t = -60_000_000_000.0; // about 68 BC
+		assertEquals(LunarEphemeris.series(t)[2], LunarEphemeris.coordinate(t, 2), 0.0);
+	}
+
+	// moonlightInfo against the phase-shifted sun model it replaced and against the direct series
+	@Test
+	public void testAgainstFormerMoonModel() {
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.MoonlightInfoResult m = new AstronomyService.MoonlightInfoResult();
+		Random rnd = new Random(47);
+		int n = 20_000;
+		double sumOld = 0.0;
+		double maxOld = 0.0;
+		double maxSeries = 0.0;
+		for (int i = 0; i < n; i++) {
+			long t = 946_684_800L + (long) (rnd.nextDouble() * 50 * 365.25 * 86400.0); // 2000-2050
+			double lat = rnd.nextDouble() * 130.0 - 65.0;
+			double lon = rnd.nextDouble() * 360.0 - 180.0;
+			svc.moonlightInfo(t, lat, lon, AstronomyService.Precision.EXACT, m);
+			double sinLat = Math.sin(Math.toRadians(lat));
+			double cosLat = Math.cos(Math.toRadians(lat));
+			double old = Math.abs(m.elevationDeg - formerElevationDeg(t, sinLat, cosLat, lon));
+			sumOld += old;
+			maxOld = Math.max(maxOld, old);
+			maxSeries = Math.max(maxSeries, Math.abs(m.elevationDeg - seriesElevationDeg(t, sinLat, cosLat, lon)));
+		}
+		logger.info(String.format("moon elevation vs former model: %.1f deg mean, %.1f deg max; vs direct series %.2e deg max",
+				sumOld / n, maxOld, maxSeries));
+		// The class doc quotes 44 degrees on average and up to 168
+		assertEquals(44.0, sumOld / n, 3.0);
+		assertTrue("max " + maxOld, maxOld > 150.0 && maxOld <= 180.0);
+		assertTrue("series " + maxSeries, maxSeries < 1e-5);
+	}
+
+	@Test
+	public void testMoonlightInfoCost() {
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.MoonlightInfoResult m = new AstronomyService.MoonlightInfoResult();
+		int n = 1_000_000;
+		double sink = 0.0;
+		long best = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				svc.moonlightInfo(1_700_000_000L + i * 60L, 40.7, -74.0, AstronomyService.Precision.EXACT, m);
+				sink += m.elevationDeg;
+			}
+			best = Math.min(best, System.nanoTime() - t0);
+		}
+		long t0 = System.nanoTime();
+		for (int i = 0; i < 10_000; i++) {
+			sink += LunarEphemeris.series(1_700_000_000.0 + i * 60.0)[2];
+		}
+		long seriesNs = (System.nanoTime() - t0) / 10_000;
+		double sinLat = Math.sin(Math.toRadians(40.7));
+		double cosLat = Math.cos(Math.toRadians(40.7));
+		long bestFormer = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			t0 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				sink += formerElevationDeg(1_700_000_000L + i * 60L, sinLat, cosLat, -74.0);
+			}
+			bestFormer = Math.min(bestFormer, System.nanoTime() - t0);
+		}
+		logger.info(String.format("moonlightInfo: %.1f ns/call with Chebyshev segments, former phase-shifted model %.1f ns,"
+				+ " direct series %d ns/evaluation", best / (double) n, bestFormer / (double) n, seriesNs));
+		assertFalse(Double.isNaN(sink));
+	}
+
+	// Elevation from the series itself, projected the same way as moonlightInfo
+	private static double seriesElevationDeg(double t, double sinLat, double cosLat, double lon) {
+		double[] e = LunarEphemeris.series(t);
+		double theta = LunarEphemeris.greenwichSiderealRad(t) + Math.toRadians(lon);
+		double x = e[0] - cosLat * Math.cos(theta);
+		double y = e[1] - cosLat * Math.sin(theta);
+		double z = e[2] - sinLat;
+		double up = cosLat * (x * Math.cos(theta) + y * Math.sin(theta)) + sinLat * z;
+		return Math.toDegrees(Math.asin(up / Math.sqrt(x * x + y * y + z * z)));
+	}
+
+	// The model AstronomyService used before the ephemeris: the sun's position shifted by the
+	// synodic phase in hour angle and by up to the orbital inclination in declination
+	private static double formerElevationDeg(long t, double sinLat, double cosLat, double lon) {
+		long epochDay = Math.floorDiv(t, 86400L);
+		double minutes = (t - epochDay * 86400L) / 60.0;
+		double gamma = 2.0 * Math.PI / 365.0 * (EpochCalendar.dayOfYear(epochDay) - 1 + (minutes - 720.0) / 1440.0);
+		double phase = (2440587.5 + t / 86400.0 - 2451550.1) / 29.530588853;
+		phase -= Math.floor(phase);
+		double declSun = 0.006918 - 0.399912 * Math.cos(gamma) + 0.070257 * Math.sin(gamma)
+				- 0.006758 * Math.cos(2 * gamma) + 0.000907 * Math.sin(2 * gamma)
+				- 0.002697 * Math.cos(3 * gamma) + 0.00148 * Math.sin(3 * gamma);
+		double eot = 229.18 * (0.000075 + 0.001868 * Math.cos(gamma) - 0.032077 * Math.sin(gamma)
+				- 0.014615 * Math.cos(2 * gamma) - 0.040849 * Math.sin(2 * gamma));
+		double decl = declSun + Math.toRadians(5.145) * Math.sin(2.0 * Math.PI * phase);
+		double hra = Math.toRadians((minutes + eot + 4.0 * lon) / 4.0 - 180.0 + phase * 180.0);
+		double cosZenith = Math.max(-1.0, Math.min(1.0, sinLat * Math.sin(decl) + cosLat * Math.cos(decl) * Math.cos(hra)));
+		return Math.toDegrees(Math.asin(cosZenith));
+	}
+}
@@ -0,0 +1,77 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.MoonEventService;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class MoonEventServiceTest {
+
+	@Test
+	public void testFirstRiseAndSetMatchMinuteSampling() {
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.MoonlightInfoResult m = new AstronomyService.MoonlightInfoResult();
+		MoonEventService events = new MoonEventService();
+		double lat = 37.77;
+		double lon = -122.42;
+		long from = LocalDate.of(2025, 1, 1).toEpochDay();
+		for (MoonEventService.MoonEvents e : events.computeRange(lat, lon, from, from + 59)) {
+			long start = e.epochDay * 86400L;
+			long rise = MoonEventService.NONE;
+			long set = MoonEventService.NONE;
+			svc.moonlightInfo(start, lat, lon, AstronomyService.Precision.EXACT, m);
+			boolean up = m.aboveHorizon;
+			for (long t = start + 60L; t <= start + 86400L; t += 60L) {
+				svc.moonlightInfo(t, lat, lon, AstronomyService.Precision.EXACT, m);
+				if (!up && m.aboveHorizon && rise == MoonEventService.NONE) {
+					rise = t;
+				}
+				if (up && !m.aboveHorizon && set == MoonEventService.NONE) {
+					set = t;
+				}
+				up = m.aboveHorizon;
+			}
+			assertCrossing(rise, e.moonrise);
+			assertCrossing(set, e.moonset);
+		}
+	}
+
+	@Test
+	public void testCircumpolarMoonIsAlwaysUp() {
+		// Near the June 2025 new moon the lunar declination stays above +20 degrees, at full moon below -20
+		MoonEventService events = new MoonEventService();
+		MoonEventService.MoonEvents e = events.computeDay(78.22, 15.65, LocalDate.of(2025, 6, 25).toEpochDay());
+		assertEquals(MoonEventService.NONE, e.moonrise);
+		assertEquals(MoonEventService.NONE, e.moonset);
+		assertTrue(e.alwaysUp);
+		assertFalse(e.alwaysDown);
+		e = events.computeDay(78.22, 15.65, LocalDate.of(2025, 6, 11).toEpochDay());
+		assertTrue(e.alwaysDown);
+	}
+
+	@Test
+	public void testDaysAreMemoizedPerQuantizedLocation() {
+		MoonEventService events = new MoonEventService();
+		long day = LocalDate.of(2025, 3, 3).toEpochDay();
+		assertSame(events.computeDay(48.8566, 2.3522, day), events.computeDay(48.8566, 2.3522, day));
+		assertSame(events.computeDay(48.8566, 2.3522, day), events.computeDay(48.8571, 2.3519, day));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReversedRangeRejected() {
+		new MoonEventService().computeRange(0.0, 0.0, 10L, 9L);
+	}
+
+	// The sampled crossing is the first whole minute on the new side of the horizon
+	private static void assertCrossing(long sampled, long solved) {
+		if (sampled == MoonEventService.NONE) {
+			assertEquals(MoonEventService.NONE, solved);
+			return;
+		}
+		assertNotEquals(MoonEventService.NONE, solved);
+		assertTrue("solved " + solved + " sampled " + sampled, solved > sampled - 61L && solved <= sampled + 1L);
+	}
+}
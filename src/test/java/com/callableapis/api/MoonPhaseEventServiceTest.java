@@ -0,0 +1,53 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.MoonPhaseEventService;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class MoonPhaseEventServiceTest {
+
+	private static long epochSecond(int year) {
+		return ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+	}
+
+	@Test
+	public void testEventsAgreeWithPhaseModel() {
+		AstronomyService astro = new AstronomyService();
+		MoonPhaseEventService.PhaseEvent[] events = new MoonPhaseEventService().eventsBetween(epochSecond(1950), epochSecond(2050));
+		// About 1237 lunations per century, four events each
+		assertTrue(events.length > 4940 && events.length < 4960);
+		for (int i = 0; i < events.length; i++) {
+			MoonPhaseEventService.PhaseEvent e = events[i];
+			if (i > 0) {
+				assertEquals((events[i - 1].quarter + 1) % 4, e.quarter);
+				assertTrue(events[i - 1].epochSecond < e.epochSecond);
+			}
+			double phase = astro.computeMoonPhase(ZonedDateTime.ofInstant(Instant.ofEpochSecond(e.epochSecond), ZoneOffset.UTC)).phase;
+			double expected = e.quarter / 4.0;
+			double d = Math.abs(phase - expected);
+			assertTrue(e.phaseName() + " at " + e.epochSecond + " has phase " + phase, Math.min(d, 1.0 - d) < 1e-5);
+		}
+	}
+
+	@Test
+	public void testRangeBoundsAreHalfOpen() {
+		MoonPhaseEventService svc = new MoonPhaseEventService();
+		long full = svc.eventAt(2);
+		assertEquals(1, svc.eventsBetween(full, full + 1).length);
+		assertEquals(0, svc.eventsBetween(full - 10, full).length);
+		assertEquals(0, svc.eventsBetween(full + 1, full + 86400).length);
+	}
+
+	@Test
+	public void testReferenceNewMoon() {
+		// 2000-01-06 ~14:24 UTC in this model (JDN 2451550.1)
+		long ref = new MoonPhaseEventService().eventAt(0);
+		assertEquals(ZonedDateTime.of(2000, 1, 6, 14, 24, 0, 0, ZoneOffset.UTC).toEpochSecond(), ref, 60);
+	}
+}
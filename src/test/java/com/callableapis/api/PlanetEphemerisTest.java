@@ -0,0 +1,127 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.PlanetEphemeris;
+import com.callableapis.api.time.PlanetEphemeris.Planet;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class PlanetEphemerisTest {
+
+	private static final Logger logger = Logger.getLogger(PlanetEphemerisTest.class.getName());
+
+	@Test
+	public void testVenusMatchesMeeusExample() {
+		// Meeus example 33.a: 1992-12-20 0h TD, lambda 313.08102, beta -2.08474, delta 0.910947 AU
+		double t = LocalDate.of(1992, 12, 20).toEpochDay() * 86400.0 - 61.0;
+		double[] g = new double[3];
+		PlanetEphemeris.geocentric(Planet.VENUS, t, g);
+		double eps = Math.toRadians(23.4392911 + 0.0130042 * 0.07);
+		double x = g[0];
+		double y = g[1] * Math.cos(eps) + g[2] * Math.sin(eps);
+		double z = -g[1] * Math.sin(eps) + g[2] * Math.cos(eps);
+		double r = Math.sqrt(x * x + y * y + z * z);
+		assertEquals(313.08102, Math.toDegrees(Math.atan2(y, x)) + 360.0, 0.01);
+		assertEquals(-2.08474, Math.toDegrees(Math.asin(z / r)), 0.01);
+		assertEquals(0.910947, r, 1e-4);
+	}
+
+	@Test
+	public void testMarsClosestApproach2003() {
+		// 2003-08-27 09:51 UT, 0.372719 AU
+		double t = LocalDateTime.of(2003, 8, 27, 9, 51).toEpochSecond(ZoneOffset.UTC);
+		double[] g = new double[3];
+		PlanetEphemeris.geocentric(Planet.MARS, t, g);
+		assertEquals(0.372719, Math.sqrt(g[0] * g[0] + g[1] * g[1] + g[2] * g[2]), 1e-3);
+		double before = distance(Planet.MARS, t - 86400.0 * 3);
+		double after = distance(Planet.MARS, t + 86400.0 * 3);
+		assertTrue(before > 0.3728 && after > 0.3728);
+	}
+
+	@Test
+	public void testChebyshevSegmentsTrackElements() {
+		Random rnd = new Random(20);
+		for (Planet planet : Planet.values()) {
+			double maxErr = 0.0;
+			for (int i = 0; i < 5_000; i++) {
+				double t = -5.0e9 + rnd.nextDouble() * 7.4e9; // 1811-2046
+				double[] e = PlanetEphemeris.series(planet, t);
+				for (int axis = 0; axis < 3; axis++) {
+					maxErr = Math.max(maxErr, Math.abs(e[axis] - PlanetEphemeris.heliocentric(planet, t, axis)));
+				}
+			}
+			assertTrue(planet + " fit error " + maxErr, maxErr < 1e-9);
+		}
+	}
+
+	@Test
+	public void testOutsideTableFallsBackToElements() {
+		double t = -7.0e9; // 1748
+		assertEquals(PlanetEphemeris.series(Planet.SATURN, t)[0], PlanetEphemeris.heliocentric(Planet.SATURN, t, 0), 0.0);
+	}
+
+	// Beyond the 1800-2050 fit the single-solve path must give the same light-time corrected positions
+	@Test
+	public void testGeocentricOutsideTable() {
+		double[] g = new double[3];
+		PlanetEphemeris.geocentric(Planet.MERCURY, 4102444800.0, g); // 2100
+		assertArrayEquals(new double[] {0.4283205254380895, -1.1885397831260365, -0.5703437257572315}, g, 1e-12);
+		PlanetEphemeris.geocentric(Planet.SATURN, 4102444800.0, g);
+		assertArrayEquals(new double[] {-8.894108681898805, -4.043772048187738, -1.2969924980584473}, g, 1e-12);
+		PlanetEphemeris.geocentric(Planet.SATURN, -8.0e9, g); // 1716
+		assertArrayEquals(new double[] {-9.620640106877893, -0.2235776907616151, 0.3417915811282276}, g, 1e-12);
+	}
+
+	@Test
+	public void testParseIsCaseInsensitive() {
+		assertEquals(Planet.NEPTUNE, Planet.parse(" Neptune "));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownPlanetRejected() {
+		Planet.parse("pluto");
+	}
+
+	@Test
+	public void testGeocentricCost() {
+		Planet[] planets = Planet.values();
+		double[] g = new double[3];
+		int n = 1_000_000;
+		double sink = 0.0;
+		long best = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				PlanetEphemeris.geocentric(planets[i % planets.length], 1.7e9 + i * 60.0, g);
+				sink += g[0];
+			}
+			best = Math.min(best, System.nanoTime() - t0);
+		}
+		long t0 = System.nanoTime();
+		for (int i = 0; i < 100_000; i++) {
+			sink += PlanetEphemeris.series(planets[i % planets.length], 1.7e9 + i * 60.0)[0];
+		}
+		double seriesNs = (System.nanoTime() - t0) / 100_000.0;
+		t0 = System.nanoTime();
+		for (int i = 0; i < 100_000; i++) {
+			PlanetEphemeris.geocentric(planets[i % planets.length], 4.1e9 + i * 60.0, g);
+			sink += g[0];
+		}
+		double outsideNs = (System.nanoTime() - t0) / 100_000.0;
+		logger.info(String.format("planet geocentric: %.1f ns/position with Chebyshev segments, %.1f ns outside the table,"
+				+ " %.1f ns per direct heliocentric solve", best / (double) n, outsideNs, seriesNs));
+		assertFalse(Double.isNaN(sink));
+	}
+
+	private static double distance(Planet planet, double t) {
+		double[] g = new double[3];
+		PlanetEphemeris.geocentric(planet, t, g);
+		return Math.sqrt(g[0] * g[0] + g[1] * g[1] + g[2] * g[2]);
+	}
+}
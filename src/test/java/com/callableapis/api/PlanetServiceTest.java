@@ -0,0 +1,86 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.PlanetEphemeris.Planet;
+import com.callableapis.api.time.PlanetService;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PlanetServiceTest {
+
+	@Test
+	public void testRiseAndSetMatchMinuteSampling() {
+		PlanetService svc = new PlanetService();
+		PlanetService.PlanetPositionResult p = new PlanetService.PlanetPositionResult();
+		double lat = 37.77;
+		double lon = -122.42;
+		long from = LocalDate.of(2025, 1, 1).toEpochDay();
+		for (Planet planet : Planet.values()) {
+			for (PlanetService.PlanetEvents e : svc.computeRange(planet, lat, lon, from, from + 9)) {
+				long start = e.epochDay * 86400L;
+				long rise = PlanetService.NONE;
+				long set = PlanetService.NONE;
+				svc.position(planet, start, lat, lon, p);
+				boolean up = p.elevationDeg > PlanetService.RISE_ALTITUDE_DEG;
+				for (long t = start + 60L; t <= start + 86400L; t += 60L) {
+					svc.position(planet, t, lat, lon, p);
+					boolean nowUp = p.elevationDeg > PlanetService.RISE_ALTITUDE_DEG;
+					if (!up && nowUp && rise == PlanetService.NONE) {
+						rise = t;
+					}
+					if (up && !nowUp && set == PlanetService.NONE) {
+						set = t;
+					}
+					up = nowUp;
+				}
+				assertCrossing(rise, e.rise);
+				assertCrossing(set, e.set);
+			}
+		}
+	}
+
+	@Test
+	public void testBatchMatchesSingleEvaluation() {
+		PlanetService svc = new PlanetService();
+		Random rnd = new Random(7);
+		int n = 10_000;
+		long[] t = new long[n];
+		double[] lat = new double[n];
+		double[] lon = new double[n];
+		for (int i = 0; i < n; i++) {
+			t[i] = 946684800L + (long) (rnd.nextDouble() * 50 * 365 * 86400L);
+			lat[i] = -89.0 + rnd.nextDouble() * 178.0;
+			lon[i] = -180.0 + rnd.nextDouble() * 360.0;
+		}
+		PlanetService.PlanetBatchResult batch = svc.computeBatch(Planet.JUPITER, t, lat, lon);
+		assertEquals(n, batch.size());
+		for (int i = 0; i < n; i += 37) {
+			PlanetService.PlanetPositionResult single = svc.position(Planet.JUPITER, t[i], lat[i], lon[i]);
+			assertEquals(single.elevationDeg, batch.elevationDeg[i], 0.0);
+			assertEquals(single.azimuthDeg, batch.azimuthDeg[i], 0.0);
+			assertEquals(single.rightAscensionDeg, batch.rightAscensionDeg[i], 0.0);
+			assertEquals(single.distanceAu, batch.distanceAu[i], 0.0);
+		}
+	}
+
+	@Test
+	public void testDaysAreMemoizedPerQuantizedLocation() {
+		PlanetService svc = new PlanetService();
+		long day = LocalDate.of(2025, 3, 3).toEpochDay();
+		assertSame(svc.computeDay(Planet.SATURN, 48.8566, 2.3522, day), svc.computeDay(Planet.SATURN, 48.8571, 2.3519, day));
+		assertNotSame(svc.computeDay(Planet.SATURN, 48.8566, 2.3522, day), svc.computeDay(Planet.URANUS, 48.8566, 2.3522, day));
+	}
+
+	// The sampled crossing is the first whole minute on the new side of the horizon
+	private static void assertCrossing(long sampled, long solved) {
+		if (sampled == PlanetService.NONE) {
+			assertEquals(PlanetService.NONE, solved);
+			return;
+		}
+		assertNotEquals(PlanetService.NONE, solved);
+		assertTrue("solved " + solved + " sampled " + sampled, solved > sampled - 61L && solved <= sampled + 1L);
+	}
+}
@@ -0,0 +1,71 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.QuantizedAstronomyCache;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuantizedAstronomyCacheTest {
+
+	private static final AstronomyService.Precision EXACT = AstronomyService.Precision.EXACT;
+
+	@Test
+	public void testCellReturnsCentreResultForEveryCaller() {
+		AstronomyService svc = new AstronomyService();
+		QuantizedAstronomyCache cache = new QuantizedAstronomyCache(svc, 0.01, 60, 1000, 600);
+		AstronomyService.SolarInfoResult a = new AstronomyService.SolarInfoResult();
+		AstronomyService.SolarInfoResult b = new AstronomyService.SolarInfoResult();
+		AstronomyService.SolarInfoResult centre = new AstronomyService.SolarInfoResult();
+		// Both points fall in the cell centred on (48.86, 2.35) at 1750507200
+		cache.solarInfo(1750507190L, 48.8641, 2.3521, EXACT, a);
+		cache.solarInfo(1750507229L, 48.8559, 2.3479, EXACT, b);
+		svc.solarInfo(1750507200L, 48.86, 2.35, EXACT, centre);
+		assertEquals(centre.elevationDeg, a.elevationDeg, 0.0);
+		assertEquals(centre.elevationDeg, b.elevationDeg, 0.0);
+		assertEquals(centre.azimuthDeg, b.azimuthDeg, 0.0);
+
+		AstronomyService.SolarInfoResult exact = new AstronomyService.SolarInfoResult();
+		svc.solarInfo(1750507229L, 48.8559, 2.3479, EXACT, exact);
+		assertEquals(exact.elevationDeg, b.elevationDeg, 0.2);
+	}
+
+	@Test
+	public void testRepeatedCellsAreAdmittedAndHit() {
+		QuantizedAstronomyCache cache = new QuantizedAstronomyCache(new AstronomyService(), 0.01, 60, 1000, 600);
+		AstronomyService.MoonlightInfoResult out = new AstronomyService.MoonlightInfoResult();
+		cache.moonlightInfo(1750507200L, 40.71, -74.01, EXACT, out);
+		assertEquals(0, cache.stats().size);
+		assertEquals(1, cache.stats().notAdmitted);
+		cache.moonlightInfo(1750507200L, 40.71, -74.01, EXACT, out);
+		assertEquals(1, cache.stats().size);
+		double illumination = out.illumination;
+		out.illumination = -1.0;
+		cache.moonlightInfo(1750507210L, 40.7104, -74.0098, EXACT, out);
+		assertEquals(illumination, out.illumination, 0.0);
+		QuantizedAstronomyCache.Stats s = cache.stats();
+		assertEquals(1, s.hits);
+		assertEquals(2, s.misses);
+	}
+
+	@Test
+	public void testOneOffCellsDoNotDisplacePopularOnes() {
+		QuantizedAstronomyCache cache = new QuantizedAstronomyCache(new AstronomyService(), 0.01, 60, 10_000, 600);
+		AstronomyService.SolarInfoResult out = new AstronomyService.SolarInfoResult();
+		for (int i = 0; i < 3; i++) {
+			cache.solarInfo(1750507200L, 51.51, -0.13, EXACT, out);
+		}
+		for (int i = 0; i < 5000; i++) {
+			cache.solarInfo(1750507200L + i * 60L, -30.0 + i * 0.01, 20.0, EXACT, out);
+		}
+		assertTrue("size " + cache.stats().size, cache.stats().size < 50);
+		long hitsBefore = cache.stats().hits;
+		cache.solarInfo(1750507200L, 51.51, -0.13, EXACT, out);
+		assertEquals(hitsBefore + 1, cache.stats().hits);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsNonPositiveQuantum() {
+		new QuantizedAstronomyCache(new AstronomyService(), 0.0, 60, 1000, 600);
+	}
+}
@@ -0,0 +1,246 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.RecurrenceRule;
+import com.callableapis.api.time.ZoneOffsetTable;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class RecurrenceRuleTest {
+
+	private static final Logger logger = Logger.getLogger(RecurrenceRuleTest.class.getName());
+
+	// Examples from RFC 5545 section 3.8.5.3, in UTC
+	@Test
+	public void testRfcExamples() {
+		long start = at(1997, 9, 2, 9, 0);
+		assertEquals(List.of(at(1997, 9, 2, 9, 0), at(1997, 9, 3, 9, 0), at(1997, 9, 4, 9, 0)),
+				take("FREQ=DAILY;COUNT=3", start, 10));
+		assertEquals(List.of(at(1997, 9, 2, 9, 0), at(1997, 9, 4, 9, 0), at(1997, 9, 16, 9, 0), at(1997, 9, 18, 9, 0),
+						at(1997, 9, 30, 9, 0), at(1997, 10, 2, 9, 0), at(1997, 10, 14, 9, 0), at(1997, 10, 16, 9, 0)),
+				take("RRULE:FREQ=WEEKLY;INTERVAL=2;WKST=SU;BYDAY=TU,TH;COUNT=8", start, 20));
+		assertEquals(List.of(at(1997, 9, 22, 9, 0), at(1997, 10, 20, 9, 0), at(1997, 11, 17, 9, 0),
+						at(1997, 12, 22, 9, 0), at(1998, 1, 19, 9, 0), at(1998, 2, 16, 9, 0)),
+				take("FREQ=MONTHLY;COUNT=6;BYDAY=-2MO", start, 20));
+		// Friday the 13th
+		assertEquals(List.of(at(1998, 2, 13, 9, 0), at(1998, 3, 13, 9, 0), at(1998, 11, 13, 9, 0), at(1999, 8, 13, 9, 0)),
+				take("FREQ=MONTHLY;BYDAY=FR;BYMONTHDAY=13", start, 4));
+		// US presidential election day
+		assertEquals(List.of(at(1996, 11, 5, 9, 0), at(2000, 11, 7, 9, 0), at(2004, 11, 2, 9, 0)),
+				take("FREQ=YEARLY;INTERVAL=4;BYMONTH=11;BYDAY=TU;BYMONTHDAY=2,3,4,5,6,7,8", at(1996, 11, 5, 9, 0), 3));
+		assertEquals(List.of(at(1997, 5, 19, 9, 0), at(1998, 5, 18, 9, 0), at(1999, 5, 17, 9, 0)),
+				take("FREQ=YEARLY;BYDAY=20MO", at(1997, 5, 19, 9, 0), 3));
+		assertEquals(List.of(at(1997, 9, 2, 9, 0), at(1997, 9, 2, 12, 0), at(1997, 9, 2, 15, 0)),
+				take("FREQ=HOURLY;INTERVAL=3;UNTIL=19970902T170000Z", start, 10));
+	}
+
+	@Test
+	public void testSecondTuesdayAndLastWeekdayOfMonth() {
+		long start = at(2025, 1, 1, 14, 30);
+		assertEquals(List.of(at(2025, 1, 14, 14, 30), at(2025, 2, 11, 14, 30), at(2025, 3, 11, 14, 30)),
+				take("FREQ=MONTHLY;BYDAY=2TU", start, 3));
+		assertEquals(List.of(at(2025, 1, 31, 14, 30), at(2025, 2, 28, 14, 30), at(2025, 3, 31, 14, 30), at(2025, 5, 30, 14, 30)),
+				take("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1;BYMONTH=1,2,3,5", start, 4));
+		// Months without a 31st are skipped, not clamped
+		assertEquals(List.of(at(2025, 1, 31, 14, 30), at(2025, 3, 31, 14, 30), at(2025, 5, 31, 14, 30)),
+				take("FREQ=MONTHLY;BYMONTHDAY=31", start, 3));
+	}
+
+	@Test
+	public void testMinutelyJumpsOverExcludedHours() {
+		long start = at(1997, 9, 2, 9, 0);
+		List<Long> out = take("FREQ=MINUTELY;INTERVAL=20;BYHOUR=9,10,11,12,13,14,15,16", start, 25);
+		assertEquals(at(1997, 9, 2, 16, 40), (long) out.get(23));
+		assertEquals(at(1997, 9, 3, 9, 0), (long) out.get(24));
+		// A whole-year exclusion on a secondly rule jumps straight to February
+		assertEquals(List.of(at(2026, 2, 1, 0, 0), at(2026, 2, 1, 0, 0) + 1),
+				take("FREQ=SECONDLY;BYMONTH=2", at(2025, 2, 28, 23, 59) + 59, 3).subList(1, 3));
+	}
+
+	// Property: starting in a window gives exactly the window's slice of the full expansion
+	@Test
+	public void testWindowSkipMatchesFullExpansion() {
+		String[] rules = {
+			"FREQ=DAILY;INTERVAL=3;BYHOUR=8,20",
+			"FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,FR;WKST=SU",
+			"FREQ=MONTHLY;BYDAY=1MO,-1FR",
+			"FREQ=MONTHLY;INTERVAL=5;BYMONTHDAY=-1,15;BYSETPOS=1",
+			"FREQ=YEARLY;BYYEARDAY=1,100,-1",
+			"FREQ=YEARLY;INTERVAL=2;BYMONTH=2;BYMONTHDAY=29",
+			"FREQ=HOURLY;INTERVAL=7;BYDAY=SA,SU",
+			"FREQ=MINUTELY;INTERVAL=47;BYHOUR=0,12;BYMONTHDAY=1",
+			"FREQ=MONTHLY;COUNT=40;BYDAY=TU,TH;BYSETPOS=2,-2",
+			"FREQ=DAILY;UNTIL=20300101;BYMONTH=6,7",
+		};
+		Random rnd = new Random(24);
+		for (String text : rules) {
+			RecurrenceRule rule = RecurrenceRule.parse(text);
+			for (int i = 0; i < 20; i++) {
+				long dtstart = at(1990 + rnd.nextInt(20), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28), rnd.nextInt(24), rnd.nextInt(60));
+				long from = dtstart + (long) (rnd.nextDouble() * 20 * 366 * 86400L);
+				long to = from + (long) (rnd.nextDouble() * 200 * 86400L);
+				ZoneOffsetTable zone = i % 2 == 0 ? null : ZoneOffsetTable.of(ZoneId.of(i % 4 == 1 ? "Europe/Berlin" : "Australia/Lord_Howe"));
+				List<Long> expected = new ArrayList<>();
+				PrimitiveIterator.OfLong all = rule.iterator(dtstart, dtstart, Long.MAX_VALUE, zone);
+				while (all.hasNext()) {
+					long t = all.nextLong();
+					if (t > to) {
+						break;
+					}
+					if (t >= from) {
+						expected.add(t);
+					}
+				}
+				List<Long> actual = new ArrayList<>();
+				rule.iterator(dtstart, from, to, zone).forEachRemaining((long t) -> actual.add(t));
+				assertEquals(text + " from " + from, expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void testWallClockExpansionInZone() {
+		ZoneId newYork = ZoneId.of("America/New_York");
+		ZoneOffsetTable zone = ZoneOffsetTable.of(newYork);
+		long dtstart = ZonedDateTime.of(2025, 3, 8, 1, 0, 0, 0, newYork).toEpochSecond();
+		List<Long> out = new ArrayList<>();
+		RecurrenceRule.parse("FREQ=DAILY;BYHOUR=1,2,3;COUNT=6").iterator(dtstart, dtstart, Long.MAX_VALUE, zone)
+				.forEachRemaining((long t) -> out.add(t));
+		// 02:00 on the 9th does not exist and resolves to 03:00, which is then not repeated
+		assertEquals(List.of(local(newYork, 8, 1), local(newYork, 8, 2), local(newYork, 8, 3),
+				local(newYork, 9, 1), local(newYork, 9, 3), local(newYork, 10, 1)), out);
+		// Weekly 09:00 keeps its wall-clock hour across the change
+		long monday = ZonedDateTime.of(2025, 3, 3, 9, 0, 0, 0, newYork).toEpochSecond();
+		PrimitiveIterator.OfLong weekly = RecurrenceRule.parse("FREQ=WEEKLY").iterator(monday, monday, Long.MAX_VALUE, zone);
+		assertEquals(monday, weekly.nextLong());
+		assertEquals(monday + 7 * 86400L - 3600L, weekly.nextLong());
+		// 02:00 and 02:30 move to 03:00 and 03:30, past the real 03:00; each instant appears once, in order
+		long midnight = ZonedDateTime.of(2025, 3, 8, 0, 0, 0, 0, newYork).toEpochSecond();
+		List<Long> halfHours = new ArrayList<>();
+		RecurrenceRule.parse("FREQ=DAILY;BYHOUR=2,3;BYMINUTE=0,30;COUNT=10").iterator(midnight, midnight, Long.MAX_VALUE, zone)
+				.forEachRemaining((long t) -> halfHours.add(t));
+		long half = 1800L;
+		assertEquals(List.of(local(newYork, 8, 2), local(newYork, 8, 2) + half, local(newYork, 8, 3), local(newYork, 8, 3) + half,
+				local(newYork, 9, 3), local(newYork, 9, 3) + half,
+				local(newYork, 10, 2), local(newYork, 10, 2) + half, local(newYork, 10, 3), local(newYork, 10, 3) + half), halfHours);
+	}
+
+	// Property: zoned expansion equals resolving every wall-clock occurrence with ofLocal, sorted and distinct
+	@Test
+	public void testZonedExpansionMatchesResolvedWallClock() {
+		String[] rules = {
+			"FREQ=MINUTELY;INTERVAL=7;BYHOUR=0,1,2,3",
+			"FREQ=DAILY;BYHOUR=2,3;BYMINUTE=0,30",
+			"FREQ=HOURLY;BYMINUTE=0,20,40",
+			"FREQ=WEEKLY;BYDAY=FR,SA,SU;BYHOUR=0,2,23",
+		};
+		// Spring-forward, a 30-minute change, a skipped day and a fall-back overlap
+		String[][] cases = {
+			{"America/New_York", "2025-03-07T00:00"}, {"Australia/Lord_Howe", "2025-10-03T00:00"},
+			{"Pacific/Apia", "2011-12-27T00:00"}, {"Europe/London", "2025-10-24T00:00"},
+		};
+		for (String text : rules) {
+			RecurrenceRule rule = RecurrenceRule.parse(text);
+			for (String[] c : cases) {
+				ZoneId zoneId = ZoneId.of(c[0]);
+				ZoneOffsetTable zone = ZoneOffsetTable.of(zoneId);
+				LocalDateTime startLocal = LocalDateTime.parse(c[1]);
+				long dtstart = ZonedDateTime.ofLocal(startLocal, zoneId, null).toEpochSecond();
+				long horizon = dtstart + 10 * 86400L;
+				TreeSet<Long> expected = new TreeSet<>();
+				PrimitiveIterator.OfLong wall = rule.iterator(startLocal.toEpochSecond(ZoneOffset.UTC));
+				while (wall.hasNext()) {
+					long local = wall.nextLong();
+					if (local > horizon + 2 * 86400L) {
+						break;
+					}
+					long t = ZonedDateTime.ofLocal(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC), zoneId, null).toEpochSecond();
+					if (t >= dtstart && t <= horizon) {
+						expected.add(t);
+					}
+				}
+				List<Long> actual = new ArrayList<>();
+				rule.iterator(dtstart, dtstart, horizon, zone).forEachRemaining((long t) -> actual.add(t));
+				assertEquals(text + " in " + c[0], new ArrayList<>(expected), actual);
+				// A window inside the range is the matching slice
+				long from = dtstart + 2 * 86400L;
+				long to = from + 86400L + 3600L;
+				List<Long> window = new ArrayList<>();
+				rule.iterator(dtstart, from, to, zone).forEachRemaining((long t) -> window.add(t));
+				assertEquals(text + " window in " + c[0], new ArrayList<>(expected.subSet(from, true, to, true)), window);
+			}
+		}
+	}
+
+	@Test
+	public void testRejectsInvalidRules() {
+		String[] invalid = {"", "INTERVAL=2", "FREQ=DAILY;COUNT=2;UNTIL=20250101", "FREQ=WEEKLY;BYDAY=2MO",
+			"FREQ=WEEKLY;BYMONTHDAY=1", "FREQ=YEARLY;BYWEEKNO=20", "FREQ=DAILY;BYSETPOS=1", "FREQ=DAILY;BYHOUR=24",
+			"FREQ=YEARLY;BYHOUR=0,1,2,3,4,5,6,7,8,9,10,11;BYMINUTE=0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20;BYSECOND=0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20",
+			"FREQ=FORTNIGHTLY", "FREQ=MONTHLY;BYMONTHDAY=0", "FREQ=DAILY;UNTIL=20250230",
+			// An unbounded COUNT would have to be walked up to any window start
+			"FREQ=SECONDLY;COUNT=9223372036854775807", "FREQ=DAILY;COUNT=" + (RecurrenceRule.MAX_COUNT + 1)};
+		for (String text : invalid) {
+			try {
+				RecurrenceRule.parse(text);
+				fail("accepted " + text);
+			} catch (IllegalArgumentException expected) {
+				// rejected as intended
+			}
+		}
+	}
+
+	@Test
+	public void testSkipAheadCost() {
+		RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;BYHOUR=9,17");
+		long dtstart = at(1970, 1, 1, 0, 0);
+		long from = at(9000, 1, 1, 0, 0);
+		long sink = 0L;
+		long best = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < 10_000; i++) {
+				sink += rule.iterator(dtstart, from + i * 86400L, Long.MAX_VALUE).nextLong();
+			}
+			best = Math.min(best, System.nanoTime() - t0);
+		}
+		long t0 = System.nanoTime();
+		int n = 2_000_000;
+		PrimitiveIterator.OfLong it = rule.iterator(dtstart);
+		for (int i = 0; i < n; i++) {
+			sink += it.nextLong();
+		}
+		long streamNs = System.nanoTime() - t0;
+		logger.info(String.format("rrule: %.0f ns to open a window 7000 years past DTSTART, %.1f ns per streamed occurrence",
+				best / 10_000.0, streamNs / (double) n));
+		assertTrue(sink != 0L);
+	}
+
+	private static List<Long> take(String text, long dtstart, int limit) {
+		List<Long> out = new ArrayList<>();
+		PrimitiveIterator.OfLong it = RecurrenceRule.parse(text).iterator(dtstart);
+		while (it.hasNext() && out.size() < limit) {
+			out.add(it.nextLong());
+		}
+		return out;
+	}
+
+	private static long local(ZoneId zone, int marchDay, int hour) {
+		return ZonedDateTime.of(2025, 3, marchDay, hour, 0, 0, 0, zone).toEpochSecond();
+	}
+
+	private static long at(int year, int month, int day, int hour, int minute) {
+		return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC).toEpochSecond();
+	}
+}
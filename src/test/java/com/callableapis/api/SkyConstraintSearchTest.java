@@ -0,0 +1,116 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.SkyConstraintSearch;
+import com.callableapis.api.time.SkyConstraintSearch.Constraint;
+import com.callableapis.api.time.SkyConstraintSearch.Quantity;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SkyConstraintSearchTest {
+
+	private static final long FROM = 1735689600L; // 2025-01-01T00:00:00Z
+	// Minute samples this close to an interval edge may fall either way
+	private static final long EDGE_SECONDS = 5L;
+
+	@Test
+	public void testTwilightWithBrightMoonMatchesMinuteSampling() {
+		assertMatchesSampling(51.5, -0.13, FROM, FROM + 40L * 86400L, Arrays.asList(
+				new Constraint(Quantity.SUN_ELEVATION, -6.0, 0.0),
+				new Constraint(Quantity.MOON_ILLUMINATION, 0.5, Double.POSITIVE_INFINITY)));
+	}
+
+	@Test
+	public void testWrappingAzimuthMatchesMinuteSampling() {
+		// Southern hemisphere: the sun culminates due north, so [340, 20] wraps through 0
+		assertMatchesSampling(-33.9, 151.2, FROM, FROM + 10L * 86400L, Arrays.asList(
+				new Constraint(Quantity.SUN_AZIMUTH, 340.0, 20.0),
+				new Constraint(Quantity.SUN_ELEVATION, 10.0, Double.POSITIVE_INFINITY)));
+	}
+
+	@Test
+	public void testMoonUpAndSunDownMatchesMinuteSampling() {
+		assertMatchesSampling(40.7, -74.0, FROM, FROM + 30L * 86400L, Arrays.asList(
+				new Constraint(Quantity.MOON_ELEVATION, 20.0, Double.POSITIVE_INFINITY),
+				new Constraint(Quantity.SUN_ELEVATION, Double.NEGATIVE_INFINITY, -18.0)));
+	}
+
+	@Test
+	public void testUnsatisfiableConstraintReturnsNothing() {
+		List<SkyConstraintSearch.Interval> out = new SkyConstraintSearch().search(0.0, 0.0, FROM, FROM + 30L * 86400L,
+				Arrays.asList(new Constraint(Quantity.SUN_ELEVATION, 89.99, 90.0), new Constraint(Quantity.SUN_ELEVATION, -90.0, -89.99)));
+		assertTrue(out.isEmpty());
+	}
+
+	@Test
+	public void testQuantityParsesCamelCaseAndEnumNames() {
+		assertEquals(Quantity.MOON_ILLUMINATION, Quantity.parse("moonIllumination"));
+		assertEquals(Quantity.SUN_AZIMUTH, Quantity.parse("SUN_AZIMUTH"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownQuantityRejected() {
+		Quantity.parse("planetElevation");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvertedRangeRejected() {
+		new Constraint(Quantity.SUN_ELEVATION, 10.0, -10.0);
+	}
+
+	private static void assertMatchesSampling(double lat, double lon, long from, long to, List<Constraint> constraints) {
+		List<SkyConstraintSearch.Interval> found = new SkyConstraintSearch().search(lat, lon, from, to, constraints);
+		assertFalse("expected at least one interval", found.isEmpty());
+		AstronomyService svc = new AstronomyService();
+		AstronomyService.SkyStateResult sky = new AstronomyService.SkyStateResult();
+		for (long t = from; t <= to; t += 60L) {
+			svc.computeSkyState(t, lat, lon, AstronomyService.Precision.EXACT, sky);
+			boolean expected = true;
+			for (Constraint c : constraints) {
+				expected &= holds(c, value(c.quantity, sky));
+			}
+			if (expected != inside(found, t) && !nearEdge(found, t)) {
+				fail("minute " + t + " expected " + expected);
+			}
+		}
+	}
+
+	private static boolean holds(Constraint c, double v) {
+		if (c.min <= c.max) {
+			return v >= c.min && v <= c.max;
+		}
+		return v >= c.min || v <= c.max;
+	}
+
+	private static double value(Quantity q, AstronomyService.SkyStateResult sky) {
+		switch (q) {
+			case SUN_ELEVATION: return sky.sun.elevationDeg;
+			case SUN_AZIMUTH: return sky.sun.azimuthDeg;
+			case MOON_ELEVATION: return sky.moon.elevationDeg;
+			case MOON_ILLUMINATION: return sky.moon.illumination;
+			default: throw new AssertionError(q);
+		}
+	}
+
+	private static boolean inside(List<SkyConstraintSearch.Interval> found, long t) {
+		for (SkyConstraintSearch.Interval i : found) {
+			if (t >= i.startEpochSecond && t <= i.endEpochSecond) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean nearEdge(List<SkyConstraintSearch.Interval> found, long t) {
+		for (SkyConstraintSearch.Interval i : found) {
+			if (Math.abs(t - i.startEpochSecond) <= EDGE_SECONDS || Math.abs(t - i.endEpochSecond) <= EDGE_SECONDS) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,179 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.SkyTableStore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SkyTableStoreTest {
+
+	@Test
+	public void testLookupMatchesEquationsAndSurvivesRestart() throws Exception {
+		Path dir = Files.createTempDirectory("sky-table-test");
+		double lat = 51.4779;
+		double lon = -0.0015;
+		SkyTableStore store = new SkyTableStore(dir, 2);
+		try {
+			store.register(lat, lon);
+			awaitReady(store);
+			assertSamplesMatch(store, lat, lon);
+		} finally {
+			store.close();
+		}
+
+		// A fresh store on the same directory serves the table without recomputing
+		SkyTableStore reopened = new SkyTableStore(dir, 2);
+		try {
+			assertEquals(1, reopened.list().size());
+			assertEquals(SkyTableStore.Status.READY, reopened.list().get(0).status);
+			assertSamplesMatch(reopened, lat, lon);
+		} finally {
+			reopened.close();
+			deleteAll(dir);
+		}
+	}
+
+	@Test
+	public void testUnregisteredOrOutOfWindowFallsBack() throws Exception {
+		Path dir = Files.createTempDirectory("sky-table-test");
+		SkyTableStore store = new SkyTableStore(dir, 2);
+		try {
+			SkyTableStore.SkySample s = new SkyTableStore.SkySample();
+			assertFalse(store.lookup(10.0, 10.0, System.currentTimeMillis() / 1000L, s));
+			store.register(10.0, 10.0);
+			awaitReady(store);
+			assertFalse(store.lookup(10.0, 10.0, 0L, s));
+			assertFalse(store.lookup(10.5, 10.0, System.currentTimeMillis() / 1000L, s));
+		} finally {
+			store.close();
+			deleteAll(dir);
+		}
+	}
+
+	@Test
+	public void testOlderModelTableIsRebuilt() throws Exception {
+		Path dir = Files.createTempDirectory("sky-table-test");
+		double lat = 48.8566;
+		double lon = 2.3522;
+		// A version-1 header with no records, as left behind by the previous model
+		ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0x534B5931).putInt(1).putDouble(lat).putDouble(lon).putLong(0L).putInt(0);
+		Files.write(dir.resolve("site_488566_23522.sky"), header.array());
+		SkyTableStore store = new SkyTableStore(dir, 2);
+		try {
+			assertEquals(1, store.list().size());
+			awaitReady(store);
+			SkyTableStore.SiteInfo site = store.list().get(0);
+			assertEquals(SkyTableStore.Status.READY, site.status);
+			assertEquals(lat, site.latitudeDeg, 1e-9);
+			assertSamplesMatch(store, lat, lon);
+		} finally {
+			store.close();
+			deleteAll(dir);
+		}
+	}
+
+	@Test
+	public void testSiteLimit() throws Exception {
+		Path dir = Files.createTempDirectory("sky-table-test");
+		SkyTableStore store = new SkyTableStore(dir, 2, 2);
+		try {
+			store.register(10.0, 10.0);
+			store.register(20.0, 20.0);
+			// Re-registering a known site is still allowed at the limit
+			store.register(10.0, 10.0);
+			try {
+				store.register(30.0, 30.0);
+				fail("registered a site past the limit");
+			} catch (IllegalArgumentException expected) {
+				// rejected as intended
+			}
+			awaitReady(store);
+			assertEquals(2, store.list().size());
+		} finally {
+			store.close();
+			deleteAll(dir);
+		}
+	}
+
+	@Test
+	public void testSiteLimitHoldsUnderConcurrentRegistration() throws Exception {
+		Path dir = Files.createTempDirectory("sky-table-test");
+		SkyTableStore store = new SkyTableStore(dir, 2, 5);
+		AtomicInteger accepted = new AtomicInteger();
+		Thread[] threads = new Thread[16];
+		try {
+			for (int t = 0; t < threads.length; t++) {
+				int lat = t;
+				threads[t] = new Thread(() -> {
+					for (int i = 0; i < 8; i++) {
+						try {
+							store.register(lat, i);
+							accepted.incrementAndGet();
+						} catch (IllegalArgumentException e) {
+							// over the limit
+						}
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertEquals(5, accepted.get());
+			assertEquals(5, store.list().size());
+			awaitReady(store);
+		} finally {
+			store.close();
+			deleteAll(dir);
+		}
+	}
+
+	private static void assertSamplesMatch(SkyTableStore store, double lat, double lon) {
+		AstronomyService svc = new AstronomyService();
+		SkyTableStore.SkySample s = new SkyTableStore.SkySample();
+		long now = System.currentTimeMillis() / 1000L;
+		for (long t = now - 43200; t < now + 86400; t += 997) {
+			assertTrue(store.lookup(lat, lon, t, s));
+			ZonedDateTime at = ZonedDateTime.ofInstant(Instant.ofEpochSecond(t), ZoneOffset.UTC);
+			AstronomyService.SolarInfoResult sun = svc.computeSolarInfo(at, lat, lon);
+			AstronomyService.MoonlightInfoResult moon = svc.computeMoonlightInfo(at, lat, lon);
+			assertEquals(sun.elevationDeg, s.sunElevationDeg, 0.01);
+			assertEquals(moon.elevationDeg, s.moonElevationDeg, 0.01);
+			assertEquals(moon.illumination, s.moonIllumination, 1e-4);
+			assertEquals(sun.dayLengthHours, s.dayLengthHours, 1e-3);
+			double dAz = Math.abs(sun.azimuthDeg - s.sunAzimuthDeg);
+			assertTrue("sun azimuth mismatch at " + t, Math.min(dAz, 360.0 - dAz) < 0.05);
+		}
+	}
+
+	private static void awaitReady(SkyTableStore store) throws InterruptedException {
+		for (int i = 0; i < 600; i++) {
+			if (store.list().stream().allMatch(site -> site.status == SkyTableStore.Status.READY)) {
+				return;
+			}
+			Thread.sleep(50);
+		}
+		fail("sky table was not built in time");
+	}
+
+	private static void deleteAll(Path dir) throws IOException {
+		try (var files = Files.list(dir)) {
+			for (Path p : (Iterable<Path>) files::iterator) {
+				Files.delete(p);
+			}
+		}
+		Files.delete(dir);
+	}
+}
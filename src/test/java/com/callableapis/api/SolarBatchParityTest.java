@@ -0,0 +1,114 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SolarBatchParityTest {
+
+	@Test
+	public void testBatchMatchesSingleEvaluation() {
+		AstronomyService svc = new AstronomyService();
+		Random rnd = new Random(42);
+		int n = 10_000;
+		long[] t = new long[n];
+		double[] lat = new double[n];
+		double[] lon = new double[n];
+		for (int i = 0; i < n; i++) {
+			t[i] = 946684800L + (long) (rnd.nextDouble() * 50 * 365 * 86400L);
+			lat[i] = -89.0 + rnd.nextDouble() * 178.0;
+			lon[i] = -180.0 + rnd.nextDouble() * 360.0;
+		}
+		AstronomyService.SolarBatchResult batch = svc.computeSolarInfoBatch(t, lat, lon);
+		assertEquals(n, batch.size());
+		for (int i = 0; i < n; i++) {
+			ZonedDateTime at = ZonedDateTime.ofInstant(Instant.ofEpochSecond(t[i]), ZoneOffset.UTC);
+			AstronomyService.SolarInfoResult single = svc.computeSolarInfo(at, lat[i], lon[i]);
+			assertEquals(single.elevationDeg, batch.elevationDeg[i], 1e-9);
+			assertEquals(single.intensity, batch.intensity[i], 1e-9);
+			assertEquals(single.dayLengthHours, batch.dayLengthHours[i], 1e-9);
+			assertEquals(single.isDaylight, batch.isDaylight[i]);
+			double dAz = Math.abs(single.azimuthDeg - batch.azimuthDeg[i]);
+			assertTrue("azimuth mismatch at " + i, Math.min(dAz, 360.0 - dAz) < 1e-6);
+		}
+	}
+
+	@Test
+	public void testRasterMatchesSingleEvaluation() {
+		AstronomyService svc = new AstronomyService();
+		ZonedDateTime at = ZonedDateTime.of(2025, 3, 20, 9, 30, 0, 0, ZoneOffset.UTC);
+		AstronomyService.SolarRaster raster = svc.computeSolarRaster(at.toEpochSecond(), 2.5, AstronomyService.RasterLayer.ELEVATION);
+		assertEquals(72, raster.rows);
+		assertEquals(144, raster.cols);
+		ByteBuffer data = raster.data();
+		assertEquals(72 * 144 * 4, data.remaining());
+		for (int r = 0; r < raster.rows; r += 7) {
+			for (int c = 0; c < raster.cols; c += 11) {
+				double lat = 90.0 - (r + 0.5) * 2.5;
+				double lon = -180.0 + (c + 0.5) * 2.5;
+				float cell = data.getFloat((r * raster.cols + c) * 4);
+				assertEquals(svc.computeSolarInfo(at, lat, lon).elevationDeg, cell, 1e-3);
+			}
+		}
+	}
+
+	@Test
+	public void testRasterResolutionMustTileTheGlobe() {
+		AstronomyService svc = new AstronomyService();
+		assertTrue(AstronomyService.dividesGlobe(0.1));
+		assertTrue(AstronomyService.dividesGlobe(0.25));
+		assertFalse(AstronomyService.dividesGlobe(7.0));
+		AstronomyService.SolarRaster fine = svc.computeSolarRaster(0L, 0.1, AstronomyService.RasterLayer.INTENSITY);
+		assertEquals(1800, fine.rows);
+		assertEquals(3600, fine.cols);
+		// 80 degrees would put the last row's centre at -110 latitude
+		for (double resolution : new double[] {80.0, 7.0, 0.7}) {
+			try {
+				svc.computeSolarRaster(0L, resolution, AstronomyService.RasterLayer.INTENSITY);
+				fail("accepted " + resolution);
+			} catch (IllegalArgumentException expected) {
+				// rejected as intended
+			}
+		}
+	}
+
+	@Test
+	public void testSkyStateMatchesSeparateCalls() {
+		AstronomyService svc = new AstronomyService();
+		Random rnd = new Random(11);
+		AstronomyService.SkyStateResult sky = new AstronomyService.SkyStateResult();
+		AstronomyService.SolarInfoResult sun = new AstronomyService.SolarInfoResult();
+		AstronomyService.MoonlightInfoResult moon = new AstronomyService.MoonlightInfoResult();
+		AstronomyService.MoonPhaseResult phase = new AstronomyService.MoonPhaseResult();
+		for (int i = 0; i < 10_000; i++) {
+			long t = 946684800L + (long) (rnd.nextDouble() * 50 * 365 * 86400L);
+			double lat = -89.0 + rnd.nextDouble() * 178.0;
+			double lon = -180.0 + rnd.nextDouble() * 360.0;
+			AstronomyService.Precision p = (i & 1) == 0 ? AstronomyService.Precision.EXACT : AstronomyService.Precision.FAST;
+			svc.computeSkyState(t, lat, lon, p, sky);
+			svc.solarInfo(t, lat, lon, p, sun);
+			svc.moonlightInfo(t, lat, lon, p, moon);
+			svc.moonPhase(t, phase);
+			assertEquals(sun.elevationDeg, sky.sun.elevationDeg, 0.0);
+			assertEquals(sun.azimuthDeg, sky.sun.azimuthDeg, 0.0);
+			assertEquals(sun.dayLengthHours, sky.sun.dayLengthHours, 0.0);
+			assertEquals(moon.elevationDeg, sky.moon.elevationDeg, 0.0);
+			assertEquals(moon.azimuthDeg, sky.moon.azimuthDeg, 0.0);
+			assertEquals(moon.intensity, sky.moon.intensity, 0.0);
+			assertEquals(phase.phase, sky.phase.phase, 0.0);
+			assertEquals(phase.phaseName, sky.phase.phaseName);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedLengthsRejected() {
+		new AstronomyService().computeSolarInfoBatch(new long[2], new double[2], new double[1]);
+	}
+}
@@ -0,0 +1,54 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import com.callableapis.api.time.SolarEventService;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class SolarEventServiceTest {
+
+	private static long epochSecond(int y, int mo, int d, int h, int mi) {
+		return ZonedDateTime.of(y, mo, d, h, mi, 0, 0, ZoneOffset.UTC).toEpochSecond();
+	}
+
+	@Test
+	public void testLondonSolsticeMatchesAlmanac() {
+		long day = LocalDate.of(2024, 6, 21).toEpochDay();
+		SolarEventService.SolarEvents e = new SolarEventService().computeDay(51.5074, -0.1278, day);
+		// Almanac: sunrise 03:43 UTC, sunset 20:21 UTC
+		assertEquals(epochSecond(2024, 6, 21, 3, 43), e.sunrise, 180);
+		assertEquals(epochSecond(2024, 6, 21, 20, 21), e.sunset, 180);
+		assertTrue(e.civilDawn < e.sunrise && e.sunset < e.civilDusk);
+		// The sun never gets 18 degrees below the horizon in London at midsummer
+		assertEquals(SolarEventService.NONE, e.astronomicalDawn);
+	}
+
+	@Test
+	public void testCrossingsLieOnTheElevationModel() {
+		AstronomyService svc = new AstronomyService();
+		SolarEventService events = new SolarEventService();
+		double lat = 37.77;
+		double lon = -122.42;
+		long from = LocalDate.of(2025, 1, 1).toEpochDay();
+		for (SolarEventService.SolarEvents e : events.computeRange(lat, lon, from, from + 364)) {
+			double el = svc.computeSolarInfo(ZonedDateTime.ofInstant(Instant.ofEpochSecond(e.sunrise), ZoneOffset.UTC), lat, lon).elevationDeg;
+			assertEquals(SolarEventService.SUNRISE_ALTITUDE_DEG, el, 0.005);
+			el = svc.computeSolarInfo(ZonedDateTime.ofInstant(Instant.ofEpochSecond(e.nauticalDusk), ZoneOffset.UTC), lat, lon).elevationDeg;
+			assertEquals(SolarEventService.NAUTICAL_ALTITUDE_DEG, el, 0.005);
+			assertTrue(e.sunrise < e.solarNoon && e.solarNoon < e.sunset);
+		}
+	}
+
+	@Test
+	public void testPolarDayHasNoSunrise() {
+		SolarEventService.SolarEvents e = new SolarEventService().computeDay(69.65, 18.96, LocalDate.of(2024, 6, 21).toEpochDay());
+		assertEquals(SolarEventService.NONE, e.sunrise);
+		assertEquals(SolarEventService.NONE, e.sunset);
+	}
+}
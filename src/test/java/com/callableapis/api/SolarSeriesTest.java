@@ -0,0 +1,81 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.AstronomyService;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class SolarSeriesTest {
+
+	@Test
+	public void testSeriesTracksPointEvaluation() {
+		AstronomyService svc = new AstronomyService();
+		long start = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+		long end = start + 366L * 86400L - 60L;
+		double[][] sites = { {37.7749, -122.4194}, {-33.8688, 151.2093}, {64.1466, -21.9426}, {0.0, 0.0} };
+		for (double[] site : sites) {
+			AstronomyService.SolarSeriesResult series = svc.computeSolarSeries(site[0], site[1], start, end, 60);
+			assertEquals(366 * 1440, series.size());
+			double maxErr = 0.0;
+			for (int i = 0; i < series.size(); i += 97) {
+				ZonedDateTime at = ZonedDateTime.ofInstant(Instant.ofEpochSecond(start + i * 60L), ZoneOffset.UTC);
+				AstronomyService.SolarInfoResult p = svc.computeSolarInfo(at, site[0], site[1]);
+				maxErr = Math.max(maxErr, Math.abs(p.elevationDeg - series.elevationDeg[i]));
+				assertEquals(p.intensity, series.intensity[i], 0.01);
+			}
+			// Declination is held at its noon value, so allow for its drift within one day
+			assertTrue("max elevation error " + maxErr, maxErr < 0.3);
+		}
+	}
+
+	@Test
+	public void testChunkedFillMatchesWholeSeries() {
+		AstronomyService svc = new AstronomyService();
+		long start = 1700000000L;
+		AstronomyService.SolarSeriesResult whole = svc.computeSolarSeries(48.85, 2.35, start, start + 3L * 86400L, 300);
+		int n = whole.size();
+		double[] el = new double[n];
+		double[] az = new double[n];
+		double[] in = new double[n];
+		int chunk = 100;
+		for (int off = 0; off < n; off += chunk) {
+			int c = Math.min(chunk, n - off);
+			svc.fillSolarSeries(48.85, 2.35, start + (long) off * 300, 300, el, az, in, off, c);
+		}
+		assertArrayEquals(whole.elevationDeg, el, 1e-9);
+		assertArrayEquals(whole.azimuthDeg, az, 1e-6);
+	}
+
+	@Test
+	public void testSunPathMatchesSeriesAtLocalHours() {
+		AstronomyService svc = new AstronomyService();
+		// Leap year, hourly, rows are days at UTC+2
+		AstronomyService.SunPath path = svc.computeSunPath(48.85, 2.35, 2024, 60, 120);
+		assertEquals(366, path.days);
+		assertEquals(24, path.samplesPerDay);
+		assertEquals(366 * 24 * 4, path.data().remaining());
+		long start = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(2)).toEpochSecond();
+		AstronomyService.SolarSeriesResult series = svc.computeSolarSeries(48.85, 2.35, start, start + (366L * 24 - 1) * 3600L, 3600);
+		for (int d = 0; d < path.days; d += 5) {
+			for (int h = 0; h < 24; h++) {
+				int i = d * 24 + h;
+				assertEquals(series.elevationDeg[i], path.elevationDeg(d, h), 0.005);
+				double dAz = Math.abs(series.azimuthDeg[i] - path.azimuthDeg(d, h));
+				assertTrue("azimuth at " + d + "/" + h, Math.min(dAz, 360.0 - dAz) < 0.005);
+			}
+		}
+		// Local solar noon in Paris falls in the 13:00 (UTC+2) hour in summer; the sun is due south-ish
+		int june21 = 172;
+		assertTrue(path.elevationDeg(june21, 13) > 60.0);
+		assertTrue(path.azimuthDeg(june21, 13) > 150.0 && path.azimuthDeg(june21, 13) < 210.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSunPathStepMustDivideDay() {
+		new AstronomyService().computeSunPath(0.0, 0.0, 2025, 7, 0);
+	}
+}
@@ -8,6 +8,9 @@ import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.time.ZonedDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
 
@@ -77,6 +80,143 @@ public class V2CalendarIT extends JerseyTest {
 		assertTrue(json.contains("\"daylight\""));
 	}
 
+	@Test
+	public void testSolarBatchColumnar() {
+		String payload = "{ \n" +
+				"  \"lat\": [37.7749, 51.5074], \"lon\": [-122.4194, -0.1278], \n" +
+				"  \"epochSeconds\": [1750507200, 1750507200]\n" +
+				"}";
+		Response r = target("v2/calendar/solar/batch").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"count\":2") || json.contains("\"count\" : 2"));
+		assertTrue(json.contains("\"elevationDeg\""));
+	}
+
+	@Test
+	public void testInsolationMonthlyRollUp() {
+		String payload = "{ \n" +
+				"  \"lat\": [37.7749, 51.5074], \"lon\": [-122.4194, -0.1278], \n" +
+				"  \"from\": { \"year\": 2025, \"month\": 1, \"day\": 1 },\n" +
+				"  \"to\": { \"year\": 2025, \"month\": 3, \"day\": 31 }\n" +
+				"}";
+		Response r = target("v2/calendar/solar/insolation").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"2025-03\""));
+		assertTrue(json.contains("\"monthly\""));
+		assertFalse(json.contains("\"daily\""));
+	}
+
+	@Test
+	public void testSunPathBinaryEncoding() {
+		String payload = "{ \"lat\": 48.85, \"lon\": 2.35, \"year\": 2025 }";
+		Response r = target("v2/calendar/solar/path").request(MediaType.APPLICATION_OCTET_STREAM).header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		assertEquals("24", r.getHeaderString("X-Sun-Path-Samples-Per-Day"));
+		// 8760 hourly samples, two int16 columns
+		assertEquals(365 * 24 * 4, r.readEntity(byte[].class).length);
+	}
+
+	@Test
+	public void testDayLengthWholeTableBinary() {
+		Response r = target("v2/calendar/solar/day-length").request(MediaType.APPLICATION_OCTET_STREAM).header("Authorization", bearer()).post(Entity.entity("{}", MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		assertEquals("1801", r.getHeaderString("X-Day-Length-Rows"));
+		assertEquals(1801 * 366 * 4, r.readEntity(byte[].class).length);
+	}
+
+	@Test
+	public void testSolarSeriesNdjsonStream() {
+		String payload = "{ \n" +
+				"  \"lat\": 37.7749, \"lon\": -122.4194, \"stepMinutes\": 60, \n" +
+				"  \"from\": { \"year\": 2025, \"month\": 6, \"day\": 21, \"hour\": 0, \"minute\": 0, \"second\": 0 },\n" +
+				"  \"to\":   { \"year\": 2025, \"month\": 6, \"day\": 22, \"hour\": 0, \"minute\": 0, \"second\": 0 }\n" +
+				"}";
+		Response r = target("v2/calendar/solar/series").request("application/x-ndjson").header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String body = r.readEntity(String.class);
+		String[] lines = body.trim().split("\n");
+		assertEquals(25, lines.length);
+		assertTrue(lines[0].contains("\"elevationDeg\""));
+	}
+
+	@Test
+	public void testConditionalGetOnMoonPhase() {
+		Response first = target("v2/calendar/moon-phase").request().header("Authorization", bearer()).get();
+		assertEquals(200, first.getStatus());
+		String etag = first.getHeaderString("ETag");
+		assertNotNull(etag);
+		assertNotNull(first.getHeaderString("Last-Modified"));
+		assertTrue(first.getHeaderString("Cache-Control").startsWith("private, max-age="));
+		Response second = target("v2/calendar/moon-phase").request().header("Authorization", bearer())
+				.header("If-None-Match", etag).get();
+		// A minute boundary may pass between the two requests; then a fresh 200 is correct
+		if (second.getStatus() == 200) {
+			assertNotEquals(etag, second.getHeaderString("ETag"));
+		} else {
+			assertEquals(304, second.getStatus());
+			assertEquals(etag, second.getHeaderString("ETag"));
+		}
+	}
+
+	@Test
+	public void testDateBodyMatchesItsEtag() {
+		// The body must be computed for the period named by the ETag, even across a second boundary
+		Pattern iso = Pattern.compile("\"iso\":\"([^\"]+)\"");
+		for (int i = 0; i < 20; i++) {
+			Response r = target("v2/calendar/date").request().header("Authorization", bearer()).get();
+			assertEquals(200, r.getStatus());
+			String etag = r.getHeaderString("ETag");
+			Matcher m = iso.matcher(r.readEntity(String.class));
+			assertTrue(m.find());
+			assertEquals(etag, "\"" + ZonedDateTime.parse(m.group(1)).toEpochSecond() + "\"");
+		}
+	}
+
+	@Test
+	public void testConditionalGetOnV1Date() {
+		Response first = target("v1/calendar/date").request().header("Authorization", bearer()).get();
+		assertEquals(200, first.getStatus());
+		String lastModified = first.getHeaderString("Last-Modified");
+		assertNotNull(lastModified);
+		Response second = target("v1/calendar/date").request().header("Authorization", bearer())
+				.header("If-Modified-Since", lastModified).get();
+		assertTrue(second.getStatus() == 304 || second.getStatus() == 200);
+		Response unauthorised = target("v1/calendar/date").request().header("If-None-Match", "*").get();
+		assertEquals(401, unauthorised.getStatus());
+	}
+
+	@Test
+	public void testSkyCombinesSolarMoonlightAndPhase() {
+		String payload = "{ \n" +
+				"  \"lat\": 37.7749, \"lon\": -122.4194, \n" +
+				"  \"at\": { \"year\": 2025, \"month\": 6, \"day\": 21, \"hour\": 20, \"minute\": 0, \"second\": 0 }\n" +
+				"}";
+		Response r = target("v2/calendar/sky").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"solar\""));
+		assertTrue(json.contains("\"moonlight\""));
+		assertTrue(json.contains("\"phaseName\""));
+	}
+
+	@Test
+	public void testSkySearchReturnsIntervals() {
+		String payload = "{ \n" +
+				"  \"lat\": 51.5, \"lon\": -0.13, \n" +
+				"  \"from\": { \"year\": 2025, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 },\n" +
+				"  \"to\": { \"year\": 2025, \"month\": 1, \"day\": 8, \"hour\": 0, \"minute\": 0, \"second\": 0 },\n" +
+				"  \"constraints\": [ { \"quantity\": \"sunElevation\", \"min\": -6, \"max\": 0 } ]\n" +
+				"}";
+		Response r = target("v2/calendar/sky/search").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		// Civil twilight twice a day for a week
+		assertTrue(json.contains("\"count\":14"));
+		assertTrue(json.contains("\"durationSeconds\""));
+	}
+
 	@Test
 	public void testMoonlightBasics() {
 		String payload = "{ \n" +
@@ -90,5 +230,116 @@ public class V2CalendarIT extends JerseyTest {
 		// Moonlight should never reach 1.0 in our model
 		assertFalse(json.contains("\"intensity\":1.0"));
 	}
-}
 
+	@Test
+	public void testPlanetBatchReturnsColumnsPerPlanet() {
+		String payload = "{ \"planets\": [\"venus\", \"jupiter\"], \"lat\": [51.5, -33.9], \"lon\": [-0.13, 151.2],"
+				+ " \"epochSeconds\": [1735689600, 1735689600] }";
+		Response r = target("v2/calendar/planets/batch").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"count\":2"));
+		assertTrue(json.contains("\"planet\":\"venus\""));
+		assertTrue(json.contains("\"planet\":\"jupiter\""));
+		assertTrue(json.contains("\"elevationDeg\""));
+	}
+
+	@Test
+	public void testPlanetEventsPerDay() {
+		String payload = "{ \"planet\": \"mars\", \"lat\": 51.5, \"lon\": -0.13,"
+				+ " \"from\": { \"year\": 2025, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 },"
+				+ " \"to\": { \"year\": 2025, \"month\": 1, \"day\": 3, \"hour\": 0, \"minute\": 0, \"second\": 0 } }";
+		Response r = target("v2/calendar/planets/events").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"planet\":\"mars\""));
+		assertTrue(json.contains("\"date\":\"2025-01-03\""));
+		assertTrue(json.contains("\"rise\""));
+	}
+
+	@Test
+	public void testAddAndDiffBatchesAreColumnar() {
+		// 2025-01-31T00:00Z and 2024-02-29T12:00Z plus one month
+		String payload = "{ \"baseEpochSeconds\": [1738281600, 1709208000], \"months\": [1] }";
+		Response r = target("v2/calendar/add/batch").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"count\":2"));
+		assertTrue(json.contains("1740700800")); // 2025-02-28T00:00Z
+		assertTrue(json.contains("1711713600")); // 2024-03-29T12:00Z
+
+		payload = "{ \"fromEpochSeconds\": [0, 100], \"toEpochSeconds\": [90061, 40] }";
+		r = target("v2/calendar/diff/batch").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		json = r.readEntity(String.class);
+		assertTrue(json.contains("\"totalSeconds\":[90061,-60]"));
+		assertTrue(json.contains("\"inPast\":[false,true]"));
+	}
+
+	@Test
+	public void testBusinessDaysWithUploadedCalendar() {
+		String payload = "{ \"name\": \"it-desk\", \"base\": \"us-federal\", \"holidays\": [\"2025-12-26\"] }";
+		Response r = target("v2/calendar/business-days/calendars").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(201, r.getStatus());
+		assertTrue(r.readEntity(String.class).contains("\"rules\":\"us-federal\""));
+
+		// Christmas and the uploaded 26th are skipped
+		payload = "{ \"calendar\": \"it-desk\", \"days\": 1,"
+				+ " \"base\": { \"year\": 2025, \"month\": 12, \"day\": 24, \"hour\": 9, \"minute\": 30, \"second\": 0 } }";
+		r = target("v2/calendar/business-days/add").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		assertTrue(r.readEntity(String.class).contains("\"iso\":\"2025-12-29T09:30Z\""));
+
+		payload = "{ \"calendar\": \"us-federal\","
+				+ " \"from\": { \"year\": 2025, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 },"
+				+ " \"to\": { \"year\": 2026, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 } }";
+		r = target("v2/calendar/business-days/count").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"businessDays\":250"));
+		assertTrue(json.contains("\"calendarDays\":365"));
+	}
+
+	@Test
+	public void testRecurrenceWindowAndStream() {
+		// Second Tuesday of each month, asked for a window a year after DTSTART
+		String payload = "{ \"rule\": \"FREQ=MONTHLY;BYDAY=2TU\","
+				+ " \"start\": { \"year\": 2024, \"month\": 1, \"day\": 1, \"hour\": 10, \"minute\": 0, \"second\": 0 },"
+				+ " \"from\": { \"year\": 2025, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 },"
+				+ " \"to\": { \"year\": 2025, \"month\": 3, \"day\": 31, \"hour\": 0, \"minute\": 0, \"second\": 0 } }";
+		Response r = target("v2/calendar/recurrence").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"iso\":\"2025-01-14T10:00Z\""));
+		assertTrue(json.contains("\"iso\":\"2025-03-11T10:00Z\""));
+		assertFalse(json.contains("2024-"));
+
+		payload = "{ \"rule\": \"FREQ=HOURLY\", \"limit\": 48,"
+				+ " \"start\": { \"year\": 2025, \"month\": 1, \"day\": 1, \"hour\": 0, \"minute\": 0, \"second\": 0 } }";
+		r = target("v2/calendar/recurrence").request("application/x-ndjson").header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		assertEquals(48, r.readEntity(String.class).trim().split("\n").length);
+	}
+
+	@Test
+	public void testZonedAddAndConvertBatch() {
+		// One calendar day across the New York spring-forward keeps noon on the wall clock
+		String payload = "{ \"delta\": { \"days\": 1 }, \"base\": { \"year\": 2025, \"month\": 3, \"day\": 8,"
+				+ " \"hour\": 12, \"minute\": 0, \"second\": 0, \"zone\": \"America/New_York\" } }";
+		Response r = target("v2/calendar/add").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		String json = r.readEntity(String.class);
+		assertTrue(json.contains("\"hour\":12"));
+		assertTrue(json.contains("\"offset\":\"-04:00\""));
+		assertTrue(json.contains("\"iso\":\"2025-03-09T16:00Z\""));
+
+		// 02:30 on 2025-03-09 does not exist in New York and resolves to 03:30 EDT, still GMT in London
+		payload = "{ \"localEpochSeconds\": [1741487400], \"fromZone\": \"America/New_York\", \"toZone\": \"Europe/London\" }";
+		r = target("v2/calendar/convert/batch").request().header("Authorization", bearer()).post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+		assertEquals(200, r.getStatus());
+		json = r.readEntity(String.class);
+		assertTrue(json.contains("\"epochSeconds\":[1741505400]"));
+		assertTrue(json.contains("\"localEpochSeconds\":[1741505400]"));
+		assertTrue(json.contains("\"offsetSeconds\":[0]"));
+	}
+}
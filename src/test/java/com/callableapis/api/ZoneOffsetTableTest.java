@@ -0,0 +1,156 @@
+package com.callableapis.api;
+
+import com.callableapis.api.time.DateTimeService;
+import com.callableapis.api.time.ZoneOffsetTable;
+import org.junit.Test;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class ZoneOffsetTableTest {
+
+	private static final Logger logger = Logger.getLogger(ZoneOffsetTableTest.class.getName());
+
+	// 1850 to 2300, so the table, its end and the ZoneRules fallback beyond it are all exercised
+	private static final long FROM = -3_786_825_600L;
+	private static final long SPAN = 14_200_000_000L;
+	private static final String[] ZONES = {"America/New_York", "Europe/London", "Australia/Lord_Howe", "Asia/Kathmandu",
+		"Pacific/Chatham", "Pacific/Apia", "America/Santiago", "Europe/Dublin", "+05:30"};
+
+	// Property: for every zone the table agrees with ZoneRules and with ZonedDateTime.ofLocal
+	@Test
+	public void testEveryZoneMatchesZoneRules() {
+		Random rnd = new Random(25);
+		for (String id : ZoneId.getAvailableZoneIds()) {
+			ZoneId zone = ZoneId.of(id);
+			ZoneRules rules = zone.getRules();
+			ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+			for (int i = 0; i < 400; i++) {
+				long t = FROM + (long) (rnd.nextDouble() * SPAN);
+				assertEquals(id + " at " + t, rules.getOffset(Instant.ofEpochSecond(t)).getTotalSeconds(), table.offsetSeconds(t));
+				LocalDateTime local = LocalDateTime.ofEpochSecond(t, 0, ZoneOffset.UTC);
+				assertEquals(id + " local " + local, ZonedDateTime.ofLocal(local, zone, null).toEpochSecond(), table.toEpochSecond(t));
+			}
+			// Around every transition, where gaps and overlaps are
+			ZonedDateTime probe = ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+			for (var tr = rules.nextTransition(probe.toInstant()); tr != null && tr.getInstant().getEpochSecond() < 4_102_444_800L;
+					tr = rules.nextTransition(tr.getInstant())) {
+				long at = tr.getInstant().getEpochSecond();
+				for (long local = at + tr.getOffsetBefore().getTotalSeconds() - 3600; local <= at + tr.getOffsetAfter().getTotalSeconds() + 3600; local += 900) {
+					LocalDateTime ldt = LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC);
+					assertEquals(id + " local " + ldt, ZonedDateTime.ofLocal(ldt, zone, null).toEpochSecond(), table.toEpochSecond(local));
+					assertEquals(id + " local " + ldt, ZonedDateTime.ofLocal(ldt, zone, tr.getOffsetAfter()).toEpochSecond(),
+							table.toEpochSecond(local, tr.getOffsetAfter().getTotalSeconds()));
+				}
+			}
+		}
+	}
+
+	// Property: the zoned primitive shift agrees with the ZonedDateTime chain across DST changes
+	@Test
+	public void testZonedShiftMatchesZonedDateTimeChain() {
+		DateTimeService svc = new DateTimeService();
+		Random rnd = new Random(2501);
+		for (String id : ZONES) {
+			ZoneId zone = ZoneId.of(id);
+			ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+			for (int i = 0; i < 20_000; i++) {
+				long base = FROM + (long) (rnd.nextDouble() * SPAN);
+				int[] d = {rnd.nextInt(41) - 20, rnd.nextInt(49) - 24, rnd.nextInt(801) - 400, rnd.nextInt(97) - 48,
+					rnd.nextInt(121) - 60, rnd.nextInt(7201) - 3600};
+				ZonedDateTime zoned = ZonedDateTime.ofInstant(Instant.ofEpochSecond(base), zone);
+				long expected = zoned.plusYears(d[0]).plusMonths(d[1]).plusDays(d[2]).plusHours(d[3]).plusMinutes(d[4]).plusSeconds(d[5]).toEpochSecond();
+				assertEquals(id + " base " + zoned, expected, svc.shift(base, table, d[0], d[1], d[2], d[3], d[4], d[5]));
+			}
+		}
+	}
+
+	@Test
+	public void testZonedDateTimeShiftKeepsZone() {
+		DateTimeService svc = new DateTimeService();
+		// The day before the 2025 spring-forward in New York: one calendar day is 23 hours
+		ZonedDateTime base = ZonedDateTime.of(2025, 3, 8, 12, 0, 0, 500, ZoneId.of("America/New_York"));
+		ZonedDateTime out = svc.shift(base, new DateTimeService.Delta(0, 0, 1, 0, 0, 0));
+		assertEquals(base.plusDays(1), out);
+		assertEquals(23L * 3600L, out.toEpochSecond() - base.toEpochSecond());
+	}
+
+	@Test
+	public void testBatchesMatchSingleRows() {
+		DateTimeService svc = new DateTimeService();
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		Random rnd = new Random(2502);
+		int n = 40_000;
+		long[] t = new long[n];
+		for (int i = 0; i < n; i++) {
+			t[i] = FROM + (long) (rnd.nextDouble() * SPAN);
+		}
+		DateTimeService.ConvertBatchResult local = svc.toLocalBatch(t, zone);
+		DateTimeService.ConvertBatchResult back = svc.fromLocalBatch(local.localEpochSeconds, zone);
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.months = new int[] {1};
+		d.hours = new int[] {-3};
+		long[] shifted = svc.shiftBatch(t, d, false, zone);
+		for (int i = 0; i < n; i++) {
+			ZonedDateTime z = ZonedDateTime.ofInstant(Instant.ofEpochSecond(t[i]), zone);
+			assertEquals(z.getOffset().getTotalSeconds(), local.offsetSeconds[i]);
+			assertEquals(z.toLocalDateTime().toEpochSecond(ZoneOffset.UTC), local.localEpochSeconds[i]);
+			// Overlaps resolve to the earlier offset, so the round trip only moves within one
+			assertTrue(t[i] - back.epochSeconds[i] >= 0 && t[i] - back.epochSeconds[i] <= 3600);
+			assertEquals(z.plusMonths(1).plusHours(-3).toEpochSecond(), shifted[i]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZonedBatchRangeRejected() {
+		DateTimeService.DeltaColumns d = new DateTimeService.DeltaColumns();
+		d.years = new int[] {Integer.MAX_VALUE};
+		new DateTimeService().shiftBatch(new long[1], d, false, ZoneId.of("Asia/Tokyo"));
+	}
+
+	@Test
+	public void testLookupCost() {
+		ZoneId zone = ZoneId.of("America/New_York");
+		ZoneRules rules = zone.getRules();
+		ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+		int n = 1_000_000;
+		long[] t = new long[n];
+		Random rnd = new Random(2503);
+		for (int i = 0; i < n; i++) {
+			t[i] = FROM + (long) (rnd.nextDouble() * 1.0e10);
+		}
+		long sink = 0L;
+		long bestTable = Long.MAX_VALUE;
+		long bestRules = Long.MAX_VALUE;
+		for (int rep = 0; rep < 5; rep++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				sink += table.offsetSeconds(t[i]) + table.toEpochSecond(t[i]);
+			}
+			long t1 = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				try {
+					sink += rules.getOffset(Instant.ofEpochSecond(t[i])).getTotalSeconds()
+							+ ZonedDateTime.ofLocal(LocalDateTime.ofEpochSecond(t[i], 0, ZoneOffset.UTC), zone, null).toEpochSecond();
+				} catch (DateTimeException e) {
+					sink++;
+				}
+			}
+			long t2 = System.nanoTime();
+			bestTable = Math.min(bestTable, t1 - t0);
+			bestRules = Math.min(bestRules, t2 - t1);
+		}
+		logger.info(String.format("zone offsets: %.1f ns per offset+resolve from the table (%d transitions), %.1f ns via ZoneRules",
+				bestTable / (double) n, table.transitionCount(), bestRules / (double) n));
+		assertTrue(sink != 0L);
+	}
+}
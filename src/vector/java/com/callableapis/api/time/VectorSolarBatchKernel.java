@@ -0,0 +1,106 @@
+package com.callableapis.api.time;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD form of the batch solar kernel. Calendar terms (minute of day, day of year) are integer work
+ * done per lane and staged in the not-yet-written day/night length slots of the output; declination, equation of time, hour angle, zenith,
+ * azimuth and day length then run lanewise at the platform's preferred vector width.
+ * Harmonics of the fractional year come from one sin/cos pair via multiple-angle identities.
+ * Only loaded through {@link SolarBatchKernels} when jdk.incubator.vector is present.
+ */
+final class VectorSolarBatchKernel implements SolarBatchKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	private static final double TO_RAD = Math.PI / 180.0;
+	private static final double TO_DEG = 180.0 / Math.PI;
+	private static final double YEAR_RAD_PER_DAY = 2.0 * Math.PI / 365.0;
+
+	@Override
+	public int lanes() {
+		return SPECIES.length();
+	}
+
+	@Override
+	public void evaluate(long[] epochSeconds, double[] latitudeDeg, double[] longitudeDeg,
+			AstronomyService.SolarBatchResult out, int from, int to) {
+		int lanes = SPECIES.length();
+		// Staging areas: overwritten with day and night length at the end of each iteration
+		double[] minutesScratch = out.dayLengthHours;
+		double[] gammaScratch = out.nightLengthHours;
+		long cachedEpochDay = Long.MIN_VALUE;
+		int dayOfYear = 0;
+		int i = from;
+		int upper = from + SPECIES.loopBound(to - from);
+		for (; i < upper; i += lanes) {
+			for (int k = 0; k < lanes; k++) {
+				long t = epochSeconds[i + k];
+				long epochDay = EpochCalendar.epochDay(t);
+				if (epochDay != cachedEpochDay) {
+					cachedEpochDay = epochDay;
+					dayOfYear = EpochCalendar.dayOfYear(epochDay);
+				}
+				double minutes = (t - epochDay * EpochCalendar.SECONDS_PER_DAY) / 60.0;
+				minutesScratch[i + k] = minutes;
+				gammaScratch[i + k] = YEAR_RAD_PER_DAY * (dayOfYear - 1 + (minutes - 720.0) / 1440.0);
+			}
+			DoubleVector minutes = DoubleVector.fromArray(SPECIES, minutesScratch, i);
+			DoubleVector gamma = DoubleVector.fromArray(SPECIES, gammaScratch, i);
+
+			DoubleVector s1 = gamma.lanewise(VectorOperators.SIN);
+			DoubleVector c1 = gamma.lanewise(VectorOperators.COS);
+			DoubleVector s2 = s1.mul(c1).mul(2.0);
+			DoubleVector c2 = c1.mul(c1).sub(s1.mul(s1));
+			DoubleVector s3 = s1.mul(c2).add(c1.mul(s2));
+			DoubleVector c3 = c1.mul(c2).sub(s1.mul(s2));
+			DoubleVector decl = c1.mul(-0.399912).add(0.006918)
+					.add(s1.mul(0.070257))
+					.sub(c2.mul(0.006758))
+					.add(s2.mul(0.000907))
+					.sub(c3.mul(0.002697))
+					.add(s3.mul(0.00148));
+			DoubleVector eot = c1.mul(0.001868).add(0.000075)
+					.sub(s1.mul(0.032077))
+					.sub(c2.mul(0.014615))
+					.sub(s2.mul(0.040849))
+					.mul(229.18);
+
+			DoubleVector lon = DoubleVector.fromArray(SPECIES, longitudeDeg, i);
+			DoubleVector latRad = DoubleVector.fromArray(SPECIES, latitudeDeg, i).mul(TO_RAD);
+			// Hour angle is only used through sin/cos, so the [-180, 180] normalisation is unnecessary
+			DoubleVector hraRad = minutes.add(eot).add(lon.mul(4.0)).mul(0.25).sub(180.0).mul(TO_RAD);
+
+			DoubleVector sinLat = latRad.lanewise(VectorOperators.SIN);
+			DoubleVector cosLat = latRad.lanewise(VectorOperators.COS);
+			DoubleVector sinDecl = decl.lanewise(VectorOperators.SIN);
+			DoubleVector cosDecl = decl.lanewise(VectorOperators.COS);
+			DoubleVector sinH = hraRad.lanewise(VectorOperators.SIN);
+			DoubleVector cosH = hraRad.lanewise(VectorOperators.COS);
+
+			DoubleVector cosZenith = sinLat.mul(sinDecl).add(cosLat.mul(cosDecl).mul(cosH)).max(-1.0).min(1.0);
+			DoubleVector elevationDeg = cosZenith.lanewise(VectorOperators.ACOS).mul(-TO_DEG).add(90.0);
+			// atan2 is scale invariant, so the common 1/sin(zenith) factor is dropped
+			DoubleVector azimuthDeg = sinH.neg().mul(cosDecl).mul(cosLat)
+					.lanewise(VectorOperators.ATAN2, sinDecl.sub(sinLat.mul(cosZenith)))
+					.mul(TO_DEG);
+			azimuthDeg = azimuthDeg.add(360.0, azimuthDeg.compare(VectorOperators.LT, 0.0));
+
+			DoubleVector cosH0 = sinLat.div(cosLat).mul(sinDecl.div(cosDecl)).neg().max(-1.0).min(1.0);
+			DoubleVector dayLenHours = cosH0.lanewise(VectorOperators.ACOS).mul(2.0 * TO_DEG / 15.0);
+
+			elevationDeg.intoArray(out.elevationDeg, i);
+			azimuthDeg.intoArray(out.azimuthDeg, i);
+			cosZenith.max(0.0).intoArray(out.intensity, i);
+			dayLenHours.intoArray(out.dayLengthHours, i);
+			dayLenHours.neg().add(24.0).intoArray(out.nightLengthHours, i);
+			// Mask-to-boolean[] stores are not intrinsified and would allocate, so set flags per lane
+			for (int k = 0; k < lanes; k++) {
+				out.isDaylight[i + k] = out.elevationDeg[i + k] > 0.0;
+			}
+		}
+		// Remainder that does not fill a whole vector
+		AstronomyService.solarBatchKernel(epochSeconds, latitudeDeg, longitudeDeg, out, i, to);
+	}
+}